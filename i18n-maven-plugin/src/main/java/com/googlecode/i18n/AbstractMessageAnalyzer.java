@@ -1,21 +1,32 @@
 package com.googlecode.i18n;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.apache.maven.plugin.logging.Log;
-import com.googlecode.i18n.format.FormatType;
 import com.googlecode.i18n.format.MessageFormatParser;
 import com.googlecode.i18n.format.StringFormatParser;
 
-public abstract class AbstractMessageAnalyzer {
+/**
+ * Localization checker, that loads properties files of bundles and displays found
+ * problems in Maven log.
+ */
+public abstract class AbstractMessageAnalyzer extends MessageChecker implements Closeable {
 
     protected static final MessageFormatParser MESSAGE_FORMAT_PARSER = new MessageFormatParser();
     protected static final StringFormatParser STRING_FORMAT_PARSER = new StringFormatParser();
@@ -25,48 +36,100 @@ public abstract class AbstractMessageAnalyzer {
     private final static int INDENT_SIZE = 2;
     private final static String INDENT_CHARS = "                                         ";
 
-    private final static String MISSING_KEY = "Missing key [%s]";
-    private final static String MISSING_VALUE = "Missing value [%s]";
+    protected final static String SKIPPED_FILES = "properties file(s)";
 
     private final Log log;
     private final String[] locales;
     private final String baseLocale;
 
-    private int errorCount;
-    private int warningCount;
+    private final Map<String, MessageBundle> bundles = new HashMap<String, MessageBundle>();
+    private final Map<String, Integer> skipped = new LinkedHashMap<String, Integer>();
+
+    /** Found problems, if they should be kept */
+    private final List<Finding> findings;
+
+    /** True if header of not used keys is displayed for the current file */
+    private boolean unusedKeysHeader;
+
+    /** Background I/O stage, created on the first use */
+    private ExecutorService prefetchExecutor;
 
     protected AbstractMessageAnalyzer(final Log log, final String locales, String baseLocale) {
+        this(log, locales, baseLocale, null);
+    }
+
+    protected AbstractMessageAnalyzer(final Log log, final String locales, String baseLocale,
+            final CheckOptions options) {
+
+        super(options);
+
         this.log = log;
 
         baseLocale = (baseLocale != null ? baseLocale.trim() : "");
 
-        final List<String> localesList = new ArrayList<String>();
-        if (locales != null) {
-            // split and trim locales
-            for (String locale : locales.split(",")) {
-                locale = locale.trim();
-                if (!locale.isEmpty() && !locale.equals(baseLocale)) {
-                    localesList.add(locale);
-                }
-            }
-        }
+        final List<String> localesList = splitLocales(locales, baseLocale);
 
         this.locales = localesList.toArray(new String[localesList.size()]);
         this.baseLocale = baseLocale;
+        this.findings = (getOptions().isCollectFindings() ? new ArrayList<Finding>() : null);
     }
 
     /**
-     * Increments error count
+     * Splits the given comma separated list of locales.
+     *
+     * @param locales       comma separated list of locales, can be <code>null</code>
+     * @param baseLocale    base locale to exclude from the result
+     * @return              list of trimmed, not empty locales
      */
-    protected void incrementError() {
-        errorCount++;
+    static List<String> splitLocales(final String locales, final String baseLocale) {
+        final List<String> localesList = StringHelpers.splitList(locales);
+        localesList.removeAll(Collections.singleton(baseLocale));
+        return localesList;
     }
 
     /**
-     * Increments warning count
+     * Releases resources, like class loaders, created by this analyzer.
+     * Check results are still available, but files cannot be rechecked after closing.
      */
-    protected void incrementWarning() {
-        warningCount++;
+    @Override
+    public void close() {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+            prefetchExecutor = null;
+        }
+    }
+
+    /**
+     * Remembers items skipped because the check is cancelled.
+     *
+     * @param what  description of skipped items, for example <code>"class(es)"</code>
+     * @param count count of skipped items
+     */
+    protected void skip(final String what, final int count) {
+        final Integer current = skipped.get(what);
+        skipped.put(what, (current != null ? current : 0) + count);
+    }
+
+    /**
+     * Returns counts of items skipped because the check is cancelled.
+     * @return map of skipped items descriptions to their counts
+     */
+    public Map<String, Integer> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns found problems, in order they are found. Problems are kept only if
+     * {@link CheckOptions#setCollectFindings(boolean)} is set.
+     *
+     * @return found problems, empty list if they are not kept
+     */
+    public List<Finding> getFindings() {
+        if (findings == null) {
+            return Collections.emptyList();
+        }
+
+        return Collections.unmodifiableList(findings);
     }
 
     /**
@@ -89,89 +152,53 @@ public abstract class AbstractMessageAnalyzer {
     }
 
     /**
-     * Displays a formatted string using the specified format string and
-     * arguments. Increments errors count.
-     *
-     * @param indent indentation string
-     * @param  format
-     *         A <a href="../util/Formatter.html#syntax">format string</a>
-     *
-     * @param  args
-     *         Arguments referenced by the format specifiers in the format
-     *         string.  If there are more arguments than format specifiers, the
-     *         extra arguments are ignored.  The number of arguments is
-     *         variable and may be zero.  The maximum number of arguments is
-     *         limited by the maximum dimension of a Java array as defined by
-     *         the <a href="http://java.sun.com/docs/books/vmspec/">Java
-     *         Virtual Machine Specification</a>.  The behaviour on a
-     *         <tt>null</tt> argument depends on the <a
-     *         href="../util/Formatter.html#syntax">conversion</a>.
-     *
-     * @throws java.util.IllegalFormatException
-     *          If a format string contains an illegal syntax, a format
-     *          specifier that is incompatible with the given arguments,
-     *          insufficient arguments given the format string, or other
-     *          illegal conditions.  For specification of all possible
-     *          formatting errors, see the <a
-     *          href="../util/Formatter.html#detail">Details</a> section of the
-     *          formatter class specification.
-     *
-     * @throws  NullPointerException
-     *          If the <tt>format</tt> is <tt>null</tt>
+     * Displays the found problem in the log.
      */
-    public void reportError(String indent, String format, Object... args) {
-        log.error(indent + String.format(format, args));
-        incrementError();
-    }
+    @Override
+    protected void handle(final Finding finding) {
+        if (findings != null) {
+            findings.add(finding);
+        }
 
-    /**
-     * Displays a formatted string using the specified format string and
-     * arguments. Increments warning count.
-     *
-     * @param indent indentation string
-     *
-     * @param  args
-     *         Arguments referenced by the format specifiers in the format
-     *         string.  If there are more arguments than format specifiers, the
-     *         extra arguments are ignored.  The number of arguments is
-     *         variable and may be zero.  The maximum number of arguments is
-     *         limited by the maximum dimension of a Java array as defined by
-     *         the <a href="http://java.sun.com/docs/books/vmspec/">Java
-     *         Virtual Machine Specification</a>.  The behaviour on a
-     *         <tt>null</tt> argument depends on the <a
-     *         href="../util/Formatter.html#syntax">conversion</a>.
-     *
-     * @throws java.util.IllegalFormatException
-     *          If a format string contains an illegal syntax, a format
-     *          specifier that is incompatible with the given arguments,
-     *          insufficient arguments given the format string, or other
-     *          illegal conditions.  For specification of all possible
-     *          formatting errors, see the <a
-     *          href="../util/Formatter.html#detail">Details</a> section of the
-     *          formatter class specification.
-     *
-     * @throws  NullPointerException
-     *          If the <tt>format</tt> is <tt>null</tt>
-     */
-    void reportWarning(String indent, Object... args) {
-        log.warn(indent + String.format("[%s]", args));
-        incrementWarning();
+        final String message;
+        if (finding.getType() == Finding.Type.UNUSED_KEY) {
+            if (!unusedKeysHeader) {
+                log.warn(indent(2) + "found not used keys:");
+                unusedKeysHeader = true;
+            }
+
+            message = indent(3) + "[" + finding.getKey() + "]";
+        } else {
+            message = indent(getDepth(finding.getType())) + finding.getMessage();
+        }
+
+        if (finding.getSeverity() == Finding.Severity.ERROR) {
+            log.error(message);
+        } else {
+            log.warn(message);
+        }
     }
 
     /**
-     * Returns count of found errors
-     * @return count of found errors
+     * Returns indentation length of the given kind of problems.
      */
-    public int getErrorCount() {
-        return errorCount;
+    private static int getDepth(final Finding.Type type) {
+        switch (type) {
+        case INVALID_BUNDLE:
+            return 0;
+        case NO_MESSAGES:
+        case MISSING_FILE:
+        case UNREFERENCED_MESSAGE:
+            return 1;
+        default:
+            return 2;
+        }
     }
 
-    /**
-     * Returns count of found warnings
-     * @return count of found warnings
-     */
-    public int getWarningCount() {
-        return warningCount;
+    @Override
+    protected void startFile(final String file) {
+        super.startFile(file);
+        unusedKeysHeader = false;
     }
 
     /**
@@ -236,53 +263,294 @@ public abstract class AbstractMessageAnalyzer {
     }
 
     /**
-     * Checks parameters in property files and comparing with class constants
+     * Checks all properties files of the given bundle.
+     *
+     * <p/>The bundle is kept, so its properties files can be checked again later using
+     * {@link #recheckFile(String, ClassLoader)}.
      *
      * @param depth     indentation length
-     * @param props     properties for file
-     * @param keys      messages info
+     * @param bundle    bundle to check
+     * @param loader    class loader to load properties files with
      */
-    protected void checkProperties(int depth, Properties props, Map<String, FormatType> keys) {
-        String indent = indent(depth);
-        final Set<String> sortedKeys = new TreeSet<String>(props.stringPropertyNames());
+    protected void checkBundle(final int depth, final MessageBundle bundle,
+            final ClassLoader loader) throws IOException {
+
+        bundle.reset(this);
 
-        for (Map.Entry<String, FormatType> entry : keys.entrySet()) {
-            String key = entry.getKey();
-            String value = props.getProperty(key);
-            sortedKeys.remove(key);
+        final List<String> files = getPropertiesFiles(bundle.getBaseFilePath());
 
-            checkProperty(indent, key, value);
+        // files skipped after cancellation can be rechecked as well
+        for (final String file : files) {
+            bundles.put(file, bundle);
         }
 
-        if (!sortedKeys.isEmpty()) {
-            log.warn(indent + "found not used keys:" );
+        final int prefetch = getOptions().getPrefetch();
+        final LinkedList<Future<PropertiesCache.Entry>> loading =
+                new LinkedList<Future<PropertiesCache.Entry>>();
+        try {
+            int next = 0;
+            for (int i = 0; i < files.size(); i++) {
+                if (isCancelled()) {
+                    skip(SKIPPED_FILES, files.size() - i);
+                    return;
+                }
+
+                final String file = files.get(i);
+                if (prefetch == 0) {
+                    checkBundleFile(depth, bundle, file, PropertiesCache.load(loader, file),
+                            loader);
+                    continue;
+                }
+
+                // keep the next files loading in background while this one is checked
+                while (next < files.size() && next <= i + prefetch) {
+                    loading.add(prefetch(loader, files.get(next++)));
+                }
 
-            indent = indent(depth + 1);
-            for (final String key : sortedKeys) {
-                reportWarning(indent, key);
+                checkBundleFile(depth, bundle, file, await(loading.removeFirst()), loader);
+            }
+        } finally {
+            for (final Future<PropertiesCache.Entry> future : loading) {
+                future.cancel(false);
             }
         }
     }
 
     /**
-     * Returns true if and only if for property present key and value.
+     * Checks the given properties file of the bundle.
      *
-     * @param indent    indentation string
-     * @param key       checked key
-     * @param value     checked value
-     * @return          <code>true</code> if and only if property has both key and value
+     * @param depth     indentation length
+     * @param bundle    bundle to check
+     * @param file      properties file path
+     * @param entry     loaded properties file, <code>null</code> if not found
+     * @param loader    class loader to load inherited properties files with
      */
-    public boolean checkProperty(String indent, String key, String value) {
-        if (value == null) {
-            reportError(indent, MISSING_KEY, key);
-            return false;
+    private void checkBundleFile(final int depth, final MessageBundle bundle, final String file,
+            final PropertiesCache.Entry entry, final ClassLoader loader) throws IOException {
+
+        final String propsName = file.substring(file.lastIndexOf('/') + 1);
+        startFile(file);
+        if (entry == null) {
+            reportError(Finding.Type.MISSING_FILE, null, "Missing %s", propsName);
+            return;
+        }
+
+        log.info(indent(depth) + "Checking " + propsName);
+
+        final Properties inherited = (getOptions().isInheritLocales()
+                ? getInheritedProperties(bundle.getBaseFilePath(), file, loader) : null);
+        if (inherited == null) {
+            bundle.check(this, file, entry.getProperties(), entry.getSignatures());
+            return;
+        }
+
+        // parsed formats of the file don't include inherited messages
+        inherited.putAll(entry.getProperties());
+        bundle.check(this, file, inherited, null);
+    }
+
+    /**
+     * Returns messages, that the given regional properties file inherits from its
+     * language files, like <code>Messages_en</code> for <code>Messages_en_US</code>.
+     * Messages of the root properties file are never inherited.
+     *
+     * @param baseFilePath  base properties files path
+     * @param file          properties file path
+     * @param loader        class loader to load properties files with
+     * @return              inherited messages, or <code>null</code> if none
+     */
+    private Properties getInheritedProperties(final String baseFilePath, final String file,
+            final ClassLoader loader) throws IOException {
+
+        final String locale = getLocaleFiles(baseFilePath).get(file);
+        if (locale == null) {
+            return null;
         }
 
-        if (value.trim().isEmpty()) {
-            reportError(indent, MISSING_VALUE, key);
+        final boolean isDir = baseFilePath.endsWith("/");
+        Properties inherited = null;
+        for (String parent = getParentLocale(locale); parent != null;
+                parent = getParentLocale(parent)) {
+
+            final PropertiesCache.Entry entry = PropertiesCache.load(loader,
+                    baseFilePath + (isDir ? "" : "_") + parent + PROP_EXT);
+            if (entry != null) {
+                // messages of closer locales take precedence
+                final Properties props = entry.getProperties();
+                if (inherited != null) {
+                    props.putAll(inherited);
+                }
+
+                inherited = props;
+            }
+        }
+
+        return inherited;
+    }
+
+    /**
+     * Returns parent of the given locale, like <code>en</code> for <code>en_US</code>.
+     *
+     * @param locale    locale, like <code>en_US</code>
+     * @return          parent locale, or <code>null</code> for language only locale
+     */
+    static String getParentLocale(final String locale) {
+        final int i = locale.lastIndexOf('_');
+        return (i > 0 ? locale.substring(0, i) : null);
+    }
+
+    /**
+     * Starts loading the given properties file in background.
+     *
+     * @param loader    class loader to load properties file with
+     * @param file      properties file path
+     * @return          loading result
+     */
+    private Future<PropertiesCache.Entry> prefetch(final ClassLoader loader,
+            final String file) {
+
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Platform.newIoExecutor(1, "i18n-prefetch");
+        }
+
+        return prefetchExecutor.submit(new Callable<PropertiesCache.Entry>() {
+
+            @Override
+            public PropertiesCache.Entry call() throws IOException {
+                return PropertiesCache.load(loader, file);
+            }
+        });
+    }
+
+    private static PropertiesCache.Entry await(final Future<PropertiesCache.Entry> future)
+            throws IOException {
+
+        try {
+            return future.get();
+
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading properties file", x);
+
+        } catch (ExecutionException x) {
+            final Throwable cause = x.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Returns base messages of all checked bundles, that can be used to check localized
+     * properties files later without classes and base properties files.
+     *
+     * @return  snapshot of checked bundles, sorted by base properties files paths
+     * @see SnapshotValidator
+     */
+    public BundleSnapshot getSnapshot() {
+        final List<BundleSnapshot.Bundle> result = new ArrayList<BundleSnapshot.Bundle>();
+        for (final MessageBundle bundle : getBundles().values()) {
+            final BundleSnapshot.Bundle snapshot = bundle.snapshot();
+            if (snapshot != null) {
+                result.add(snapshot);
+            }
+        }
+
+        return new BundleSnapshot(result);
+    }
+
+    /**
+     * Returns checked bundles.
+     * @return checked bundles by their base properties files paths, sorted
+     */
+    Map<String, MessageBundle> getBundles() {
+        final Map<String, MessageBundle> result = new TreeMap<String, MessageBundle>();
+        for (final MessageBundle bundle : bundles.values()) {
+            result.put(bundle.getBaseFilePath(), bundle);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns properties files of the given bundle with their locales: root properties
+     * file with empty locale, unless the bundle is directory, base properties file and
+     * properties files of the checked locales. Files may not exist.
+     *
+     * @param baseFilePath  base properties files path
+     * @return              locales by properties files' paths, sorted by paths
+     */
+    Map<String, String> getLocaleFiles(final String baseFilePath) {
+        final boolean isDir = baseFilePath.endsWith("/");
+        final Map<String, String> files = new TreeMap<String, String>();
+        if (!isDir) {
+            files.put(baseFilePath + PROP_EXT, "");
+        }
+
+        final int prefix = baseFilePath.length() + (isDir ? 0 : 1);
+        for (final String file : getPropertiesFiles(baseFilePath)) {
+            if (file.length() > prefix + PROP_EXT.length()) {
+                files.put(file, file.substring(prefix, file.length() - PROP_EXT.length()));
+            }
+        }
+
+        return files;
+    }
+
+    /**
+     * Resets skipped items and collected findings as well, so they refer to the next check
+     * only.
+     */
+    @Override
+    protected void resetCounts() {
+        super.resetCounts();
+        skipped.clear();
+        if (findings != null) {
+            findings.clear();
+        }
+    }
+
+    /**
+     * Checks again properties file of one of the previously checked bundles.
+     *
+     * <p/>If the given file is localized properties file, only this file is checked against
+     * already parsed base messages. Otherwise the whole bundle is checked.
+     *
+     * <p/>Counts of findings, skipped items and collected findings are reset, so they
+     * refer to this check only.
+     *
+     * @param file      properties file path
+     * @param loader    class loader to load properties files with
+     * @return          <code>true</code> if the file belongs to one of the checked bundles,
+     *                  <code>false</code> otherwise
+     */
+    protected boolean recheckFile(final String file, final ClassLoader loader)
+            throws IOException {
+
+        final MessageBundle bundle = bundles.get(file);
+        if (bundle == null) {
             return false;
         }
 
+        resetCounts();
+
+        final int depth = 1;
+        log.info("Checking " + bundle.getName());
+
+        if (bundle.getBaseFile() == null || bundle.getBaseFile().equals(file)) {
+            checkBundle(depth, bundle, loader);
+        } else {
+            checkBundleFile(depth, bundle, file, PropertiesCache.load(loader, file), loader);
+        }
+
         return true;
     }
 }
@@ -0,0 +1,380 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.apache.maven.plugin.logging.Log;
+import com.googlecode.i18n.util.ArrayResourceBundle;
+import com.googlecode.i18n.util.MessageControl;
+import com.googlecode.i18n.util.PerfectHash;
+
+/**
+ * Generates Java bundle classes from properties files of the checked bundles, that are
+ * loaded by {@link MessageControl} instead of parsing properties files at runtime.
+ *
+ * <p/>One class is generated for each properties file, named as the bundle with
+ * {@link MessageControl#GENERATED_SUFFIX} suffix. Messages are kept in arrays sorted by
+ * keys, or ordered by {@link PerfectHash} computed here, see {@link ArrayResourceBundle}.
+ * Messages of large bundles are initialized by nested classes, so constant pool of each
+ * class is far below its limit.
+ *
+ * <p/>Properties files, whose paths are not valid class names, are skipped and loaded
+ * as properties files at runtime.
+ */
+public final class BundleClassGenerator {
+
+    private final static String PROP_EXT = ".properties";
+    private final static String JAVA_EXT = ".java";
+
+    /** Count of messages initialized by one method, to keep it far below 64K bytecode */
+    private final static int MESSAGES_PER_METHOD = 512;
+
+    /** Count of messages initialized by one class, to keep it far below 64K constants */
+    private final static int MESSAGES_PER_CLASS = 8 * MESSAGES_PER_METHOD;
+
+    /** Maximum length of one string constant, that is encoded in at most 64K bytes */
+    private final static int MAX_CONSTANT_LENGTH = 16384;
+
+    private final Log log;
+    private final File resourcesDir;
+    private final File sourcesDir;
+    private final boolean perfectHash;
+
+    /**
+     * Creates generator of bundle classes.
+     *
+     * @param log           use maven or console
+     * @param resourcesDir  directory with properties files, usually classes output directory
+     * @param sourcesDir    directory to write generated sources to
+     * @param perfectHash   <code>true</code> to order messages by perfect hash function,
+     *                      <code>false</code> to sort them by keys
+     */
+    public BundleClassGenerator(final Log log, final File resourcesDir, final File sourcesDir,
+            final boolean perfectHash) {
+
+        this.log = log;
+        this.resourcesDir = resourcesDir;
+        this.sourcesDir = sourcesDir;
+        this.perfectHash = perfectHash;
+    }
+
+    /**
+     * Generates sources of bundle classes for all properties files of bundles checked by
+     * the given analyzer. Bundles of whole directories are skipped, since they cannot be
+     * loaded as resource bundles.
+     *
+     * @param analyzer  analyzer, that checked bundles
+     * @return          generated source files
+     */
+    public List<File> generate(final AbstractMessageAnalyzer analyzer) throws IOException {
+        final List<File> sources = new ArrayList<File>();
+        for (final MessageBundle bundle : analyzer.getBundles().values()) {
+            final String baseFilePath = bundle.getBaseFilePath();
+            if (baseFilePath.endsWith("/")) {
+                continue;
+            }
+
+            for (final String file : analyzer.getLocaleFiles(baseFilePath).keySet()) {
+                final File path = new File(resourcesDir, file);
+                if (!path.isFile() || sources.contains(getSourceFile(file))) {
+                    continue;
+                }
+
+                if (!isClassName(file)) {
+                    log.warn("Skipped " + file + ", its path is not a valid class name");
+                    continue;
+                }
+
+                sources.add(generate(file, AbstractMessageAnalyzer.loadProperties(
+                        new FileInputStream(path))));
+            }
+        }
+
+        return sources;
+    }
+
+    /**
+     * Checks whether the given properties file path can be used as class name.
+     */
+    static boolean isClassName(final String file) {
+        final String path = file.substring(0, file.length() - PROP_EXT.length())
+                + MessageControl.GENERATED_SUFFIX;
+
+        for (final String name : path.split("/", -1)) {
+            if (!StringHelpers.isJavaIdentifier(name)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private File getSourceFile(final String file) {
+        final String className = file.substring(0, file.length() - PROP_EXT.length())
+                + MessageControl.GENERATED_SUFFIX;
+
+        return new File(sourcesDir, className + JAVA_EXT);
+    }
+
+    /**
+     * Generates source of bundle class for the given properties file.
+     *
+     * @param file  properties file path
+     * @param props properties of the file
+     * @return      generated source file
+     */
+    File generate(final String file, final Properties props) throws IOException {
+        final String path = file.substring(0, file.length() - PROP_EXT.length())
+                + MessageControl.GENERATED_SUFFIX;
+        final int slash = path.lastIndexOf('/');
+        final String packageName = path.substring(0, Math.max(slash, 0)).replace('/', '.');
+        final String simpleName = path.substring(slash + 1);
+
+        String[] keys = props.stringPropertyNames().toArray(new String[0]);
+        Arrays.sort(keys);
+
+        int[] displacements = null;
+        if (perfectHash) {
+            try {
+                final PerfectHash hash = PerfectHash.build(keys);
+                final String[] ordered = new String[keys.length];
+                for (final String key : keys) {
+                    ordered[hash.indexOf(key)] = key;
+                }
+
+                keys = ordered;
+                displacements = hash.getDisplacements();
+            } catch (IllegalArgumentException x) {
+                // keys with the same hash code cannot be told apart by the function
+                log.warn("Messages of " + file + " are sorted by keys: " + x.getMessage());
+            }
+        }
+
+        final File source = getSourceFile(file);
+        final File parent = source.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        final Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(source), "UTF-8"));
+        try {
+            out.write("// Generated by i18n-maven-plugin from " + file + ", do not edit\n");
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n");
+            }
+
+            out.write("\npublic final class " + simpleName + " extends "
+                    + ArrayResourceBundle.class.getName() + " {\n\n");
+            out.write("    private static final String[] KEYS = new String[" + keys.length
+                    + "];\n");
+            out.write("    private static final String[] VALUES = new String[" + keys.length
+                    + "];\n");
+            if (displacements != null) {
+                out.write("    private static final int[] DISPLACEMENTS = new int["
+                        + keys.length + "];\n");
+            }
+            out.write("\n");
+
+            final int classes = (keys.length + MESSAGES_PER_CLASS - 1) / MESSAGES_PER_CLASS;
+            out.write("    static {\n");
+            if (classes <= 1) {
+                writeInitCalls(out, "        ", 0, keys.length);
+            } else {
+                for (int c = 0; c < classes; c++) {
+                    out.write("        Init" + c + ".init();\n");
+                }
+            }
+            out.write("    }\n\n");
+
+            out.write("    public " + simpleName + "() {\n");
+            out.write(displacements != null ? "        super(KEYS, VALUES, DISPLACEMENTS);\n"
+                    : "        super(KEYS, VALUES);\n");
+            out.write("    }\n");
+
+            if (classes <= 1) {
+                writeInitMethods(out, "    ", keys, props, displacements, 0, keys.length);
+            }
+
+            for (int c = 0; classes > 1 && c < classes; c++) {
+                final int start = c * MESSAGES_PER_CLASS;
+                final int end = Math.min(keys.length, start + MESSAGES_PER_CLASS);
+
+                out.write("\n    private static final class Init" + c + " {\n\n");
+                out.write("        static void init() {\n");
+                writeInitCalls(out, "            ", start, end);
+                out.write("        }\n");
+                writeInitMethods(out, "        ", keys, props, displacements, start, end);
+                out.write("    }\n");
+            }
+
+            out.write("}\n");
+        } finally {
+            out.close();
+        }
+
+        return source;
+    }
+
+    private static void writeInitCalls(final Writer out, final String indent,
+            final int start, final int end) throws IOException {
+
+        for (int m = start / MESSAGES_PER_METHOD; m * MESSAGES_PER_METHOD < end; m++) {
+            out.write(indent + "init" + m + "();\n");
+        }
+    }
+
+    /**
+     * Writes methods, that initialize the given range of messages.
+     */
+    private static void writeInitMethods(final Writer out, final String indent,
+            final String[] keys, final Properties props, final int[] displacements,
+            final int start, final int end) throws IOException {
+
+        for (int m = start / MESSAGES_PER_METHOD; m * MESSAGES_PER_METHOD < end; m++) {
+            out.write("\n" + indent + "private static void init" + m + "() {\n");
+
+            final int last = Math.min(end, (m + 1) * MESSAGES_PER_METHOD);
+            for (int i = m * MESSAGES_PER_METHOD; i < last; i++) {
+                out.write(indent + "    KEYS[" + i + "] = ");
+                writeString(out, keys[i]);
+                out.write(";\n" + indent + "    VALUES[" + i + "] = ");
+                writeString(out, props.getProperty(keys[i]));
+                out.write(";\n");
+                if (displacements != null && displacements[i] != 0) {
+                    out.write(indent + "    DISPLACEMENTS[" + i + "] = " + displacements[i]
+                            + ";\n");
+                }
+            }
+
+            out.write(indent + "}\n");
+        }
+    }
+
+    /**
+     * Writes the given string as Java expression. Too long strings are split into parts
+     * concatenated at runtime.
+     */
+    private static void writeString(final Writer out, final String s) throws IOException {
+        if (s.length() <= MAX_CONSTANT_LENGTH) {
+            writeLiteral(out, s, 0, s.length());
+            return;
+        }
+
+        out.write("concat(");
+        for (int i = 0; i < s.length(); i += MAX_CONSTANT_LENGTH) {
+            out.write(i > 0 ? ", " : "");
+
+            // surrogate pairs are not split, so parts are valid strings
+            int end = Math.min(s.length(), i + MAX_CONSTANT_LENGTH);
+            if (end < s.length() && Character.isHighSurrogate(s.charAt(end - 1))) {
+                end--;
+            }
+
+            writeLiteral(out, s, i, end);
+            i = end - MAX_CONSTANT_LENGTH;
+        }
+
+        out.write(")");
+    }
+
+    private static void writeLiteral(final Writer out, final String s, final int start,
+            final int end) throws IOException {
+
+        out.write('"');
+        for (int i = start; i < end; i++) {
+            final char ch = s.charAt(i);
+            switch (ch) {
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                if (ch < ' ') {
+                    // unicode escapes of line terminators break literals
+                    out.write(String.format("\\%03o", (int) ch));
+                } else if (ch > '~') {
+                    out.write(String.format("\\u%04x", (int) ch));
+                } else {
+                    out.write(ch);
+                }
+            }
+        }
+
+        out.write('"');
+    }
+
+    /**
+     * Compiles the given generated sources.
+     *
+     * @param sources       generated source files
+     * @param outputDir     directory to write classes to
+     * @param classPath     class path with {@link ArrayResourceBundle} class
+     * @param target        Java version of the classes, <code>null</code> for the current one.
+     *                      Classes are compiled against API of this version on Java 9+
+     *
+     * @throws IllegalStateException if Java compiler is not available or compilation fails
+     */
+    public static void compile(final List<File> sources, final File outputDir,
+            final List<File> classPath, final String target) {
+
+        if (sources.isEmpty()) {
+            return;
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler is not available, JDK is required");
+        }
+
+        final StringBuilder cp = new StringBuilder();
+        for (final File path : classPath) {
+            cp.append(cp.length() > 0 ? File.pathSeparator : "").append(path.getPath());
+        }
+
+        final List<String> args = new ArrayList<String>(Arrays.asList(
+                "-nowarn", "-encoding", "UTF-8",
+                "-d", outputDir.getPath(),
+                "-cp", cp.toString()));
+
+        if (target != null && !target.isEmpty()) {
+            if (System.getProperty("java.specification.version").startsWith("1.")) {
+                args.addAll(Arrays.asList("-source", target, "-target", target));
+            } else {
+                // links against API of the target version, not of the running JDK
+                args.addAll(Arrays.asList("--release",
+                        (target.startsWith("1.") ? target.substring(2) : target)));
+            }
+        }
+
+        for (final File source : sources) {
+            args.add(source.getPath());
+        }
+
+        final int result = compiler.run(null, null, null, args.toArray(new String[args.size()]));
+        if (result != 0) {
+            throw new IllegalStateException("Cannot compile generated bundle classes");
+        }
+    }
+}
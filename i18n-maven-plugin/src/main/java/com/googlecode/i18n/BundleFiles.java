@@ -0,0 +1,116 @@
+package com.googlecode.i18n;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import com.googlecode.i18n.format.FormatType;
+
+/**
+ * Already loaded properties files of one bundle, that are checked by
+ * {@link BundleValidator}.
+ */
+public final class BundleFiles {
+
+    private final String name;
+    private final Properties base;
+    private final Map<String, Properties> localized = new LinkedHashMap<String, Properties>();
+
+    private Map<String, FormatType> messages;
+    private FormatType formatType;
+    private boolean unusedKeysIgnored;
+
+    /**
+     * Creates bundle with the given base properties file.
+     *
+     * @param name  base properties files path without extension, for example
+     *              <code>com/example/Messages</code>
+     * @param base  properties of the base properties file
+     */
+    public BundleFiles(final String name, final Properties base) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name cannot be blank");
+        }
+        if (base == null) {
+            throw new IllegalArgumentException("base cannot be null");
+        }
+
+        this.name = name;
+        this.base = base;
+    }
+
+    /**
+     * Adds localized properties file of the bundle.
+     *
+     * @param locale    locale of the properties file
+     * @param props     properties of the file, <code>null</code> if the file is missing
+     * @return          this bundle
+     */
+    public BundleFiles addLocale(final String locale, final Properties props) {
+        if (locale == null || locale.isEmpty()) {
+            throw new IllegalArgumentException("locale cannot be blank");
+        }
+
+        localized.put(locale, props);
+        return this;
+    }
+
+    /**
+     * Sets messages of the bundle, like messages of the localized enum. If not set,
+     * keys of the base properties file are used as messages.
+     *
+     * @param messages  messages keys with their format types
+     * @return          this bundle
+     */
+    public BundleFiles setMessages(final Map<String, FormatType> messages) {
+        this.messages = messages;
+        return this;
+    }
+
+    /**
+     * Sets format type of all keys of the base properties file, used if messages are
+     * not set.
+     *
+     * @param formatType    format type, <code>null</code> if messages are not formatted
+     * @return              this bundle
+     */
+    public BundleFiles setFormatType(final FormatType formatType) {
+        this.formatType = formatType;
+        return this;
+    }
+
+    /**
+     * Sets whether keys not found in messages should not be reported.
+     *
+     * @param unusedKeysIgnored true if not used keys should not be reported
+     * @return                  this bundle
+     */
+    public BundleFiles setUnusedKeysIgnored(final boolean unusedKeysIgnored) {
+        this.unusedKeysIgnored = unusedKeysIgnored;
+        return this;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Properties getBase() {
+        return base;
+    }
+
+    Map<String, Properties> getLocalized() {
+        return Collections.unmodifiableMap(localized);
+    }
+
+    Map<String, FormatType> getMessages() {
+        return messages;
+    }
+
+    FormatType getFormatType() {
+        return formatType;
+    }
+
+    boolean isUnusedKeysIgnored() {
+        return unusedKeysIgnored;
+    }
+}
@@ -0,0 +1,282 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Removes not used keys and not configured locales from properties files of the checked
+ * bundles, to make packaged resources smaller.
+ *
+ * <p/>Modifies files in place, so it should be used only for build output directory,
+ * never for sources. Rewritten properties files are stored in UTF-8, sorted by keys and
+ * without comments.
+ */
+public final class BundlePruner {
+
+    private final static String PROP_EXT = ".properties";
+
+    private final Log log;
+    private final File dir;
+    private final List<String> locales;
+    private final String baseLocale;
+    private final List<Pattern> keepKeys = new ArrayList<Pattern>();
+    private final List<String> keepLocales;
+
+    private int removedFiles;
+    private int prunedFiles;
+    private int removedKeys;
+    private long savedBytes;
+
+    /**
+     * Creates pruner of properties files in the given directory.
+     *
+     * @param log           use maven or console
+     * @param dir           directory with properties files, usually classes output directory
+     * @param locales       comma separated list of supported locales, files of other
+     *                      locales are removed. If empty, no files are removed
+     * @param baseLocale    locale of base properties files, can be <code>null</code>
+     * @param keepKeys      comma separated list of keys that are never removed, can contain
+     *                      <code>*</code> wildcard, can be <code>null</code>
+     * @param keepLocales   comma separated list of locales that are never removed, can be
+     *                      <code>null</code>
+     */
+    public BundlePruner(final Log log, final File dir, final String locales,
+            final String baseLocale, final String keepKeys, final String keepLocales) {
+
+        this.log = log;
+        this.dir = dir;
+        this.baseLocale = (baseLocale != null ? baseLocale.trim() : "");
+        this.locales = AbstractMessageAnalyzer.splitLocales(locales, this.baseLocale);
+        this.keepLocales = StringHelpers.splitList(keepLocales);
+
+        for (final String key : StringHelpers.splitList(keepKeys)) {
+            this.keepKeys.add(compile(key));
+        }
+    }
+
+    /**
+     * Prunes properties files of bundles checked by the given analyzer.
+     *
+     * @param analyzer  analyzer, that checked base properties files of bundles
+     */
+    public void prune(final AbstractMessageAnalyzer analyzer) {
+        final Map<String, MessageBundle> bundles = analyzer.getBundles();
+        for (final MessageBundle bundle : bundles.values()) {
+            try {
+                pruneBundle(bundles, bundle);
+            } catch (IOException x) {
+                throw new RuntimeException(x);
+            }
+        }
+    }
+
+    public int getRemovedFiles() {
+        return removedFiles;
+    }
+
+    public int getPrunedFiles() {
+        return prunedFiles;
+    }
+
+    public int getRemovedKeys() {
+        return removedKeys;
+    }
+
+    /**
+     * Returns size of removed files and keys.
+     * @return count of bytes removed from properties files
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    private void pruneBundle(final Map<String, MessageBundle> bundles,
+            final MessageBundle bundle) throws IOException {
+
+        final String baseFilePath = bundle.getBaseFilePath();
+        final int slash = baseFilePath.lastIndexOf('/');
+        final String dirPath = baseFilePath.substring(0, slash + 1);
+        final boolean isDir = baseFilePath.endsWith("/");
+
+        final String[] names = new File(dir, dirPath).list();
+        if (names == null) {
+            return;
+        }
+
+        // the same order on all platforms
+        final Map<String, String> files = new TreeMap<String, String>();
+        for (final String name : names) {
+            final String file = dirPath + name;
+            if (SnapshotValidator.findBundle(bundles, file) == bundle) {
+                final String path = file.substring(0, file.length() - PROP_EXT.length());
+                final String locale = (isDir ? path.substring(baseFilePath.length())
+                        : (path.equals(baseFilePath) ? ""
+                                : path.substring(baseFilePath.length() + 1)));
+
+                files.put(file, locale);
+            }
+        }
+
+        log.info("Pruning " + bundle.getName());
+        for (final Map.Entry<String, String> entry : files.entrySet()) {
+            final String file = entry.getKey();
+            final File path = new File(dir, file);
+            if (!isLocaleKept(entry.getValue())) {
+                final long size = path.length();
+                if (!path.delete()) {
+                    throw new IOException("Cannot delete " + path);
+                }
+
+                log.info("  Removed " + file.substring(slash + 1));
+                removedFiles++;
+                savedBytes += size;
+                continue;
+            }
+
+            if (!bundle.isUnusedKeysIgnored()) {
+                pruneFile(path, bundle.getMessageKeys());
+            }
+        }
+    }
+
+    private boolean isLocaleKept(final String locale) {
+        if (locale.isEmpty() || locale.equals(baseLocale) || locales.isEmpty()) {
+            return true;
+        }
+
+        return locales.contains(locale) || keepLocales.contains(locale);
+    }
+
+    private boolean isKeyKept(final String key, final Set<String> messages) {
+        if (messages.contains(key)) {
+            return true;
+        }
+
+        for (final Pattern pattern : keepKeys) {
+            if (pattern.matcher(key).matches()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Rewrites the given properties file without not used keys, if it contains any.
+     */
+    private void pruneFile(final File file, final Set<String> messages) throws IOException {
+        final Properties props = AbstractMessageAnalyzer.loadProperties(
+                new FileInputStream(file));
+
+        final Map<String, String> kept = new TreeMap<String, String>();
+        int removed = 0;
+        for (final String key : props.stringPropertyNames()) {
+            if (isKeyKept(key, messages)) {
+                kept.put(key, props.getProperty(key));
+            } else {
+                log.info("  Removed [" + key + "] from " + file.getName());
+                removed++;
+            }
+        }
+
+        if (removed == 0) {
+            return;
+        }
+
+        final long size = file.length();
+        writeProperties(file, kept);
+
+        prunedFiles++;
+        removedKeys += removed;
+        savedBytes += size - file.length();
+    }
+
+    /**
+     * Rewrites the given properties file in UTF-8, without comments.
+     *
+     * @param file  properties file to write
+     * @param props properties to write, in the order they should be written
+     */
+    static void writeProperties(final File file, final Map<String, String> props)
+            throws IOException {
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            for (final Map.Entry<String, String> entry : props.entrySet()) {
+                writeEscaped(writer, entry.getKey(), true);
+                writer.write('=');
+                writeEscaped(writer, entry.getValue(), false);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes the given key or value escaped as in properties file.
+     */
+    private static void writeEscaped(final Writer writer, final String s, final boolean key)
+            throws IOException {
+
+        for (int i = 0; i < s.length(); i++) {
+            final char ch = s.charAt(i);
+            switch (ch) {
+            case '\\':
+                writer.write("\\\\");
+                break;
+            case '\n':
+                writer.write("\\n");
+                break;
+            case '\r':
+                writer.write("\\r");
+                break;
+            case '\t':
+                writer.write("\\t");
+                break;
+            case '\f':
+                writer.write("\\f");
+                break;
+            case '=':
+            case ':':
+            case '#':
+            case '!':
+                if (key) {
+                    writer.write('\\');
+                }
+                writer.write(ch);
+                break;
+            case ' ':
+                // leading spaces of values are skipped by parser
+                if (key || i == 0) {
+                    writer.write('\\');
+                }
+                writer.write(ch);
+                break;
+            default:
+                writer.write(ch);
+            }
+        }
+    }
+
+    /**
+     * Compiles key pattern with <code>*</code> wildcards to regular expression.
+     */
+    private static Pattern compile(final String pattern) {
+        return Pattern.compile(StringHelpers.wildcardToRegex(pattern, (char) 0));
+    }
+}
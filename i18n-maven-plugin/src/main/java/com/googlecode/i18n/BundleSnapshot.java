@@ -0,0 +1,233 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import com.googlecode.i18n.format.FormatSignature;
+
+/**
+ * Base messages of checked bundles, that are needed to check localized properties files
+ * later without classes and base properties files.
+ *
+ * <p/>Keeps keys and parsed formats of the base messages, as they are after the base
+ * properties file is checked. Immutable.
+ *
+ * @see SnapshotValidator
+ */
+public final class BundleSnapshot {
+
+    /** Binary format marker, followed by version */
+    private final static int MAGIC = 0x6931386e;
+    private final static int VERSION = 1;
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private final List<Bundle> bundles;
+
+    /**
+     * Creates snapshot of the given bundles.
+     *
+     * @param bundles   bundles snapshots
+     */
+    public BundleSnapshot(final Collection<Bundle> bundles) {
+        this.bundles = Collections.unmodifiableList(new ArrayList<Bundle>(bundles));
+    }
+
+    /**
+     * Returns bundles of this snapshot.
+     * @return bundles of this snapshot
+     */
+    public List<Bundle> getBundles() {
+        return bundles;
+    }
+
+    /**
+     * Base messages of one bundle.
+     */
+    public static final class Bundle {
+
+        private final String name;
+        private final String baseFilePath;
+        private final boolean unusedKeysIgnored;
+        private final Map<String, FormatSignature> formats;
+        private final String[] keys;
+
+        /**
+         * Creates snapshot of one bundle.
+         *
+         * @param name              bundle name to display
+         * @param baseFilePath      base properties files path
+         * @param unusedKeysIgnored true if keys not found in messages are not reported
+         * @param formats           parsed formats of the valid formatted base messages
+         * @param keys              keys of not formatted messages
+         */
+        public Bundle(final String name, final String baseFilePath,
+                final boolean unusedKeysIgnored, final Map<String, FormatSignature> formats,
+                final Collection<String> keys) {
+
+            this.name = name;
+            this.baseFilePath = baseFilePath;
+            this.unusedKeysIgnored = unusedKeysIgnored;
+            this.formats = Collections.unmodifiableMap(
+                    new TreeMap<String, FormatSignature>(formats));
+            this.keys = keys.toArray(new String[keys.size()]);
+            Arrays.sort(this.keys);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getBaseFilePath() {
+            return baseFilePath;
+        }
+
+        public boolean isUnusedKeysIgnored() {
+            return unusedKeysIgnored;
+        }
+
+        /**
+         * Returns parsed formats of the formatted base messages, sorted by keys.
+         * @return parsed formats of the formatted base messages
+         */
+        public Map<String, FormatSignature> getFormats() {
+            return formats;
+        }
+
+        /**
+         * Returns keys of not formatted messages.
+         * @return sorted keys of not formatted messages
+         */
+        public List<String> getKeys() {
+            return Collections.unmodifiableList(Arrays.asList(keys));
+        }
+    }
+
+    /**
+     * Writes this snapshot to the given file.
+     *
+     * @param file  file to write to
+     */
+    public void write(final File file) throws IOException {
+        final OutputStream os = new FileOutputStream(file);
+        try {
+            write(os);
+        } finally {
+            os.close();
+        }
+    }
+
+    /**
+     * Writes this snapshot in binary form.
+     *
+     * @param os    stream to write to, is not closed
+     */
+    public void write(final OutputStream os) throws IOException {
+        final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(os, BUFFER_SIZE));
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(bundles.size());
+        for (final Bundle bundle : bundles) {
+            out.writeUTF(bundle.name);
+            out.writeUTF(bundle.baseFilePath);
+            out.writeBoolean(bundle.unusedKeysIgnored);
+
+            out.writeInt(bundle.formats.size());
+            for (final Map.Entry<String, FormatSignature> entry : bundle.formats.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+
+            out.writeInt(bundle.keys.length);
+            for (final String key : bundle.keys) {
+                out.writeUTF(key);
+            }
+        }
+
+        out.flush();
+    }
+
+    /**
+     * Reads snapshot from the given file.
+     *
+     * @param file  file to read from
+     * @return      read snapshot
+     */
+    public static BundleSnapshot read(final File file) throws IOException {
+        final InputStream is = new FileInputStream(file);
+        try {
+            return read(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Reads snapshot written by {@link #write(OutputStream)}.
+     *
+     * @param is    stream to read from, is not closed
+     * @return      read snapshot
+     *
+     * @throws IOException if the stream is not a snapshot or it is malformed
+     */
+    public static BundleSnapshot read(final InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(is, BUFFER_SIZE));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a bundle snapshot");
+        }
+
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported bundle snapshot version: " + version);
+        }
+
+        final int count = readCount(in);
+        final List<Bundle> bundles = new ArrayList<Bundle>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            final String name = in.readUTF();
+            final String baseFilePath = in.readUTF();
+            final boolean unusedKeysIgnored = in.readBoolean();
+
+            final int formatsCount = readCount(in);
+            final Map<String, FormatSignature> formats = new TreeMap<String, FormatSignature>();
+            for (int j = 0; j < formatsCount; j++) {
+                formats.put(in.readUTF(), FormatSignature.readFrom(in));
+            }
+
+            final int keysCount = readCount(in);
+            final List<String> keys = new ArrayList<String>(Math.min(keysCount, 1024));
+            for (int j = 0; j < keysCount; j++) {
+                keys.add(in.readUTF());
+            }
+
+            bundles.add(new Bundle(name, baseFilePath, unusedKeysIgnored, formats, keys));
+        }
+
+        return new BundleSnapshot(bundles);
+    }
+
+    private static int readCount(final DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count: " + count);
+        }
+
+        return count;
+    }
+}
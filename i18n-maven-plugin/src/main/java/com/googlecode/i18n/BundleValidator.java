@@ -0,0 +1,104 @@
+package com.googlecode.i18n;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import com.googlecode.i18n.format.FormatType;
+
+/**
+ * Checks already loaded properties files of bundles, without Maven.
+ *
+ * <p/>Performs the same checks as the plugin goals, but returns found problems instead of
+ * displaying them. Thread-safe, one instance can validate any count of bundles
+ * concurrently.
+ */
+public final class BundleValidator {
+
+    private final static String PROP_EXT = ".properties";
+
+    private final List<String> locales;
+    private final int maxErrors;
+
+    /**
+     * Creates validator of all localized properties files given with bundles.
+     */
+    public BundleValidator() {
+        this(null, null);
+    }
+
+    /**
+     * Creates validator of the given locales.
+     *
+     * @param locales   comma separated list of required locales, <code>null</code> to check
+     *                  all localized properties files given with bundles
+     * @param options   check options, <code>null</code> to use defaults
+     */
+    public BundleValidator(final String locales, final CheckOptions options) {
+        this.locales = (locales != null ? AbstractMessageAnalyzer.splitLocales(locales, "")
+                : null);
+
+        // options are mutable, so only the used ones are copied
+        this.maxErrors = (options != null ? options.getMaxErrors() : 0);
+    }
+
+    /**
+     * Checks the given bundle.
+     *
+     * @param bundle    bundle to check, is not modified
+     * @return          found problems
+     */
+    public ValidationResult validate(final BundleFiles bundle) {
+        final FindingCollector collector = new FindingCollector(
+                new CheckOptions().setMaxErrors(maxErrors));
+        final String name = bundle.getName();
+        final String baseFile = name + PROP_EXT;
+
+        collector.startFile(baseFile);
+
+        Map<String, FormatType> messages = bundle.getMessages();
+        if (messages == null) {
+            messages = new HashMap<String, FormatType>();
+            for (final String key : bundle.getBase().stringPropertyNames()) {
+                messages.put(key, bundle.getFormatType());
+            }
+
+            if (messages.isEmpty()) {
+                collector.reportError(Finding.Type.NO_MESSAGES, null, "No base messages found");
+                return collector.getResult();
+            }
+        }
+
+        final MessageBundle messageBundle = new MessageBundle(name, name, messages);
+        messageBundle.setUnusedKeysIgnored(bundle.isUnusedKeysIgnored());
+        messageBundle.reset(collector);
+        messageBundle.check(collector, baseFile, copy(bundle.getBase()), null);
+
+        final Map<String, Properties> localized = bundle.getLocalized();
+        for (final String locale : (locales != null ? locales : localized.keySet())) {
+            if (collector.isCancelled()) {
+                break;
+            }
+
+            final String file = name + "_" + locale + PROP_EXT;
+            collector.startFile(file);
+
+            final Properties props = localized.get(locale);
+            if (props == null) {
+                collector.reportError(Finding.Type.MISSING_FILE, null, "Missing %s",
+                        file.substring(file.lastIndexOf('/') + 1));
+                continue;
+            }
+
+            messageBundle.check(collector, file, copy(props), null);
+        }
+
+        return collector.getResult();
+    }
+
+    private static Properties copy(final Properties props) {
+        final Properties copy = new Properties();
+        copy.putAll(props);
+        return copy;
+    }
+}
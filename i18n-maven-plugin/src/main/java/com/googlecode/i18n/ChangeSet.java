@@ -0,0 +1,297 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set of files changed in the local git working tree relative to a base revision.
+ *
+ * <p/>Maps changed <code>.java</code> sources and <code>.properties</code> bundles to the
+ * message classes and plain bundles they affect, so only those are checked.
+ */
+public final class ChangeSet {
+
+    private final static String JAVA_EXT = ".java";
+    private final static String PROP_EXT = ".properties";
+    private final static String POM_FILE = "pom.xml";
+
+    private final File baseDir;
+    private final List<File> files;
+
+    private boolean isBaseHead;
+
+    /**
+     * Creates change set for the given changed files.
+     *
+     * @param baseDir   base directory, changed files paths are relative to
+     * @param paths     changed files paths, relative to the base directory
+     */
+    public ChangeSet(final File baseDir, final Collection<String> paths) {
+        if (baseDir == null) {
+            throw new IllegalArgumentException("baseDir is null");
+        }
+
+        this.baseDir = baseDir.getAbsoluteFile();
+        this.files = new ArrayList<File>(paths.size());
+
+        for (final String path : paths) {
+            files.add(new File(this.baseDir, path));
+        }
+    }
+
+    /**
+     * Asks git which files under the given directory are changed relative to the given
+     * base revision. Committed changes are taken since the merge base with the base revision,
+     * uncommitted and untracked files are included as well.
+     *
+     * <p/>If the merge base is the current <code>HEAD</code> commit, only local changes are
+     * found, see {@link #isBaseHead()}.
+     *
+     * @param baseDir   directory inside git working tree
+     * @param baseRef   base revision, branch or tag
+     * @return          change set with files under the given directory only
+     *
+     * @throws IOException if git cannot be run or fails
+     */
+    public static ChangeSet fromGit(final File baseDir, final String baseRef) throws IOException {
+        final List<String> mergeBase = runGit(baseDir, "merge-base", baseRef, "HEAD");
+        if (mergeBase.isEmpty()) {
+            throw new IOException("Cannot find merge base with " + baseRef);
+        }
+
+        final Set<String> paths = new LinkedHashSet<String>();
+        paths.addAll(runGit(baseDir, "diff", "--name-only", "--relative", mergeBase.get(0)));
+        paths.addAll(runGit(baseDir, "ls-files", "--others", "--exclude-standard"));
+
+        final ChangeSet changes = new ChangeSet(baseDir, paths);
+        changes.isBaseHead = mergeBase.get(0).equals(runGit(baseDir, "rev-parse", "HEAD").get(0));
+        return changes;
+    }
+
+    private static List<String> runGit(final File dir, final String... args) throws IOException {
+        final List<String> command = new ArrayList<String>();
+        command.add("git");
+        command.add("-c");
+        command.add("core.quotepath=off");
+        for (final String arg : args) {
+            command.add(arg);
+        }
+
+        final Process process = new ProcessBuilder(command)
+                .directory(dir)
+                .redirectErrorStream(true)
+                .start();
+
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        final int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for git", x);
+        }
+
+        if (exitCode != 0) {
+            throw new IOException("git " + args[0] + " failed with exit code " + exitCode
+                    + ": " + lines);
+        }
+
+        return lines;
+    }
+
+    /**
+     * Returns count of changed files.
+     * @return count of changed files
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Checks whether the base revision resolves to the current <code>HEAD</code> commit,
+     * so committed changes are not included, like on a clean CI checkout.
+     *
+     * @return <code>true</code> if the merge base is the current <code>HEAD</code> commit
+     */
+    public boolean isBaseHead() {
+        return isBaseHead;
+    }
+
+    /**
+     * Returns filter that accepts only message classes affected by the changes.
+     *
+     * @param sourceRoots   source directories
+     * @param resourceRoots resource directories
+     * @param locales       comma separated list of checked locales
+     * @return              class filter, or <code>null</code> if changes cannot be mapped
+     *                      to classes and full check should be performed
+     */
+    public ClassFilter getClassFilter(final List<File> sourceRoots,
+            final List<File> resourceRoots, final String locales) {
+
+        final List<String> localesList = AbstractMessageAnalyzer.splitLocales(locales, "");
+        final Set<String> classes = new HashSet<String>();
+        final Set<String> sourceClasses = new HashSet<String>();
+
+        for (final File file : files) {
+            if (isPom(file)) {
+                // plugin configuration or dependencies may be changed
+                return null;
+            }
+
+            final String name = file.getName();
+            if (name.endsWith(JAVA_EXT)) {
+                final String path = getRelativePath(sourceRoots, file);
+                if (path != null) {
+                    sourceClasses.add(toName(path, JAVA_EXT));
+                }
+            } else if (name.endsWith(PROP_EXT)) {
+                final String path = getRelativePath(resourceRoots, file);
+                if (path != null) {
+                    final String baseName = toName(path, PROP_EXT);
+                    classes.add(baseName);
+
+                    // the same file name can be either base or localized bundle
+                    for (final String locale : localesList) {
+                        final String suffix = "_" + locale;
+                        if (baseName.endsWith(suffix)) {
+                            classes.add(baseName.substring(0,
+                                    baseName.length() - suffix.length()));
+                        }
+                    }
+                }
+            }
+        }
+
+        return new ChangedClassFilter(classes, sourceClasses);
+    }
+
+    /**
+     * Checks whether plain bundle with the given base file path is affected by the changes.
+     *
+     * @param resourceRoots resource directories
+     * @param plainFilePath base properties files path
+     * @return              <code>true</code> if plain bundle is affected by the changes
+     */
+    public boolean isPlainBundleChanged(final List<File> resourceRoots,
+            final String plainFilePath) {
+
+        final boolean isDir = plainFilePath.endsWith("/");
+
+        for (final File file : files) {
+            if (isPom(file)) {
+                return true;
+            }
+
+            if (!file.getName().endsWith(PROP_EXT)) {
+                continue;
+            }
+
+            final String path = getRelativePath(resourceRoots, file);
+            if (path == null || !path.startsWith(plainFilePath)) {
+                continue;
+            }
+
+            final String rest = path.substring(plainFilePath.length());
+            if (isDir ? rest.indexOf('/') == -1
+                    : (rest.equals(PROP_EXT) || rest.startsWith("_"))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isPom(final File file) {
+        return file.getName().equals(POM_FILE) && baseDir.equals(file.getParentFile());
+    }
+
+    /**
+     * Returns path of the given file relative to one of the given root directories.
+     *
+     * @param roots root directories
+     * @param file  file
+     * @return      relative path with <code>'/'</code> separators, or <code>null</code>
+     *              if file is not under any of the given root directories
+     */
+    private static String getRelativePath(final List<File> roots, final File file) {
+        final String filePath = file.getAbsolutePath();
+        for (final File root : roots) {
+            final String rootPath = root.getAbsolutePath() + File.separator;
+            if (filePath.startsWith(rootPath)) {
+                return filePath.substring(rootPath.length()).replace(File.separatorChar, '/');
+            }
+        }
+
+        return null;
+    }
+
+    private static String toName(final String path, final String ext) {
+        return path.substring(0, path.length() - ext.length()).replace('/', '.');
+    }
+
+    /**
+     * Accepts classes which sources or bundles were changed, including nested classes
+     * of changed sources.
+     */
+    private static final class ChangedClassFilter implements ClassFilter {
+
+        private final Set<String> classes;
+        private final Set<String> sourceClasses;
+        private final Set<String> packages = new HashSet<String>();
+
+        ChangedClassFilter(final Set<String> classes, final Set<String> sourceClasses) {
+            this.classes = classes;
+            this.sourceClasses = sourceClasses;
+
+            addPackages(classes);
+            addPackages(sourceClasses);
+        }
+
+        private void addPackages(final Set<String> names) {
+            for (final String name : names) {
+                int dot = name.lastIndexOf('.');
+                while (dot != -1 && packages.add(name.substring(0, dot))) {
+                    dot = name.lastIndexOf('.', dot - 1);
+                }
+            }
+        }
+
+        @Override
+        public boolean acceptPackage(final String packageName) {
+            return packageName.isEmpty() || packages.contains(packageName);
+        }
+
+        @Override
+        public boolean acceptClass(final String className) {
+            if (classes.contains(className)) {
+                return true;
+            }
+
+            final int nested = className.indexOf('$');
+            return sourceClasses.contains(nested == -1 ? className
+                    : className.substring(0, nested));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.googlecode.i18n;
+
+/**
+ * Additional options of localization checks.
+ */
+public final class CheckOptions {
+
+    private int maxErrors;
+    private int prefetch;
+    private long memoryLimit;
+    private boolean collectFindings;
+    private boolean inheritLocales;
+
+    /**
+     * Returns count of errors after which check is stopped.
+     * @return count of errors after which check is stopped, <code>0</code> means no limit
+     */
+    public int getMaxErrors() {
+        return maxErrors;
+    }
+
+    /**
+     * Sets count of errors after which check is stopped and the rest of classes and
+     * properties files are skipped.
+     *
+     * @param maxErrors count of errors, <code>0</code> means no limit
+     * @return          this options
+     */
+    public CheckOptions setMaxErrors(final int maxErrors) {
+        if (maxErrors < 0) {
+            throw new IllegalArgumentException("maxErrors cannot be negative: " + maxErrors);
+        }
+
+        this.maxErrors = maxErrors;
+        return this;
+    }
+
+    /**
+     * Returns count of properties files read ahead while the current one is checked.
+     * @return count of files read ahead, <code>0</code> means no read ahead
+     */
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Sets count of properties files of a bundle to read and parse in background while
+     * the current one is checked. Hides read latency of slow file systems.
+     *
+     * @param prefetch  count of files read ahead, <code>0</code> means no read ahead
+     * @return          this options
+     */
+    public CheckOptions setPrefetch(final int prefetch) {
+        if (prefetch < 0) {
+            throw new IllegalArgumentException("prefetch cannot be negative: " + prefetch);
+        }
+
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Returns memory limit for properties of plain properties files.
+     * @return memory limit in bytes, <code>0</code> means no limit
+     */
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    /**
+     * Sets estimated memory limit for properties of plain properties files. If set,
+     * properties files are sorted on disk in parts that fit the limit and compared
+     * sequentially, so files of any size can be checked.
+     *
+     * @param memoryLimit   memory limit in bytes, <code>0</code> means no limit
+     * @return              this options
+     */
+    public CheckOptions setMemoryLimit(final long memoryLimit) {
+        if (memoryLimit < 0) {
+            throw new IllegalArgumentException("memoryLimit cannot be negative: " + memoryLimit);
+        }
+
+        this.memoryLimit = memoryLimit;
+        return this;
+    }
+
+    /**
+     * Returns true if found problems are kept by analyzers.
+     * @return true if found problems are kept by analyzers
+     */
+    public boolean isCollectFindings() {
+        return collectFindings;
+    }
+
+    /**
+     * Sets whether analyzers should keep found problems in addition to displaying them,
+     * see {@link AbstractMessageAnalyzer#getFindings()}.
+     *
+     * @param collectFindings   <code>true</code> to keep found problems
+     * @return                  this options
+     */
+    public CheckOptions setCollectFindings(final boolean collectFindings) {
+        this.collectFindings = collectFindings;
+        return this;
+    }
+
+    /**
+     * Returns true if regional properties files inherit messages of their language files.
+     * @return true if regional properties files inherit messages of their language files
+     */
+    public boolean isInheritLocales() {
+        return inheritLocales;
+    }
+
+    /**
+     * Sets whether regional properties files, like <code>Messages_en_US</code>, are
+     * checked together with messages of their language files, like
+     * <code>Messages_en</code>, as they are resolved by <code>ResourceBundle</code>. So
+     * regional files can contain only messages that differ from the language ones.
+     *
+     * <p/>Not applied to plain properties files checked with memory limit.
+     *
+     * @param inheritLocales    <code>true</code> to inherit messages of language files
+     * @return                  this options
+     */
+    public CheckOptions setInheritLocales(final boolean inheritLocales) {
+        this.inheritLocales = inheritLocales;
+        return this;
+    }
+}
@@ -0,0 +1,473 @@
+package com.googlecode.i18n;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads class files without loading classes, to find message enums and static fields
+ * read by the code.
+ *
+ * <p/>Only the parts of class file format needed for this are parsed, the rest is skipped.
+ */
+final class ClassFileScanner {
+
+    private final static int MAGIC = 0xcafebabe;
+
+    private final static int ACC_SYNTHETIC = 0x1000;
+    private final static int ACC_ENUM = 0x4000;
+
+    private final static String MESSAGE_PROVIDER =
+            "Lcom/googlecode/i18n/annotations/MessageProvider;";
+
+    private final static String CODE = "Code";
+    private final static String RUNTIME_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private final static String STATIC_INIT = "<clinit>";
+
+    private final static int GETSTATIC = 0xb2;
+    private final static int TABLESWITCH = 0xaa;
+    private final static int LOOKUPSWITCH = 0xab;
+    private final static int WIDE = 0xc4;
+    private final static int IINC = 0x84;
+
+    /** Instructions lengths with operands, <code>0</code> for invalid or variable length */
+    private final static byte[] INSTRUCTION_LENGTHS = new byte[256];
+
+    static {
+        setLength(0x00, 0x0f, 1);
+        setLength(0x10, 0x10, 2);
+        setLength(0x11, 0x11, 3);
+        setLength(0x12, 0x12, 2);
+        setLength(0x13, 0x14, 3);
+        setLength(0x15, 0x19, 2);
+        setLength(0x1a, 0x35, 1);
+        setLength(0x36, 0x3a, 2);
+        setLength(0x3b, 0x83, 1);
+        setLength(IINC, IINC, 3);
+        setLength(0x85, 0x98, 1);
+        setLength(0x99, 0xa8, 3);
+        setLength(0xa9, 0xa9, 2);
+        setLength(0xac, 0xb1, 1);
+        setLength(0xb2, 0xb8, 3);
+        setLength(0xb9, 0xba, 5);
+        setLength(0xbb, 0xbb, 3);
+        setLength(0xbc, 0xbc, 2);
+        setLength(0xbd, 0xbd, 3);
+        setLength(0xbe, 0xbf, 1);
+        setLength(0xc0, 0xc1, 3);
+        setLength(0xc2, 0xc3, 1);
+        setLength(0xc5, 0xc5, 4);
+        setLength(0xc6, 0xc7, 3);
+        setLength(0xc8, 0xc9, 5);
+    }
+
+    private static void setLength(final int from, final int to, final int length) {
+        for (int i = from; i <= to; i++) {
+            INSTRUCTION_LENGTHS[i] = (byte) length;
+        }
+    }
+
+    /**
+     * Information about one class file.
+     */
+    static final class ClassInfo {
+
+        private final String className;
+        private final List<String> messages;
+        private final Set<String> references;
+
+        ClassInfo(final String className, final List<String> messages,
+                final Set<String> references) {
+
+            this.className = className;
+            this.messages = messages;
+            this.references = references;
+        }
+
+        /**
+         * Returns fully qualified name of the class.
+         */
+        String getClassName() {
+            return className;
+        }
+
+        /**
+         * Returns names of enum constants, if the class is message enum.
+         * @return names of enum constants, or <code>null</code> if it's not message enum
+         */
+        List<String> getMessages() {
+            return messages;
+        }
+
+        /**
+         * Returns static fields of the own type read by the class code, as
+         * <code>className#fieldName</code>. Reads of the class own fields from static
+         * initializer and synthetic methods are not included, since enum reads its own
+         * constants there.
+         */
+        Set<String> getReferences() {
+            return references;
+        }
+    }
+
+    private ClassFileScanner() {
+    }
+
+    /**
+     * Reads the given class file.
+     *
+     * @param is    class file stream, is not closed
+     * @return      information about the class
+     *
+     * @throws IOException if the stream is not a class file or it is malformed
+     */
+    static ClassInfo scan(final InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+
+        // minor and major versions
+        in.readInt();
+
+        final ConstantPool pool = new ConstantPool(in);
+
+        final int accessFlags = in.readUnsignedShort();
+        final String className = pool.getClassName(in.readUnsignedShort());
+
+        // super class and interfaces
+        in.readUnsignedShort();
+        skip(in, in.readUnsignedShort() * 2);
+
+        final List<String> enumConstants = new ArrayList<String>();
+        final int fieldsCount = in.readUnsignedShort();
+        for (int i = 0; i < fieldsCount; i++) {
+            final int fieldFlags = in.readUnsignedShort();
+            final String name = pool.getUtf8(in.readUnsignedShort());
+
+            // descriptor
+            in.readUnsignedShort();
+            skipAttributes(in);
+
+            if ((fieldFlags & ACC_ENUM) != 0) {
+                enumConstants.add(name);
+            }
+        }
+
+        final Set<String> references = new HashSet<String>();
+        final int methodsCount = in.readUnsignedShort();
+        for (int i = 0; i < methodsCount; i++) {
+            final int methodFlags = in.readUnsignedShort();
+            final String name = pool.getUtf8(in.readUnsignedShort());
+
+            // descriptor
+            in.readUnsignedShort();
+
+            final int attributesCount = in.readUnsignedShort();
+            for (int j = 0; j < attributesCount; j++) {
+                final String attribute = pool.getUtf8(in.readUnsignedShort());
+                final int length = in.readInt();
+                if (CODE.equals(attribute)) {
+                    final byte[] code = new byte[length];
+                    in.readFully(code);
+
+                    // enum reads its own constants to initialize values array
+                    final boolean initializer = (STATIC_INIT.equals(name)
+                            || (methodFlags & ACC_SYNTHETIC) != 0);
+                    scanCode(code, pool, (initializer ? className : null), references);
+                } else {
+                    skip(in, length);
+                }
+            }
+        }
+
+        boolean messageProvider = false;
+        final int attributesCount = in.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            final String attribute = pool.getUtf8(in.readUnsignedShort());
+            final int length = in.readInt();
+            if (RUNTIME_ANNOTATIONS.equals(attribute)) {
+                final byte[] annotations = new byte[length];
+                in.readFully(annotations);
+                messageProvider = hasAnnotation(annotations, pool, MESSAGE_PROVIDER);
+            } else {
+                skip(in, length);
+            }
+        }
+
+        final boolean messageEnum = ((accessFlags & ACC_ENUM) != 0 && messageProvider);
+        return new ClassInfo(className, (messageEnum ? enumConstants : null),
+                (references.isEmpty() ? Collections.<String>emptySet() : references));
+    }
+
+    /**
+     * Collects static fields read by the given <code>Code</code> attribute.
+     *
+     * @param attribute     <code>Code</code> attribute content
+     * @param pool          constant pool of the class
+     * @param skipOwner     class, whose fields are not collected, can be <code>null</code>
+     * @param references    collected fields
+     */
+    private static void scanCode(final byte[] attribute, final ConstantPool pool,
+            final String skipOwner, final Set<String> references) throws IOException {
+
+        // max stack and max locals precede code length
+        final int start = 8;
+        final int end = start + readInt(attribute, 4);
+        if (end > attribute.length || end < start) {
+            throw new IOException("Invalid code length");
+        }
+
+        int pc = start;
+        while (pc < end) {
+            final int opcode = attribute[pc] & 0xff;
+            if (opcode == GETSTATIC) {
+                final String field = pool.getStaticField(readUnsignedShort(attribute, pc + 1));
+                if (field != null && (skipOwner == null || !field.startsWith(skipOwner + "#"))) {
+                    references.add(field);
+                }
+            }
+
+            pc += getInstructionLength(attribute, start, pc, opcode);
+        }
+    }
+
+    private static int getInstructionLength(final byte[] code, final int start, final int pc,
+            final int opcode) throws IOException {
+
+        final int length = INSTRUCTION_LENGTHS[opcode];
+        if (length != 0) {
+            return length;
+        }
+
+        switch (opcode) {
+        case TABLESWITCH: {
+            // operands are aligned by 4 bytes from the code start
+            final int operands = pc + 4 - ((pc - start) & 3);
+            final int low = readInt(code, operands + 4);
+            final int high = readInt(code, operands + 8);
+            return operands - pc + 12 + (high - low + 1) * 4;
+        }
+        case LOOKUPSWITCH: {
+            final int operands = pc + 4 - ((pc - start) & 3);
+            final int pairs = readInt(code, operands + 4);
+            return operands - pc + 8 + pairs * 8;
+        }
+        case WIDE:
+            return ((code[pc + 1] & 0xff) == IINC ? 6 : 4);
+        default:
+            throw new IOException("Invalid instruction: " + opcode);
+        }
+    }
+
+    /**
+     * Tests whether the given <code>RuntimeVisibleAnnotations</code> attribute contains
+     * annotation of the given type.
+     */
+    private static boolean hasAnnotation(final byte[] attribute, final ConstantPool pool,
+            final String type) {
+
+        final int count = readUnsignedShort(attribute, 0);
+        int pos = 2;
+        for (int i = 0; i < count; i++) {
+            if (type.equals(pool.getUtf8(readUnsignedShort(attribute, pos)))) {
+                return true;
+            }
+
+            pos = skipAnnotation(attribute, pos);
+        }
+
+        return false;
+    }
+
+    private static int skipAnnotation(final byte[] attribute, int pos) {
+        final int pairs = readUnsignedShort(attribute, pos + 2);
+        pos += 4;
+        for (int i = 0; i < pairs; i++) {
+            // element name
+            pos = skipElementValue(attribute, pos + 2);
+        }
+
+        return pos;
+    }
+
+    private static int skipElementValue(final byte[] attribute, int pos) {
+        final char tag = (char) attribute[pos++];
+        switch (tag) {
+        case 'e':
+            return pos + 4;
+        case '@':
+            return skipAnnotation(attribute, pos);
+        case '[': {
+            final int count = readUnsignedShort(attribute, pos);
+            pos += 2;
+            for (int i = 0; i < count; i++) {
+                pos = skipElementValue(attribute, pos);
+            }
+
+            return pos;
+        }
+        default:
+            // constant value or class index
+            return pos + 2;
+        }
+    }
+
+    private static void skipAttributes(final DataInputStream in) throws IOException {
+        final int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.readUnsignedShort();
+            skip(in, in.readInt());
+        }
+    }
+
+    private static void skip(final DataInputStream in, final int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Invalid length: " + count);
+        }
+
+        int skipped = 0;
+        while (skipped < count) {
+            final int n = in.skipBytes(count - skipped);
+            if (n <= 0) {
+                // skipBytes can return 0 before the end, readByte detects the end
+                in.readByte();
+                skipped++;
+            } else {
+                skipped += n;
+            }
+        }
+    }
+
+    private static int readUnsignedShort(final byte[] b, final int pos) {
+        return ((b[pos] & 0xff) << 8) | (b[pos + 1] & 0xff);
+    }
+
+    private static int readInt(final byte[] b, final int pos) {
+        return (readUnsignedShort(b, pos) << 16) | readUnsignedShort(b, pos + 2);
+    }
+
+    /**
+     * Constant pool entries needed to resolve class names and static fields.
+     */
+    private static final class ConstantPool {
+
+        private final static int UTF8 = 1;
+        private final static int INTEGER = 3;
+        private final static int FLOAT = 4;
+        private final static int LONG = 5;
+        private final static int DOUBLE = 6;
+        private final static int CLASS = 7;
+        private final static int STRING = 8;
+        private final static int FIELD_REF = 9;
+        private final static int METHOD_REF = 10;
+        private final static int INTERFACE_METHOD_REF = 11;
+        private final static int NAME_AND_TYPE = 12;
+        private final static int METHOD_HANDLE = 15;
+        private final static int METHOD_TYPE = 16;
+        private final static int DYNAMIC = 17;
+        private final static int INVOKE_DYNAMIC = 18;
+        private final static int MODULE = 19;
+        private final static int PACKAGE = 20;
+
+        private final int[] tags;
+
+        /** Strings of UTF8 entries */
+        private final String[] strings;
+
+        /** First and second indexes of entries that reference other entries */
+        private final int[] refs;
+
+        ConstantPool(final DataInputStream in) throws IOException {
+            final int count = in.readUnsignedShort();
+            tags = new int[count];
+            strings = new String[count];
+            refs = new int[count];
+
+            for (int i = 1; i < count; i++) {
+                final int tag = in.readUnsignedByte();
+                tags[i] = tag;
+                switch (tag) {
+                case UTF8:
+                    strings[i] = in.readUTF();
+                    break;
+                case CLASS:
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    refs[i] = in.readUnsignedShort();
+                    break;
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                case INTEGER:
+                case FLOAT:
+                    refs[i] = in.readInt();
+                    break;
+                case LONG:
+                case DOUBLE:
+                    // takes two entries
+                    skip(in, 8);
+                    i++;
+                    break;
+                case METHOD_HANDLE:
+                    skip(in, 3);
+                    break;
+                default:
+                    throw new IOException("Invalid constant pool tag: " + tag);
+                }
+            }
+        }
+
+        String getUtf8(final int index) {
+            return (index > 0 && index < strings.length ? strings[index] : null);
+        }
+
+        String getClassName(final int index) throws IOException {
+            if (index <= 0 || index >= tags.length || tags[index] != CLASS) {
+                throw new IOException("Invalid class index: " + index);
+            }
+
+            return getUtf8(refs[index]).replace('/', '.');
+        }
+
+        /**
+         * Returns static field referenced by the given entry, if its type is the owner
+         * class itself, like enum constants are.
+         *
+         * @return field as <code>className#fieldName</code>, or <code>null</code>
+         */
+        String getStaticField(final int index) throws IOException {
+            if (index <= 0 || index >= tags.length || tags[index] != FIELD_REF) {
+                throw new IOException("Invalid field index: " + index);
+            }
+
+            final int classIndex = refs[index] >>> 16;
+            final int nameAndType = refs[index] & 0xffff;
+            if (classIndex >= tags.length || tags[classIndex] != CLASS
+                    || nameAndType >= tags.length || tags[nameAndType] != NAME_AND_TYPE) {
+
+                throw new IOException("Invalid field reference: " + index);
+            }
+
+            final String owner = getUtf8(refs[classIndex]);
+            final String descriptor = getUtf8(refs[nameAndType] & 0xffff);
+            if (owner == null || descriptor == null
+                    || !descriptor.equals("L" + owner + ";")) {
+
+                return null;
+            }
+
+            return owner.replace('/', '.') + "#" + getUtf8(refs[nameAndType] >>> 16);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.googlecode.i18n;
+
+/**
+ * Filter for classes to be checked by {@link ClassMessageAnalyzer}.
+ */
+public interface ClassFilter {
+
+    /**
+     * Tests whether classes of the given package or its subpackages can be checked.
+     * Packages not accepted are not traversed at all.
+     *
+     * @param packageName   package name, empty string for the default package
+     * @return              <code>false</code> if none of the package classes and its
+     *                      subpackages classes should be checked
+     */
+    boolean acceptPackage(String packageName);
+
+    /**
+     * Tests whether the given class should be checked.
+     *
+     * @param className fully qualified class name
+     * @return          <code>true</code> if and only if the class should be checked
+     */
+    boolean acceptClass(String className);
+}
@@ -1,6 +1,8 @@
 package com.googlecode.i18n;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -46,4 +48,23 @@ public final class ClassHelpers {
             throw new RuntimeException(x);
         }
     }
+
+    /**
+     * Closes the given class loader, if it supports closing, releasing opened JAR files.
+     * Classes and resources cannot be loaded with the class loader after closing.
+     *
+     * <p/>Class loaders support closing since Java 7, for older versions it does nothing.
+     *
+     * @param loader    class loader to close, can be <code>null</code>
+     */
+    public static void closeClassLoader(ClassLoader loader) {
+        if (loader instanceof Closeable) {
+            try {
+                ((Closeable) loader).close();
+
+            } catch (IOException x) {
+                throw new RuntimeException(x);
+            }
+        }
+    }
 }
@@ -0,0 +1,184 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM-wide cache of class loaders for JAR files, that are reused while the same JAR files
+ * are unchanged.
+ *
+ * <p/>Allows repeated builds in the same JVM, like Maven daemon, to not open the same JAR
+ * files and load the same classes each time. Class loaders are reference counted, the least
+ * recently used ones are closed after {@link #MAX_SIZE} different sets of files are cached
+ * and they are released. Class loader of changed files is closed as soon as it is replaced
+ * and released.
+ */
+public final class ClassLoaderCache {
+
+    /** Maximum count of cached class loaders */
+    public final static int MAX_SIZE = 8;
+
+    private final static Map<Key, CachedLoader> ENTRIES =
+            new LinkedHashMap<Key, CachedLoader>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, CachedLoader> eldest) {
+            if (size() > MAX_SIZE) {
+                eldest.getValue().evict();
+                return true;
+            }
+
+            return false;
+        }
+    };
+
+    private final static Map<ClassLoader, CachedLoader> LOADERS =
+            new IdentityHashMap<ClassLoader, CachedLoader>();
+
+    private ClassLoaderCache() {
+    }
+
+    /**
+     * Returns class loader for the given JAR files, creates a new one if the files were
+     * changed since the last call. Returned class loader should be released with
+     * {@link #release(ClassLoader)} after use.
+     *
+     * @param parent        the parent class loader for delegation
+     * @param classPaths    JAR files or directories with classes
+     * @return              class loader, shared with other callers
+     *
+     * @throws IllegalArgumentException if classPaths or parent is null or empty
+     */
+    public static synchronized ClassLoader acquire(final ClassLoader parent,
+            final File... classPaths) {
+
+        final Key key = new Key(parent, classPaths);
+        CachedLoader cached = ENTRIES.get(key);
+        if (cached == null) {
+            evictChanged(key);
+            cached = new CachedLoader(ClassHelpers.createClassLoader(parent, classPaths));
+            ENTRIES.put(key, cached);
+            LOADERS.put(cached.loader, cached);
+        }
+
+        cached.refCount++;
+        return cached.loader;
+    }
+
+    /**
+     * Releases class loader, returned by {@link #acquire(ClassLoader, File...)}.
+     * Does nothing if the class loader is not cached.
+     *
+     * @param loader    class loader to release
+     */
+    public static synchronized void release(final ClassLoader loader) {
+        final CachedLoader cached = LOADERS.get(loader);
+        if (cached != null && cached.refCount > 0) {
+            cached.refCount--;
+            cached.closeIfUnused();
+        }
+    }
+
+    /**
+     * Evicts class loaders of the same files, that are changed since they were cached.
+     */
+    private static void evictChanged(final Key key) {
+        final Iterator<Map.Entry<Key, CachedLoader>> i = ENTRIES.entrySet().iterator();
+        while (i.hasNext()) {
+            final Map.Entry<Key, CachedLoader> entry = i.next();
+            if (entry.getKey().isSameFiles(key)) {
+                entry.getValue().evict();
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns count of cached class loaders.
+     * @return count of cached class loaders
+     */
+    public static synchronized int size() {
+        return ENTRIES.size();
+    }
+
+    /**
+     * Cached class loader.
+     */
+    private static final class CachedLoader {
+
+        private final ClassLoader loader;
+        private int refCount;
+        private boolean evicted;
+
+        CachedLoader(final ClassLoader loader) {
+            this.loader = loader;
+        }
+
+        void evict() {
+            evicted = true;
+            closeIfUnused();
+        }
+
+        void closeIfUnused() {
+            if (evicted && refCount == 0) {
+                LOADERS.remove(loader);
+                ClassHelpers.closeClassLoader(loader);
+            }
+        }
+    }
+
+    /**
+     * Identifies parent class loader and class path files with their sizes and
+     * modification times.
+     */
+    private static final class Key {
+
+        private final ClassLoader parent;
+        private final List<String> files;
+        private final List<Long> stamps;
+
+        Key(final ClassLoader parent, final File... classPaths) {
+            final int count = (classPaths != null ? classPaths.length : 0);
+            this.parent = parent;
+            this.files = new ArrayList<String>(count);
+            this.stamps = new ArrayList<Long>(count * 2);
+
+            if (classPaths != null) {
+                for (final File file : classPaths) {
+                    files.add(file.getAbsolutePath());
+                    stamps.add(file.length());
+                    stamps.add(file.lastModified());
+                }
+            }
+        }
+
+        /**
+         * Checks whether the given key identifies the same files, possibly changed.
+         */
+        boolean isSameFiles(final Key key) {
+            return parent == key.parent && files.equals(key.files);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) obj;
+            return isSameFiles(key) && stamps.equals(key.stamps);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parent) + files.hashCode();
+        }
+    }
+}
@@ -2,22 +2,22 @@ package com.googlecode.i18n;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import org.apache.maven.plugin.logging.Log;
 import com.googlecode.i18n.annotations.MessageFormatted;
 import com.googlecode.i18n.annotations.MessageProvider;
 import com.googlecode.i18n.annotations.StringFormatted;
-import com.googlecode.i18n.format.FormatAnalyzer;
 import com.googlecode.i18n.format.FormatType;
 
 /**
@@ -26,11 +26,14 @@ import com.googlecode.i18n.format.FormatType;
 public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
 
     private final static String CLASS_EXT = ".class";
+    private final static String META_INF = "META-INF/";
 
     private final ClassLoader classLoader;
 
-    private ClassMessageAnalyzer(Log log, String locales, ClassLoader classLoader) {
-        super(log, locales, null);
+    private ClassMessageAnalyzer(Log log, String locales, ClassLoader classLoader,
+            CheckOptions options) {
+
+        super(log, locales, null, options);
 
         this.classLoader = classLoader;
     }
@@ -43,7 +46,7 @@ public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
      * warnings for not used keys. Uses neutral localization, if no locales passed.
      *
      * @param log         use maven or console
-     * @param classesPath directory with classes
+     * @param classesPath directory or JAR file with classes
      * @param locales     list of supported locales
      * @param parent      parent class loader
      * @return            messageAnalyzer object, that contains count of found errors and warnings
@@ -51,20 +54,68 @@ public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
     public static ClassMessageAnalyzer check(final Log log, final String classesPath,
             final String locales, final ClassLoader parent) {
 
+        return check(log, classesPath, locales, parent, null);
+    }
+
+    /**
+     * Performs localization checks for messages defined in classes accepted by the given
+     * filter.
+     *
+     * @param log         use maven or console
+     * @param classesPath directory or JAR file with classes
+     * @param locales     list of supported locales
+     * @param parent      parent class loader
+     * @param filter      filter for classes to check, <code>null</code> to check all classes
+     * @return            messageAnalyzer object, that contains count of found errors and warnings
+     * @see #check(Log, String, String, ClassLoader)
+     */
+    public static ClassMessageAnalyzer check(final Log log, final String classesPath,
+            final String locales, final ClassLoader parent, final ClassFilter filter) {
+
+        return check(log, classesPath, locales, parent, filter, null);
+    }
+
+    /**
+     * Performs localization checks for messages defined in classes accepted by the given
+     * filter, using the given options.
+     *
+     * @param log         use maven or console
+     * @param classesPath directory or JAR file with classes
+     * @param locales     list of supported locales
+     * @param parent      parent class loader
+     * @param filter      filter for classes to check, <code>null</code> to check all classes
+     * @param options     check options, <code>null</code> to use defaults
+     * @return            messageAnalyzer object, that contains count of found errors and warnings
+     * @see #check(Log, String, String, ClassLoader)
+     */
+    public static ClassMessageAnalyzer check(final Log log, final String classesPath,
+            final String locales, final ClassLoader parent, final ClassFilter filter,
+            final CheckOptions options) {
+
         final File dir = new File(classesPath);
-        if (!dir.isDirectory()) {
+        List<String> classes = new ArrayList<String>();
+        if (dir.isDirectory()) {
+            listClassesR(classes, dir, "", filter);
+        } else if (dir.isFile()) {
+            try {
+                listJarClasses(classes, dir, filter);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
             throw new RuntimeException("Classes directory doesn't exist: " + dir);
         }
-        
-        List<String> classes = new ArrayList<String>();
-        listClassesR(classes, dir, "");
 
         ClassMessageAnalyzer analizer = new ClassMessageAnalyzer(log,
-                locales, ClassHelpers.createClassLoader(parent, dir));
+                locales, ClassHelpers.createClassLoader(parent, dir), options);
         try {
             analizer.checkClasses(classes);
         } catch (IOException e) {
+            analizer.close();
             throw new RuntimeException(e);
+        } catch (RuntimeException x) {
+            analizer.close();
+            throw x;
         }
 
         return analizer;
@@ -72,33 +123,105 @@ public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
     
     /**
      * Searches classes in the given directory recursively.
+     *
+     * <p/>Packages not accepted by the filter are pruned without listing their directories.
+     * Entries with <code>.class</code> extension are taken as classes without querying
+     * file attributes, so only one file system call per entry is made for the rest.
      * 
      * @param classes       list of classes where find classes added
      * @param dir           path to classes
-     * @param parentPackage recurse parameter. Must be empty string
+     * @param packageName   recurse parameter. Must be empty string
+     * @param filter        filter for classes, can be <code>null</code>
      */
-    private static void listClassesR(List<String> classes, File dir, String parentPackage) {
-        final File[] files = dir.listFiles();
-        if (files == null) {
+    private static void listClassesR(List<String> classes, File dir, String packageName,
+            ClassFilter filter) {
+
+        final String[] names = dir.list();
+        if (names == null) {
             return;
         }
 
-        for (final File file : files) {
-            final String name = file.getName();
-            final String packageName = (parentPackage.isEmpty() ?
-                    name : parentPackage + "." + name);
-            
-            if (file.isDirectory()) {
-                listClassesR(classes, file, packageName);
-            } else {
-                if (name.endsWith(CLASS_EXT)) {
-                    classes.add(packageName.substring(0,
-                            packageName.length() - CLASS_EXT.length()));
-                }               
+        final String prefix = (packageName.isEmpty() ? "" : packageName + ".");
+        for (final String name : names) {
+            if (name.endsWith(CLASS_EXT)) {
+                final String className = prefix + name.substring(0,
+                        name.length() - CLASS_EXT.length());
+
+                if (filter == null || filter.acceptClass(className)) {
+                    classes.add(className);
+                }
+            } else if (name.indexOf('.') == -1) {
+                // package directories cannot contain dots
+                final String subPackage = prefix + name;
+                if (filter == null || filter.acceptPackage(subPackage)) {
+                    listClassesR(classes, new File(dir, name), subPackage, filter);
+                }
             }
         }
     }
     
+    /**
+     * Searches classes in the given JAR file.
+     *
+     * <p/>Versioned classes and other entries under <code>META-INF/</code> are skipped.
+     *
+     * @param classes       list of classes where find classes added
+     * @param jar           JAR file with classes
+     * @param filter        filter for classes, can be <code>null</code>
+     */
+    private static void listJarClasses(List<String> classes, File jar, ClassFilter filter)
+            throws IOException {
+
+        final Map<String, Boolean> packages = new HashMap<String, Boolean>();
+        final JarFile jarFile = new JarFile(jar);
+        try {
+            final Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName();
+                if (!name.endsWith(CLASS_EXT) || name.startsWith(META_INF)) {
+                    continue;
+                }
+
+                final String className = name.substring(0,
+                        name.length() - CLASS_EXT.length()).replace('/', '.');
+
+                if (filter == null || (isPackageAccepted(packages, className, filter)
+                        && filter.acceptClass(className))) {
+
+                    classes.add(className);
+                }
+            }
+        } finally {
+            jarFile.close();
+        }
+
+        // entries order depends on how the JAR is built
+        Collections.sort(classes);
+    }
+
+    /**
+     * Tests whether the package of the given class and all its parent packages are
+     * accepted, the same way as directories are traversed.
+     */
+    private static boolean isPackageAccepted(final Map<String, Boolean> packages,
+            final String className, final ClassFilter filter) {
+
+        final int dot = className.lastIndexOf('.');
+        if (dot == -1) {
+            return true;
+        }
+
+        final String packageName = className.substring(0, dot);
+        Boolean accepted = packages.get(packageName);
+        if (accepted == null) {
+            accepted = isPackageAccepted(packages, packageName, filter)
+                    && filter.acceptPackage(packageName);
+            packages.put(packageName, accepted);
+        }
+
+        return accepted;
+    }
+
     /**
      * Load classes that are enums and annotated with 
      * {@link MessageProvider} annotation.
@@ -106,7 +229,13 @@ public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
      * @param classNames    list with class names
      */
     private void checkClasses(List<String> classNames) throws IOException {
-        for (final String name : classNames) {
+        for (int i = 0; i < classNames.size(); i++) {
+            if (isCancelled()) {
+                skip("class(es)", classNames.size() - i);
+                return;
+            }
+
+            final String name = classNames.get(i);
             try {
                 final Class<?> clazz = Class.forName(name, false, classLoader);
                 final MessageProvider prov = clazz.getAnnotation(MessageProvider.class);
@@ -177,21 +306,25 @@ public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
      * @return          list of messages ids
      */
     private List<String> getClassDynamicMessages(final Class<Enum<?>> clazz) {
+        // problems of the class itself, not of its properties files
+        startFile(null);
         try {
             final Method getKeys = clazz.getMethod("i18nMessages");
             if (!Modifier.isStatic(getKeys.getModifiers())) {
-                reportError("", "Defined %s.i18nMessages method is not static", clazz.getName());
+                reportError(Finding.Type.INVALID_BUNDLE, null,
+                        "Defined %s.i18nMessages method is not static", clazz.getName());
                 return Collections.emptyList();
             }
 
             final Object result = getKeys.invoke(null);
             if (result == null) {
-                reportError("", "Defined %s.i18nMessages method returns null", clazz.getName());
+                reportError(Finding.Type.INVALID_BUNDLE, null,
+                        "Defined %s.i18nMessages method returns null", clazz.getName());
                 return Collections.emptyList();
             }
 
             if (!(result instanceof List)) {
-                reportError("", "Defined %s.i18nMessages method" +
+                reportError(Finding.Type.INVALID_BUNDLE, null, "Defined %s.i18nMessages method" +
                         "\n\treturns:  %s" +
                         "\n\texpected: %s", clazz.getName(), result.getClass(), List.class);
                 return Collections.emptyList();
@@ -219,38 +352,36 @@ public final class ClassMessageAnalyzer extends AbstractMessageAnalyzer {
      * @param keys          messages info
      */
     private void checkClass(String className, Map<String, FormatType> keys) throws IOException {
-        final Log log = getLog();
-        log.info("Checking " + className);
+        getLog().info("Checking " + className);
         
         // path to property files
         final String basePropFile = className.replace('.', '/');
-        final List<String> propFiles = getPropertiesFiles(basePropFile);
-
-        final int depth = 1;
-        final String indent = indent(depth);
-        final FormatAnalyzer stringFormat = new FormatAnalyzer(this, STRING_FORMAT_PARSER);
-        final FormatAnalyzer messageFormat = new FormatAnalyzer(this, MESSAGE_FORMAT_PARSER);
-        
-        for (final String file : propFiles) {
-            final String propsName = file.substring(file.lastIndexOf('/') + 1);
-            final InputStream is = classLoader.getResourceAsStream(file);
-            if (is == null) {
-                log.error(indent + "Missing " + propsName);
-                incrementError();
-                continue;
-            }
 
-            try {
-                log.info(indent + "Checking " + propsName);
+        checkBundle(1, new MessageBundle(className, basePropFile, keys), classLoader);
+    }
 
-                final Properties props = loadProperties(is);
-                stringFormat.check(depth + 1, props, keys);
-                messageFormat.check(depth + 1, props, keys);
-                checkProperties(depth, props, keys);
+    /**
+     * Checks again the given properties file of one of the previously checked classes.
+     *
+     * @param file  properties file path
+     * @return      <code>true</code> if the file belongs to one of the checked classes
+     * @see #recheckFile(String, ClassLoader)
+     */
+    public boolean recheck(final String file) {
+        try {
+            return recheckFile(file, classLoader);
 
-            } finally {
-                is.close();
-            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Closes class loader of the checked classes as well.
+     */
+    @Override
+    public void close() {
+        super.close();
+        ClassHelpers.closeClassLoader(classLoader);
+    }
 }
@@ -0,0 +1,85 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Watches files in the given directories for changes.
+ *
+ * <p/>Directories are polled, comparing files modification time and size with the ones
+ * found during previous poll.
+ */
+public final class FileWatcher {
+
+    private final List<File> dirs;
+    private final String[] extensions;
+
+    private Map<File, long[]> stamps = new HashMap<File, long[]>();
+
+    /**
+     * Creates watcher for files with the given extensions.
+     *
+     * @param dirs          directories to watch recursively
+     * @param extensions    extensions of files to watch
+     */
+    public FileWatcher(final List<File> dirs, final String... extensions) {
+        this.dirs = dirs;
+        this.extensions = extensions;
+    }
+
+    /**
+     * Returns files added, changed or deleted since the previous call.
+     * All existing files are returned on the first call.
+     *
+     * @return list of changed files
+     */
+    public List<File> poll() {
+        final Map<File, long[]> current = new HashMap<File, long[]>(stamps.size());
+        for (final File dir : dirs) {
+            scanR(current, dir);
+        }
+
+        final List<File> changed = new ArrayList<File>();
+        for (final Map.Entry<File, long[]> entry : current.entrySet()) {
+            final long[] stamp = stamps.remove(entry.getKey());
+            final long[] newStamp = entry.getValue();
+            if (stamp == null || stamp[0] != newStamp[0] || stamp[1] != newStamp[1]) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        // what is left was deleted
+        changed.addAll(stamps.keySet());
+
+        stamps = current;
+        return changed;
+    }
+
+    private void scanR(final Map<File, long[]> result, final File dir) {
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                scanR(result, file);
+            } else if (isWatched(file.getName())) {
+                result.put(file, new long[] {file.lastModified(), file.length()});
+            }
+        }
+    }
+
+    private boolean isWatched(final String name) {
+        for (final String ext : extensions) {
+            if (name.endsWith(ext)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
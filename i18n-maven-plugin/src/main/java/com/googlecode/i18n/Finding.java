@@ -0,0 +1,121 @@
+package com.googlecode.i18n;
+
+/**
+ * Problem found by localization check. Immutable.
+ */
+public final class Finding {
+
+    /**
+     * Severity of found problem.
+     */
+    public enum Severity {
+
+        /** Problem that fails the check */
+        ERROR,
+
+        /** Problem that doesn't fail the check */
+        WARNING,
+    }
+
+    /**
+     * Kind of found problem.
+     */
+    public enum Type {
+
+        /** Messages of the bundle cannot be determined */
+        INVALID_BUNDLE,
+
+        /** Base properties file has no messages */
+        NO_MESSAGES,
+
+        /** Properties file is missing */
+        MISSING_FILE,
+
+        /** Message key is missing */
+        MISSING_KEY,
+
+        /** Message value is blank */
+        MISSING_VALUE,
+
+        /** Message format cannot be parsed */
+        INVALID_FORMAT,
+
+        /** Message format doesn't match format of the base message */
+        FORMAT_NOT_MATCHED,
+
+        /** Key is not used by the bundle messages */
+        UNUSED_KEY,
+
+        /** Message enum constant is not referenced by any class */
+        UNREFERENCED_MESSAGE,
+    }
+
+    private final Severity severity;
+    private final Type type;
+    private final String file;
+    private final String key;
+    private final String message;
+
+    /**
+     * Creates finding.
+     *
+     * @param severity  severity of the problem
+     * @param type      kind of the problem
+     * @param file      properties file path, can be <code>null</code>
+     * @param key       message key, can be <code>null</code>
+     * @param message   description of the problem
+     */
+    public Finding(final Severity severity, final Type type, final String file,
+            final String key, final String message) {
+
+        if (severity == null) {
+            throw new IllegalArgumentException("severity cannot be null");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("type cannot be null");
+        }
+
+        this.severity = severity;
+        this.type = type;
+        this.file = file;
+        this.key = key;
+        this.message = message;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns path of properties file, where the problem is found.
+     * @return properties file path, or <code>null</code> if not related to a file
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Returns key of message, where the problem is found.
+     * @return message key, or <code>null</code> if not related to a message
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns description of the problem to display.
+     * @return description of the problem
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return severity + " " + (file != null ? file + ": " : "") + message;
+    }
+}
@@ -0,0 +1,26 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects findings of one validation.
+ */
+final class FindingCollector extends MessageChecker {
+
+    private final List<Finding> findings = new ArrayList<Finding>();
+
+    FindingCollector(final CheckOptions options) {
+        super(options);
+    }
+
+    @Override
+    protected void handle(final Finding finding) {
+        findings.add(finding);
+    }
+
+    ValidationResult getResult() {
+        return new ValidationResult(findings, getErrorCount(), getWarningCount(),
+                isCancelled());
+    }
+}
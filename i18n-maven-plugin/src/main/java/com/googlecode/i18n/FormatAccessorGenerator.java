@@ -0,0 +1,249 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.googlecode.i18n.format.FormatSignature;
+import com.googlecode.i18n.format.FormatType;
+import com.googlecode.i18n.util.MessageTemplate;
+
+/**
+ * Generates typed accessors of formatted messages of the checked message enums.
+ *
+ * <p/>One class is generated for each enum with formatted messages, named as the enum
+ * with {@link #CLASS_SUFFIX} suffix. It has static method for each formatted constant,
+ * named in camel case, with parameters of the exact count and types of the message
+ * format. Methods with <code>long</code> or <code>double</code> parameters are
+ * overloaded with <code>Object</code> ones, that accept <code>BigInteger</code> and
+ * <code>BigDecimal</code>. Messages are loaded with <code>toString()</code> of the constants
+ * and rendered by {@link MessageTemplate}, without varargs arrays and boxing. Compiled
+ * templates are cached per locale, so rendering in several locales doesn't compile messages
+ * again.
+ */
+public final class FormatAccessorGenerator {
+
+    /** Suffix of generated classes names */
+    public final static String CLASS_SUFFIX = "Formats";
+
+    private final static String JAVA_EXT = ".java";
+
+    private final File sourcesDir;
+
+    private int accessorCount;
+
+    /**
+     * Creates generator of accessor classes.
+     *
+     * @param sourcesDir    directory to write generated sources to
+     */
+    public FormatAccessorGenerator(final File sourcesDir) {
+        this.sourcesDir = sourcesDir;
+    }
+
+    /**
+     * Generates sources of accessor classes for all message enums checked by the given
+     * analyzer. Bundles of plain properties files are skipped.
+     *
+     * @param analyzer  analyzer, that checked message enums
+     * @return          generated source files
+     */
+    public List<File> generate(final AbstractMessageAnalyzer analyzer) throws IOException {
+        final List<File> sources = new ArrayList<File>();
+        for (final BundleSnapshot.Bundle bundle : analyzer.getSnapshot().getBundles()) {
+            final String className = bundle.getName();
+            if (bundle.getFormats().isEmpty()
+                    || !bundle.getBaseFilePath().equals(className.replace('.', '/'))) {
+                continue;
+            }
+
+            sources.add(generate(className, bundle.getFormats()));
+        }
+
+        return sources;
+    }
+
+    /**
+     * Returns count of accessor methods generated so far.
+     * @return count of accessor methods
+     */
+    public int getAccessorCount() {
+        return accessorCount;
+    }
+
+    /**
+     * Generates source of accessor class for the given message enum.
+     *
+     * @param className binary name of the enum
+     * @param formats   parsed formats of the formatted messages by their keys
+     * @return          generated source file
+     */
+    File generate(final String className, final Map<String, FormatSignature> formats)
+            throws IOException {
+
+        final int dot = className.lastIndexOf('.');
+        final String packageName = className.substring(0, Math.max(dot, 0));
+        final String simpleName = className.substring(dot + 1).replace('$', '_')
+                + CLASS_SUFFIX;
+        final String enumName = className.substring(dot + 1).replace('$', '.');
+
+        final File source = new File(sourcesDir, packageName.replace('.', '/')
+                + "/" + simpleName + JAVA_EXT);
+        final File parent = source.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        final Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(source), "UTF-8"));
+        try {
+            out.write("// Generated by i18n-maven-plugin from " + className + ", do not edit\n");
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n");
+            }
+
+            out.write("\nimport java.util.Locale;\n");
+            out.write("import java.util.Map;\n");
+            out.write("import java.util.concurrent.ConcurrentHashMap;\n");
+            out.write("import " + MessageTemplate.class.getName() + ";\n\n");
+            out.write("/**\n * Typed accessors of formatted messages of {@link " + enumName
+                    + "}.\n */\n");
+            out.write("public final class " + simpleName + " {\n\n");
+
+            for (final String key : formats.keySet()) {
+                out.write("    private static final Map<Locale, MessageTemplate> " + key
+                        + " =\n            new ConcurrentHashMap<Locale, MessageTemplate>();\n");
+            }
+
+            out.write("\n    private " + simpleName + "() {\n    }\n");
+
+            final Set<String> methods = new HashSet<String>();
+            for (final Map.Entry<String, FormatSignature> entry : formats.entrySet()) {
+                String method = getMethodName(entry.getKey());
+                while (!StringHelpers.isJavaIdentifier(method) || !methods.add(method)) {
+                    method += "_";
+                }
+
+                final FormatSignature format = entry.getValue();
+                final Class<?>[] types = format.getArgumentTypes();
+                writeAccessor(out, enumName, entry.getKey(), method, format, types);
+                if (isWidened(types)) {
+                    // BigInteger and BigDecimal arguments are accepted by overload
+                    final Class<?>[] objects = new Class<?>[types.length];
+                    Arrays.fill(objects, Object.class);
+                    writeAccessor(out, enumName, entry.getKey(), method, format, objects);
+                    accessorCount++;
+                }
+                accessorCount++;
+            }
+
+            out.write("}\n");
+        } finally {
+            out.close();
+        }
+
+        return source;
+    }
+
+    /**
+     * Checks whether some of the given types is <code>long</code> or <code>double</code>,
+     * that would lose precision of <code>BigInteger</code> or <code>BigDecimal</code>.
+     */
+    static boolean isWidened(final Class<?>[] types) {
+        for (final Class<?> type : types) {
+            if (type == long.class || type == double.class) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void writeAccessor(final Writer out, final String enumName,
+            final String key, final String method, final FormatSignature format,
+            final Class<?>[] types) throws IOException {
+
+        final boolean isMessage = (format.getFormatType() == FormatType.MESSAGE);
+
+        out.write("\n    /**\n     * Returns {@link " + enumName + "#" + key
+                + "} message formatted with the given arguments.\n     */\n");
+        out.write("    public static String " + method + "(");
+        for (int i = 0; i < types.length; i++) {
+            out.write((i > 0 ? ", " : "") + getTypeName(types[i]) + " arg" + i);
+        }
+        out.write(") {\n");
+
+        out.write("        final String pattern = " + enumName + "." + key + ".toString();\n");
+        out.write("        final Locale locale = Locale.getDefault();\n");
+        out.write("        MessageTemplate t = " + key + ".get(locale);\n");
+        out.write("        if (t == null || !t.isCompiled(pattern, locale)) {\n");
+        out.write("            t = MessageTemplate."
+                + (isMessage ? "compileMessage" : "compileString") + "(pattern, locale);\n");
+        out.write("            " + key + ".put(locale, t);\n");
+        out.write("        }\n");
+
+        if (isMessage) {
+            out.write("        if (t.isNested()) {\n");
+            out.write("            return t.format(new Object[] {");
+            for (int i = 0; i < types.length; i++) {
+                out.write((i > 0 ? ", " : "") + "arg" + i);
+            }
+            out.write("});\n        }\n");
+        }
+
+        out.write("\n        final StringBuilder sb = t.newBuilder();\n");
+        out.write("        for (int i = 0; i < t.size(); i++) {\n");
+        out.write("            t.appendText(sb, i);\n");
+        out.write("            switch (t.getArgument(i)) {\n");
+        for (int i = 0; i < types.length; i++) {
+            out.write("            case " + i + ":\n");
+            out.write("                t.append(sb, i, arg" + i + ");\n");
+            out.write("                break;\n");
+        }
+        out.write("            default:\n");
+        out.write("                t.appendMissing(sb, i);\n");
+        out.write("            }\n");
+        out.write("        }\n\n");
+        out.write("        return t.appendText(sb, t.size()).toString();\n");
+        out.write("    }\n");
+    }
+
+    /**
+     * Returns name of accessor method of the given constant, like <code>languageStr</code>
+     * for <code>LANGUAGE_STR</code>.
+     */
+    static String getMethodName(final String constant) {
+        if (!constant.equals(constant.toUpperCase())) {
+            return Character.toLowerCase(constant.charAt(0)) + constant.substring(1);
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (final String part : constant.toLowerCase().split("_")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+
+            if (sb.length() == 0) {
+                sb.append(part);
+            } else {
+                sb.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+
+        return (sb.length() > 0 && Character.isJavaIdentifierStart(sb.charAt(0))
+                ? sb.toString() : constant);
+    }
+
+    private static String getTypeName(final Class<?> type) {
+        return (type.isPrimitive() || type == Object.class ? type.getSimpleName()
+                : type.getName());
+    }
+}
@@ -0,0 +1,338 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.googlecode.i18n.annotations.MessageFormatted;
+import com.googlecode.i18n.annotations.MessageProvider;
+import com.googlecode.i18n.annotations.StringFormatted;
+import com.googlecode.i18n.format.FormatType;
+
+/**
+ * Lightweight java source parser, that finds enums annotated with {@link MessageProvider}
+ * annotation without compiling them.
+ *
+ * <p/>Only declarations structure is recognised: packages, nested types, enum constants and
+ * their annotations. Annotations are matched by simple names, types declared inside methods
+ * are skipped.
+ */
+public final class JavaSourceParser {
+
+    private static final String MESSAGE_PROVIDER = MessageProvider.class.getSimpleName();
+    private static final String MESSAGE_FORMATTED = MessageFormatted.class.getSimpleName();
+    private static final String STRING_FORMATTED = StringFormatted.class.getSimpleName();
+
+    private static final String DYNAMIC_MESSAGES_METHOD = "i18nMessages";
+
+    private final List<String> tokens;
+    private final List<MessageEnum> result = new ArrayList<MessageEnum>();
+
+    private int pos;
+
+    private JavaSourceParser(final List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Message enum found in java source.
+     */
+    public static final class MessageEnum {
+
+        private final String name;
+        private final Map<String, FormatType> keys = new HashMap<String, FormatType>();
+        private boolean dynamic;
+
+        MessageEnum(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns binary class name of the enum.
+         * @return binary class name of the enum, for example <code>a.b.Outer$Inner</code>
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns enum constants names with their format types.
+         * @return enum constants names with their format types
+         */
+        public Map<String, FormatType> getKeys() {
+            return keys;
+        }
+
+        /**
+         * Returns true if enum declares <code>i18nMessages</code> method, which
+         * dynamic messages cannot be determined from sources.
+         *
+         * @return true if enum declares dynamic messages
+         */
+        public boolean isDynamic() {
+            return dynamic;
+        }
+    }
+
+    /**
+     * Parses the given java source.
+     *
+     * @param source    java source code
+     * @return          list of found message enums
+     *
+     * @throws RuntimeException if more than one format is specified for enum or constant
+     */
+    public static List<MessageEnum> parse(final String source) {
+        final JavaSourceParser parser = new JavaSourceParser(tokenize(source));
+        parser.parseUnit();
+        return parser.result;
+    }
+
+    /**
+     * Splits the given source into identifiers and punctuation, skipping whitespaces,
+     * comments and literals. Literals are replaced with <code>"</code> token.
+     */
+    private static List<String> tokenize(final String s) {
+        final List<String> tokens = new ArrayList<String>();
+        final int len = s.length();
+        int i = 0;
+        while (i < len) {
+            final char ch = s.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                i++;
+            } else if (ch == '/' && i + 1 < len && s.charAt(i + 1) == '/') {
+                i = s.indexOf('\n', i);
+                if (i == -1) {
+                    i = len;
+                }
+            } else if (ch == '/' && i + 1 < len && s.charAt(i + 1) == '*') {
+                i = s.indexOf("*/", i + 2);
+                i = (i == -1 ? len : i + 2);
+            } else if (ch == '"' && s.startsWith("\"\"\"", i)) {
+                i = s.indexOf("\"\"\"", i + 3);
+                while (i != -1 && s.charAt(i - 1) == '\\') {
+                    i = s.indexOf("\"\"\"", i + 1);
+                }
+                i = (i == -1 ? len : i + 3);
+                tokens.add("\"");
+            } else if (ch == '"' || ch == '\'') {
+                i++;
+                while (i < len && s.charAt(i) != ch) {
+                    i += (s.charAt(i) == '\\' ? 2 : 1);
+                }
+                i++;
+                tokens.add("\"");
+            } else if (Character.isJavaIdentifierPart(ch)) {
+                final int start = i;
+                while (i < len && Character.isJavaIdentifierPart(s.charAt(i))) {
+                    i++;
+                }
+                tokens.add(s.substring(start, i));
+            } else {
+                tokens.add(String.valueOf(ch));
+                i++;
+            }
+        }
+
+        return tokens;
+    }
+
+    private String next() {
+        return pos < tokens.size() ? tokens.get(pos++) : null;
+    }
+
+    private String peek() {
+        return pos < tokens.size() ? tokens.get(pos) : null;
+    }
+
+    private static boolean isIdentifier(final String token) {
+        return token != null && Character.isJavaIdentifierStart(token.charAt(0));
+    }
+
+    private void parseUnit() {
+        String packageName = "";
+        final List<String> annotations = new ArrayList<String>();
+
+        String token;
+        while ((token = next()) != null) {
+            if (token.equals("package")) {
+                packageName = parseQualifiedName() + ".";
+            } else if (token.equals("@")) {
+                parseAnnotation(annotations);
+            } else if (isTypeKeyword(token) && isIdentifier(peek())) {
+                parseType(packageName, token, annotations);
+                annotations.clear();
+            } else if (token.equals(";")) {
+                annotations.clear();
+            }
+        }
+    }
+
+    private static boolean isTypeKeyword(final String token) {
+        return token.equals("class") || token.equals("interface")
+                || token.equals("enum") || token.equals("record");
+    }
+
+    private String parseQualifiedName() {
+        final String first = next();
+        if (first == null) {
+            return "";
+        }
+
+        final StringBuilder name = new StringBuilder(first);
+        while (".".equals(peek()) && pos + 1 < tokens.size()
+                && isIdentifier(tokens.get(pos + 1))) {
+            pos++;
+            name.append('.').append(next());
+        }
+
+        return name.toString();
+    }
+
+    /**
+     * Parses annotation after <code>@</code> token and adds its simple name
+     * to the given list.
+     */
+    private void parseAnnotation(final List<String> annotations) {
+        if ("interface".equals(peek())) {
+            // annotation type declaration
+            return;
+        }
+
+        final String name = parseQualifiedName();
+        annotations.add(name.substring(name.lastIndexOf('.') + 1));
+
+        if ("(".equals(peek())) {
+            pos++;
+            skipBalanced("(", ")");
+        }
+    }
+
+    /**
+     * Skips tokens till the closing one, when opening token is already consumed.
+     */
+    private void skipBalanced(final String open, final String close) {
+        int depth = 1;
+        String token;
+        while (depth > 0 && (token = next()) != null) {
+            if (token.equals(open)) {
+                depth++;
+            } else if (token.equals(close)) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Parses type declaration after type keyword.
+     *
+     * @param prefix        package name or outer class name with separator
+     * @param keyword       type declaration keyword
+     * @param annotations   annotations of the type
+     */
+    private void parseType(final String prefix, final String keyword,
+            final List<String> annotations) {
+
+        final String name = prefix + next();
+
+        // skip type parameters, extends and implements clauses
+        String token;
+        while ((token = next()) != null && !token.equals("{")) {
+            if (token.equals("(")) {
+                // record components
+                skipBalanced("(", ")");
+            } else if (token.equals(";")) {
+                return;
+            }
+        }
+
+        MessageEnum messageEnum = null;
+        if (keyword.equals("enum") && annotations.contains(MESSAGE_PROVIDER)) {
+            messageEnum = new MessageEnum(name);
+            result.add(messageEnum);
+
+            parseEnumConstants(messageEnum, getFormatType(annotations, name, null));
+        }
+
+        parseTypeBody(name + "$", messageEnum);
+    }
+
+    private void parseEnumConstants(final MessageEnum messageEnum,
+            final FormatType defFormatType) {
+
+        final List<String> annotations = new ArrayList<String>();
+        boolean expectConstant = true;
+
+        String token;
+        while ((token = peek()) != null) {
+            if (token.equals(";")) {
+                pos++;
+                return;
+            } else if (token.equals("}")) {
+                // end of enum, processed by type body parser
+                return;
+            }
+
+            pos++;
+            if (token.equals("@")) {
+                parseAnnotation(annotations);
+            } else if (token.equals("(")) {
+                skipBalanced("(", ")");
+            } else if (token.equals("{")) {
+                skipBalanced("{", "}");
+            } else if (token.equals(",")) {
+                expectConstant = true;
+                annotations.clear();
+            } else if (expectConstant && isIdentifier(token)) {
+                expectConstant = false;
+                messageEnum.keys.put(token, getFormatType(annotations,
+                        messageEnum.getName() + "#" + token, defFormatType));
+            }
+        }
+    }
+
+    /**
+     * Parses type body till closing brace, looking for nested types.
+     *
+     * @param prefix        outer class name with separator
+     * @param messageEnum   message enum which body is parsed, or <code>null</code>
+     */
+    private void parseTypeBody(final String prefix, final MessageEnum messageEnum) {
+        final List<String> annotations = new ArrayList<String>();
+
+        String token;
+        while ((token = next()) != null) {
+            if (token.equals("}")) {
+                return;
+            } else if (token.equals("{")) {
+                // method body or initializer, local types are skipped
+                skipBalanced("{", "}");
+                annotations.clear();
+            } else if (token.equals("@")) {
+                parseAnnotation(annotations);
+            } else if (isTypeKeyword(token) && isIdentifier(peek())) {
+                parseType(prefix, token, annotations);
+                annotations.clear();
+            } else if (token.equals(";")) {
+                annotations.clear();
+            } else if (messageEnum != null && token.equals(DYNAMIC_MESSAGES_METHOD)
+                    && "(".equals(peek())) {
+
+                messageEnum.dynamic = true;
+            }
+        }
+    }
+
+    private static FormatType getFormatType(final List<String> annotations,
+            final String elementName, final FormatType defFmt) {
+
+        final boolean msgFmt = annotations.contains(MESSAGE_FORMATTED);
+        final boolean strFmt = annotations.contains(STRING_FORMATTED);
+        if (msgFmt && strFmt) {
+            throw new RuntimeException(
+                    "Specified more than one format for " + elementName);
+        }
+
+        return msgFmt ? FormatType.MESSAGE : (strFmt ? FormatType.STRING : defFmt);
+    }
+}
@@ -0,0 +1,305 @@
+package com.googlecode.i18n;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports properties files of the checked bundles to JSON files, that can be served
+ * statically to web clients.
+ *
+ * <p/>Each locale is exported as one JSON object with messages of the locale merged with
+ * messages of its parent locales, as they are resolved by <code>ResourceBundle</code>.
+ * Keys are sorted, so the same messages always produce the same files.
+ *
+ * <p/>Optionally, file names contain hash of the content, so files can be cached forever,
+ * and gzip compressed copies are written next to the files. Names of exported files are
+ * listed in {@link #MANIFEST} file.
+ */
+public final class JsonBundleExporter {
+
+    /** Name of the file with exported files of all bundles */
+    public final static String MANIFEST = "manifest.json";
+
+    private final static String JSON_EXT = ".json";
+    private final static String GZIP_EXT = ".gz";
+
+    /** Count of hex digits of the content hash used in file names */
+    private final static int HASH_LENGTH = 10;
+
+    private final File resourcesDir;
+    private final File outputDir;
+    private final boolean gzip;
+    private final boolean hashNames;
+
+    /** Exported file names by locale by bundle */
+    private final Map<String, Map<String, String>> exported =
+            new TreeMap<String, Map<String, String>>();
+
+    private int exportedFiles;
+    private long exportedBytes;
+    private long compressedBytes;
+
+    /**
+     * Creates exporter of bundles.
+     *
+     * @param resourcesDir  directory with properties files, usually classes output directory
+     * @param outputDir     directory to write JSON files to
+     * @param gzip          <code>true</code> to write gzip compressed copies of files
+     * @param hashNames     <code>true</code> to add hash of content to file names
+     */
+    public JsonBundleExporter(final File resourcesDir, final File outputDir,
+            final boolean gzip, final boolean hashNames) {
+
+        this.resourcesDir = resourcesDir;
+        this.outputDir = outputDir;
+        this.gzip = gzip;
+        this.hashNames = hashNames;
+    }
+
+    /**
+     * Exports all properties files of bundles checked by the given analyzer and writes
+     * {@link #MANIFEST} file.
+     *
+     * @param analyzer  analyzer, that checked bundles
+     */
+    public void export(final AbstractMessageAnalyzer analyzer) throws IOException {
+        for (final MessageBundle bundle : analyzer.getBundles().values()) {
+            exportBundle(analyzer, bundle.getBaseFilePath());
+        }
+
+        final StringBuilder sb = new StringBuilder("{");
+        for (final Map.Entry<String, Map<String, String>> bundle : exported.entrySet()) {
+            sb.append(sb.length() > 1 ? ",\n" : "\n");
+            appendJson(sb, bundle.getKey());
+            sb.append(":{");
+
+            boolean first = true;
+            for (final Map.Entry<String, String> locale : bundle.getValue().entrySet()) {
+                sb.append(first ? "" : ",");
+                appendJson(sb, locale.getKey());
+                sb.append(':');
+                appendJson(sb, locale.getValue());
+                first = false;
+            }
+
+            sb.append('}');
+        }
+
+        sb.append("\n}\n");
+        write(new File(outputDir, MANIFEST), sb.toString().getBytes("UTF-8"));
+    }
+
+    public int getExportedFiles() {
+        return exportedFiles;
+    }
+
+    /**
+     * Returns size of exported JSON files.
+     * @return count of bytes of JSON files, without compressed copies
+     */
+    public long getExportedBytes() {
+        return exportedBytes;
+    }
+
+    /**
+     * Returns size of gzip compressed copies of exported files.
+     * @return count of bytes of compressed files, <code>0</code> if gzip is disabled
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    private void exportBundle(final AbstractMessageAnalyzer analyzer,
+            final String baseFilePath) throws IOException {
+
+        final Map<String, Properties> loaded = new TreeMap<String, Properties>();
+        for (final Map.Entry<String, String> entry
+                : analyzer.getLocaleFiles(baseFilePath).entrySet()) {
+            final File path = new File(resourcesDir, entry.getKey());
+            if (path.isFile()) {
+                loaded.put(entry.getValue(), AbstractMessageAnalyzer.loadProperties(
+                        new FileInputStream(path)));
+            }
+        }
+
+        for (final String locale : loaded.keySet()) {
+            exportLocale(baseFilePath, locale, merge(loaded, locale));
+        }
+    }
+
+    /**
+     * Merges messages of the given locale with messages of its parent locales.
+     */
+    private static Map<String, String> merge(final Map<String, Properties> loaded,
+            final String locale) {
+
+        final List<String> chain = new ArrayList<String>();
+        for (String l = locale; ; l = l.substring(0, l.lastIndexOf('_'))) {
+            chain.add(0, l);
+            if (l.lastIndexOf('_') == -1) {
+                break;
+            }
+        }
+
+        if (!locale.isEmpty()) {
+            chain.add(0, "");
+        }
+
+        final Map<String, String> messages = new TreeMap<String, String>();
+        for (final String l : chain) {
+            final Properties props = loaded.get(l);
+            if (props != null) {
+                for (final String key : props.stringPropertyNames()) {
+                    messages.put(key, props.getProperty(key));
+                }
+            }
+        }
+
+        return messages;
+    }
+
+    private void exportLocale(final String baseFilePath, final String locale,
+            final Map<String, String> messages) throws IOException {
+
+        final StringBuilder sb = new StringBuilder("{");
+        for (final Map.Entry<String, String> entry : messages.entrySet()) {
+            sb.append(sb.length() > 1 ? ",\n" : "\n");
+            appendJson(sb, entry.getKey());
+            sb.append(':');
+            appendJson(sb, entry.getValue());
+        }
+
+        sb.append("\n}\n");
+        final byte[] content = sb.toString().getBytes("UTF-8");
+
+        final boolean isDir = baseFilePath.endsWith("/");
+        String name = baseFilePath + (locale.isEmpty() || isDir ? "" : "_") + locale;
+        if (hashNames) {
+            name += "." + hash(content);
+        }
+
+        name += JSON_EXT;
+        write(new File(outputDir, name), content);
+        exportedFiles++;
+        exportedBytes += content.length;
+
+        if (gzip) {
+            final File file = new File(outputDir, name + GZIP_EXT);
+            write(file, compress(content));
+            compressedBytes += file.length();
+        }
+
+        Map<String, String> locales = exported.get(baseFilePath);
+        if (locales == null) {
+            locales = new TreeMap<String, String>();
+            exported.put(baseFilePath, locales);
+        }
+
+        locales.put(locale, name);
+    }
+
+    private static String hash(final byte[] content) {
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException x) {
+            throw new RuntimeException(x);
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < HASH_LENGTH; i++) {
+            sb.append(String.format("%02x", digest[i] & 0xff));
+        }
+
+        return sb.substring(0, HASH_LENGTH);
+    }
+
+    /**
+     * Compresses the given content with the best compression, since it is done once at
+     * build time. Modification time is not stored, so the same content produces the same
+     * compressed bytes.
+     */
+    private static byte[] compress(final byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        };
+
+        gzip.write(content);
+        gzip.close();
+        return out.toByteArray();
+    }
+
+    private static void write(final File file, final byte[] content) throws IOException {
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Appends the given string as JSON string literal.
+     *
+     * @param sb    buffer to append to
+     * @param value string to append, can be <code>null</code>
+     */
+    public static void appendJson(final StringBuilder sb, final String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                // line separators are not allowed in JavaScript strings
+                if (c < ' ' || c == 0x2028 || c == 0x2029) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+
+        sb.append('"');
+    }
+}
@@ -0,0 +1,162 @@
+package com.googlecode.i18n;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Index of bundle keys, that is built once and used to check all properties files of the
+ * bundle.
+ *
+ * <p/>Keys are found by their 64-bit fingerprints in open-addressing table, key strings are
+ * compared only when fingerprints are equal. Immutable, so one index can be shared by
+ * concurrent checks, each of them tracks keys found in its properties file with own
+ * {@link Coverage}.
+ */
+final class KeyIndex {
+
+    private final static long FNV_OFFSET = 0xcbf29ce484222325L;
+    private final static long FNV_PRIME = 0x100000001b3L;
+
+    /** Sorted keys */
+    private final String[] keys;
+
+    private final long[] fingerprints;
+    private final int[] slots;
+    private final int mask;
+
+    /**
+     * Creates index of the given keys.
+     *
+     * @param keys  bundle keys
+     */
+    KeyIndex(final Collection<String> keys) {
+        this.keys = keys.toArray(new String[keys.size()]);
+        Arrays.sort(this.keys);
+
+        int capacity = 2;
+        while (capacity < this.keys.length * 2) {
+            capacity <<= 1;
+        }
+
+        this.fingerprints = new long[capacity];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(slots, -1);
+
+        for (int i = 0; i < this.keys.length; i++) {
+            final long fingerprint = fingerprint(this.keys[i]);
+            int slot = slot(fingerprint);
+            while (slots[slot] != -1) {
+                slot = (slot + 1) & mask;
+            }
+
+            fingerprints[slot] = fingerprint;
+            slots[slot] = i;
+        }
+    }
+
+    /**
+     * Returns count of keys.
+     * @return count of keys
+     */
+    int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns key with the given index, keys are sorted.
+     *
+     * @param index key index
+     * @return      key
+     */
+    String getKey(final int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns index of the given key.
+     *
+     * @param key   key to find
+     * @return      key index, or <code>-1</code> if not found
+     */
+    int indexOf(final String key) {
+        final long fingerprint = fingerprint(key);
+        int slot = slot(fingerprint);
+        int index;
+        while ((index = slots[slot]) != -1) {
+            if (fingerprints[slot] == fingerprint && keys[index].equals(key)) {
+                return index;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Calculates FNV-1a 64-bit hash of the given string.
+     */
+    private static long fingerprint(final String key) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private int slot(final long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * Keys of the index found in the checked properties file. Coverage is tracked in bit
+     * set, so checking of properties file doesn't allocate memory for found keys, and can be
+     * reused for the next file. Not thread-safe.
+     */
+    static final class Coverage {
+
+        private final long[] covered;
+        private final String[] values;
+
+        /**
+         * Creates empty coverage of keys of the given index.
+         *
+         * @param index index of keys
+         */
+        Coverage(final KeyIndex index) {
+            this.covered = new long[(index.size() + 63) >>> 6];
+            this.values = new String[index.size()];
+        }
+
+        /**
+         * Resets coverage of keys, before the next properties file is checked.
+         */
+        void clear() {
+            Arrays.fill(covered, 0L);
+            Arrays.fill(values, null);
+        }
+
+        /**
+         * Marks key as found in the current properties file.
+         *
+         * @param index key index
+         * @param value found value
+         */
+        void cover(final int index, final String value) {
+            covered[index >>> 6] |= (1L << index);
+            values[index] = value;
+        }
+
+        /**
+         * Returns value of key in the current properties file.
+         *
+         * @param index key index
+         * @return      value, or <code>null</code> if key is not found
+         */
+        String getValue(final int index) {
+            return ((covered[index >>> 6] & (1L << index)) != 0 ? values[index] : null);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.googlecode.i18n;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import com.googlecode.i18n.format.FormatAnalyzer;
+import com.googlecode.i18n.format.FormatSignature;
+import com.googlecode.i18n.format.FormatSignatures;
+import com.googlecode.i18n.format.FormatType;
+
+/**
+ * Checked messages bundle.
+ *
+ * <p/>Keeps messages info and formats parsed from the base properties file, so localized
+ * properties files of the bundle can be checked again without reloading the base one.
+ */
+final class MessageBundle {
+
+    private final String name;
+    private final String baseFilePath;
+    private final Map<String, FormatType> messages;
+
+    private Map<String, FormatType> keys;
+    private FormatAnalyzer stringFormat;
+    private FormatAnalyzer messageFormat;
+    private KeyIndex index;
+    private KeyIndex.Coverage coverage;
+    private String baseFile;
+    private boolean unusedKeysIgnored;
+
+    /**
+     * Creates bundle with the given messages info.
+     *
+     * @param name          bundle name to display
+     * @param baseFilePath  base properties files path
+     * @param messages      messages info
+     */
+    MessageBundle(final String name, final String baseFilePath,
+            final Map<String, FormatType> messages) {
+
+        this.name = name;
+        this.baseFilePath = baseFilePath;
+        this.messages = messages;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getBaseFilePath() {
+        return baseFilePath;
+    }
+
+    /**
+     * Sets whether keys not found in messages info should not be reported.
+     * Used when not all messages are known, for example dynamic ones.
+     *
+     * @param unusedKeysIgnored true if not used keys should not be reported
+     */
+    void setUnusedKeysIgnored(final boolean unusedKeysIgnored) {
+        this.unusedKeysIgnored = unusedKeysIgnored;
+    }
+
+    boolean isUnusedKeysIgnored() {
+        return unusedKeysIgnored;
+    }
+
+    /**
+     * Returns keys of all messages of this bundle, including formatted ones.
+     * @return keys of all messages
+     */
+    Set<String> getMessageKeys() {
+        return messages.keySet();
+    }
+
+    /**
+     * Returns properties file used as base one for checking formats.
+     * @return  base properties file, or <code>null</code> if no file was checked yet
+     */
+    String getBaseFile() {
+        return baseFile;
+    }
+
+    /**
+     * Resets parsed formats, so the next checked properties file becomes base one.
+     *
+     * @param checker   checker to report errors to
+     */
+    void reset(final MessageChecker checker) {
+        keys = new HashMap<String, FormatType>(messages);
+        stringFormat = new FormatAnalyzer(checker, AbstractMessageAnalyzer.STRING_FORMAT_PARSER);
+        messageFormat = new FormatAnalyzer(checker,
+                AbstractMessageAnalyzer.MESSAGE_FORMAT_PARSER);
+        index = null;
+        baseFile = null;
+    }
+
+    /**
+     * Checks the given properties file of this bundle.
+     *
+     * @param checker   checker to report errors to
+     * @param file      properties file path
+     * @param props     properties loaded from the file, checked ones are removed
+     * @param signatures parsed formats of the file, can be <code>null</code>
+     */
+    void check(final MessageChecker checker, final String file, final Properties props,
+            final FormatSignatures signatures) {
+
+        if (baseFile == null) {
+            baseFile = file;
+        }
+
+        stringFormat.check(props, keys, signatures);
+        messageFormat.check(props, keys, signatures);
+
+        // formatted keys are removed by the base file check, the rest are the same for all files
+        if (index == null) {
+            index = new KeyIndex(keys.keySet());
+            coverage = new KeyIndex.Coverage(index);
+        }
+
+        checker.checkProperties(props, index, coverage, !unusedKeysIgnored, null);
+    }
+
+    /**
+     * Returns base messages of this bundle, as they are after the base properties file
+     * is checked.
+     *
+     * @return  bundle snapshot, or <code>null</code> if no file was checked yet
+     */
+    BundleSnapshot.Bundle snapshot() {
+        if (index == null) {
+            return null;
+        }
+
+        final Map<String, FormatSignature> formats = new HashMap<String, FormatSignature>(
+                stringFormat.getBaseFormats());
+        formats.putAll(messageFormat.getBaseFormats());
+
+        // formatted keys are already removed
+        return new BundleSnapshot.Bundle(name, baseFilePath, unusedKeysIgnored, formats,
+                keys.keySet());
+    }
+}
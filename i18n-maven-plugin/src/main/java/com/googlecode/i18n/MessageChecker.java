@@ -0,0 +1,232 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import com.googlecode.i18n.format.FormatType;
+
+/**
+ * Checks messages of properties files and reports found problems as {@link Finding}s.
+ *
+ * <p/>Doesn't depend on Maven, subclasses decide how to display or collect findings.
+ * Keeps counts of findings of one check, so a new instance is used for each check.
+ * Not thread-safe, see {@link BundleValidator} for reusable API.
+ */
+public abstract class MessageChecker {
+
+    private final static String MISSING_KEY = "Missing key [%s]";
+    private final static String MISSING_VALUE = "Missing value [%s]";
+    private final static String UNUSED_KEY = "Not used key [%s]";
+
+    private final CheckOptions options;
+
+    private String file;
+    private int errorCount;
+    private int warningCount;
+    private volatile boolean cancelled;
+
+    protected MessageChecker(final CheckOptions options) {
+        this.options = (options != null ? options : new CheckOptions());
+    }
+
+    /**
+     * Handles found problem, for example displays it.
+     *
+     * @param finding   found problem
+     */
+    protected abstract void handle(Finding finding);
+
+    /**
+     * Returns options of this check.
+     * @return options of this check
+     */
+    protected CheckOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns true if the check is cancelled, because maximum count of errors is reached.
+     * Work in progress should be stopped as soon as possible.
+     *
+     * @return true if the check is cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns count of found errors
+     * @return count of found errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns count of found warnings
+     * @return count of found warnings
+     */
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    /**
+     * Resets counts of findings and cancellation, so the next check of already checked
+     * files is reported and limited by maximum count of errors on its own.
+     */
+    protected void resetCounts() {
+        errorCount = 0;
+        warningCount = 0;
+        cancelled = false;
+    }
+
+    /**
+     * Sets properties file, which is checked now. Subsequent findings refer to this file.
+     *
+     * @param file  properties file path, <code>null</code> if no file is checked
+     */
+    protected void startFile(final String file) {
+        this.file = file;
+    }
+
+    /**
+     * Reports error with description formatted using the specified format string and
+     * arguments. Cancels the check if maximum count of errors is reached.
+     * Does nothing if the check is cancelled.
+     *
+     * @param type      kind of the problem
+     * @param key       message key, can be <code>null</code>
+     * @param format    format string of the problem description
+     * @param args      arguments referenced by the format string
+     */
+    public void reportError(final Finding.Type type, final String key, final String format,
+            final Object... args) {
+
+        if (cancelled) {
+            // the rest of the current properties file is not reported
+            return;
+        }
+
+        handle(new Finding(Finding.Severity.ERROR, type, file, key,
+                String.format(format, args)));
+
+        errorCount++;
+
+        final int maxErrors = options.getMaxErrors();
+        if (maxErrors > 0 && errorCount >= maxErrors) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Reports warning with description formatted using the specified format string and
+     * arguments. Does nothing if the check is cancelled.
+     *
+     * @param type      kind of the problem
+     * @param key       message key, can be <code>null</code>
+     * @param format    format string of the problem description
+     * @param args      arguments referenced by the format string
+     */
+    public void reportWarning(final Finding.Type type, final String key, final String format,
+            final Object... args) {
+
+        if (cancelled) {
+            return;
+        }
+
+        handle(new Finding(Finding.Severity.WARNING, type, file, key,
+                String.format(format, args)));
+
+        warningCount++;
+    }
+
+    /**
+     * Reports key, that is not used by the bundle messages.
+     *
+     * @param key   not used key
+     */
+    void reportUnused(final String key) {
+        reportWarning(Finding.Type.UNUSED_KEY, key, UNUSED_KEY, key);
+    }
+
+    /**
+     * Checks parameters in property files and comparing with class constants
+     *
+     * @param props     properties for file
+     * @param keys      messages info
+     */
+    protected void checkProperties(final Properties props, final Map<String, FormatType> keys) {
+        final KeyIndex index = new KeyIndex(keys.keySet());
+        checkProperties(props, index, new KeyIndex.Coverage(index), true, null);
+    }
+
+    /**
+     * Checks properties of the file against the given keys index. Keys are reported in
+     * sorted order.
+     *
+     * @param props         properties for file
+     * @param index         index of messages keys
+     * @param coverage      coverage of the index keys, cleared before and after the check
+     * @param reportUnused  <code>true</code> if not used keys should be reported
+     * @param checked       keys of the file checked already, that are not used keys, can be
+     *                      <code>null</code>
+     */
+    void checkProperties(final Properties props, final KeyIndex index,
+            final KeyIndex.Coverage coverage, final boolean reportUnused,
+            final Collection<String> checked) {
+
+        List<String> unusedKeys = null;
+
+        coverage.clear();
+        for (final Map.Entry<Object, Object> entry : props.entrySet()) {
+            final String key = (String) entry.getKey();
+            final int i = index.indexOf(key);
+            if (i != -1) {
+                coverage.cover(i, (String) entry.getValue());
+            } else if (reportUnused && (checked == null || !checked.contains(key))) {
+                if (unusedKeys == null) {
+                    unusedKeys = new ArrayList<String>();
+                }
+
+                unusedKeys.add(key);
+            }
+        }
+
+        for (int i = 0; i < index.size(); i++) {
+            checkProperty(index.getKey(i), coverage.getValue(i));
+        }
+
+        coverage.clear();
+
+        if (unusedKeys != null) {
+            Collections.sort(unusedKeys);
+            for (final String key : unusedKeys) {
+                reportUnused(key);
+            }
+        }
+    }
+
+    /**
+     * Returns true if and only if for property present key and value.
+     *
+     * @param key       checked key
+     * @param value     checked value
+     * @return          <code>true</code> if and only if property has both key and value
+     */
+    public boolean checkProperty(final String key, final String value) {
+        if (value == null) {
+            reportError(Finding.Type.MISSING_KEY, key, MISSING_KEY, key);
+            return false;
+        }
+
+        if (value.trim().isEmpty()) {
+            reportError(Finding.Type.MISSING_VALUE, key, MISSING_VALUE, key);
+            return false;
+        }
+
+        return true;
+    }
+}
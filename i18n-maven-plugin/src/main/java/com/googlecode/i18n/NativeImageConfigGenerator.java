@@ -0,0 +1,198 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import com.googlecode.i18n.util.MessageControl;
+
+/**
+ * Generates GraalVM native-image configuration for the checked bundles, so their
+ * properties files and classes are included in native executables.
+ *
+ * <p/>Writes {@link #RESOURCE_CONFIG} with properties files of bundles and
+ * {@link #REFLECT_CONFIG} with message enums and generated bundle classes, that are
+ * accessed by reflection. Files should be placed into
+ * <code>META-INF/native-image/&lt;groupId&gt;/&lt;artifactId&gt;</code> directory, where
+ * native-image finds them automatically.
+ */
+public final class NativeImageConfigGenerator {
+
+    public final static String RESOURCE_CONFIG = "resource-config.json";
+    public final static String REFLECT_CONFIG = "reflect-config.json";
+
+    private final static String PROP_EXT = ".properties";
+    private final static String CLASS_EXT = ".class";
+
+    private final File resourcesDir;
+
+    /** Existing properties files of bundles by bundle name */
+    private final Map<String, Set<String>> resources = new TreeMap<String, Set<String>>();
+
+    /** Locales of bundles by bundle name */
+    private final Map<String, Set<String>> bundles = new TreeMap<String, Set<String>>();
+
+    /** Message enums and generated bundle classes */
+    private final Set<String> enums = new TreeSet<String>();
+    private final Set<String> bundleClasses = new TreeSet<String>();
+
+    /**
+     * Creates generator of native-image configuration.
+     *
+     * @param resourcesDir  directory with properties files and classes, usually classes
+     *                      output directory
+     */
+    public NativeImageConfigGenerator(final File resourcesDir) {
+        this.resourcesDir = resourcesDir;
+    }
+
+    /**
+     * Writes configuration files for bundles checked by the given analyzer.
+     *
+     * @param analyzer  analyzer, that checked bundles
+     * @param outputDir directory to write configuration files to
+     */
+    public void generate(final AbstractMessageAnalyzer analyzer, final File outputDir)
+            throws IOException {
+
+        for (final MessageBundle bundle : analyzer.getBundles().values()) {
+            addBundle(analyzer, bundle);
+        }
+
+        write(new File(outputDir, RESOURCE_CONFIG), getResourceConfig());
+        write(new File(outputDir, REFLECT_CONFIG), getReflectConfig());
+    }
+
+    public int getResourceCount() {
+        int count = 0;
+        for (final Set<String> files : resources.values()) {
+            count += files.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns count of classes, that are accessed by reflection.
+     * @return count of message enums and generated bundle classes
+     */
+    public int getClassCount() {
+        return enums.size() + bundleClasses.size();
+    }
+
+    private void addBundle(final AbstractMessageAnalyzer analyzer, final MessageBundle bundle) {
+        final String baseFilePath = bundle.getBaseFilePath();
+        final boolean isDir = baseFilePath.endsWith("/");
+
+        // bundles of classes are named by classes, plain ones by paths
+        final String bundleName = baseFilePath.replace('/', '.');
+        if (!isDir && bundle.getName().equals(bundleName)) {
+            enums.add(bundle.getName());
+        }
+
+        final Set<String> files = new TreeSet<String>();
+        final Set<String> locales = new TreeSet<String>();
+        for (final Map.Entry<String, String> entry
+                : analyzer.getLocaleFiles(baseFilePath).entrySet()) {
+
+            final String file = entry.getKey();
+            if (!new File(resourcesDir, file).isFile()) {
+                continue;
+            }
+
+            files.add(file);
+            if (!entry.getValue().isEmpty()) {
+                locales.add(entry.getValue());
+            }
+
+            final String className = file.substring(0, file.length() - PROP_EXT.length())
+                    + MessageControl.GENERATED_SUFFIX;
+            if (new File(resourcesDir, className + CLASS_EXT).isFile()) {
+                bundleClasses.add(className.replace('/', '.'));
+            }
+        }
+
+        resources.put(baseFilePath, files);
+        if (!isDir) {
+            bundles.put(bundleName, locales);
+        }
+    }
+
+    private String getResourceConfig() {
+        final StringBuilder sb = new StringBuilder("{\n  \"resources\":{\"includes\":[");
+        boolean first = true;
+        for (final Set<String> files : resources.values()) {
+            for (final String file : files) {
+                sb.append(first ? "\n" : ",\n").append("    {\"pattern\":");
+                JsonBundleExporter.appendJson(sb, "\\Q" + file + "\\E");
+                sb.append('}');
+                first = false;
+            }
+        }
+
+        sb.append("\n  ]},\n  \"bundles\":[");
+        first = true;
+        for (final Map.Entry<String, Set<String>> bundle : bundles.entrySet()) {
+            sb.append(first ? "\n" : ",\n").append("    {\"name\":");
+            JsonBundleExporter.appendJson(sb, bundle.getKey());
+            sb.append(",\"locales\":[");
+
+            boolean firstLocale = true;
+            for (final String locale : bundle.getValue()) {
+                sb.append(firstLocale ? "" : ",");
+                JsonBundleExporter.appendJson(sb, locale.replace('_', '-'));
+                firstLocale = false;
+            }
+
+            sb.append("]}");
+            first = false;
+        }
+
+        sb.append("\n  ]\n}\n");
+        return sb.toString();
+    }
+
+    private String getReflectConfig() {
+        final StringBuilder sb = new StringBuilder("[");
+        boolean first = true;
+
+        // enum constants are looked up by name, values() is called reflectively
+        for (final String className : enums) {
+            sb.append(first ? "\n" : ",\n").append("  {\"name\":");
+            JsonBundleExporter.appendJson(sb, className);
+            sb.append(",\"allPublicFields\":true,\"methods\":["
+                    + "{\"name\":\"values\",\"parameterTypes\":[]},"
+                    + "{\"name\":\"valueOf\",\"parameterTypes\":[\"java.lang.String\"]}]}");
+            first = false;
+        }
+
+        // generated bundles are instantiated by MessageControl
+        for (final String className : bundleClasses) {
+            sb.append(first ? "\n" : ",\n").append("  {\"name\":");
+            JsonBundleExporter.appendJson(sb, className);
+            sb.append(",\"methods\":[{\"name\":\"<init>\",\"parameterTypes\":[]}]}");
+            first = false;
+        }
+
+        sb.append("\n]\n");
+        return sb.toString();
+    }
+
+    private static void write(final File file, final String content) throws IOException {
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Filters classes by their packages.
+ *
+ * <p/>Patterns are package names, which match the package itself and all its subpackages.
+ * Wildcard <code>*</code> matches part of one package name, <code>**</code> matches any
+ * number of package names, for example <code>com.acme.*.generated</code> or
+ * <code>**.generated</code>.
+ */
+public final class PackageFilter implements ClassFilter {
+
+    private final List<Include> includes = new ArrayList<Include>();
+    private final List<Pattern> excludes = new ArrayList<Pattern>();
+
+    /**
+     * Creates filter with the given patterns.
+     *
+     * @param includes  comma separated list of included packages patterns,
+     *                  all packages are included if empty or <code>null</code>
+     * @param excludes  comma separated list of excluded packages patterns,
+     *                  can be <code>null</code>
+     */
+    public PackageFilter(final String includes, final String excludes) {
+        for (final String pattern : StringHelpers.splitList(includes)) {
+            this.includes.add(new Include(pattern));
+        }
+
+        for (final String pattern : StringHelpers.splitList(excludes)) {
+            this.excludes.add(compile(pattern));
+        }
+    }
+
+    /**
+     * Returns true if no patterns are specified.
+     * @return true if all classes are accepted
+     */
+    public boolean isEmpty() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    @Override
+    public boolean acceptPackage(final String packageName) {
+        if (packageName.isEmpty()) {
+            return true;
+        }
+
+        if (isExcluded(packageName)) {
+            return false;
+        }
+
+        if (includes.isEmpty()) {
+            return true;
+        }
+
+        for (final Include include : includes) {
+            if (include.isReachable(packageName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean acceptClass(final String className) {
+        final int dot = className.lastIndexOf('.');
+        final String packageName = (dot == -1 ? "" : className.substring(0, dot));
+
+        if (isExcluded(packageName)) {
+            return false;
+        }
+
+        if (includes.isEmpty()) {
+            return true;
+        }
+
+        for (final Include include : includes) {
+            if (include.pattern.matcher(packageName).matches()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns filter, that accepts only classes accepted by both this filter and the given
+     * one.
+     *
+     * @param filter    another filter, can be <code>null</code>
+     * @return          combined filter
+     */
+    public ClassFilter and(final ClassFilter filter) {
+        if (filter == null) {
+            return this;
+        }
+
+        return new ClassFilter() {
+
+            @Override
+            public boolean acceptPackage(final String packageName) {
+                return PackageFilter.this.acceptPackage(packageName)
+                        && filter.acceptPackage(packageName);
+            }
+
+            @Override
+            public boolean acceptClass(final String className) {
+                return PackageFilter.this.acceptClass(className)
+                        && filter.acceptClass(className);
+            }
+        };
+    }
+
+    private boolean isExcluded(final String packageName) {
+        for (final Pattern exclude : excludes) {
+            if (exclude.matcher(packageName).matches()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Compiles package pattern to regular expression, that matches
+     * the package and its subpackages.
+     */
+    private static Pattern compile(final String pattern) {
+        return Pattern.compile(StringHelpers.wildcardToRegex(pattern, '.') + "(\\..*)?");
+    }
+
+    /**
+     * Included packages pattern.
+     */
+    private static final class Include {
+
+        private final Pattern pattern;
+
+        /** Package names before the first wildcard */
+        private final String prefix;
+        private final boolean wildcard;
+
+        Include(final String pattern) {
+            this.pattern = compile(pattern);
+
+            final int star = pattern.indexOf('*');
+            this.wildcard = (star != -1);
+            if (wildcard) {
+                final int dot = pattern.lastIndexOf('.', star);
+                this.prefix = (dot == -1 ? "" : pattern.substring(0, dot));
+            } else {
+                this.prefix = pattern;
+            }
+        }
+
+        /**
+         * Checks whether the given package or its subpackages can be included.
+         */
+        boolean isReachable(final String packageName) {
+            if (prefix.isEmpty() || (prefix + ".").startsWith(packageName + ".")) {
+                // package is the parent of included ones
+                return true;
+            }
+
+            if (wildcard) {
+                // can't tell for sure for packages matched by wildcards
+                return packageName.startsWith(prefix + ".");
+            }
+
+            return pattern.matcher(packageName).matches();
+        }
+    }
+}
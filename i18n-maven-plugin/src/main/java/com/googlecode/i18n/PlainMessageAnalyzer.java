@@ -6,9 +6,10 @@ import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import org.apache.maven.plugin.logging.Log;
+import com.googlecode.i18n.format.AbstractFormatParser;
 import com.googlecode.i18n.format.FormatAnalyzer;
+import com.googlecode.i18n.format.FormatSignature;
 import com.googlecode.i18n.format.FormatType;
 
 /**
@@ -20,14 +21,18 @@ public final class PlainMessageAnalyzer extends AbstractMessageAnalyzer {
     private final String plainFilePath;
     private final FormatType formatType;
 
+    /** Class loader created by this analyzer, if any */
+    private ClassLoader ownClassLoader;
+
     private PlainMessageAnalyzer(final Log log,
             final String locales,
             final String baseLocale,
             final String plainFilePath,
             final String formatType,
-            final ClassLoader resourceClassLoader) {
+            final ClassLoader resourceClassLoader,
+            final CheckOptions options) {
 
-        super(log, locales, baseLocale);
+        super(log, locales, baseLocale, options);
 
         if (resourceClassLoader == null) {
             throw new IllegalArgumentException("resourceClassLoader cannot be null");
@@ -61,14 +66,68 @@ public final class PlainMessageAnalyzer extends AbstractMessageAnalyzer {
             final String baseFilePath,
             final String formatType) {
 
+        return check(log, resourcePath, locales, baseLocale, baseFilePath, formatType, null);
+    }
+
+    /**
+     * Performs plain properties files localization check using the given options.
+     *
+     * @param log           use maven or console
+     * @param resourcePath  directory with localized resources
+     * @param locales       list of supported locales
+     * @param options       check options, <code>null</code> to use defaults
+     * @return              analyzer object, that contains count of found errors and warnings
+     */
+    public static PlainMessageAnalyzer check(final Log log,
+            final String resourcePath,
+            final String locales,
+            final String baseLocale,
+            final String baseFilePath,
+            final String formatType,
+            final CheckOptions options) {
+
         final File dir = new File(resourcePath);
         if (!dir.isDirectory()) {
             throw new RuntimeException("Resource directory doesn't exist: " + dir);
         }
 
+        final ClassLoader resourceClassLoader = ClassHelpers.createClassLoader(
+                PlainMessageAnalyzer.class.getClassLoader(), dir);
+
+        final PlainMessageAnalyzer analizer;
+        try {
+            analizer = check(log, resourceClassLoader, locales, baseLocale, baseFilePath,
+                    formatType, options);
+        } catch (RuntimeException x) {
+            ClassHelpers.closeClassLoader(resourceClassLoader);
+            throw x;
+        }
+
+        analizer.ownClassLoader = resourceClassLoader;
+        return analizer;
+    }
+
+    /**
+     * Performs plain properties files localization check loading resources with the given
+     * class loader.
+     *
+     * @param log                   use maven or console
+     * @param resourceClassLoader   class loader to load localized resources with
+     * @param locales               list of supported locales
+     * @param options               check options, <code>null</code> to use defaults
+     * @return                      analyzer object, that contains count of found errors
+     *                              and warnings
+     */
+    public static PlainMessageAnalyzer check(final Log log,
+            final ClassLoader resourceClassLoader,
+            final String locales,
+            final String baseLocale,
+            final String baseFilePath,
+            final String formatType,
+            final CheckOptions options) {
+
         final PlainMessageAnalyzer analizer = new PlainMessageAnalyzer(log, locales,
-                baseLocale, baseFilePath, formatType,
-                ClassHelpers.createClassLoader(PlainMessageAnalyzer.class.getClassLoader(), dir));
+                baseLocale, baseFilePath, formatType, resourceClassLoader, options);
         try {
             analizer.checkPlain();
 
@@ -81,28 +140,30 @@ public final class PlainMessageAnalyzer extends AbstractMessageAnalyzer {
 
     private Map<String, FormatType> getPlainMessages(final String indent) throws IOException {
         final String basePropFile = getBasePropertiesFile(this.plainFilePath);
-        final InputStream is = resourceClassLoader.getResourceAsStream(basePropFile);
-        if (is == null) {
-            reportError(indent, "Missing %s", basePropFile);
+        final PropertiesCache.Entry entry = PropertiesCache.load(resourceClassLoader,
+                basePropFile);
+        startFile(basePropFile);
+        if (entry == null) {
+            reportError(Finding.Type.MISSING_FILE, null, "Missing %s", basePropFile);
             return null;
         }
 
-        try {
-            final Map<String, FormatType> keys = new HashMap<String, FormatType>();
-            getLog().debug(indent + "Loading " + basePropFile);
-
-            for (final String prop : loadProperties(is).stringPropertyNames()) {
-                keys.put(prop, formatType);
-            }
+        final Map<String, FormatType> keys = new HashMap<String, FormatType>();
+        getLog().debug(indent + "Loading " + basePropFile);
 
-            return keys;
-
-        } finally {
-            is.close();
+        for (final String prop : entry.getProperties().stringPropertyNames()) {
+            keys.put(prop, formatType);
         }
+
+        return keys;
     }
     
     private void checkPlain() throws IOException {
+        if (getOptions().getMemoryLimit() > 0) {
+            checkPlainSorted();
+            return;
+        }
+
         final Log log = getLog();
         log.info("Checking " + plainFilePath);
 
@@ -115,34 +176,213 @@ public final class PlainMessageAnalyzer extends AbstractMessageAnalyzer {
         }
 
         if (keys.isEmpty()) {
-            reportError(indent, "No base messages found");
+            reportError(Finding.Type.NO_MESSAGES, null, "No base messages found");
             return;
         }
 
-        final List<String> propFiles = getPropertiesFiles(plainFilePath);
+        checkBundle(depth, new MessageBundle(plainFilePath, plainFilePath, keys),
+                resourceClassLoader);
+    }
+
+    /**
+     * Checks properties files keeping in memory only limited count of properties.
+     * Properties files are sorted on disk and compared sequentially.
+     */
+    private void checkPlainSorted() throws IOException {
+        final Log log = getLog();
+        log.info("Checking " + plainFilePath);
+
+        final int depth = 1;
+        final String indent = indent(depth);
+        final List<String> files = getPropertiesFiles(plainFilePath);
+        final SortedProperties base = sortProperties(files.get(0));
+        startFile(files.get(0));
+        if (base == null) {
+            reportError(Finding.Type.MISSING_FILE, null, "Missing %s", files.get(0));
+            return;
+        }
+
+        try {
+            if (base.size() == 0) {
+                reportError(Finding.Type.NO_MESSAGES, null, "No base messages found");
+                return;
+            }
+
+            final FormatAnalyzer formatAnalyzer = (formatType != null
+                    ? new FormatAnalyzer(this, getFormatParser()) : null);
+
+            for (int i = 0; i < files.size(); i++) {
+                if (isCancelled()) {
+                    skip(SKIPPED_FILES, files.size() - i);
+                    return;
+                }
+
+                final String file = files.get(i);
+                final String propsName = file.substring(file.lastIndexOf('/') + 1);
+                startFile(file);
+                if (i == 0) {
+                    log.info(indent + "Checking " + propsName);
+                    checkSortedBase(base, formatAnalyzer);
+                    continue;
+                }
+
+                final SortedProperties props = sortProperties(file);
+                if (props == null) {
+                    reportError(Finding.Type.MISSING_FILE, null, "Missing %s", propsName);
+                    continue;
+                }
+
+                try {
+                    log.info(indent + "Checking " + propsName);
+                    checkSorted(base, props, formatAnalyzer);
+                } finally {
+                    props.delete();
+                }
+            }
+        } finally {
+            base.delete();
+        }
+    }
+
+    private SortedProperties sortProperties(final String file) throws IOException {
+        final InputStream is = resourceClassLoader.getResourceAsStream(file);
+        if (is == null) {
+            return null;
+        }
 
-        final FormatAnalyzer stringFormat = new FormatAnalyzer(this, STRING_FORMAT_PARSER);
-        final FormatAnalyzer messageFormat = new FormatAnalyzer(this, MESSAGE_FORMAT_PARSER);
-        
-        for (final String file : propFiles) {
-            final String propsName = file.substring(file.lastIndexOf('/') + 1);
-            final InputStream is = resourceClassLoader.getResourceAsStream(file);
-            if (is == null) {
-                reportError(indent, "Missing %s", propsName);
-                continue;
+        return SortedProperties.sort(is, getOptions().getMemoryLimit());
+    }
+
+    /**
+     * Checks values and formats of the sorted base properties.
+     */
+    private void checkSortedBase(final SortedProperties base,
+            final FormatAnalyzer formatAnalyzer) throws IOException {
+
+        final SortedProperties.Cursor cursor = base.open();
+        try {
+            while (!isCancelled() && cursor.next()) {
+                if (formatAnalyzer != null) {
+                    formatAnalyzer.checkBaseFormat(cursor.getKey(), cursor.getValue(), null);
+                } else {
+                    checkProperty(cursor.getKey(), cursor.getValue());
+                }
             }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Checks the sorted localized properties against the sorted base ones, reading both
+     * of them at the same time.
+     */
+    private void checkSorted(final SortedProperties base, final SortedProperties props,
+            final FormatAnalyzer formatAnalyzer) throws IOException {
 
+        final SortedProperties.Cursor baseCursor = base.open();
+        try {
+            final SortedProperties.Cursor cursor = props.open();
             try {
-                log.info(indent + "Checking " + propsName);
+                boolean hasBase = baseCursor.next();
+                boolean hasProp = cursor.next();
+
+                while ((hasBase || hasProp) && !isCancelled()) {
+                    final int cmp = (!hasBase ? 1 : (!hasProp ? -1
+                            : baseCursor.getKey().compareTo(cursor.getKey())));
 
-                final Properties props = loadProperties(is);
-                stringFormat.check(depth + 1, props, keys);
-                messageFormat.check(depth + 1, props, keys);
-                checkProperties(depth, props, keys);
+                    if (cmp > 0) {
+                        reportUnused(cursor.getKey());
+                        hasProp = cursor.next();
+                        continue;
+                    }
 
+                    final String key = baseCursor.getKey();
+                    final String value = (cmp == 0 ? cursor.getValue() : null);
+                    if (formatAnalyzer == null) {
+                        checkProperty(key, value);
+                    } else {
+                        final FormatSignature baseFormat = parseBaseFormat(baseCursor.getValue());
+                        if (baseFormat != null) {
+                            formatAnalyzer.checkMessageFormat(key, value, baseFormat, null);
+                        } else if (value != null) {
+                            // invalid base messages are not checked
+                            reportUnused(key);
+                        }
+                    }
+
+                    hasBase = baseCursor.next();
+                    if (cmp == 0) {
+                        hasProp = cursor.next();
+                    }
+                }
             } finally {
-                is.close();
+                cursor.close();
+            }
+        } finally {
+            baseCursor.close();
+        }
+    }
+
+    private FormatSignature parseBaseFormat(final String value) {
+        if (value.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return getFormatParser().parseSignature(value);
+
+        } catch (IllegalArgumentException x) {
+            return null;
+        }
+    }
+
+    private AbstractFormatParser getFormatParser() {
+        return (formatType == FormatType.STRING ? STRING_FORMAT_PARSER : MESSAGE_FORMAT_PARSER);
+    }
+
+    /**
+     * Checks again the given properties file. The whole bundle is checked if base
+     * properties file is given. Counts of findings are reset the same way as by
+     * {@link #recheckFile(String, ClassLoader)}.
+     *
+     * @param file  properties file path
+     * @return      <code>true</code> if the file belongs to the checked bundle
+     * @see #recheckFile(String, ClassLoader)
+     */
+    public boolean recheck(final String file) {
+        try {
+            if (getOptions().getMemoryLimit() > 0) {
+                // nothing is kept in memory, so the whole bundle is checked
+                if (!getPropertiesFiles(plainFilePath).contains(file)) {
+                    return false;
+                }
+
+                resetCounts();
+                checkPlain();
+                return true;
             }
+
+            if (file.equals(getBasePropertiesFile(plainFilePath))) {
+                // base messages could be changed as well
+                resetCounts();
+                checkPlain();
+                return true;
+            }
+
+            return recheckFile(file, resourceClassLoader);
+
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Closes resources class loader as well, if it was created by this analyzer.
+     */
+    @Override
+    public void close() {
+        super.close();
+        ClassHelpers.closeClassLoader(ownClassLoader);
+    }
 }
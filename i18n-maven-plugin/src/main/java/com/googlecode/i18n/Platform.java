@@ -0,0 +1,55 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors of analyzers and stamps of checked files.
+ */
+public final class Platform {
+
+    private Platform() {
+    }
+
+    /**
+     * Creates executor for CPU bound tasks.
+     *
+     * @param threads   count of threads
+     * @param name      name of threads
+     * @return          new executor with daemon threads
+     */
+    public static ExecutorService newExecutor(final int threads, final String name) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Creates executor for tasks, that mostly wait for reading files.
+     *
+     * @param threads   maximum count of concurrently running tasks
+     * @param name      name of threads
+     * @return          new executor with daemon threads
+     */
+    public static ExecutorService newIoExecutor(final int threads, final String name) {
+        return newExecutor(threads, name);
+    }
+
+    /**
+     * Returns size and modification time of the given file, to detect its changes.
+     *
+     * @param file  file to get stamp of
+     * @return      stamp of the file, that changes when the file is modified
+     */
+    public static String getFileStamp(final File file) {
+        return file.length() + ":" + file.lastModified();
+    }
+}
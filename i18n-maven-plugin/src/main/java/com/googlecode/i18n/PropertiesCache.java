@@ -0,0 +1,242 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import com.googlecode.i18n.format.FormatSignatures;
+
+/**
+ * JVM-wide cache of loaded properties files and their parsed formats.
+ *
+ * <p/>Allows repeated builds in the same JVM, like Maven daemon, to not parse unchanged
+ * properties files again. Files are identified by their URL, size and modification time,
+ * only files from directories and JAR files are cached. The least recently used files are
+ * evicted when estimated size of the cached files exceeds {@link #getMaxSize()}.
+ */
+public final class PropertiesCache {
+
+    /** Default maximum estimated size of the cache in bytes */
+    public final static long DEFAULT_MAX_SIZE = 32L * 1024 * 1024;
+
+    /** Estimated memory used per character of keys and values, including parsed formats */
+    private final static int SIZE_FACTOR = 8;
+
+    private final static Map<String, Entry> ENTRIES = new LinkedHashMap<String, Entry>(
+            16, 0.75f, true);
+
+    private static long maxSize = DEFAULT_MAX_SIZE;
+    private static long size;
+
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    private PropertiesCache() {
+    }
+
+    /**
+     * Loaded properties file.
+     */
+    public static final class Entry {
+
+        private final String key;
+        private final Properties props;
+        private final FormatSignatures signatures;
+        private final long size;
+
+        Entry(final String key, final Properties props, final long size) {
+            this.key = key;
+            this.props = props;
+            this.signatures = new FormatSignatures();
+            this.size = size;
+        }
+
+        /**
+         * Returns copy of the loaded properties, that can be modified by the caller.
+         * @return copy of the loaded properties
+         */
+        public Properties getProperties() {
+            final Properties copy = new Properties();
+            copy.putAll(props);
+            return copy;
+        }
+
+        /**
+         * Returns parsed formats of the properties file.
+         * @return parsed formats of the properties file
+         */
+        public FormatSignatures getSignatures() {
+            return signatures;
+        }
+    }
+
+    /**
+     * Loads properties file with the given class loader, or returns already loaded one if
+     * it was not changed since then.
+     *
+     * @param loader    class loader to load properties file with
+     * @param path      properties file resource path
+     * @return          loaded properties file, or <code>null</code> if not found
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public static Entry load(final ClassLoader loader, final String path) throws IOException {
+        final URL url = loader.getResource(path);
+        if (url == null) {
+            return null;
+        }
+
+        final String key = getKey(url);
+        if (key != null) {
+            synchronized (PropertiesCache.class) {
+                final Entry entry = ENTRIES.get(key);
+                if (entry != null) {
+                    hits++;
+                    return entry;
+                }
+
+                misses++;
+            }
+        }
+
+        // class loader closes opened JAR files itself
+        final InputStream is = loader.getResourceAsStream(path);
+        if (is == null) {
+            return null;
+        }
+
+        final Properties props;
+        try {
+            props = AbstractMessageAnalyzer.loadProperties(is);
+        } finally {
+            is.close();
+        }
+
+        final Entry entry = new Entry(key, props, getSize(props));
+        if (key != null) {
+            put(entry);
+        }
+
+        return entry;
+    }
+
+    private static synchronized void put(final Entry entry) {
+        if (entry.size > maxSize) {
+            return;
+        }
+
+        final Entry old = ENTRIES.put(entry.key, entry);
+        if (old != null) {
+            size -= old.size;
+        }
+
+        size += entry.size;
+        evict();
+    }
+
+    private static void evict() {
+        while (size > maxSize && !ENTRIES.isEmpty()) {
+            final Entry eldest = ENTRIES.values().iterator().next();
+            ENTRIES.remove(eldest.key);
+            size -= eldest.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns cache key for the given URL, with size and modification time of the file.
+     * Files in JAR are identified by size and modification time of the JAR file.
+     *
+     * @param url   properties file URL
+     * @return      cache key, or <code>null</code> if the file cannot be cached
+     */
+    private static String getKey(final URL url) {
+        URL fileUrl = url;
+        if ("jar".equals(url.getProtocol())) {
+            final String path = url.getPath();
+            final int separator = path.indexOf("!/");
+            if (separator == -1) {
+                return null;
+            }
+
+            try {
+                fileUrl = new URL(path.substring(0, separator));
+            } catch (MalformedURLException x) {
+                return null;
+            }
+        }
+
+        if (!"file".equals(fileUrl.getProtocol())) {
+            return null;
+        }
+
+        final File file;
+        try {
+            file = new File(fileUrl.toURI());
+        } catch (URISyntaxException x) {
+            return null;
+        } catch (IllegalArgumentException x) {
+            return null;
+        }
+
+        return url + ":" + Platform.getFileStamp(file);
+    }
+
+    private static long getSize(final Properties props) {
+        long chars = 0;
+        for (final Map.Entry<Object, Object> entry : props.entrySet()) {
+            chars += ((String) entry.getKey()).length() + ((String) entry.getValue()).length();
+        }
+
+        return chars * SIZE_FACTOR;
+    }
+
+    /**
+     * Returns maximum estimated size of the cache.
+     * @return maximum estimated size of the cache in bytes
+     */
+    public static synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets maximum estimated size of the cache, evicts files if the cache is bigger.
+     *
+     * @param maxSize   maximum estimated size in bytes, <code>0</code> disables caching
+     */
+    public static synchronized void setMaxSize(final long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize cannot be negative: " + maxSize);
+        }
+
+        PropertiesCache.maxSize = maxSize;
+        evict();
+    }
+
+    /**
+     * Removes all cached files and resets statistics.
+     */
+    public static synchronized void clear() {
+        ENTRIES.clear();
+        size = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Returns cache statistics to display.
+     * @return cache statistics
+     */
+    public static synchronized String getStatistics() {
+        return ENTRIES.size() + " file(s), " + (size / 1024) + " of " + (maxSize / 1024)
+                + " KB, " + hits + " hit(s), " + misses + " miss(es), "
+                + evictions + " eviction(s)";
+    }
+}
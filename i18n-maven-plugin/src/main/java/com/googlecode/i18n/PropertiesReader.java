@@ -0,0 +1,242 @@
+package com.googlecode.i18n;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads properties one by one, without loading the whole file into memory.
+ *
+ * <p/>Follows the format of {@link java.util.Properties#load(Reader)}: comments, line
+ * continuations, key separators and escape sequences are handled the same way.
+ * Duplicate keys are returned as they are found.
+ */
+final class PropertiesReader {
+
+    private final Reader reader;
+    private final StringBuilder line = new StringBuilder();
+
+    private String key;
+    private String value;
+
+    /**
+     * Creates reader of the given buffered characters stream.
+     *
+     * @param reader    buffered characters stream
+     */
+    PropertiesReader(final Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next property.
+     *
+     * @return <code>true</code> if property is read, <code>false</code> if end of stream
+     *         is reached
+     *
+     * @throws IllegalArgumentException if malformed \\uxxxx escape sequence is found
+     */
+    boolean next() throws IOException {
+        if (!readLine()) {
+            key = null;
+            value = null;
+            return false;
+        }
+
+        final int limit = line.length();
+        int keyLen = 0;
+        int valueStart = limit;
+        boolean hasSep = false;
+        boolean precedingBackslash = false;
+
+        while (keyLen < limit) {
+            final char c = line.charAt(keyLen);
+            if ((c == '=' || c == ':') && !precedingBackslash) {
+                valueStart = keyLen + 1;
+                hasSep = true;
+                break;
+            } else if (isWhiteSpace(c) && !precedingBackslash) {
+                valueStart = keyLen + 1;
+                break;
+            }
+
+            precedingBackslash = (c == '\\' && !precedingBackslash);
+            keyLen++;
+        }
+
+        while (valueStart < limit) {
+            final char c = line.charAt(valueStart);
+            if (!isWhiteSpace(c)) {
+                if (!hasSep && (c == '=' || c == ':')) {
+                    hasSep = true;
+                } else {
+                    break;
+                }
+            }
+
+            valueStart++;
+        }
+
+        key = convert(0, keyLen);
+        value = convert(valueStart, limit);
+        return true;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads logical line, skipping comments and blank lines, joining continued lines.
+     * Escape sequences are kept as is.
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+
+        boolean skipWhiteSpace = true;
+        boolean isCommentLine = false;
+        boolean isNewLine = true;
+        boolean appendedLineBegin = false;
+        boolean precedingBackslash = false;
+        boolean skipLF = false;
+
+        while (true) {
+            final int ci = reader.read();
+            if (ci == -1) {
+                if (line.length() == 0 || isCommentLine) {
+                    return false;
+                }
+
+                if (precedingBackslash) {
+                    line.setLength(line.length() - 1);
+                }
+
+                return true;
+            }
+
+            final char c = (char) ci;
+            if (skipLF) {
+                skipLF = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+
+            if (skipWhiteSpace) {
+                if (isWhiteSpace(c)) {
+                    continue;
+                }
+                if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                    continue;
+                }
+
+                skipWhiteSpace = false;
+                appendedLineBegin = false;
+            }
+
+            if (isNewLine) {
+                isNewLine = false;
+                if (c == '#' || c == '!') {
+                    isCommentLine = true;
+                    continue;
+                }
+            }
+
+            if (c != '\n' && c != '\r') {
+                line.append(c);
+                precedingBackslash = (c == '\\' && !precedingBackslash);
+                continue;
+            }
+
+            // reached end of line
+            if (isCommentLine || line.length() == 0) {
+                isCommentLine = false;
+                isNewLine = true;
+                skipWhiteSpace = true;
+                line.setLength(0);
+                continue;
+            }
+
+            if (!precedingBackslash) {
+                return true;
+            }
+
+            // line continues, skip leading white spaces of the next one
+            line.setLength(line.length() - 1);
+            skipWhiteSpace = true;
+            appendedLineBegin = true;
+            precedingBackslash = false;
+            if (c == '\r') {
+                skipLF = true;
+            }
+        }
+    }
+
+    /**
+     * Converts escape sequences of the given part of the line.
+     */
+    private String convert(final int start, final int end) {
+        final StringBuilder sb = new StringBuilder(end - start);
+        int off = start;
+        while (off < end) {
+            char c = line.charAt(off++);
+            if (c == '\\' && off < end) {
+                c = line.charAt(off++);
+                if (c == 'u') {
+                    if (off + 4 > end) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        final int digit = hexDigit(line.charAt(off++));
+                        if (digit == -1) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+
+                        code = (code << 4) + digit;
+                    }
+
+                    c = (char) code;
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+
+            sb.append(c);
+        }
+
+        return sb.toString();
+    }
+
+    private static int hexDigit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+
+        return -1;
+    }
+
+    private static boolean isWhiteSpace(final char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+}
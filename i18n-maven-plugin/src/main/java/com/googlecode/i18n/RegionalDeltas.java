@@ -0,0 +1,213 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Finds messages of regional properties files, like <code>Messages_en_US</code>, that are
+ * the same as messages inherited from their language files, like <code>Messages_en</code>.
+ * Such messages are redundant, since <code>ResourceBundle</code> resolves missing messages
+ * of regional bundles from their parent bundles.
+ *
+ * <p/>Optionally rewrites regional properties files to contain only differing messages.
+ * Modifies files in place, so it should be used only for build output directory, never
+ * for sources. Rewritten files should be checked with
+ * {@link CheckOptions#setInheritLocales(boolean)}.
+ */
+public final class RegionalDeltas {
+
+    private final static String PROP_EXT = ".properties";
+
+    private final Log log;
+    private final File dir;
+    private final boolean rewrite;
+
+    private int regionalFiles;
+    private int redundantFiles;
+    private int redundantKeys;
+    private long savedBytes;
+
+    /**
+     * Creates finder of redundant messages in properties files in the given directory.
+     *
+     * @param log       use maven or console
+     * @param dir       directory with properties files, usually classes output directory
+     * @param rewrite   <code>true</code> to remove redundant messages from files
+     */
+    public RegionalDeltas(final Log log, final File dir, final boolean rewrite) {
+        this.log = log;
+        this.dir = dir;
+        this.rewrite = rewrite;
+    }
+
+    /**
+     * Finds redundant messages of bundles checked by the given analyzer.
+     *
+     * @param analyzer  analyzer, that checked bundles
+     */
+    public void process(final AbstractMessageAnalyzer analyzer) {
+        for (final MessageBundle bundle : analyzer.getBundles().values()) {
+            try {
+                processBundle(analyzer, bundle);
+            } catch (IOException x) {
+                throw new RuntimeException(x);
+            }
+        }
+    }
+
+    /**
+     * Returns count of checked regional properties files, that have language files.
+     * @return count of regional properties files
+     */
+    public int getRegionalFiles() {
+        return regionalFiles;
+    }
+
+    public int getRedundantFiles() {
+        return redundantFiles;
+    }
+
+    public int getRedundantKeys() {
+        return redundantKeys;
+    }
+
+    /**
+     * Returns size of removed messages, or size that would be removed if files are not
+     * rewritten.
+     *
+     * @return count of bytes of redundant messages
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    private void processBundle(final AbstractMessageAnalyzer analyzer,
+            final MessageBundle bundle) throws IOException {
+
+        final String baseFilePath = bundle.getBaseFilePath();
+        final Map<String, Properties> loaded = new HashMap<String, Properties>();
+
+        // all deltas are found before files are rewritten, messages of parents may change
+        final Map<File, Map<String, String>> deltas =
+                new LinkedHashMap<File, Map<String, String>>();
+        for (final Map.Entry<String, String> entry
+                : analyzer.getLocaleFiles(baseFilePath).entrySet()) {
+
+            final String locale = entry.getValue();
+            final Properties props = load(baseFilePath, locale, loaded);
+            if (props == null || AbstractMessageAnalyzer.getParentLocale(locale) == null) {
+                continue;
+            }
+
+            final Map<String, String> inherited = getInherited(baseFilePath, locale, loaded);
+            if (inherited == null) {
+                continue;
+            }
+
+            regionalFiles++;
+            final Map<String, String> delta = new TreeMap<String, String>();
+            int redundant = 0;
+            for (final String key : props.stringPropertyNames()) {
+                final String value = props.getProperty(key);
+                if (value.equals(inherited.get(key))) {
+                    redundant++;
+                } else {
+                    delta.put(key, value);
+                }
+            }
+
+            if (redundant == 0) {
+                continue;
+            }
+
+            final String file = entry.getKey();
+            log.info(file + ": " + redundant + " of " + props.size()
+                    + " message(s) same as inherited");
+
+            redundantFiles++;
+            redundantKeys += redundant;
+            deltas.put(new File(dir, file), delta);
+        }
+
+        for (final Map.Entry<File, Map<String, String>> entry : deltas.entrySet()) {
+            final File file = entry.getKey();
+            final long size = file.length();
+            if (rewrite) {
+                BundlePruner.writeProperties(file, entry.getValue());
+                savedBytes += size - file.length();
+            } else {
+                savedBytes += size - getSize(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns messages inherited by the given regional locale from its language locales.
+     *
+     * @return inherited messages, or <code>null</code> if there are no language files
+     */
+    private Map<String, String> getInherited(final String baseFilePath, final String locale,
+            final Map<String, Properties> loaded) throws IOException {
+
+        Map<String, String> inherited = null;
+        for (String parent = AbstractMessageAnalyzer.getParentLocale(locale); parent != null;
+                parent = AbstractMessageAnalyzer.getParentLocale(parent)) {
+
+            final Properties props = load(baseFilePath, parent, loaded);
+            if (props == null) {
+                continue;
+            }
+
+            if (inherited == null) {
+                inherited = new HashMap<String, String>();
+            }
+
+            // messages of closer locales take precedence
+            for (final String key : props.stringPropertyNames()) {
+                if (!inherited.containsKey(key)) {
+                    inherited.put(key, props.getProperty(key));
+                }
+            }
+        }
+
+        return inherited;
+    }
+
+    private Properties load(final String baseFilePath, final String locale,
+            final Map<String, Properties> loaded) throws IOException {
+
+        if (loaded.containsKey(locale)) {
+            return loaded.get(locale);
+        }
+
+        final boolean isDir = baseFilePath.endsWith("/");
+        final File file = new File(dir, baseFilePath + (locale.isEmpty() || isDir ? "" : "_")
+                + locale + PROP_EXT);
+
+        final Properties props = (file.isFile() ? AbstractMessageAnalyzer.loadProperties(
+                new FileInputStream(file)) : null);
+
+        loaded.put(locale, props);
+        return props;
+    }
+
+    /**
+     * Returns estimated size of the given messages written in UTF-8.
+     */
+    private static long getSize(final Map<String, String> props) throws IOException {
+        long size = 0;
+        for (final Map.Entry<String, String> entry : props.entrySet()) {
+            size += entry.getKey().getBytes("UTF-8").length
+                    + entry.getValue().getBytes("UTF-8").length + 2;
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,165 @@
+package com.googlecode.i18n;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import com.googlecode.i18n.format.FormatAnalyzer;
+import com.googlecode.i18n.format.FormatSignature;
+import com.googlecode.i18n.format.FormatType;
+
+/**
+ * Checks localized properties files against base messages of {@link BundleSnapshot},
+ * without classes and base properties files.
+ *
+ * <p/>Localized files are checked the same way as by the plugin goals after the base file.
+ * Thread-safe, one instance can check any count of files concurrently.
+ */
+public final class SnapshotValidator {
+
+    private final static String PROP_EXT = ".properties";
+
+    /** Bundles by base properties files paths */
+    private final Map<String, BundleSnapshot.Bundle> bundles =
+            new HashMap<String, BundleSnapshot.Bundle>();
+
+    /** Indexes of not formatted keys by base properties files paths, shared by all checks */
+    private final Map<String, KeyIndex> indexes = new HashMap<String, KeyIndex>();
+
+    private final int maxErrors;
+
+    /**
+     * Creates validator of the given snapshot.
+     *
+     * @param snapshot  base messages of bundles
+     * @param options   check options, <code>null</code> to use defaults
+     */
+    public SnapshotValidator(final BundleSnapshot snapshot, final CheckOptions options) {
+        for (final BundleSnapshot.Bundle bundle : snapshot.getBundles()) {
+            bundles.put(bundle.getBaseFilePath(), bundle);
+            indexes.put(bundle.getBaseFilePath(), new KeyIndex(bundle.getKeys()));
+        }
+
+        // options are mutable, so only the used ones are copied
+        this.maxErrors = (options != null ? options.getMaxErrors() : 0);
+    }
+
+    /**
+     * Finds bundle of the given localized properties file.
+     *
+     * @param file  localized properties file path, like
+     *              <code>com/example/Messages_pt_BR.properties</code>
+     * @return      bundle of the file, or <code>null</code> if not found
+     */
+    public BundleSnapshot.Bundle findBundle(final String file) {
+        return findBundle(bundles, file);
+    }
+
+    /**
+     * Finds bundle of the given properties file.
+     *
+     * @param bundles   bundles by base properties files paths
+     * @param file      properties file path
+     * @return          bundle of the file, or <code>null</code> if not found
+     */
+    static <T> T findBundle(final Map<String, T> bundles, final String file) {
+        if (!file.endsWith(PROP_EXT)) {
+            return null;
+        }
+
+        final String path = file.substring(0, file.length() - PROP_EXT.length());
+        final T base = bundles.get(path);
+        if (base != null) {
+            return base;
+        }
+
+        final int slash = path.lastIndexOf('/');
+
+        // locale can contain '_' as well, so the longest bundle path wins
+        for (int i = path.lastIndexOf('_'); i > slash; i = path.lastIndexOf('_', i - 1)) {
+            final T bundle = bundles.get(path.substring(0, i));
+            if (bundle != null) {
+                return bundle;
+            }
+        }
+
+        // bundle of the whole directory
+        return bundles.get(path.substring(0, slash + 1));
+    }
+
+    /**
+     * Checks the given localized properties file.
+     *
+     * @param file  localized properties file path, used to find its bundle
+     * @param is    properties file stream, closed after reading
+     * @return      found problems
+     */
+    public ValidationResult validate(final String file, final InputStream is)
+            throws IOException {
+
+        return validate(file, AbstractMessageAnalyzer.loadProperties(is));
+    }
+
+    /**
+     * Checks the given localized properties file.
+     *
+     * @param file  localized properties file path, used to find its bundle
+     * @param props properties of the file, are not modified
+     * @return      found problems
+     */
+    public ValidationResult validate(final String file, final Properties props) {
+        final FindingCollector collector = new FindingCollector(
+                new CheckOptions().setMaxErrors(maxErrors));
+
+        collector.startFile(file);
+
+        final BundleSnapshot.Bundle bundle = findBundle(file);
+        if (bundle == null) {
+            collector.reportError(Finding.Type.INVALID_BUNDLE, null,
+                    "No bundle found for %s", file);
+            return collector.getResult();
+        }
+
+        check(collector, bundle, indexes.get(bundle.getBaseFilePath()), props);
+
+        return collector.getResult();
+    }
+
+    /**
+     * Checks formatted messages first, then the rest of messages, in the same order as
+     * checked bundles do. Properties are not copied, formatted messages are excluded from
+     * not used keys instead of being removed.
+     */
+    private static void check(final MessageChecker checker, final BundleSnapshot.Bundle bundle,
+            final KeyIndex index, final Properties props) {
+
+        FormatAnalyzer stringFormat = null;
+        FormatAnalyzer messageFormat = null;
+        for (final Map.Entry<String, FormatSignature> entry : bundle.getFormats().entrySet()) {
+            final String key = entry.getKey();
+            final FormatSignature baseFormat = entry.getValue();
+            final String value = (String) props.get(key);
+
+            final FormatAnalyzer analyzer;
+            if (baseFormat.getFormatType() == FormatType.STRING) {
+                if (stringFormat == null) {
+                    stringFormat = new FormatAnalyzer(checker,
+                            AbstractMessageAnalyzer.STRING_FORMAT_PARSER);
+                }
+                analyzer = stringFormat;
+            } else {
+                if (messageFormat == null) {
+                    messageFormat = new FormatAnalyzer(checker,
+                            AbstractMessageAnalyzer.MESSAGE_FORMAT_PARSER);
+                }
+                analyzer = messageFormat;
+            }
+
+            analyzer.checkMessageFormat(key, value, baseFormat, null);
+        }
+
+        checker.checkProperties(props, index, new KeyIndex.Coverage(index),
+                !bundle.isUnusedKeysIgnored(), bundle.getFormats().keySet());
+    }
+}
@@ -0,0 +1,319 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Properties file sorted by keys and stored on disk.
+ *
+ * <p/>Properties are sorted in runs that fit the given memory limit, which are then merged
+ * into one file. Allows to compare huge properties files by reading them sequentially.
+ * As with {@link java.util.Properties}, the last one of duplicate keys wins.
+ */
+final class SortedProperties {
+
+    /** Maximum count of runs merged at once */
+    private final static int MAX_MERGED_RUNS = 64;
+
+    /** Estimated memory used by one property in addition to its characters */
+    private final static int ENTRY_OVERHEAD = 128;
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private final File file;
+    private final int size;
+
+    private SortedProperties(final File file, final int size) {
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Reads and sorts properties from the given stream.
+     *
+     * @param is            properties file stream, closed after reading
+     * @param memoryLimit   estimated memory in bytes to keep not sorted properties in
+     * @return              sorted properties, should be deleted after use
+     *
+     * @throws IllegalArgumentException if the stream contains malformed escape sequence
+     */
+    static SortedProperties sort(final InputStream is, final long memoryLimit)
+            throws IOException {
+
+        final List<File> runs = new ArrayList<File>();
+        int runCount = 0;
+        try {
+            final PropertiesReader reader = new PropertiesReader(new BufferedReader(
+                    new InputStreamReader(is, "UTF-8"), BUFFER_SIZE));
+            try {
+                final TreeMap<String, String> run = new TreeMap<String, String>();
+                long runSize = 0;
+                while (reader.next()) {
+                    final String key = reader.getKey();
+                    final String value = reader.getValue();
+                    run.put(key, value);
+                    runSize += 2L * (key.length() + value.length()) + ENTRY_OVERHEAD;
+
+                    if (runSize >= memoryLimit) {
+                        runs.add(writeRun(run));
+                        runCount = run.size();
+                        run.clear();
+                        runSize = 0;
+                    }
+                }
+
+                if (!run.isEmpty() || runs.isEmpty()) {
+                    runs.add(writeRun(run));
+                    runCount = run.size();
+                }
+            } finally {
+                reader.close();
+            }
+
+            // merge the earliest runs first, so later duplicates still win
+            while (runs.size() > MAX_MERGED_RUNS) {
+                final List<File> merged = runs.subList(0, MAX_MERGED_RUNS);
+                final File run = createTempFile();
+                try {
+                    merge(merged, run);
+                } catch (IOException x) {
+                    run.delete();
+                    throw x;
+                }
+
+                deleteAll(merged);
+                merged.clear();
+                runs.add(0, run);
+            }
+
+            if (runs.size() == 1) {
+                // the only run is sorted already
+                return new SortedProperties(runs.remove(0), runCount);
+            }
+
+            final File result = createTempFile();
+            final int count;
+            try {
+                count = merge(runs, result);
+            } catch (IOException x) {
+                result.delete();
+                throw x;
+            }
+
+            deleteAll(runs);
+            runs.clear();
+            return new SortedProperties(result, count);
+
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    /**
+     * Returns count of properties.
+     * @return count of properties
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Opens cursor to read properties in sorted order.
+     * @return cursor at position before the first property
+     */
+    Cursor open() throws IOException {
+        return new Cursor(file);
+    }
+
+    /**
+     * Deletes sorted properties file.
+     */
+    void delete() {
+        file.delete();
+    }
+
+    /**
+     * Sequential reader of sorted properties.
+     */
+    static final class Cursor {
+
+        private final DataInputStream in;
+
+        private String key;
+        private String value;
+
+        Cursor(final File file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file), BUFFER_SIZE));
+        }
+
+        /**
+         * Moves to the next property.
+         * @return <code>false</code> if there are no more properties
+         */
+        boolean next() throws IOException {
+            if (!in.readBoolean()) {
+                key = null;
+                value = null;
+                return false;
+            }
+
+            key = readString(in);
+            value = readString(in);
+            return true;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        String getValue() {
+            return value;
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Cursor of one of the merged runs.
+     */
+    private static final class Run implements Comparable<Run> {
+
+        private final Cursor cursor;
+        private final int index;
+
+        Run(final Cursor cursor, final int index) {
+            this.cursor = cursor;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(final Run o) {
+            final int result = cursor.getKey().compareTo(o.cursor.getKey());
+
+            // later runs go first, so their values win
+            return (result != 0 ? result : o.index - index);
+        }
+    }
+
+    private static File writeRun(final Map<String, String> run) throws IOException {
+        final File file = createTempFile();
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), BUFFER_SIZE));
+        try {
+            for (final Map.Entry<String, String> entry : run.entrySet()) {
+                write(out, entry.getKey(), entry.getValue());
+            }
+
+            out.writeBoolean(false);
+
+        } finally {
+            out.close();
+        }
+
+        return file;
+    }
+
+    /**
+     * Merges the given runs into one, leaving only the last of duplicate keys.
+     *
+     * @param runs      runs to merge, in order of reading
+     * @param result    file to write the merged run to
+     * @return          count of merged properties
+     */
+    private static int merge(final List<File> runs, final File result) throws IOException {
+        final PriorityQueue<Run> queue = new PriorityQueue<Run>(runs.size());
+        final List<Cursor> cursors = new ArrayList<Cursor>(runs.size());
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(result), BUFFER_SIZE));
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                final Cursor cursor = new Cursor(runs.get(i));
+                cursors.add(cursor);
+                if (cursor.next()) {
+                    queue.add(new Run(cursor, i));
+                }
+            }
+
+            int count = 0;
+            while (!queue.isEmpty()) {
+                final Run run = queue.poll();
+                final String key = run.cursor.getKey();
+                write(out, key, run.cursor.getValue());
+                count++;
+
+                advance(queue, run);
+
+                // skip overridden values of the same key
+                while (!queue.isEmpty() && queue.peek().cursor.getKey().equals(key)) {
+                    advance(queue, queue.poll());
+                }
+            }
+
+            out.writeBoolean(false);
+            return count;
+
+        } finally {
+            out.close();
+            for (final Cursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private static void advance(final PriorityQueue<Run> queue, final Run run)
+            throws IOException {
+
+        if (run.cursor.next()) {
+            queue.add(run);
+        }
+    }
+
+    private static void write(final DataOutputStream out, final String key,
+            final String value) throws IOException {
+
+        out.writeBoolean(true);
+        writeString(out, key);
+        writeString(out, value);
+    }
+
+    private static void writeString(final DataOutputStream out, final String s)
+            throws IOException {
+
+        final byte[] bytes = s.getBytes("UTF-8");
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static File createTempFile() throws IOException {
+        return File.createTempFile("i18n-", ".sorted");
+    }
+
+    private static void deleteAll(final List<File> files) {
+        for (final File file : files) {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.plugin.logging.Log;
+import com.googlecode.i18n.JavaSourceParser.MessageEnum;
+
+/**
+ * Localization checker for keys defined in java sources.
+ *
+ * <p/>Works the same way as {@link ClassMessageAnalyzer}, but doesn't require sources to be
+ * compiled. Dynamic messages cannot be determined from sources, so not used keys are not
+ * reported for enums, that define them.
+ */
+public final class SourceMessageAnalyzer extends AbstractMessageAnalyzer {
+
+    private final static String JAVA_EXT = ".java";
+
+    private final ClassLoader resourceClassLoader;
+
+    private SourceMessageAnalyzer(Log log, String locales, ClassLoader resourceClassLoader,
+            CheckOptions options) {
+
+        super(log, locales, null, options);
+
+        this.resourceClassLoader = resourceClassLoader;
+    }
+
+    /**
+     * Performs localization checks for messages defined in java sources.
+     *
+     * @param log                   use maven or console
+     * @param sourceRoots           directories with java sources
+     * @param encoding              java sources encoding
+     * @param locales               list of supported locales
+     * @param resourceClassLoader   class loader to load localized resources with
+     * @param filter                filter for classes to check by their source names,
+     *                              <code>null</code> to check all sources
+     * @param options               check options, <code>null</code> to use defaults
+     * @return                      analyzer object, that contains count of found errors
+     *                              and warnings
+     */
+    public static SourceMessageAnalyzer check(final Log log, final List<File> sourceRoots,
+            final String encoding, final String locales,
+            final ClassLoader resourceClassLoader, final ClassFilter filter,
+            final CheckOptions options) {
+
+        final List<File> sources = new ArrayList<File>();
+        for (final File root : sourceRoots) {
+            listSourcesR(sources, root, "", filter);
+        }
+
+        final SourceMessageAnalyzer analizer = new SourceMessageAnalyzer(log, locales,
+                resourceClassLoader, options);
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                if (analizer.isCancelled()) {
+                    analizer.skip("source(s)", sources.size() - i);
+                    break;
+                }
+
+                final File source = sources.get(i);
+                for (final MessageEnum messageEnum
+                        : JavaSourceParser.parse(readSource(source, encoding))) {
+
+                    analizer.checkEnum(messageEnum);
+                }
+            }
+        } catch (IOException e) {
+            analizer.close();
+            throw new RuntimeException(e);
+        } catch (RuntimeException x) {
+            analizer.close();
+            throw x;
+        }
+
+        return analizer;
+    }
+
+    private static void listSourcesR(final List<File> sources, final File dir,
+            final String packageName, final ClassFilter filter) {
+
+        final String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+
+        final String prefix = (packageName.isEmpty() ? "" : packageName + ".");
+        for (final String name : names) {
+            if (name.endsWith(JAVA_EXT)) {
+                if (filter == null || filter.acceptClass(prefix
+                        + name.substring(0, name.length() - JAVA_EXT.length()))) {
+
+                    sources.add(new File(dir, name));
+                }
+            } else if (name.indexOf('.') == -1) {
+                // package directories cannot contain dots
+                final String subPackage = prefix + name;
+                if (filter == null || filter.acceptPackage(subPackage)) {
+                    listSourcesR(sources, new File(dir, name), subPackage, filter);
+                }
+            }
+        }
+    }
+
+    private static String readSource(final File file, final String encoding)
+            throws IOException {
+
+        final Reader reader = new InputStreamReader(new FileInputStream(file),
+                encoding != null && !encoding.isEmpty() ? encoding : "UTF-8");
+        try {
+            final StringBuilder sb = new StringBuilder((int) file.length());
+            final char[] buf = new char[8192];
+            int read;
+            while ((read = reader.read(buf)) != -1) {
+                sb.append(buf, 0, read);
+            }
+
+            return sb.toString();
+
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void checkEnum(final MessageEnum messageEnum) throws IOException {
+        final String className = messageEnum.getName();
+        getLog().info("Checking " + className);
+
+        final MessageBundle bundle = new MessageBundle(className,
+                className.replace('.', '/'), messageEnum.getKeys());
+
+        if (messageEnum.isDynamic()) {
+            getLog().debug(indent(1) + "Dynamic messages are not known, "
+                    + "not used keys are not reported");
+            bundle.setUnusedKeysIgnored(true);
+        }
+
+        checkBundle(1, bundle, resourceClassLoader);
+    }
+}
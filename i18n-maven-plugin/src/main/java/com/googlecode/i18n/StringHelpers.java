@@ -0,0 +1,102 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Contains helper methods for parsing parameters and generating Java sources.
+ */
+final class StringHelpers {
+
+    private final static Set<String> KEYWORDS = new HashSet<String>(Arrays.asList((
+            "abstract assert boolean break byte case catch char class const continue default "
+            + "do double else enum extends final finally float for goto if implements import "
+            + "instanceof int interface long native new package private protected public "
+            + "return short static strictfp super switch synchronized this throw throws "
+            + "transient try void volatile while true false null _").split(" ")));
+
+    private StringHelpers() {
+    }
+
+    /**
+     * Splits the given comma separated list.
+     *
+     * @param list  comma separated list, can be <code>null</code>
+     * @return      list of trimmed, not empty items
+     */
+    static List<String> splitList(final String list) {
+        final List<String> items = new ArrayList<String>();
+        if (list != null) {
+            for (String item : list.split(",")) {
+                item = item.trim();
+                if (!item.isEmpty()) {
+                    items.add(item);
+                }
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Converts pattern with wildcards to regular expression. Wildcard <code>**</code>
+     * matches any characters, <code>*</code> matches any characters except the separator,
+     * other characters are matched literally.
+     *
+     * @param pattern   pattern with wildcards
+     * @param separator not alphanumeric separator not matched by <code>*</code>, or
+     *                  <code>0</code> if <code>*</code> matches any characters as well
+     * @return          regular expression
+     */
+    static String wildcardToRegex(final String pattern, final char separator) {
+        final String one = (separator != 0 ? "[^\\" + separator + "]*" : ".*");
+
+        final StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = pattern.indexOf('*'); i != -1; i = pattern.indexOf('*', start)) {
+            if (i > start) {
+                regex.append(Pattern.quote(pattern.substring(start, i)));
+            }
+
+            if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+                regex.append(".*");
+                start = i + 2;
+            } else {
+                regex.append(one);
+                start = i + 1;
+            }
+        }
+
+        if (start < pattern.length()) {
+            regex.append(Pattern.quote(pattern.substring(start)));
+        }
+
+        return regex.toString();
+    }
+
+    /**
+     * Checks whether the given name can be used as Java identifier.
+     *
+     * @param name  checked name
+     * @return      <code>true</code> if the name is not empty, consists of Java identifier
+     *              characters and is not a keyword
+     */
+    static boolean isJavaIdentifier(final String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))
+                || KEYWORDS.contains(name)) {
+            return false;
+        }
+
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,272 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Finds constants of message enums, that are not referenced by any class.
+ *
+ * <p/>Class files are scanned without loading classes, constant is referenced if some
+ * code reads it with <code>GETSTATIC</code> instruction. Constants used only by name, for
+ * example with <code>Enum.valueOf</code> or <code>values()</code>, are reported as well.
+ */
+public final class UnusedMessageAnalyzer extends AbstractMessageAnalyzer {
+
+    private final static String CLASS_EXT = ".class";
+    private final static String PROP_EXT = ".properties";
+
+    /** Count of class files scanned by one task */
+    private final static int BATCH_SIZE = 64;
+
+    private final Map<String, List<String>> unreferenced =
+            new LinkedHashMap<String, List<String>>();
+
+    private UnusedMessageAnalyzer(final Log log, final CheckOptions options) {
+        super(log, "", null, options);
+    }
+
+    /**
+     * Finds not referenced constants of message enums in the given class paths.
+     *
+     * <p/>All class paths are scanned for both message enums and references to them,
+     * class files are scanned in parallel.
+     *
+     * @param log           use maven or console
+     * @param classPaths    directories or JAR files with classes
+     * @param filter        filter for message enums to check, <code>null</code> to check
+     *                      all of them
+     * @param options       check options, <code>null</code> to use defaults
+     * @return              analyzer object, that contains count of not referenced constants
+     *                      as warnings
+     */
+    public static UnusedMessageAnalyzer check(final Log log, final List<File> classPaths,
+            final ClassFilter filter, final CheckOptions options) {
+
+        final List<Callable<List<ClassFileScanner.ClassInfo>>> tasks =
+                new ArrayList<Callable<List<ClassFileScanner.ClassInfo>>>();
+
+        for (final File path : classPaths) {
+            if (path.isDirectory()) {
+                final List<File> files = new ArrayList<File>();
+                listClassFilesR(files, path);
+                for (int i = 0; i < files.size(); i += BATCH_SIZE) {
+                    tasks.add(scanFiles(files.subList(i, Math.min(files.size(),
+                            i + BATCH_SIZE))));
+                }
+            } else if (path.isFile()) {
+                tasks.add(scanJar(path));
+            } else {
+                throw new RuntimeException("Classes directory doesn't exist: " + path);
+            }
+        }
+
+        final UnusedMessageAnalyzer analyzer = new UnusedMessageAnalyzer(log, options);
+        analyzer.checkMessages(scan(tasks), filter);
+        return analyzer;
+    }
+
+    /**
+     * Returns not referenced constants found by the check.
+     * @return map of message enums names to their not referenced constants
+     */
+    public Map<String, List<String>> getUnreferenced() {
+        return Collections.unmodifiableMap(unreferenced);
+    }
+
+    private static void listClassFilesR(final List<File> files, final File dir) {
+        final String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+
+        for (final String name : names) {
+            if (name.endsWith(CLASS_EXT)) {
+                files.add(new File(dir, name));
+            } else if (name.indexOf('.') == -1) {
+                // package directories cannot contain dots
+                listClassFilesR(files, new File(dir, name));
+            }
+        }
+    }
+
+    private static Callable<List<ClassFileScanner.ClassInfo>> scanFiles(
+            final List<File> files) {
+
+        return new Callable<List<ClassFileScanner.ClassInfo>>() {
+
+            @Override
+            public List<ClassFileScanner.ClassInfo> call() throws IOException {
+                final List<ClassFileScanner.ClassInfo> result =
+                        new ArrayList<ClassFileScanner.ClassInfo>(files.size());
+
+                for (final File file : files) {
+                    final InputStream is = new BufferedInputStream(new FileInputStream(file));
+                    try {
+                        result.add(ClassFileScanner.scan(is));
+                    } catch (IOException x) {
+                        throw new IOException("Cannot read class file " + file, x);
+                    } finally {
+                        is.close();
+                    }
+                }
+
+                return result;
+            }
+        };
+    }
+
+    private static Callable<List<ClassFileScanner.ClassInfo>> scanJar(final File jar) {
+        return new Callable<List<ClassFileScanner.ClassInfo>>() {
+
+            @Override
+            public List<ClassFileScanner.ClassInfo> call() throws IOException {
+                final List<ClassFileScanner.ClassInfo> result =
+                        new ArrayList<ClassFileScanner.ClassInfo>();
+
+                final JarFile jarFile = new JarFile(jar);
+                try {
+                    final Enumeration<JarEntry> entries = jarFile.entries();
+                    while (entries.hasMoreElements()) {
+                        final JarEntry entry = entries.nextElement();
+                        if (!entry.getName().endsWith(CLASS_EXT)) {
+                            continue;
+                        }
+
+                        final InputStream is = new BufferedInputStream(
+                                jarFile.getInputStream(entry));
+                        try {
+                            result.add(ClassFileScanner.scan(is));
+                        } catch (IOException x) {
+                            throw new IOException("Cannot read class file "
+                                    + entry.getName() + " in " + jar, x);
+                        } finally {
+                            is.close();
+                        }
+                    }
+                } finally {
+                    jarFile.close();
+                }
+
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Runs the given scan tasks in parallel and collects their results.
+     */
+    private static List<ClassFileScanner.ClassInfo> scan(
+            final List<Callable<List<ClassFileScanner.ClassInfo>>> tasks) {
+
+        final List<ClassFileScanner.ClassInfo> result =
+                new ArrayList<ClassFileScanner.ClassInfo>();
+        if (tasks.isEmpty()) {
+            return result;
+        }
+
+        final int threads = Math.min(tasks.size(),
+                Runtime.getRuntime().availableProcessors());
+
+        final ExecutorService executor = Platform.newIoExecutor(threads, "i18n-scan");
+
+        try {
+            final List<Future<List<ClassFileScanner.ClassInfo>>> futures =
+                    new ArrayList<Future<List<ClassFileScanner.ClassInfo>>>(tasks.size());
+            for (final Callable<List<ClassFileScanner.ClassInfo>> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+
+            for (final Future<List<ClassFileScanner.ClassInfo>> future : futures) {
+                result.addAll(future.get());
+            }
+
+            return result;
+
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(x);
+
+        } catch (ExecutionException x) {
+            final Throwable cause = x.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new RuntimeException(cause);
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Reports not referenced constants of the message enums accepted by the filter.
+     */
+    private void checkMessages(final List<ClassFileScanner.ClassInfo> classes,
+            final ClassFilter filter) {
+
+        final Map<String, List<String>> messages = new TreeMap<String, List<String>>();
+        final Set<String> references = new HashSet<String>();
+        for (final ClassFileScanner.ClassInfo info : classes) {
+            if (info.getMessages() != null && isAccepted(info.getClassName(), filter)) {
+                messages.put(info.getClassName(), info.getMessages());
+            }
+
+            references.addAll(info.getReferences());
+        }
+
+        for (final Map.Entry<String, List<String>> entry : messages.entrySet()) {
+            final String className = entry.getKey();
+            getLog().info("Checking " + className);
+
+            // not referenced keys are still in the base properties file
+            startFile(className.replace('.', '/') + PROP_EXT);
+
+            final List<String> constants = new ArrayList<String>();
+            for (final String constant : entry.getValue()) {
+                if (!references.contains(className + "#" + constant)) {
+                    constants.add(constant);
+                }
+            }
+
+            Collections.sort(constants);
+            for (final String constant : constants) {
+                reportWarning(Finding.Type.UNREFERENCED_MESSAGE, constant,
+                        "Not referenced message [%s]", constant);
+            }
+
+            if (!constants.isEmpty()) {
+                unreferenced.put(className, Collections.unmodifiableList(constants));
+            }
+        }
+    }
+
+    private static boolean isAccepted(final String className, final ClassFilter filter) {
+        if (filter == null) {
+            return true;
+        }
+
+        final int dot = className.lastIndexOf('.');
+        final String packageName = (dot != -1 ? className.substring(0, dot) : "");
+        return filter.acceptPackage(packageName) && filter.acceptClass(className);
+    }
+}
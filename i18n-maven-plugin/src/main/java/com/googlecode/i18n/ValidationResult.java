@@ -0,0 +1,59 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link BundleValidator#validate(BundleFiles)}. Immutable.
+ */
+public final class ValidationResult {
+
+    private final List<Finding> findings;
+    private final int errorCount;
+    private final int warningCount;
+    private final boolean cancelled;
+
+    ValidationResult(final List<Finding> findings, final int errorCount,
+            final int warningCount, final boolean cancelled) {
+
+        this.findings = Collections.unmodifiableList(new ArrayList<Finding>(findings));
+        this.errorCount = errorCount;
+        this.warningCount = warningCount;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Returns found problems, in order they are found.
+     * @return found problems
+     */
+    public List<Finding> getFindings() {
+        return findings;
+    }
+
+    /**
+     * Returns count of found errors
+     * @return count of found errors
+     */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Returns count of found warnings
+     * @return count of found warnings
+     */
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    /**
+     * Returns true if the rest of the bundle is not checked, because maximum count of
+     * errors is reached.
+     *
+     * @return true if the check is cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
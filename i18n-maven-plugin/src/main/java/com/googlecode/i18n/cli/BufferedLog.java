@@ -0,0 +1,127 @@
+package com.googlecode.i18n.cli;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Log, that keeps messages in memory until they are printed at once. Used to print
+ * output of targets checked in parallel without mixing it.
+ */
+final class BufferedLog implements Log {
+
+    private final List<String> lines = new ArrayList<String>();
+    private final boolean debug;
+
+    BufferedLog(final boolean debug) {
+        this.debug = debug;
+    }
+
+    /**
+     * Prints all kept messages to the given stream.
+     *
+     * @param out   stream to print to
+     */
+    void printTo(final PrintStream out) {
+        for (final String line : lines) {
+            out.println(line);
+        }
+    }
+
+    private void add(final String level, final CharSequence content, final Throwable error) {
+        if (content != null) {
+            lines.add("[" + level + "] " + content);
+        }
+
+        if (error != null) {
+            final StringWriter sw = new StringWriter();
+            error.printStackTrace(new PrintWriter(sw));
+            lines.add("[" + level + "] " + sw.toString().trim());
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return debug;
+    }
+
+    @Override
+    public void debug(final CharSequence content) {
+        debug(content, null);
+    }
+
+    @Override
+    public void debug(final CharSequence content, final Throwable error) {
+        if (debug) {
+            add("DEBUG", content, error);
+        }
+    }
+
+    @Override
+    public void debug(final Throwable error) {
+        debug(null, error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public void info(final CharSequence content) {
+        add("INFO", content, null);
+    }
+
+    @Override
+    public void info(final CharSequence content, final Throwable error) {
+        add("INFO", content, error);
+    }
+
+    @Override
+    public void info(final Throwable error) {
+        add("INFO", null, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public void warn(final CharSequence content) {
+        add("WARNING", content, null);
+    }
+
+    @Override
+    public void warn(final CharSequence content, final Throwable error) {
+        add("WARNING", content, error);
+    }
+
+    @Override
+    public void warn(final Throwable error) {
+        add("WARNING", null, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    public void error(final CharSequence content) {
+        add("ERROR", content, null);
+    }
+
+    @Override
+    public void error(final CharSequence content, final Throwable error) {
+        add("ERROR", content, error);
+    }
+
+    @Override
+    public void error(final Throwable error) {
+        add("ERROR", null, error);
+    }
+}
@@ -0,0 +1,383 @@
+package com.googlecode.i18n.cli;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.CheckOptions;
+import com.googlecode.i18n.ClassHelpers;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.Finding;
+import com.googlecode.i18n.JsonBundleExporter;
+import com.googlecode.i18n.PackageFilter;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+import com.googlecode.i18n.Platform;
+
+/**
+ * Command line entry point, that checks any count of classes directories, JAR files and
+ * plain properties files in one invocation, without Maven.
+ *
+ * <p/>Targets are checked in parallel, each one with its own analyzer, and their output is
+ * printed in the order targets are given. Exits with {@link #EXIT_OK} if no errors are
+ * found, {@link #EXIT_ERRORS} if errors are found and {@link #EXIT_FAILURE} if arguments
+ * are invalid or some target cannot be checked.
+ */
+public final class I18nCheckMain {
+
+    /** Exit code, when no errors are found */
+    public final static int EXIT_OK = 0;
+
+    /** Exit code, when errors are found */
+    public final static int EXIT_ERRORS = 1;
+
+    /** Exit code, when arguments are invalid or some target cannot be checked */
+    public final static int EXIT_FAILURE = 2;
+
+    private final static String USAGE =
+            "Usage: java " + I18nCheckMain.class.getName() + " [options] targets\n"
+            + "\nTargets:\n"
+            + "  --classes <path>          directory or JAR file with message classes\n"
+            + "  --plain <root> <path>     resources directory and base properties file path\n"
+            + "                            in it, path should end with / for directories\n"
+            + "                            with files like en.properties\n"
+            + "\nOptions:\n"
+            + "  --locales <list>          comma separated list of locales to check\n"
+            + "  --base-locale <locale>    locale of base plain properties files\n"
+            + "  --format-type <type>      STRING or MESSAGE format of plain messages\n"
+            + "  --classpath <paths>       dependencies of message classes, separated by "
+            + File.pathSeparator + "\n"
+            + "  --includes <list>         comma separated list of packages to check\n"
+            + "  --excludes <list>         comma separated list of packages to skip\n"
+            + "  --max-errors <count>      count of errors after which target check is"
+            + " stopped\n"
+            + "  --inherit-locales         regional properties files inherit messages of"
+            + " language files\n"
+            + "  --threads <count>         count of targets checked in parallel\n"
+            + "  --output <text|json>      output format, text by default\n"
+            + "  --debug                   display debug information\n";
+
+    private final List<Target> targets = new ArrayList<Target>();
+    private final List<File> classPath = new ArrayList<File>();
+
+    private String locales = "";
+    private String baseLocale = "";
+    private String formatType = "";
+    private String includes = "";
+    private String excludes = "";
+    private int maxErrors;
+    private boolean inheritLocales;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean json;
+    private boolean debug;
+
+    private I18nCheckMain() {
+    }
+
+    public static void main(final String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Checks targets given with the command line arguments.
+     *
+     * @param args  command line arguments
+     * @param out   stream to print results to
+     * @param err   stream to print usage and arguments problems to
+     * @return      exit code
+     */
+    public static int run(final String[] args, final PrintStream out, final PrintStream err) {
+        final I18nCheckMain main = new I18nCheckMain();
+        try {
+            main.parse(args);
+        } catch (IllegalArgumentException x) {
+            err.println(x.getMessage());
+            err.println();
+            err.print(USAGE);
+            return EXIT_FAILURE;
+        }
+
+        return main.check(out);
+    }
+
+    private void parse(final String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            final String arg = args[i];
+            if ("--classes".equals(arg)) {
+                targets.add(new Target(value(args, ++i, arg), null));
+            } else if ("--plain".equals(arg)) {
+                final String root = value(args, ++i, arg);
+                targets.add(new Target(root, value(args, ++i, arg)));
+            } else if ("--locales".equals(arg)) {
+                locales = value(args, ++i, arg);
+            } else if ("--base-locale".equals(arg)) {
+                baseLocale = value(args, ++i, arg);
+            } else if ("--format-type".equals(arg)) {
+                formatType = value(args, ++i, arg);
+            } else if ("--classpath".equals(arg)) {
+                for (final String path : value(args, ++i, arg).split(File.pathSeparator)) {
+                    if (!path.isEmpty()) {
+                        classPath.add(new File(path));
+                    }
+                }
+            } else if ("--includes".equals(arg)) {
+                includes = value(args, ++i, arg);
+            } else if ("--excludes".equals(arg)) {
+                excludes = value(args, ++i, arg);
+            } else if ("--max-errors".equals(arg)) {
+                maxErrors = intValue(args, ++i, arg, 0);
+            } else if ("--inherit-locales".equals(arg)) {
+                inheritLocales = true;
+            } else if ("--threads".equals(arg)) {
+                threads = intValue(args, ++i, arg, 1);
+            } else if ("--output".equals(arg)) {
+                final String output = value(args, ++i, arg);
+                if (!"text".equals(output) && !"json".equals(output)) {
+                    throw new IllegalArgumentException("Unknown output format: " + output);
+                }
+
+                json = "json".equals(output);
+            } else if ("--debug".equals(arg)) {
+                debug = true;
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No targets to check");
+        }
+    }
+
+    private static String value(final String[] args, final int i, final String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value of " + option);
+        }
+
+        return args[i];
+    }
+
+    private static int intValue(final String[] args, final int i, final String option,
+            final int min) {
+
+        final String value = value(args, i, option);
+        try {
+            final int result = Integer.parseInt(value);
+            if (result >= min) {
+                return result;
+            }
+        } catch (NumberFormatException x) {
+            // reported below
+        }
+
+        throw new IllegalArgumentException("Invalid value of " + option + ": " + value);
+    }
+
+    private int check(final PrintStream out) {
+        final ClassLoader parent = (classPath.isEmpty() ? I18nCheckMain.class.getClassLoader()
+                : ClassHelpers.createClassLoader(I18nCheckMain.class.getClassLoader(),
+                        classPath.toArray(new File[classPath.size()])));
+
+        final ExecutorService executor = Platform.newExecutor(
+                Math.min(threads, targets.size()), "i18n-check");
+
+        try {
+            final List<Future<Result>> futures = new ArrayList<Future<Result>>();
+            for (final Target target : targets) {
+                futures.add(executor.submit(new Callable<Result>() {
+                    @Override
+                    public Result call() {
+                        return checkTarget(target, parent);
+                    }
+                }));
+            }
+
+            final List<Result> results = new ArrayList<Result>();
+            for (final Future<Result> future : futures) {
+                final Result result = await(future);
+                results.add(result);
+                if (!json) {
+                    result.printTo(out);
+                }
+            }
+
+            return printSummary(out, results);
+
+        } finally {
+            executor.shutdownNow();
+            if (parent != I18nCheckMain.class.getClassLoader()) {
+                ClassHelpers.closeClassLoader(parent);
+            }
+        }
+    }
+
+    private static Result await(final Future<Result> future) {
+        try {
+            return future.get();
+
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(x);
+        } catch (ExecutionException x) {
+            // checkTarget catches check failures, so this is a bug
+            throw new RuntimeException(x.getCause());
+        }
+    }
+
+    private Result checkTarget(final Target target, final ClassLoader parent) {
+        final BufferedLog log = new BufferedLog(debug);
+        final CheckOptions options = new CheckOptions()
+                .setMaxErrors(maxErrors)
+                .setInheritLocales(inheritLocales)
+                .setCollectFindings(true);
+
+        AbstractMessageAnalyzer analyzer = null;
+        try {
+            if (target.baseFilePath != null) {
+                analyzer = PlainMessageAnalyzer.check(log, target.path, locales, baseLocale,
+                        target.baseFilePath, formatType, options);
+            } else {
+                final PackageFilter filter = new PackageFilter(includes, excludes);
+                analyzer = ClassMessageAnalyzer.check(log, target.path, locales, parent,
+                        (filter.isEmpty() ? null : filter), options);
+            }
+
+            return new Result(target, log, analyzer, null);
+
+        } catch (RuntimeException x) {
+            log.error("Cannot check " + target + ": " + x.getMessage());
+            log.debug(x);
+            return new Result(target, log, null, x.getMessage());
+
+        } finally {
+            if (analyzer != null) {
+                analyzer.close();
+            }
+        }
+    }
+
+    private int printSummary(final PrintStream out, final List<Result> results) {
+        int errors = 0;
+        int warnings = 0;
+        boolean failed = false;
+        for (final Result result : results) {
+            errors += result.errorCount;
+            warnings += result.warningCount;
+            failed |= (result.failure != null);
+        }
+
+        if (json) {
+            final StringBuilder sb = new StringBuilder();
+            sb.append("{\"errors\":").append(errors)
+                    .append(",\"warnings\":").append(warnings)
+                    .append(",\"targets\":[");
+
+            for (int i = 0; i < results.size(); i++) {
+                sb.append(i > 0 ? "," : "");
+                results.get(i).appendJson(sb);
+            }
+
+            out.println(sb.append("]}"));
+        } else {
+            out.println("[INFO] ");
+            out.println("[INFO] Check results of " + results.size() + " target(s):");
+            out.println("[INFO]   " + errors + " error(s), " + warnings + " warning(s)");
+        }
+
+        if (failed) {
+            return EXIT_FAILURE;
+        }
+
+        return (errors > 0 ? EXIT_ERRORS : EXIT_OK);
+    }
+
+    /**
+     * Classes directory or JAR file, or plain properties files to check.
+     */
+    private static final class Target {
+
+        final String path;
+
+        /** Base properties file path, <code>null</code> for classes */
+        final String baseFilePath;
+
+        Target(final String path, final String baseFilePath) {
+            this.path = path;
+            this.baseFilePath = baseFilePath;
+        }
+
+        @Override
+        public String toString() {
+            return (baseFilePath != null ? path + " " + baseFilePath : path);
+        }
+    }
+
+    /**
+     * Check results of one target.
+     */
+    private static final class Result {
+
+        final Target target;
+        final BufferedLog log;
+        final List<Finding> findings;
+        final int errorCount;
+        final int warningCount;
+        final boolean cancelled;
+        final String failure;
+
+        Result(final Target target, final BufferedLog log,
+                final AbstractMessageAnalyzer analyzer, final String failure) {
+
+            this.target = target;
+            this.log = log;
+            this.findings = (analyzer != null ? analyzer.getFindings()
+                    : new ArrayList<Finding>());
+            this.errorCount = (analyzer != null ? analyzer.getErrorCount() : 0);
+            this.warningCount = (analyzer != null ? analyzer.getWarningCount() : 0);
+            this.cancelled = (analyzer != null && analyzer.isCancelled());
+            this.failure = failure;
+        }
+
+        void printTo(final PrintStream out) {
+            log.printTo(out);
+            if (cancelled) {
+                out.println("[WARNING] Check of " + target + " stopped after "
+                        + errorCount + " error(s)");
+            }
+        }
+
+        void appendJson(final StringBuilder sb) {
+            sb.append("{\"target\":");
+            JsonBundleExporter.appendJson(sb, target.path);
+            sb.append(",\"baseFilePath\":");
+            JsonBundleExporter.appendJson(sb, target.baseFilePath);
+            sb.append(",\"errors\":").append(errorCount)
+                    .append(",\"warnings\":").append(warningCount)
+                    .append(",\"cancelled\":").append(cancelled)
+                    .append(",\"failure\":");
+            JsonBundleExporter.appendJson(sb, failure);
+            sb.append(",\"findings\":[");
+
+            for (int i = 0; i < findings.size(); i++) {
+                final Finding finding = findings.get(i);
+                sb.append(i > 0 ? "," : "").append("{\"severity\":");
+                JsonBundleExporter.appendJson(sb, finding.getSeverity().name());
+                sb.append(",\"type\":");
+                JsonBundleExporter.appendJson(sb, finding.getType().name());
+                sb.append(",\"file\":");
+                JsonBundleExporter.appendJson(sb, finding.getFile());
+                sb.append(",\"key\":");
+                JsonBundleExporter.appendJson(sb, finding.getKey());
+                sb.append(",\"message\":");
+                JsonBundleExporter.appendJson(sb, finding.getMessage());
+                sb.append('}');
+            }
+
+            sb.append("]}");
+        }
+    }
+}
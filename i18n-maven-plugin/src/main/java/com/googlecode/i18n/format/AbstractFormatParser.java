@@ -19,5 +19,17 @@ public abstract class AbstractFormatParser {
      *
      * @exception IllegalArgumentException if the format is invalid
      */
-    public abstract String[] parse(String format);
+    public String[] parse(String format) {
+        return parseSignature(format).toStrings();
+    }
+
+    /**
+     * Parses the given format string into encoded signature.
+     *
+     * @param format    formatted string to parse
+     * @return          parsed format signature, not <code>null</code>
+     *
+     * @exception IllegalArgumentException if the format is invalid
+     */
+    public abstract FormatSignature parseSignature(String format);
 }
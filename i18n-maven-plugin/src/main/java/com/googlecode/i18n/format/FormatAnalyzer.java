@@ -1,11 +1,12 @@
 package com.googlecode.i18n.format;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Properties;
-import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.Finding;
+import com.googlecode.i18n.MessageChecker;
 
 /**
  * Performs analyzing of formatted messages using provided format parser.
@@ -18,15 +19,15 @@ public class FormatAnalyzer {
     private static final String INVALID_FORMAT =
         "Invalid format [%s]\n\t%s";
 
-    private final AbstractMessageAnalyzer messageAnalyzer;
+    private final MessageChecker checker;
     private final AbstractFormatParser formatParser;
 
-    private Map<String, String[]> baseFormats;
+    private Map<String, FormatSignature> baseFormats;
 
-    public FormatAnalyzer(final AbstractMessageAnalyzer messageAnalyzer,
+    public FormatAnalyzer(final MessageChecker checker,
             final AbstractFormatParser formatParser) {
 
-        this.messageAnalyzer = messageAnalyzer;
+        this.checker = checker;
         this.formatParser = formatParser;
     }
     
@@ -36,31 +37,56 @@ public class FormatAnalyzer {
      * <p/>After the first call to this method all recognised messages will be used as base format
      * to match for all subsequent calls to this method.
      * 
-     * @param depth indentation length
      * @param props properties for file
      * @param keys  messages info
      */
-    public void check(int depth, Properties props, Map<String, FormatType> keys) {
+    public void check(Properties props, Map<String, FormatType> keys) {
+        check(props, keys, null);
+    }
+
+    /**
+     * Checks given messages format, using already parsed formats of the properties file.
+     *
+     * @param props         properties for file
+     * @param keys          messages info
+     * @param signatures    parsed formats of the properties file, <code>null</code> to
+     *                      parse all messages
+     * @see #check(Properties, Map)
+     */
+    public void check(Properties props, Map<String, FormatType> keys,
+            FormatSignatures signatures) {
+
         if (baseFormats == null) {
-            baseFormats = getBaseMessageFormats(depth, props, keys);
+            baseFormats = getBaseMessageFormats(props, keys, signatures);
         } else {
-            checkMessageFormats(depth, props);
+            checkMessageFormats(props, signatures);
         }
     }
 
+    /**
+     * Returns parsed formats of the valid base messages.
+     * @return base messages formats, empty if no properties file is checked yet
+     */
+    public Map<String, FormatSignature> getBaseFormats() {
+        if (baseFormats == null) {
+            return Collections.emptyMap();
+        }
+
+        return Collections.unmodifiableMap(baseFormats);
+    }
+
     /**
      * Loads base message formats.
      *
-     * @param depth indentation level
      * @param props properties to load messages from
      * @param keys  messages info
+     * @param signatures    parsed formats, can be <code>null</code>
      */
-    private Map<String, String[]> getBaseMessageFormats(int depth, Properties props,
-            Map<String, FormatType> keys) {
+    private Map<String, FormatSignature> getBaseMessageFormats(Properties props,
+            Map<String, FormatType> keys, FormatSignatures signatures) {
 
-        final String indent = messageAnalyzer.indent(depth);
         final Iterator<Map.Entry<String, FormatType>> keysIterator = keys.entrySet().iterator();
-        final Map<String, String[]> baseFormats = new HashMap<String, String[]>();
+        final Map<String, FormatSignature> baseFormats = new HashMap<String, FormatSignature>();
 
         while (keysIterator.hasNext()) {
             final Map.Entry<String, FormatType> key = keysIterator.next();
@@ -76,13 +102,9 @@ public class FormatAnalyzer {
             final String value = (String) props.remove(keyString);
             keysIterator.remove();
 
-            if (messageAnalyzer.checkProperty(indent, keyString, value)) {
-                try {
-                    baseFormats.put(keyString, formatParser.parse(value));
-
-                } catch (IllegalArgumentException x) {
-                    invalidFormatError(indent, keyString, x.getMessage());
-                }
+            final FormatSignature baseFormat = checkBaseFormat(keyString, value, signatures);
+            if (baseFormat != null) {
+                baseFormats.put(keyString, baseFormat);
             }
         }
 
@@ -92,52 +114,93 @@ public class FormatAnalyzer {
     /**
      * Checks only message formatted properties and removes them from the given properties.
      *
-     * @param depth indentation level
      * @param props properties with messages to check
+     * @param signatures    parsed formats, can be <code>null</code>
      */
-    private void checkMessageFormats(final int depth, final Properties props) {
-        final String indent = messageAnalyzer.indent(depth);
-        for (final Map.Entry<String, String[]> baseFormatEntry : baseFormats.entrySet()) {
+    private void checkMessageFormats(final Properties props,
+            final FormatSignatures signatures) {
+
+        for (final Map.Entry<String, FormatSignature> baseFormatEntry : baseFormats.entrySet()) {
             final String key = baseFormatEntry.getKey();
-            final String[] baseFormat = baseFormatEntry.getValue();
+            final FormatSignature baseFormat = baseFormatEntry.getValue();
 
             // remove this message, so it's processed only by this analyzer
             final String value = (String) props.remove(key);
 
-            if (messageAnalyzer.checkProperty(indent, key, value)) {
-                try {
-                    checkFormat(indent, key, formatParser.parse(value), baseFormat);
+            checkMessageFormat(key, value, baseFormat, signatures);
+        }
+    }
+
+    /**
+     * Checks the given base message and parses its format.
+     *
+     * @param key           message key
+     * @param value         message value, <code>null</code> if missing
+     * @param signatures    parsed formats, can be <code>null</code>
+     * @return              parsed format, or <code>null</code> if the message is missing
+     *                      or invalid
+     */
+    public FormatSignature checkBaseFormat(final String key, final String value,
+            final FormatSignatures signatures) {
 
-                } catch (IllegalArgumentException x) {
-                    invalidFormatError(indent, key, x.getMessage());
-                }
+        if (checker.checkProperty(key, value)) {
+            try {
+                return parse(key, value, signatures);
+
+            } catch (IllegalArgumentException x) {
+                invalidFormatError(key, x.getMessage());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks the given localized message against its base format.
+     *
+     * @param key           message key
+     * @param value         message value, <code>null</code> if missing
+     * @param baseFormat    parsed base format of the message
+     * @param signatures    parsed formats, can be <code>null</code>
+     */
+    public void checkMessageFormat(final String key, final String value,
+            final FormatSignature baseFormat, final FormatSignatures signatures) {
+
+        if (checker.checkProperty(key, value)) {
+            try {
+                checkFormat(key, parse(key, value, signatures), baseFormat);
+
+            } catch (IllegalArgumentException x) {
+                invalidFormatError(key, x.getMessage());
             }
         }
     }
 
+    private FormatSignature parse(final String key, final String value,
+            final FormatSignatures signatures) {
+
+        if (signatures != null) {
+            return signatures.parse(formatParser, key, value);
+        }
+
+        return formatParser.parseSignature(value);
+    }
+
     /**
      * Performs format checks.
      * 
-     * @param indent        indentation string
      * @param key           checked key
      * @param parsedFormat  format to check
      * @param baseFormat    base format
      * @return              true if and only if formats are matched
      */
-    private boolean checkFormat(final String indent, final String key,
-            final String[] parsedFormat, final String[] baseFormat) {
+    private boolean checkFormat(final String key,
+            final FormatSignature parsedFormat, final FormatSignature baseFormat) {
 
-        if (baseFormat.length != parsedFormat.length) {
-            formatNotMatchedError(indent, key, parsedFormat, baseFormat);
+        if (!parsedFormat.equals(baseFormat)) {
+            formatNotMatchedError(key, parsedFormat, baseFormat);
             return false;
         }
-
-        for (int i = 0; i < parsedFormat.length; i++) {
-            if (!parsedFormat[i].equals(baseFormat[i])) {
-                formatNotMatchedError(indent, key, parsedFormat, baseFormat);
-                return false;
-            }
-        }
         
         return true;
     }
@@ -145,28 +208,26 @@ public class FormatAnalyzer {
     /**
      * Reports error for not matched format.
      *
-     * @param indent        indentation string
      * @param key           checked key
      * @param parsedFormat  format to check
      * @param baseFormat    base format
      */
-    private void formatNotMatchedError(final String indent, final String key,
-            final String[] parsedFormat, final String[] baseFormat) {
+    private void formatNotMatchedError(final String key, final FormatSignature parsedFormat,
+            final FormatSignature baseFormat) {
 
-        messageAnalyzer.reportError(indent, FORMAT_NOT_MATCHED, key,
-                Arrays.asList(baseFormat), Arrays.asList(parsedFormat));
+        // formats are rendered to text only here
+        checker.reportError(Finding.Type.FORMAT_NOT_MATCHED, key, FORMAT_NOT_MATCHED, key,
+                baseFormat.toString(), parsedFormat.toString());
     }
 
     /**
      * reports error for invalid format.
      *
-     * @param indent        indentation string
      * @param key           checked key
      * @param errorMessage  message about error
      */
-    private void invalidFormatError(final String indent, final String key,
-            final String errorMessage) {
-
-        messageAnalyzer.reportError(indent, INVALID_FORMAT, key, errorMessage);
+    private void invalidFormatError(final String key, final String errorMessage) {
+        checker.reportError(Finding.Type.INVALID_FORMAT, key, INVALID_FORMAT, key,
+                errorMessage);
     }     
 }
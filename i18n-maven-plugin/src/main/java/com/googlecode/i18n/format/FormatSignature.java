@@ -0,0 +1,219 @@
+package com.googlecode.i18n.format;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parsed format of the message, encoded as packed numbers.
+ *
+ * <p/>Each format element is stored in fixed count of <code>long</code> values by the
+ * parser, so signatures are compared without creating strings. Text representation is
+ * rendered only when it is requested, for example to report not matched formats.
+ * Immutable.
+ */
+public final class FormatSignature {
+
+    private final FormatType type;
+    private final long[] elements;
+
+    FormatSignature(final FormatType type, final long[] elements) {
+        this.type = type;
+        this.elements = elements;
+    }
+
+    /**
+     * Returns format type of this signature.
+     * @return format type of this signature
+     */
+    public FormatType getFormatType() {
+        return type;
+    }
+
+    /**
+     * Returns count of format elements.
+     * @return count of format elements
+     */
+    public int size() {
+        return elements.length / getStride(type);
+    }
+
+    /**
+     * Returns text representation of format elements.
+     * @return text representation of format elements
+     */
+    public String[] toStrings() {
+        final int stride = getStride(type);
+        final String[] result = new String[size()];
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < result.length; i++) {
+            sb.setLength(0);
+            if (type == FormatType.STRING) {
+                StringFormatParser.render(sb, elements[i * stride], elements[i * stride + 1]);
+            } else {
+                MessageFormatParser.render(sb, elements[i * stride]);
+            }
+
+            result[i] = sb.toString();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns types of arguments of this format, in the order of their indexes. Primitive
+     * types are returned for decimal, floating point, choice, character and boolean
+     * elements, so arguments can be passed without boxing.
+     *
+     * @return types of arguments, <code>Object</code> for arguments not referred by
+     *         elements, or referred by elements of different types
+     */
+    public Class<?>[] getArgumentTypes() {
+        final int stride = getStride(type);
+        final List<Class<?>> result = new ArrayList<Class<?>>();
+        int ordinary = -1;
+        int last = -1;
+        for (int i = 0; i < elements.length; i += stride) {
+            final int index;
+            final Class<?> argumentType;
+            if (type == FormatType.STRING) {
+                final int encoded = StringFormatParser.getIndex(elements[i]);
+                if (encoded == 0) {
+                    index = ++ordinary;
+                } else {
+                    index = (encoded < 0 ? last : encoded - 1);
+                }
+
+                argumentType = StringFormatParser.getArgumentType(elements[i]);
+            } else {
+                index = MessageFormatParser.getIndex(elements[i]);
+                argumentType = MessageFormatParser.getArgumentType(elements[i]);
+            }
+
+            if (index < 0) {
+                continue;
+            }
+
+            last = index;
+            while (result.size() <= index) {
+                result.add(null);
+            }
+
+            final Class<?> known = result.get(index);
+            result.set(index, (known == null || known == argumentType
+                    ? argumentType : Object.class));
+        }
+
+        for (int i = 0; i < result.size(); i++) {
+            if (result.get(i) == null) {
+                result.set(i, Object.class);
+            }
+        }
+
+        return result.toArray(new Class<?>[result.size()]);
+    }
+
+    /**
+     * Writes this signature in binary form.
+     *
+     * @param out   output to write to
+     * @see #readFrom(DataInput)
+     */
+    public void writeTo(final DataOutput out) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeInt(elements.length);
+        for (final long element : elements) {
+            out.writeLong(element);
+        }
+    }
+
+    /**
+     * Reads signature written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in    input to read from
+     * @return      read signature
+     *
+     * @throws IOException if the input is malformed
+     */
+    public static FormatSignature readFrom(final DataInput in) throws IOException {
+        final int typeIndex = in.readUnsignedByte();
+        final FormatType[] types = FormatType.values();
+        if (typeIndex >= types.length) {
+            throw new IOException("Unknown format type: " + typeIndex);
+        }
+
+        final FormatType type = types[typeIndex];
+        final int length = in.readInt();
+        if (length < 0 || length % getStride(type) != 0) {
+            throw new IOException("Invalid format signature length: " + length);
+        }
+
+        final long[] elements = new long[length];
+        for (int i = 0; i < length; i++) {
+            elements[i] = in.readLong();
+        }
+
+        return new FormatSignature(type, elements);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FormatSignature)) {
+            return false;
+        }
+
+        final FormatSignature other = (FormatSignature) o;
+        return type == other.type && Arrays.equals(elements, other.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode() * 31 + Arrays.hashCode(elements);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.asList(toStrings()).toString();
+    }
+
+    /**
+     * Returns count of <code>long</code> values used by one element of the given format.
+     */
+    private static int getStride(final FormatType type) {
+        return (type == FormatType.STRING ? 2 : 1);
+    }
+
+    /**
+     * Collects encoded elements while format is parsed.
+     */
+    static final class Builder {
+
+        private final FormatType type;
+
+        private long[] elements = new long[8];
+        private int size;
+
+        Builder(final FormatType type) {
+            this.type = type;
+        }
+
+        Builder add(final long element) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+
+            elements[size++] = element;
+            return this;
+        }
+
+        FormatSignature build() {
+            return new FormatSignature(type, Arrays.copyOf(elements, size));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.googlecode.i18n.format;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed formats of one properties file, that are shared by all checks of the file.
+ *
+ * <p/>Messages are parsed only the first time they are requested, invalid formats are
+ * remembered as well. Thread-safe.
+ */
+public final class FormatSignatures {
+
+    private final Map<FormatType, Map<String, Object>> formats =
+            new EnumMap<FormatType, Map<String, Object>>(FormatType.class);
+
+    public FormatSignatures() {
+        for (final FormatType type : FormatType.values()) {
+            formats.put(type, new ConcurrentHashMap<String, Object>());
+        }
+    }
+
+    /**
+     * Returns parsed format of the given message, parses it if it is not parsed yet.
+     *
+     * @param parser    format parser
+     * @param key       message key
+     * @param value     message value of the key
+     * @return          parsed format signature, not <code>null</code>
+     *
+     * @exception IllegalArgumentException if the format is invalid
+     */
+    public FormatSignature parse(final AbstractFormatParser parser, final String key,
+            final String value) {
+
+        final Map<String, Object> parsed = formats.get(parser.getFormatType());
+
+        Object result = parsed.get(key);
+        if (result == null) {
+            try {
+                result = parser.parseSignature(value);
+            } catch (IllegalArgumentException x) {
+                // message of the exception can be null
+                result = x;
+            }
+
+            parsed.put(key, result);
+        }
+
+        if (result instanceof IllegalArgumentException) {
+            throw (IllegalArgumentException) result;
+        }
+
+        return (FormatSignature) result;
+    }
+}
@@ -1,7 +1,6 @@
 package com.googlecode.i18n.format;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Date;
 
 /**
  * Parses <code>MessageFormat.format()</code>.
@@ -19,13 +18,46 @@ public final class MessageFormatParser extends AbstractFormatParser {
         return FormatType.MESSAGE;
     }
 
+    /** Format types, their indexes are encoded in signature */
+    private static final String[] FORMAT_TYPES = {"", "number", "date", "time", "choice"};
+
     @Override
-    public String[] parse(String pattern) {
-        final List<String> result = applyPattern(pattern);
-        
-        return result.toArray(new String[result.size()]);
+    public FormatSignature parseSignature(String pattern) {
+        return applyPattern(pattern);
+    }
+
+    /**
+     * Renders encoded format element, as <code>argumentNumber,formatType</code>.
+     */
+    static void render(final StringBuilder sb, final long element) {
+        sb.append(element >>> 3).append(',').append(FORMAT_TYPES[(int) (element & 7)]);
     }
        
+    /**
+     * Returns argument index of encoded format element.
+     */
+    static int getIndex(final long element) {
+        return (int) (element >>> 3);
+    }
+
+    /**
+     * Returns type of the argument, that is formatted by encoded format element
+     * without boxing, <code>Object</code> for elements without format type and for
+     * number elements, since they format <code>long</code> and <code>BigDecimal</code>
+     * arguments without loss of precision.
+     */
+    static Class<?> getArgumentType(final long element) {
+        switch ((int) (element & 7)) {
+        case 4:
+            return double.class;
+        case 2:
+        case 3:
+            return Date.class;
+        default:
+            return Object.class;
+        }
+    }
+
     /**
      * Sets the pattern used by this message format.
      * The method parses the pattern and creates a list of subformats
@@ -36,13 +68,14 @@ public final class MessageFormatParser extends AbstractFormatParser {
      * @param pattern the pattern for this message format
      * @exception IllegalArgumentException if the pattern is invalid
      */
-    private List<String> applyPattern(String pattern) {
+    private FormatSignature applyPattern(String pattern) {
         StringBuffer[] segments = new StringBuffer[4];
         for (int i = 0; i < segments.length; ++i) {
             segments[i] = new StringBuffer();
         }
 
-        final List<String> result = new ArrayList<String>();
+        final FormatSignature.Builder result =
+                new FormatSignature.Builder(FormatType.MESSAGE);
 
         int part = 0;
         //int formatNumber = 0;
@@ -107,7 +140,7 @@ public final class MessageFormatParser extends AbstractFormatParser {
                     "Unmatched braces in the pattern");
         }
 
-        return result;
+        return result.build();
     }
     
     /**
@@ -116,7 +149,8 @@ public final class MessageFormatParser extends AbstractFormatParser {
      * 
      * @param segments array with message and format
      */
-    private void addFormat(final List<String> result, final StringBuffer[] segments) {
+    private void addFormat(final FormatSignature.Builder result,
+            final StringBuffer[] segments) {
         // get the argument number
         int argumentNumber;
         try {
@@ -132,17 +166,16 @@ public final class MessageFormatParser extends AbstractFormatParser {
         }
 
         String formatType = segments[2].toString();
-        if (!(formatType.isEmpty() 
-                || formatType.equals("number") 
-                || formatType.equals("date") 
-                || formatType.equals("time") 
-                || formatType.equals("choice"))) {
-            
+        int typeIndex = FORMAT_TYPES.length - 1;
+        while (typeIndex >= 0 && !FORMAT_TYPES[typeIndex].equals(formatType)) {
+            typeIndex--;
+        }
+        if (typeIndex < 0) {
             throw new IllegalArgumentException("Format type = '" 
                     + formatType + "'");
         }
         
-        result.add(argumentNumber + "," + formatType);
+        result.add(((long) argumentNumber << 3) | typeIndex);
         
         segments[1].setLength(0);   // throw away other segments
         segments[2].setLength(0);
@@ -27,32 +27,100 @@ public final class StringFormatParser extends AbstractFormatParser {
     private static Pattern fsPattern = Pattern.compile(
             "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
 
+    // encoded conversion: index in low 32 bits, then flags, date/time bit and conversion
+    private static final int FLAGS_MASK = (1 << 9) - 1;
+    private static final long DATE_TIME_BIT = 1L << 41;
+    private static final int CONVERSION_SHIFT = 42;
+
     @Override
     public FormatType getFormatType() {
         return FormatType.STRING;
     }
 
     @Override
-    public String[] parse(String format) {
-        List<String> list = new ArrayList<String>();
+    public FormatSignature parseSignature(String format) {
+        FormatSignature.Builder builder = new FormatSignature.Builder(FormatType.STRING);
 
         for (FormatString fs : parseFormat(format)) {
-            switch (fs.index()) {
-            case -2: // fixed string, "%n", or "%%"
+            if (fs.index() == -2) {
+                // fixed string, "%n", or "%%"
                 continue;
-            case -1: // relative index
-                list.add(fs.toString());
-                break;
-            case 0: // ordinary index
-                list.add(fs.toString());
-                break;
-            default: // explicit index
-                list.add(fs.toString());
-                break;
             }
+
+            // relative, ordinary or explicit index
+            FormatSpecifier spec = (FormatSpecifier) fs;
+            builder.add(spec.encodeConversion()).add(spec.encodeSize());
         }
 
-        return list.toArray(new String[list.size()]);
+        return builder.build();
+    }
+
+    /**
+     * Renders encoded format specifier, the same way as
+     * <code>FormatSpecifier.toString()</code> does.
+     */
+    static void render(StringBuilder sb, long conversion, long size) {
+        int index = (int) conversion;
+        Flags f = new Flags((int) (conversion >>> 32) & FLAGS_MASK);
+        boolean dt = (conversion & DATE_TIME_BIT) != 0;
+        char c = (char) (conversion >>> CONVERSION_SHIFT);
+        int width = (int) (size >> 32);
+        int precision = (int) size;
+
+        render(sb, index, f, width, precision, dt, c);
+    }
+
+    /**
+     * Returns argument index of encoded format specifier: <code>0</code> for ordinary
+     * index, <code>-1</code> for relative one, or explicit index starting from one.
+     */
+    static int getIndex(long conversion) {
+        return (int) conversion;
+    }
+
+    /**
+     * Returns type of the argument, that is formatted by encoded format specifier
+     * without boxing, <code>Object</code> for general and date/time conversions.
+     * Octal and hexadecimal conversions are <code>Object</code> too, since they
+     * format negative <code>int</code> and <code>long</code> differently.
+     */
+    static Class<?> getArgumentType(long conversion) {
+        if ((conversion & DATE_TIME_BIT) != 0) {
+            return Object.class;
+        }
+
+        switch ((char) (conversion >>> CONVERSION_SHIFT)) {
+        case Conversion.BOOLEAN:
+            return boolean.class;
+        case Conversion.CHARACTER:
+            return char.class;
+        case Conversion.DECIMAL_INTEGER:
+            return long.class;
+        case Conversion.SCIENTIFIC:
+        case Conversion.GENERAL:
+        case Conversion.DECIMAL_FLOAT:
+        case Conversion.HEXADECIMAL_FLOAT:
+            return double.class;
+        default:
+            return Object.class;
+        }
+    }
+
+    private static void render(StringBuilder sb, int index, Flags f, int width,
+            int precision, boolean dt, char c) {
+        // Flags.UPPERCASE is set internally for legal conversions.
+        Flags dupf = f.dup().remove(Flags.UPPERCASE);
+        sb.append(dupf.toString());
+        if (index > 0)
+            sb.append(index).append('$');
+        if (width != -1)
+            sb.append(width);
+        if (precision != -1)
+            sb.append('.').append(precision);
+        if (dt)
+            sb.append(f.contains(Flags.UPPERCASE) ? 'T' : 't');
+        sb.append(f.contains(Flags.UPPERCASE) ? Character.toUpperCase(c)
+                : c);
     }
 
     // Look for format specifiers in the format string.
@@ -241,23 +309,22 @@ public final class StringFormatParser extends AbstractFormatParser {
         }
 
         public String toString() {
-            StringBuilder sb = new StringBuilder('%');
-            // Flags.UPPERCASE is set internally for legal conversions.
-            Flags dupf = f.dup().remove(Flags.UPPERCASE);
-            sb.append(dupf.toString());
-            if (index > 0)
-                sb.append(index).append('$');
-            if (width != -1)
-                sb.append(width);
-            if (precision != -1)
-                sb.append('.').append(precision);
-            if (dt)
-                sb.append(f.contains(Flags.UPPERCASE) ? 'T' : 't');
-            sb.append(f.contains(Flags.UPPERCASE) ? Character.toUpperCase(c)
-                    : c);
+            StringBuilder sb = new StringBuilder();
+            render(sb, index, f, width, precision, dt, c);
             return sb.toString();
         }
 
+        // Packs index, flags, date/time and conversion into one long.
+        long encodeConversion() {
+            return (index & 0xffffffffL) | ((long) f.valueOf() << 32)
+                    | (dt ? DATE_TIME_BIT : 0) | ((long) c << CONVERSION_SHIFT);
+        }
+
+        // Packs width and precision into one long, -1 means not present.
+        long encodeSize() {
+            return ((long) width << 32) | (precision & 0xffffffffL);
+        }
+
         private void checkGeneral() {
             if ((c == Conversion.BOOLEAN || c == Conversion.HASHCODE)
                     && f.contains(Flags.ALTERNATE))
@@ -0,0 +1,270 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.CheckOptions;
+import com.googlecode.i18n.ClassFilter;
+import com.googlecode.i18n.ClassHelpers;
+import com.googlecode.i18n.ClassLoaderCache;
+import com.googlecode.i18n.PackageFilter;
+import com.googlecode.i18n.PropertiesCache;
+
+/**
+ * Contains configuration parameters common for all i18n-maven-plugin goals.
+ */
+public abstract class AbstractI18nMojo extends AbstractMojo {
+
+    @Parameter(property = "project.build.outputDirectory")
+    protected String dir;
+
+    @Parameter(property = "project")
+    protected MavenProject project;
+
+    @Parameter(property = "i18n.locales", defaultValue = "")
+    protected String locales;
+
+    @Parameter(property = "i18n.baseLocale", defaultValue = "")
+    protected String baseLocale;
+
+    @Parameter(property = "i18n.plainFilePath", defaultValue = "")
+    protected String plainFilePath;
+
+    @Parameter(property = "i18n.formatType", defaultValue = "")
+    protected String formatType;
+
+    /**
+     * Count of errors after which check is stopped and the rest is skipped,
+     * <code>0</code> means no limit.
+     */
+    @Parameter(property = "i18n.maxErrors", defaultValue = "0")
+    protected int maxErrors;
+
+    /**
+     * Count of properties files read in background ahead of the checked one,
+     * <code>0</code> means no read ahead.
+     */
+    @Parameter(property = "i18n.prefetch", defaultValue = "0")
+    protected int prefetch;
+
+    /**
+     * Memory limit in megabytes for properties of plain properties files, which are
+     * sorted on disk and compared sequentially if set. <code>0</code> means no limit.
+     */
+    @Parameter(property = "i18n.memoryLimit", defaultValue = "0")
+    protected int memoryLimit;
+
+    /**
+     * Regional properties files, like <code>Messages_en_US</code>, inherit messages of
+     * their language files, like <code>Messages_en</code>, so they can contain only
+     * differing messages.
+     */
+    @Parameter(property = "i18n.inheritLocales", defaultValue = "false")
+    protected boolean inheritLocales;
+
+    /**
+     * Comma separated list of packages to check, all packages are checked if empty.
+     * Patterns include subpackages and can contain <code>*</code> and <code>**</code>
+     * wildcards.
+     */
+    @Parameter(property = "i18n.includes", defaultValue = "")
+    protected String includes;
+
+    /**
+     * Comma separated list of packages to skip, has precedence over {@link #includes}.
+     */
+    @Parameter(property = "i18n.excludes", defaultValue = "")
+    protected String excludes;
+
+    /**
+     * Returns true if plain properties files should be checked.
+     * @return true if plain properties files should be checked
+     */
+    protected boolean isPlainCheck() {
+        return plainFilePath != null && !plainFilePath.isEmpty();
+    }
+
+    /**
+     * Creates check options from the configuration parameters.
+     * @return check options
+     */
+    protected CheckOptions createOptions() {
+        return new CheckOptions()
+                .setMaxErrors(maxErrors)
+                .setPrefetch(prefetch)
+                .setMemoryLimit(memoryLimit * 1024L * 1024L)
+                .setInheritLocales(inheritLocales);
+    }
+
+    /**
+     * Creates filter for the configured included and excluded packages.
+     *
+     * @param filter    additional filter, can be <code>null</code>
+     * @return          classes filter, or <code>null</code> if all classes should be checked
+     */
+    protected ClassFilter createClassFilter(final ClassFilter filter) {
+        final PackageFilter packageFilter = new PackageFilter(includes, excludes);
+        if (packageFilter.isEmpty()) {
+            return filter;
+        }
+
+        return packageFilter.and(filter);
+    }
+
+    /**
+     * Returns project's jar dependencies.
+     * @return project's jar dependencies
+     */
+    protected List<File> getDependencies() {
+        final Log log = getLog();
+
+        log.debug("locales: " + locales);
+        log.debug("outputDirectory: " + dir);
+        log.debug("Dependencies:");
+
+        @SuppressWarnings("unchecked")
+        Set<Artifact> artifacts = project.getArtifacts();
+
+        List<File> dependencies = new ArrayList<File>();
+        for (Artifact a : artifacts) {
+            if ("jar".equals(a.getType().toLowerCase())) {
+                log.debug(a.getFile().toString());
+                dependencies.add(a.getFile());
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Returns class loader for the project's jar dependencies. The class loader is reused
+     * across executions in the same JVM while dependencies are unchanged, it should be
+     * released with {@link #releaseDependenciesClassLoader(ClassLoader)} after use.
+     *
+     * @return class loader for the project's jar dependencies
+     */
+    protected ClassLoader acquireDependenciesClassLoader() {
+        final List<File> dependencies = getDependencies();
+        if (dependencies.isEmpty()) {
+            return getClass().getClassLoader();
+        }
+
+        return ClassLoaderCache.acquire(getClass().getClassLoader(),
+                dependencies.toArray(new File[dependencies.size()]));
+    }
+
+    /**
+     * Releases class loader returned by {@link #acquireDependenciesClassLoader()}.
+     *
+     * @param loader    class loader to release
+     */
+    protected void releaseDependenciesClassLoader(final ClassLoader loader) {
+        ClassLoaderCache.release(loader);
+    }
+
+    /**
+     * Returns project's compile source directories.
+     * @return project's compile source directories
+     */
+    protected List<File> getSourceRoots() {
+        final List<File> roots = new ArrayList<File>();
+        for (final Object root : project.getCompileSourceRoots()) {
+            roots.add(new File((String) root));
+        }
+
+        return roots;
+    }
+
+    /**
+     * Returns project's resource directories.
+     * @return project's resource directories
+     */
+    protected List<File> getResourceRoots() {
+        final List<File> roots = new ArrayList<File>();
+        for (final Object resource : project.getResources()) {
+            roots.add(new File(((Resource) resource).getDirectory()));
+        }
+
+        return roots;
+    }
+
+    /**
+     * Creates class loader, that loads resources from the project's resource directories
+     * first and then from the given directories.
+     *
+     * @param parent    the parent class loader for delegation
+     * @param dirs      additional directories with resources
+     * @return          the resulting class loader
+     */
+    protected ClassLoader createResourcesClassLoader(final ClassLoader parent,
+            final File... dirs) {
+
+        final List<File> paths = new ArrayList<File>();
+        for (final File root : getResourceRoots()) {
+            if (root.isDirectory()) {
+                paths.add(root);
+            }
+        }
+
+        for (final File path : dirs) {
+            if (path.isDirectory()) {
+                paths.add(path);
+            }
+        }
+
+        if (paths.isEmpty()) {
+            return parent;
+        }
+
+        return ClassHelpers.createClassLoader(parent, paths.toArray(new File[paths.size()]));
+    }
+
+    /**
+     * Closes class loader returned by {@link #createResourcesClassLoader(ClassLoader, File...)}.
+     *
+     * @param loader    class loader to close
+     * @param parent    the parent class loader it was created with, which is not closed
+     */
+    protected void closeResourcesClassLoader(final ClassLoader loader,
+            final ClassLoader parent) {
+
+        if (loader != parent) {
+            ClassHelpers.closeClassLoader(loader);
+        }
+    }
+
+    /**
+     * Prints check results of the given analyzer.
+     *
+     * @param analyzer  analyzer with check results
+     */
+    protected void printResults(final AbstractMessageAnalyzer analyzer) {
+        final Log log = getLog();
+
+        log.info("");
+        log.info("Check results:");
+        log.info("  " + analyzer.getErrorCount() + " error(s), "
+                + analyzer.getWarningCount() + " warning(s)");
+        log.debug("Properties cache: " + PropertiesCache.getStatistics());
+
+        if (analyzer.isCancelled()) {
+            final StringBuilder sb = new StringBuilder();
+            for (final Map.Entry<String, Integer> entry : analyzer.getSkipped().entrySet()) {
+                sb.append(sb.length() > 0 ? ", " : "")
+                        .append(entry.getValue()).append(' ').append(entry.getKey());
+            }
+
+            log.warn("Check stopped after " + maxErrors + " error(s), skipped: "
+                    + (sb.length() > 0 ? sb : "nothing"));
+        }
+    }
+}
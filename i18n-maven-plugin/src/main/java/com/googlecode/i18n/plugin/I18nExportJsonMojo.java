@@ -0,0 +1,89 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.JsonBundleExporter;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+
+/**
+ * Exports checked bundles to JSON files for web clients, so they can be served as static
+ * files.
+ */
+@Mojo(name = "export-json",
+      defaultPhase = LifecyclePhase.PREPARE_PACKAGE,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nExportJsonMojo extends AbstractI18nMojo {
+
+    /**
+     * Directory to write JSON files to.
+     */
+    @Parameter(property = "i18n.jsonDir",
+               defaultValue = "${project.build.directory}/i18n-json")
+    private File jsonDir;
+
+    /**
+     * Writes gzip compressed copies of JSON files, to be served without compression at
+     * request time.
+     */
+    @Parameter(property = "i18n.gzip", defaultValue = "true")
+    private boolean gzip;
+
+    /**
+     * Adds hash of content to names of JSON files, so they can be cached forever. Actual
+     * names are listed in <code>manifest.json</code> file.
+     */
+    @Parameter(property = "i18n.hashNames", defaultValue = "false")
+    private boolean hashNames;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+
+        // only valid bundles are exported
+        final AbstractMessageAnalyzer analyzer;
+        if (isPlainCheck()) {
+            analyzer = PlainMessageAnalyzer.check(log, dir, locales, baseLocale,
+                    plainFilePath, formatType, createOptions());
+        } else {
+            final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+            try {
+                analyzer = ClassMessageAnalyzer.check(log, dir, locales,
+                        dependenciesClassLoader, createClassFilter(null), createOptions());
+            } finally {
+                releaseDependenciesClassLoader(dependenciesClassLoader);
+            }
+        }
+
+        try {
+            printResults(analyzer);
+            if (analyzer.getErrorCount() > 0) {
+                throw new MojoExecutionException(
+                        "Errors were found in localization, no bundles exported");
+            }
+
+            final JsonBundleExporter exporter = new JsonBundleExporter(new File(dir),
+                    jsonDir, gzip, hashNames);
+            exporter.export(analyzer);
+
+            log.info("");
+            log.info("Exported " + exporter.getExportedFiles() + " JSON file(s), "
+                    + exporter.getExportedBytes() + " byte(s)"
+                    + (gzip ? ", " + exporter.getCompressedBytes() + " byte(s) compressed"
+                            : "")
+                    + " to " + jsonDir);
+
+        } catch (IOException x) {
+            throw new MojoExecutionException("Cannot export bundles", x);
+        } finally {
+            analyzer.close();
+        }
+    }
+}
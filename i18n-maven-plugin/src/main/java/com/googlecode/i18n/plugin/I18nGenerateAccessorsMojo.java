@@ -0,0 +1,81 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import com.googlecode.i18n.FormatAccessorGenerator;
+import com.googlecode.i18n.SourceMessageAnalyzer;
+
+/**
+ * Generates typed accessors of formatted messages of message enums, like
+ * <code>FullExampleFormats.languageStr("Java")</code> for
+ * <code>String.format(FullExample.LANGUAGE_STR.toString(), "Java")</code>. Accessors have
+ * parameters of the exact types of the message format and render messages without
+ * varargs arrays and boxing.
+ *
+ * <p/>Messages are found by parsing java sources, so accessors are compiled along with
+ * them. Project should depend on <code>i18n-util</code> to compile generated classes.
+ */
+@Mojo(name = "generate-accessors",
+      defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+public class I18nGenerateAccessorsMojo extends AbstractI18nMojo {
+
+    /**
+     * Directory to write generated sources to, it is added to compile source roots.
+     */
+    @Parameter(property = "i18n.accessorsDir",
+               defaultValue = "${project.build.directory}/generated-sources/i18n-accessors")
+    private File accessorsDir;
+
+    @Parameter(property = "i18n.encoding", defaultValue = "${project.build.sourceEncoding}")
+    private String encoding;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+        if (isPlainCheck()) {
+            log.info("Accessors are generated only for message enums, SKIPPED");
+            return;
+        }
+
+        final List<File> sourceRoots = getSourceRoots();
+        sourceRoots.remove(accessorsDir);
+
+        // only valid formats are used for accessors
+        final ClassLoader parent = getClass().getClassLoader();
+        final ClassLoader resourceClassLoader = createResourcesClassLoader(parent);
+        try {
+            final SourceMessageAnalyzer analyzer = SourceMessageAnalyzer.check(log,
+                    sourceRoots, encoding, locales, resourceClassLoader,
+                    createClassFilter(null), createOptions());
+            try {
+                printResults(analyzer);
+                if (analyzer.getErrorCount() > 0) {
+                    throw new MojoExecutionException(
+                            "Errors were found in localization, no accessors generated");
+                }
+
+                final FormatAccessorGenerator generator =
+                        new FormatAccessorGenerator(accessorsDir);
+                final List<File> sources = generator.generate(analyzer);
+                project.addCompileSourceRoot(accessorsDir.getPath());
+
+                log.info("");
+                log.info("Generated " + generator.getAccessorCount() + " accessor(s) in "
+                        + sources.size() + " class(es)");
+
+            } finally {
+                analyzer.close();
+            }
+        } catch (IOException x) {
+            throw new MojoExecutionException("Cannot generate accessor classes", x);
+        } finally {
+            closeResourcesClassLoader(resourceClassLoader, parent);
+        }
+    }
+}
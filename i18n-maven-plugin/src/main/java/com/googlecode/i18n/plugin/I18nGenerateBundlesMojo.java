@@ -0,0 +1,116 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.BundleClassGenerator;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+import com.googlecode.i18n.util.ArrayResourceBundle;
+
+/**
+ * Compiles checked properties files to bundle classes, that are loaded by
+ * <code>MessageControl</code> instead of properties files. Properties files are kept, so
+ * bundles are still loaded without <code>MessageControl</code>.
+ *
+ * <p/>Project should depend on <code>i18n-util</code> to load generated classes.
+ */
+@Mojo(name = "generate-bundles",
+      defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nGenerateBundlesMojo extends AbstractI18nMojo {
+
+    /**
+     * Directory to write generated sources to.
+     */
+    @Parameter(property = "i18n.generatedSourcesDir",
+               defaultValue = "${project.build.directory}/generated-sources/i18n-bundles")
+    private File generatedSourcesDir;
+
+    /**
+     * Java version of the generated classes.
+     */
+    @Parameter(property = "maven.compiler.target", defaultValue = "")
+    private String target;
+
+    /**
+     * Java release of the generated classes, takes precedence over {@link #target}.
+     */
+    @Parameter(property = "maven.compiler.release", defaultValue = "")
+    private String release;
+
+    /**
+     * Orders messages of generated classes by minimal perfect hash function computed at
+     * build time, so each message is looked up with one probe, instead of binary search.
+     */
+    @Parameter(property = "i18n.perfectHash", defaultValue = "false")
+    private boolean perfectHash;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+
+        // only valid bundles are compiled
+        final AbstractMessageAnalyzer analyzer;
+        final List<File> classPath = getDependencies();
+        if (isPlainCheck()) {
+            analyzer = PlainMessageAnalyzer.check(log, dir, locales, baseLocale,
+                    plainFilePath, formatType, createOptions());
+        } else {
+            final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+            try {
+                analyzer = ClassMessageAnalyzer.check(log, dir, locales,
+                        dependenciesClassLoader, createClassFilter(null), createOptions());
+            } finally {
+                releaseDependenciesClassLoader(dependenciesClassLoader);
+            }
+        }
+
+        try {
+            printResults(analyzer);
+            if (analyzer.getErrorCount() > 0) {
+                throw new MojoExecutionException(
+                        "Errors were found in localization, no bundles generated");
+            }
+
+            final BundleClassGenerator generator = new BundleClassGenerator(log, new File(dir),
+                    generatedSourcesDir, perfectHash);
+            final List<File> sources = generator.generate(analyzer);
+
+            classPath.add(getUtilLocation());
+            BundleClassGenerator.compile(sources, new File(dir), classPath,
+                    (release != null && !release.isEmpty() ? release : target));
+
+            log.info("");
+            log.info("Generated " + sources.size() + " bundle class(es)");
+
+        } catch (IOException x) {
+            throw new MojoExecutionException("Cannot generate bundle classes", x);
+        } catch (IllegalStateException x) {
+            throw new MojoExecutionException(x.getMessage(), x);
+        } finally {
+            analyzer.close();
+        }
+    }
+
+    /**
+     * Returns location of <code>i18n-util</code> classes used by the plugin, so generated
+     * classes are compiled even if the project doesn't depend on it directly.
+     */
+    private static File getUtilLocation() throws MojoExecutionException {
+        try {
+            return new File(ArrayResourceBundle.class.getProtectionDomain().getCodeSource()
+                    .getLocation().toURI());
+        } catch (URISyntaxException x) {
+            throw new MojoExecutionException("Cannot locate i18n-util classes", x);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.NativeImageConfigGenerator;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+
+/**
+ * Generates GraalVM native-image resource and reflection configuration for checked
+ * bundles and message enums.
+ *
+ * <p/>Should be executed after <code>generate-bundles</code> goal, if it is used, so
+ * generated bundle classes are configured too.
+ */
+@Mojo(name = "native-image-config",
+      defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nNativeImageMojo extends AbstractI18nMojo {
+
+    /**
+     * Directory to write configuration files to, native-image finds them there
+     * automatically.
+     */
+    @Parameter(property = "i18n.nativeImageDir", defaultValue =
+            "${project.build.outputDirectory}/META-INF/native-image/${project.groupId}/${project.artifactId}")
+    private File nativeImageDir;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+
+        final AbstractMessageAnalyzer analyzer;
+        if (isPlainCheck()) {
+            analyzer = PlainMessageAnalyzer.check(log, dir, locales, baseLocale,
+                    plainFilePath, formatType, createOptions());
+        } else {
+            final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+            try {
+                analyzer = ClassMessageAnalyzer.check(log, dir, locales,
+                        dependenciesClassLoader, createClassFilter(null), createOptions());
+            } finally {
+                releaseDependenciesClassLoader(dependenciesClassLoader);
+            }
+        }
+
+        try {
+            printResults(analyzer);
+            if (analyzer.getErrorCount() > 0) {
+                throw new MojoExecutionException(
+                        "Errors were found in localization, no configuration generated");
+            }
+
+            final NativeImageConfigGenerator generator =
+                    new NativeImageConfigGenerator(new File(dir));
+            generator.generate(analyzer, nativeImageDir);
+
+            log.info("");
+            log.info("Configured " + generator.getResourceCount() + " properties file(s) and "
+                    + generator.getClassCount() + " class(es) in " + nativeImageDir);
+
+        } catch (IOException x) {
+            throw new MojoExecutionException("Cannot generate native-image configuration", x);
+        } finally {
+            analyzer.close();
+        }
+    }
+}
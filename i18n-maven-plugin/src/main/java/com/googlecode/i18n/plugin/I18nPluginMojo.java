@@ -1,21 +1,16 @@
 package com.googlecode.i18n.plugin;
 
-import java.io.File;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
-import org.apache.maven.artifact.Artifact;
-import org.apache.maven.plugin.AbstractMojo;
+import java.io.IOException;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
-import org.apache.maven.project.MavenProject;
 import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.ChangeSet;
+import com.googlecode.i18n.ClassFilter;
 import com.googlecode.i18n.ClassMessageAnalyzer;
-import com.googlecode.i18n.ClassHelpers;
 import com.googlecode.i18n.PlainMessageAnalyzer;
 
 /**
@@ -24,31 +19,28 @@ import com.googlecode.i18n.PlainMessageAnalyzer;
 @Mojo(name = "i18n", 
       defaultPhase = LifecyclePhase.TEST, 
       requiresDependencyResolution = ResolutionScope.COMPILE)
-public class I18nPluginMojo extends AbstractMojo {
+public class I18nPluginMojo extends AbstractI18nMojo {
 
     @Parameter(property = "skipTests", defaultValue = "false")
     private boolean isDisabled;
     
     @Parameter(property = "maven.test.skip", defaultValue = "false")
     private boolean isTestDisabled;
-    
-    @Parameter(property = "project.build.outputDirectory")
-    private String dir;
-    
-    @Parameter(property = "project")
-    private MavenProject project;
-
-    @Parameter(property = "i18n.locales", defaultValue = "")
-    private String locales;
-
-    @Parameter(property = "i18n.baseLocale", defaultValue = "")
-    private String baseLocale;
 
-    @Parameter(property = "i18n.plainFilePath", defaultValue = "")
-    private String plainFilePath;
+    /**
+     * Checks only bundles and message classes changed in the local git working tree
+     * relative to {@link #baseRef}. Full check is performed if changes cannot be determined.
+     */
+    @Parameter(property = "i18n.changedOnly", defaultValue = "false")
+    private boolean changedOnly;
 
-    @Parameter(property = "i18n.formatType", defaultValue = "")
-    private String formatType;
+    /**
+     * Base git revision to determine changes against, like <code>origin/master</code>,
+     * required with {@link #changedOnly}. If it resolves to the current <code>HEAD</code>
+     * and there are no local changes, full check is performed.
+     */
+    @Parameter(property = "i18n.baseRef")
+    private String baseRef;
 
     @Override
     public void execute() throws MojoExecutionException {
@@ -60,27 +52,16 @@ public class I18nPluginMojo extends AbstractMojo {
             return;
         }
         
-        log.debug("locales: " + locales);
-        log.debug("outputDirectory: " + dir);
-        log.debug("Dependencies:");
-        
-        @SuppressWarnings("unchecked")
-        Set<Artifact> artifacts = project.getArtifacts();
-        
-        List<File> dependencies = new ArrayList<File>();
-        for (Artifact a : artifacts) {
-            if ("jar".equals(a.getType().toLowerCase())) {
-                log.debug(a.getFile().toString());
-                dependencies.add(a.getFile());
-            }
+        AbstractMessageAnalyzer classAnalyzer = createAnalyzer(log);
+        if (classAnalyzer == null) {
+            return;
         }
 
-        AbstractMessageAnalyzer classAnalyzer = createAnalyzer(log, dependencies);
-
-        log.info("");
-        log.info("Check results:");
-        log.info("  " + classAnalyzer.getErrorCount() + " error(s), "
-                + classAnalyzer.getWarningCount() + " warning(s)");
+        try {
+            printResults(classAnalyzer);
+        } finally {
+            classAnalyzer.close();
+        }
         
         if (classAnalyzer.getErrorCount() > 0) {
             throw new MojoExecutionException(
@@ -88,14 +69,72 @@ public class I18nPluginMojo extends AbstractMojo {
         }
     }
 
-    private AbstractMessageAnalyzer createAnalyzer(final Log log, final List<File> dependencies) {
-        if (plainFilePath != null && !plainFilePath.isEmpty()) {
+    private AbstractMessageAnalyzer createAnalyzer(final Log log)
+            throws MojoExecutionException {
+
+        final ChangeSet changes = getChangeSet(log);
+
+        if (isPlainCheck()) {
+            if (changes != null && !changes.isPlainBundleChanged(getResourceRoots(),
+                    plainFilePath)) {
+
+                log.info("No changes in " + plainFilePath + ", SKIPPED");
+                return null;
+            }
+
             return PlainMessageAnalyzer.check(log, dir, locales, baseLocale,
-                    plainFilePath, formatType);
+                    plainFilePath, formatType, createOptions());
         }
 
-        return ClassMessageAnalyzer.check(log, dir, locales,
-                ClassHelpers.createClassLoader(getClass().getClassLoader(),
-                        dependencies.toArray(new File[dependencies.size()])));
+        ClassFilter filter = null;
+        if (changes != null) {
+            filter = changes.getClassFilter(getSourceRoots(), getResourceRoots(), locales);
+            if (filter == null) {
+                log.info("Cannot map changes to message classes, performing full check");
+            }
+        }
+
+        final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+        try {
+            return ClassMessageAnalyzer.check(log, dir, locales, dependenciesClassLoader,
+                    createClassFilter(filter), createOptions());
+        } finally {
+            releaseDependenciesClassLoader(dependenciesClassLoader);
+        }
+    }
+
+    /**
+     * Returns files changed relative to the base git revision.
+     *
+     * @param log   log to report problems to
+     * @return      changed files, or <code>null</code> if full check should be performed
+     */
+    private ChangeSet getChangeSet(final Log log) throws MojoExecutionException {
+        if (!changedOnly) {
+            return null;
+        }
+
+        if (baseRef == null || baseRef.trim().isEmpty()) {
+            throw new MojoExecutionException(
+                    "Parameter i18n.baseRef is required with i18n.changedOnly");
+        }
+
+        try {
+            final ChangeSet changes = ChangeSet.fromGit(project.getBasedir(), baseRef);
+            if (changes.size() == 0 && changes.isBaseHead()) {
+                log.info("No changes against " + baseRef
+                        + ", which is the current HEAD, performing full check");
+                return null;
+            }
+
+            log.info("Checking changes against " + baseRef + ": "
+                    + changes.size() + " changed file(s)");
+            return changes;
+
+        } catch (IOException x) {
+            log.warn("Cannot determine changes against " + baseRef
+                    + ", performing full check: " + x.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,85 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.BundlePruner;
+import com.googlecode.i18n.CheckOptions;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+
+/**
+ * Removes not used keys and properties files of not configured locales from the build
+ * output directory, so they are not packaged. Source files are not modified.
+ */
+@Mojo(name = "prune",
+      defaultPhase = LifecyclePhase.PREPARE_PACKAGE,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nPruneMojo extends AbstractI18nMojo {
+
+    /**
+     * Comma separated list of keys, that are never removed. Can contain <code>*</code>
+     * wildcard.
+     */
+    @Parameter(property = "i18n.keepKeys", defaultValue = "")
+    private String keepKeys;
+
+    /**
+     * Comma separated list of locales, which properties files are never removed even if
+     * they are not in {@link #locales}.
+     */
+    @Parameter(property = "i18n.keepLocales", defaultValue = "")
+    private String keepLocales;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+
+        // only base properties files are needed to determine messages of all bundles
+        final CheckOptions options = createOptions().setMaxErrors(0).setMemoryLimit(0);
+
+        final AbstractMessageAnalyzer analyzer;
+        if (isPlainCheck()) {
+            analyzer = PlainMessageAnalyzer.check(log, dir, "", baseLocale, plainFilePath,
+                    formatType, options);
+        } else {
+            final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+            try {
+                analyzer = ClassMessageAnalyzer.check(log, dir, "", dependenciesClassLoader,
+                        createClassFilter(null), options);
+            } finally {
+                releaseDependenciesClassLoader(dependenciesClassLoader);
+            }
+        }
+
+        try {
+            if (analyzer.getErrorCount() > 0) {
+                printResults(analyzer);
+                throw new MojoExecutionException(
+                        "Errors were found in base messages, nothing is pruned");
+            }
+
+            if (locales == null || locales.trim().isEmpty()) {
+                log.info("No locales configured, properties files of all locales are kept");
+            }
+
+            final BundlePruner pruner = new BundlePruner(log, new File(dir), locales,
+                    baseLocale, keepKeys, keepLocales);
+            pruner.prune(analyzer);
+
+            log.info("");
+            log.info("Prune results:");
+            log.info("  " + pruner.getRemovedKeys() + " key(s) removed from "
+                    + pruner.getPrunedFiles() + " file(s), "
+                    + pruner.getRemovedFiles() + " file(s) removed, "
+                    + pruner.getSavedBytes() + " byte(s) saved");
+        } finally {
+            analyzer.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.CheckOptions;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+import com.googlecode.i18n.RegionalDeltas;
+
+/**
+ * Reports messages of regional properties files, like <code>Messages_en_US</code>, that
+ * are the same as in their language files, like <code>Messages_en</code>. Optionally
+ * removes them from the build output directory, so only differing messages are packaged
+ * and loaded. Source files are not modified.
+ */
+@Mojo(name = "regional-deltas",
+      defaultPhase = LifecyclePhase.PREPARE_PACKAGE,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nRegionalDeltasMojo extends AbstractI18nMojo {
+
+    /**
+     * Removes redundant messages from regional properties files, only reports them if
+     * <code>false</code>.
+     */
+    @Parameter(property = "i18n.rewriteDeltas", defaultValue = "false")
+    private boolean rewriteDeltas;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+
+        // files may be already rewritten by previous build
+        final CheckOptions options = createOptions().setInheritLocales(true);
+
+        final AbstractMessageAnalyzer analyzer;
+        if (isPlainCheck()) {
+            analyzer = PlainMessageAnalyzer.check(log, dir, locales, baseLocale,
+                    plainFilePath, formatType, options);
+        } else {
+            final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+            try {
+                analyzer = ClassMessageAnalyzer.check(log, dir, locales,
+                        dependenciesClassLoader, createClassFilter(null), options);
+            } finally {
+                releaseDependenciesClassLoader(dependenciesClassLoader);
+            }
+        }
+
+        try {
+            printResults(analyzer);
+            if (analyzer.getErrorCount() > 0) {
+                throw new MojoExecutionException(
+                        "Errors were found in localization, nothing is rewritten");
+            }
+
+            final RegionalDeltas deltas = new RegionalDeltas(log, new File(dir),
+                    rewriteDeltas);
+            deltas.process(analyzer);
+
+            log.info("");
+            log.info("Regional deltas:");
+            log.info("  " + deltas.getRedundantKeys() + " redundant message(s) in "
+                    + deltas.getRedundantFiles() + " of " + deltas.getRegionalFiles()
+                    + " regional file(s), " + deltas.getSavedBytes() + " byte(s) "
+                    + (rewriteDeltas ? "saved" : "can be saved with -Di18n.rewriteDeltas"));
+        } finally {
+            analyzer.close();
+        }
+    }
+}
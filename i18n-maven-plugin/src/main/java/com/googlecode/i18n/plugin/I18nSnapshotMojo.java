@@ -0,0 +1,76 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.BundleSnapshot;
+import com.googlecode.i18n.CheckOptions;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+
+/**
+ * Writes snapshot of the base messages of all bundles, that is used to check localized
+ * properties files later without classes, see {@link com.googlecode.i18n.SnapshotValidator}.
+ */
+@Mojo(name = "snapshot",
+      defaultPhase = LifecyclePhase.PACKAGE,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nSnapshotMojo extends AbstractI18nMojo {
+
+    /**
+     * File to write snapshot of the base messages to.
+     */
+    @Parameter(property = "i18n.snapshotFile",
+            defaultValue = "${project.build.directory}/i18n-snapshot.bin")
+    private File snapshotFile;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final Log log = getLog();
+
+        // only base properties files are needed, all of them
+        final CheckOptions options = createOptions().setMaxErrors(0).setMemoryLimit(0);
+
+        final AbstractMessageAnalyzer analyzer;
+        if (isPlainCheck()) {
+            analyzer = PlainMessageAnalyzer.check(log, dir, "", baseLocale, plainFilePath,
+                    formatType, options);
+        } else {
+            final ClassLoader dependenciesClassLoader = acquireDependenciesClassLoader();
+            try {
+                analyzer = ClassMessageAnalyzer.check(log, dir, "", dependenciesClassLoader,
+                        createClassFilter(null), options);
+            } finally {
+                releaseDependenciesClassLoader(dependenciesClassLoader);
+            }
+        }
+
+        final BundleSnapshot snapshot;
+        try {
+            printResults(analyzer);
+            snapshot = analyzer.getSnapshot();
+        } finally {
+            analyzer.close();
+        }
+
+        final File parent = snapshotFile.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new MojoExecutionException("Cannot create directory " + parent);
+        }
+
+        try {
+            snapshot.write(snapshotFile);
+        } catch (IOException x) {
+            throw new MojoExecutionException("Cannot write snapshot to " + snapshotFile, x);
+        }
+
+        log.info("Snapshot of " + snapshot.getBundles().size() + " bundle(s) written to "
+                + snapshotFile);
+    }
+}
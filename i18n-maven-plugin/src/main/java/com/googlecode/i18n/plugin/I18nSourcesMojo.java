@@ -0,0 +1,67 @@
+package com.googlecode.i18n.plugin;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+import com.googlecode.i18n.SourceMessageAnalyzer;
+
+/**
+ * Checks localization before compilation: messages are found by parsing java sources and
+ * properties files are loaded from the resource directories.
+ */
+@Mojo(name = "check-sources",
+      defaultPhase = LifecyclePhase.PROCESS_RESOURCES)
+public class I18nSourcesMojo extends AbstractI18nMojo {
+
+    @Parameter(property = "skipTests", defaultValue = "false")
+    private boolean isDisabled;
+
+    @Parameter(property = "maven.test.skip", defaultValue = "false")
+    private boolean isTestDisabled;
+
+    @Parameter(property = "i18n.encoding", defaultValue = "${project.build.sourceEncoding}")
+    private String encoding;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        Log log = getLog();
+
+        // if skip test skip plugin too
+        if (isDisabled || isTestDisabled) {
+            log.info("SKIPPED");
+            return;
+        }
+
+        final ClassLoader parent = getClass().getClassLoader();
+        final ClassLoader resourceClassLoader = createResourcesClassLoader(parent);
+
+        final AbstractMessageAnalyzer analyzer;
+        try {
+            if (isPlainCheck()) {
+                analyzer = PlainMessageAnalyzer.check(log, resourceClassLoader, locales,
+                        baseLocale, plainFilePath, formatType, createOptions());
+            } else {
+                analyzer = SourceMessageAnalyzer.check(log, getSourceRoots(), encoding,
+                        locales, resourceClassLoader, createClassFilter(null),
+                        createOptions());
+            }
+
+            try {
+                printResults(analyzer);
+            } finally {
+                analyzer.close();
+            }
+        } finally {
+            closeResourcesClassLoader(resourceClassLoader, parent);
+        }
+
+        if (analyzer.getErrorCount() > 0) {
+            throw new MojoExecutionException(
+                    "Errors were found in localization");
+        }
+    }
+}
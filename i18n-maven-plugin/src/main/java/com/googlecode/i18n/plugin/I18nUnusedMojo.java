@@ -0,0 +1,55 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.UnusedMessageAnalyzer;
+
+/**
+ * Reports constants of message enums, that are not referenced by any class, so their
+ * messages can be removed.
+ */
+@Mojo(name = "unused",
+      defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nUnusedMojo extends AbstractI18nMojo {
+
+    /**
+     * Scans project's jar dependencies as well, both for message enums and for references
+     * to them.
+     */
+    @Parameter(property = "i18n.scanDependencies", defaultValue = "false")
+    private boolean scanDependencies;
+
+    /**
+     * Fails the build if not referenced messages are found.
+     */
+    @Parameter(property = "i18n.failOnUnused", defaultValue = "false")
+    private boolean failOnUnused;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        final List<File> classPaths = new ArrayList<File>();
+        classPaths.add(new File(dir));
+        if (scanDependencies) {
+            classPaths.addAll(getDependencies());
+        }
+
+        final UnusedMessageAnalyzer analyzer = UnusedMessageAnalyzer.check(getLog(),
+                classPaths, createClassFilter(null), createOptions());
+        try {
+            printResults(analyzer);
+        } finally {
+            analyzer.close();
+        }
+
+        if (failOnUnused && analyzer.getWarningCount() > 0) {
+            throw new MojoExecutionException("Not referenced messages were found");
+        }
+    }
+}
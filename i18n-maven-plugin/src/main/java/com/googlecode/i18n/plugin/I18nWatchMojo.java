@@ -0,0 +1,234 @@
+package com.googlecode.i18n.plugin;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import com.googlecode.i18n.AbstractMessageAnalyzer;
+import com.googlecode.i18n.ClassMessageAnalyzer;
+import com.googlecode.i18n.FileWatcher;
+import com.googlecode.i18n.PlainMessageAnalyzer;
+
+/**
+ * Watches resource and classes directories and checks localization each time
+ * properties files or classes are changed. Runs until interrupted.
+ *
+ * <p/>Properties files are loaded from the resource directories first, so changes are
+ * checked as soon as they are saved, without processing resources.
+ */
+@Mojo(name = "watch",
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class I18nWatchMojo extends AbstractI18nMojo {
+
+    private final static String PROP_EXT = ".properties";
+    private final static String CLASS_EXT = ".class";
+
+    /**
+     * Interval in milliseconds between checks for changed files.
+     */
+    @Parameter(property = "i18n.watchInterval", defaultValue = "500")
+    private long watchInterval;
+
+    private ClassLoader dependenciesClassLoader;
+
+    /** Class loader of the last full check */
+    private ClassLoader resourceClassLoader;
+
+    /** Analyzer of the last full check */
+    private AbstractMessageAnalyzer analyzer;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        try {
+            watch();
+        } finally {
+            close();
+        }
+    }
+
+    private void watch() {
+        final Log log = getLog();
+
+        final List<File> watchedDirs = new ArrayList<File>(getResourceRoots());
+        watchedDirs.add(new File(dir));
+
+        final FileWatcher watcher = new FileWatcher(watchedDirs, PROP_EXT, CLASS_EXT);
+        watcher.poll();
+
+        check();
+        printResults(analyzer);
+
+        log.info("");
+        log.info("Watching for changes, press Ctrl+C to stop...");
+
+        while (true) {
+            try {
+                Thread.sleep(watchInterval);
+            } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            final List<File> changed = watcher.poll();
+            if (changed.isEmpty()) {
+                continue;
+            }
+
+            // ordinary typo in a saved file shouldn't end the watch session
+            try {
+                checkChanges(watchedDirs, changed);
+
+            } catch (RuntimeException x) {
+                log.error("Cannot check changes: " + x.getMessage());
+                log.debug(x);
+            }
+        }
+    }
+
+    /**
+     * Checks the given changed files, keeping the previous analyzer if the check fails.
+     *
+     * @param watchedDirs   watched directories
+     * @param changed       changed files
+     */
+    private void checkChanges(final List<File> watchedDirs, final List<File> changed) {
+        final Log log = getLog();
+        final long start = System.currentTimeMillis();
+
+        log.info("");
+        if (isClassChanged(changed)) {
+            check();
+            log.info("Check results:");
+            log.info("  " + analyzer.getErrorCount() + " error(s), "
+                    + analyzer.getWarningCount() + " warning(s) in "
+                    + (System.currentTimeMillis() - start) + " ms");
+            return;
+        }
+
+        // each recheck counts its own findings and has its own errors limit
+        int errorCount = 0;
+        int warningCount = 0;
+        for (final String file : getResourcePaths(watchedDirs, changed)) {
+            if (!recheck(analyzer, file)) {
+                log.debug("Skipped not checked " + file);
+                continue;
+            }
+
+            errorCount += analyzer.getErrorCount();
+            warningCount += analyzer.getWarningCount();
+        }
+
+        log.info("Check results:");
+        log.info("  " + errorCount + " error(s), " + warningCount + " warning(s) in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Performs full localization check, replacing analyzer of the previous check.
+     */
+    private void check() {
+        final Log log = getLog();
+        final ClassLoader parent = getParentClassLoader();
+        final ClassLoader loader = (isPlainCheck()
+                ? createResourcesClassLoader(parent, new File(dir))
+                : createResourcesClassLoader(parent));
+
+        final AbstractMessageAnalyzer newAnalyzer;
+        try {
+            if (isPlainCheck()) {
+                newAnalyzer = PlainMessageAnalyzer.check(log, loader, locales, baseLocale,
+                        plainFilePath, formatType, createOptions());
+            } else {
+                // new class loader is used each time, so changed classes are reloaded
+                newAnalyzer = ClassMessageAnalyzer.check(log, dir, locales, loader,
+                        createClassFilter(null), createOptions());
+            }
+        } catch (RuntimeException x) {
+            closeResourcesClassLoader(loader, parent);
+            throw x;
+        }
+
+        closeAnalyzer();
+        analyzer = newAnalyzer;
+        resourceClassLoader = loader;
+    }
+
+    private ClassLoader getParentClassLoader() {
+        if (isPlainCheck()) {
+            return getClass().getClassLoader();
+        }
+
+        if (dependenciesClassLoader == null) {
+            dependenciesClassLoader = acquireDependenciesClassLoader();
+        }
+
+        return dependenciesClassLoader;
+    }
+
+    private void closeAnalyzer() {
+        if (analyzer != null) {
+            analyzer.close();
+            closeResourcesClassLoader(resourceClassLoader, getParentClassLoader());
+
+            analyzer = null;
+            resourceClassLoader = null;
+        }
+    }
+
+    private void close() {
+        closeAnalyzer();
+
+        if (dependenciesClassLoader != null) {
+            releaseDependenciesClassLoader(dependenciesClassLoader);
+            dependenciesClassLoader = null;
+        }
+    }
+
+    private boolean recheck(final AbstractMessageAnalyzer analyzer, final String file) {
+        if (analyzer instanceof PlainMessageAnalyzer) {
+            return ((PlainMessageAnalyzer) analyzer).recheck(file);
+        }
+
+        return ((ClassMessageAnalyzer) analyzer).recheck(file);
+    }
+
+    private static boolean isClassChanged(final List<File> changed) {
+        for (final File file : changed) {
+            if (file.getName().endsWith(CLASS_EXT)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns resource paths of the given changed properties files.
+     *
+     * @param dirs      watched directories
+     * @param changed   changed files
+     * @return          set of resource paths
+     */
+    private static Set<String> getResourcePaths(final List<File> dirs, final List<File> changed) {
+        final Set<String> paths = new LinkedHashSet<String>();
+        for (final File file : changed) {
+            final String filePath = file.getAbsolutePath();
+            for (final File dir : dirs) {
+                final String dirPath = dir.getAbsolutePath() + File.separator;
+                if (filePath.startsWith(dirPath)) {
+                    paths.add(filePath.substring(dirPath.length())
+                            .replace(File.separatorChar, '/'));
+                    break;
+                }
+            }
+        }
+
+        return paths;
+    }
+}
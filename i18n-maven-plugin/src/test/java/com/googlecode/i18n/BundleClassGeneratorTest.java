@@ -0,0 +1,119 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import com.googlecode.i18n.util.ArrayResourceBundle;
+import com.googlecode.i18n.util.MessageControl;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class BundleClassGeneratorTest {
+
+    private static final String ROOT_PATH = "target/test-classes";
+
+    private final File sourcesDir = new File("target/generatedBundles/sources");
+    private final File classesDir = new File("target/generatedBundles/classes");
+
+    @Test
+    public void shouldGenerateBundleClasses() throws IOException {
+        shouldGenerateBundleClasses(false);
+    }
+
+    @Test
+    public void shouldGenerateBundleClassesWithPerfectHash() throws IOException {
+        final ResourceBundle bundle = shouldGenerateBundleClasses(true);
+        assertThat(bundle.containsKey("unknown"), is(false));
+    }
+
+    @Test
+    public void shouldGenerateLargeBundleClass() throws Exception {
+        //given
+        final Properties props = new Properties();
+        for (int i = 0; i < 40000; i++) {
+            props.setProperty("large.message.key." + i, "Large message value " + i);
+        }
+
+        final BundleClassGenerator generator = new BundleClassGenerator(new SystemStreamLog(),
+                new File(ROOT_PATH), sourcesDir, true);
+
+        //when
+        final File source = generator.generate("large/Large.properties", props);
+
+        //then
+        final File classesDir = new File(this.classesDir, "large");
+        classesDir.mkdirs();
+        BundleClassGenerator.compile(Collections.singletonList(source), classesDir,
+                Collections.singletonList(new File(ArrayResourceBundle.class
+                        .getProtectionDomain().getCodeSource().getLocation().getPath())), null);
+
+        final ClassLoader loader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()},
+                getClass().getClassLoader());
+        final ResourceBundle bundle = (ResourceBundle) loader.loadClass("large.Large_i18n")
+                .newInstance();
+
+        assertThat(bundle.getString("large.message.key.0"), is("Large message value 0"));
+        assertThat(bundle.getString("large.message.key.39999"), is("Large message value 39999"));
+        assertThat(bundle.keySet().size(), is(props.size()));
+    }
+
+    @Test
+    public void shouldCheckClassNames() {
+        assertThat(BundleClassGenerator.isClassName("com/acme/Messages_de_CH.properties"),
+                is(true));
+        assertThat(BundleClassGenerator.isClassName("Messages.properties"), is(true));
+        assertThat(BundleClassGenerator.isClassName("my-app/Messages.properties"), is(false));
+        assertThat(BundleClassGenerator.isClassName("com/int/Messages.properties"), is(false));
+        assertThat(BundleClassGenerator.isClassName("com//Messages.properties"), is(false));
+    }
+
+    private ResourceBundle shouldGenerateBundleClasses(final boolean perfectHash)
+            throws IOException {
+
+        //given
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "ru", "en", "plain/warn", null);
+        final BundleClassGenerator generator = new BundleClassGenerator(new SystemStreamLog(),
+                new File(ROOT_PATH), sourcesDir, perfectHash);
+
+        //when
+        final List<File> sources = generator.generate(analyzer);
+        analyzer.close();
+
+        //then
+        assertThat(sources.size(), is(2));
+        assertThat(sources.get(1), is(new File(sourcesDir, "plain/warn_ru_i18n.java")));
+
+        final File classesDir = new File(this.classesDir, String.valueOf(perfectHash));
+        classesDir.mkdirs();
+        BundleClassGenerator.compile(sources, classesDir, Collections.singletonList(
+                new File(ArrayResourceBundle.class.getProtectionDomain().getCodeSource()
+                        .getLocation().getPath())), null);
+
+        final ClassLoader loader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()},
+                getClass().getClassLoader());
+        final ResourceBundle bundle = ResourceBundle.getBundle("plain.warn", new Locale("ru"),
+                loader, MessageControl.INSTANCE);
+
+        assertThat(bundle, instanceOf(ArrayResourceBundle.class));
+        assertThat(bundle.getClass().getName(), is("plain.warn_ru_i18n"));
+
+        final Properties props = AbstractMessageAnalyzer.loadProperties(
+                loader.getResourceAsStream("plain/warn_ru.properties"));
+        assertThat(bundle.keySet(), is(props.stringPropertyNames()));
+        for (final String key : props.stringPropertyNames()) {
+            assertThat(bundle.getString(key), is(props.getProperty(key)));
+        }
+
+        return bundle;
+    }
+}
@@ -0,0 +1,99 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Properties;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class BundlePrunerTest {
+
+    private final File dir = new File("target/prunedProperties");
+    private final File bundleDir = new File(dir, "pruned");
+
+    @Before
+    public void createFiles() throws IOException {
+        bundleDir.mkdirs();
+        write("Messages_en.properties", "a=1\nb=2\n");
+        write("Messages_ru.properties", "# comment\na=\\u0430\nb=\\  2\\n\nc=3\nkeep.me=4\n");
+        write("Messages_de.properties", "a=1\n");
+        write("Messages_pl.properties", "a=1\nb=2\n");
+    }
+
+    @After
+    public void deleteFiles() {
+        for (final File file : bundleDir.listFiles()) {
+            file.delete();
+        }
+
+        bundleDir.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void shouldRemoveNotUsedKeysAndLocales() throws IOException {
+        //given
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                dir.getPath(), "", "en", "pruned/Messages", null);
+        final BundlePruner pruner = new BundlePruner(new SystemStreamLog(), dir, "en,ru",
+                "en", "keep.*", "pl");
+
+        //when
+        pruner.prune(analyzer);
+        analyzer.close();
+
+        //then
+        assertThat(pruner.getRemovedFiles(), is(1));
+        assertThat(pruner.getPrunedFiles(), is(1));
+        assertThat(pruner.getRemovedKeys(), is(1));
+        assertThat(new File(bundleDir, "Messages_de.properties").exists(), is(false));
+        assertThat(new File(bundleDir, "Messages_pl.properties").exists(), is(true));
+
+        final Properties ru = load("Messages_ru.properties");
+        assertThat(ru.size(), is(3));
+        assertThat(ru.getProperty("a"), is("\u0430"));
+        assertThat(ru.getProperty("b"), is("  2\n"));
+        assertThat(ru.getProperty("keep.me"), is("4"));
+    }
+
+    @Test
+    public void shouldKeepAllLocalesIfNotConfigured() {
+        //given
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                dir.getPath(), "", "en", "pruned/Messages", null);
+        final BundlePruner pruner = new BundlePruner(new SystemStreamLog(), dir, "", "en",
+                null, null);
+
+        //when
+        pruner.prune(analyzer);
+        analyzer.close();
+
+        //then
+        assertThat(pruner.getRemovedFiles(), is(0));
+        assertThat(pruner.getRemovedKeys(), is(2));
+        assertThat(bundleDir.list().length, is(4));
+    }
+
+    private void write(final String name, final String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(
+                new FileOutputStream(new File(bundleDir, name)), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private Properties load(final String name) throws IOException {
+        return AbstractMessageAnalyzer.loadProperties(
+                new FileInputStream(new File(bundleDir, name)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.googlecode.i18n;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.junit.Test;
+import com.googlecode.i18n.format.FormatType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class BundleValidatorTest {
+
+    @Test
+    public void shouldReturnFindings() {
+        //given
+        final Map<String, FormatType> messages = new HashMap<String, FormatType>();
+        messages.put("a", null);
+        messages.put("b", FormatType.STRING);
+        messages.put("c", FormatType.MESSAGE);
+        final BundleFiles bundle = new BundleFiles("com/example/Messages",
+                props("a", "A", "b", "%s of %d", "c", "{0}", "x", "X"))
+                .setMessages(messages)
+                .addLocale("ru", props("a", " ", "b", "%d of %s", "c", "{0,wrong}"));
+        final BundleValidator validator = new BundleValidator("ru,de", null);
+
+        //when
+        final ValidationResult result = validator.validate(bundle);
+
+        //then
+        final List<Finding> findings = result.getFindings();
+        assertThat(result.getErrorCount(), is(4));
+        assertThat(result.getWarningCount(), is(1));
+        assertThat(result.isCancelled(), is(false));
+        assertThat(findings.size(), is(5));
+        assertFinding(findings.get(0), Finding.Type.UNUSED_KEY,
+                "com/example/Messages.properties", "x");
+        assertFinding(findings.get(1), Finding.Type.FORMAT_NOT_MATCHED,
+                "com/example/Messages_ru.properties", "b");
+        assertThat(findings.get(1).getMessage(),
+                is("Format not matched [b]\n\texpected [s, d]\n\tfound    [d, s]"));
+        assertFinding(findings.get(2), Finding.Type.INVALID_FORMAT,
+                "com/example/Messages_ru.properties", "c");
+        assertFinding(findings.get(3), Finding.Type.MISSING_VALUE,
+                "com/example/Messages_ru.properties", "a");
+        assertFinding(findings.get(4), Finding.Type.MISSING_FILE,
+                "com/example/Messages_de.properties", null);
+        assertThat(findings.get(4).getMessage(), is("Missing Messages_de.properties"));
+    }
+
+    @Test
+    public void shouldBeReusable() {
+        //given
+        final Properties base = props("a", "A", "b", "B");
+        final BundleFiles bundle = new BundleFiles("plain", base)
+                .addLocale("ru", props("a", "A"))
+                .addLocale("de", props("a", "A", "b", "B"));
+        final BundleValidator validator = new BundleValidator(null,
+                new CheckOptions().setMaxErrors(1));
+
+        //when
+        final ValidationResult result1 = validator.validate(bundle);
+        final ValidationResult result2 = validator.validate(bundle);
+
+        //then
+        assertThat(result1.getErrorCount(), is(1));
+        assertThat(result1.isCancelled(), is(true));
+        assertThat(result1.getFindings().get(0).getType(), is(Finding.Type.MISSING_KEY));
+        assertThat(result1.getFindings().get(0).getKey(), is("b"));
+        assertThat(result2.getFindings().size(), is(1));
+        assertThat(base.size(), is(2));
+    }
+
+    @Test
+    public void shouldReportEmptyBase() {
+        //when
+        final ValidationResult result = new BundleValidator().validate(
+                new BundleFiles("empty", new Properties()));
+
+        //then
+        assertThat(result.getErrorCount(), is(1));
+        assertThat(result.getFindings().get(0).getType(), is(Finding.Type.NO_MESSAGES));
+        assertThat(result.getFindings().get(0).getKey(), is(nullValue()));
+    }
+
+    private static void assertFinding(final Finding finding, final Finding.Type type,
+            final String file, final String key) {
+
+        assertThat(finding.getType(), is(type));
+        assertThat(finding.getFile(), is(file));
+        assertThat(finding.getKey(), is(key));
+    }
+
+    private static Properties props(final String... keyValues) {
+        final Properties props = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            props.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+
+        return props;
+    }
+}
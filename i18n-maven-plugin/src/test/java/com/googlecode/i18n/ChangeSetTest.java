@@ -0,0 +1,102 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class ChangeSetTest {
+
+    private static final File BASE_DIR = new File("target/changes");
+
+    private static final List<File> SOURCE_ROOTS = Arrays.asList(
+            new File(BASE_DIR, "src/main/java"));
+
+    private static final List<File> RESOURCE_ROOTS = Arrays.asList(
+            new File(BASE_DIR, "src/main/resources"));
+
+    @Test
+    public void shouldAcceptClassesWithChangedBundles() {
+        //given
+        final ChangeSet changes = new ChangeSet(BASE_DIR, Arrays.asList(
+                "src/main/resources/errors/Errors_ru.properties",
+                "src/main/resources/warnings/Warnings.properties",
+                "README.md"));
+
+        //when
+        final ClassFilter filter = changes.getClassFilter(SOURCE_ROOTS, RESOURCE_ROOTS, "ru,ua");
+
+        //then
+        assertThat(filter.acceptClass("errors.Errors"), is(true));
+        assertThat(filter.acceptClass("errors.Errors_ru"), is(true));
+        assertThat(filter.acceptClass("warnings.Warnings"), is(true));
+        assertThat(filter.acceptClass("dynamic.Dynamic"), is(false));
+        assertThat(filter.acceptPackage("errors"), is(true));
+        assertThat(filter.acceptPackage("dynamic"), is(false));
+    }
+
+    @Test
+    public void shouldAcceptNestedClassesOfChangedSources() {
+        //given
+        final ChangeSet changes = new ChangeSet(BASE_DIR, Arrays.asList(
+                "src/main/java/dynamic/Dynamic.java"));
+
+        //when
+        final ClassFilter filter = changes.getClassFilter(SOURCE_ROOTS, RESOURCE_ROOTS, "ru");
+
+        //then
+        assertThat(filter.acceptClass("dynamic.Dynamic"), is(true));
+        assertThat(filter.acceptClass("dynamic.Dynamic$Nested"), is(true));
+        assertThat(filter.acceptClass("dynamic.EmptyClass"), is(false));
+    }
+
+    @Test
+    public void shouldFallbackToFullCheckIfPomChanged() {
+        //given
+        final ChangeSet changes = new ChangeSet(BASE_DIR, Arrays.asList(
+                "src/main/java/dynamic/Dynamic.java",
+                "pom.xml"));
+
+        //when
+        final ClassFilter filter = changes.getClassFilter(SOURCE_ROOTS, RESOURCE_ROOTS, "ru");
+
+        //then
+        assertThat(filter, is(nullValue()));
+        assertThat(changes.isPlainBundleChanged(RESOURCE_ROOTS, "plain/"), is(true));
+    }
+
+    @Test
+    public void shouldDetectChangedPlainBundle() {
+        //given
+        final ChangeSet changes = new ChangeSet(BASE_DIR, Arrays.asList(
+                "src/main/resources/plain/ru.properties",
+                "src/main/resources/plain/warn_en.properties"));
+
+        //then
+        assertThat(changes.isPlainBundleChanged(RESOURCE_ROOTS, "plain/"), is(true));
+        assertThat(changes.isPlainBundleChanged(RESOURCE_ROOTS, "plain/warn"), is(true));
+        assertThat(changes.isPlainBundleChanged(RESOURCE_ROOTS, "plain/error"), is(false));
+        assertThat(changes.isPlainBundleChanged(RESOURCE_ROOTS, "localization/"), is(false));
+    }
+
+    @Test
+    public void shouldDetectBaseAtHead() {
+        //given
+        ChangeSet changes = null;
+        try {
+            changes = ChangeSet.fromGit(new File("."), "HEAD");
+        } catch (IOException x) {
+            // not a git working tree
+            Assume.assumeNoException(x);
+        }
+
+        //then
+        assertThat(changes.isBaseHead(), is(true));
+        assertThat(new ChangeSet(BASE_DIR, Arrays.asList("pom.xml")).isBaseHead(), is(false));
+    }
+}
@@ -0,0 +1,86 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class ClassLoaderCacheTest {
+
+    private static final String RESOURCE = "cached.txt";
+
+    private final File dir = new File("target/cached");
+    private final ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+
+    @Before
+    public void createDirs() throws IOException {
+        for (int i = 0; i <= ClassLoaderCache.MAX_SIZE; i++) {
+            final File path = new File(dir, String.valueOf(i));
+            path.mkdirs();
+
+            final FileOutputStream out = new FileOutputStream(new File(path, RESOURCE));
+            out.close();
+        }
+    }
+
+    @After
+    public void deleteDirs() {
+        for (int i = 0; i <= ClassLoaderCache.MAX_SIZE; i++) {
+            final File path = new File(dir, String.valueOf(i));
+            new File(path, RESOURCE).delete();
+            path.delete();
+        }
+
+        dir.delete();
+    }
+
+    @Test
+    public void shouldReuseClassLoaderForUnchangedFiles() {
+        //given
+        final File path = new File(dir, "0");
+        final ClassLoader loader = ClassLoaderCache.acquire(parent, path);
+        ClassLoaderCache.release(loader);
+
+        //when
+        final ClassLoader same = ClassLoaderCache.acquire(parent, path);
+        ClassLoaderCache.release(same);
+        path.setLastModified(path.lastModified() - 10000);
+        final ClassLoader changed = ClassLoaderCache.acquire(parent, path);
+
+        //then
+        assertThat(same, sameInstance(loader));
+        assertThat(changed, not(sameInstance(loader)));
+
+        // class loader of changed files is closed at once
+        assertThat(loader.getResource(RESOURCE), nullValue());
+        assertThat(changed.getResource(RESOURCE), notNullValue());
+        ClassLoaderCache.release(changed);
+    }
+
+    @Test
+    public void shouldCloseEvictedClassLoaderWhenReleased() {
+        //given
+        final ClassLoader loader = ClassLoaderCache.acquire(parent, new File(dir, "0"));
+
+        //when
+        for (int i = 1; i <= ClassLoaderCache.MAX_SIZE; i++) {
+            ClassLoaderCache.release(ClassLoaderCache.acquire(parent,
+                    new File(dir, String.valueOf(i))));
+        }
+
+        //then
+        assertThat(ClassLoaderCache.size(), is(ClassLoaderCache.MAX_SIZE));
+        assertThat(loader.getResource(RESOURCE), notNullValue());
+
+        ClassLoaderCache.release(loader);
+        assertThat(loader.getResource(RESOURCE), nullValue());
+    }
+}
@@ -92,6 +92,78 @@ public class ClassMessageAnalyzerTest {
         assertThat(analizer.getWarningCount(), is(2));
     }
 
+    @Test
+    public void stopAfterMaxErrors() {
+        ClassMessageAnalyzer analizer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH + ERRORS_PATH, " ru, , ua,pl", getClass().getClassLoader(), null,
+                new CheckOptions().setMaxErrors(1));
+
+        assertThat(analizer.isCancelled(), is(true));
+        assertThat(analizer.getErrorCount(), is(1));
+        assertThat(analizer.getSkipped().get("properties file(s)"), is(3));
+    }
+
+    @Test
+    public void prefetchLocalizedFiles() {
+        ClassMessageAnalyzer analizer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH + FORMAT_STR_PATH, "ru,ua", getClass().getClassLoader(), null,
+                new CheckOptions().setPrefetch(2));
+        analizer.close();
+
+        assertThat(analizer.getErrorCount(), is(7));
+        assertThat(analizer.getWarningCount(), is(2));
+    }
+
+    @Test
+    public void prefetchMissingFiles() {
+        ClassMessageAnalyzer analizer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH + ERRORS_PATH, " ru, , ua,pl", getClass().getClassLoader(), null,
+                new CheckOptions().setPrefetch(5));
+        analizer.close();
+
+        assertThat(analizer.getErrorCount(), is(4));
+    }
+
+    @Test
+    public void excludedPackages() {
+        ClassMessageAnalyzer analizer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH + FORMAT_STR_PATH, "ru,ua", getClass().getClassLoader(),
+                new PackageFilter("formatted", "**.str"));
+
+        assertThat(analizer.getErrorCount(), is(0));
+        assertThat(analizer.getWarningCount(), is(0));
+    }
+
+    @Test
+    public void recheckLocalizedFile() {
+        ClassMessageAnalyzer analizer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH + FORMAT_STR_PATH, "ru,ua", getClass().getClassLoader());
+
+        assertThat(analizer.recheck("formatted/str/FormattedStr_ru.properties"), is(true));
+        assertThat(analizer.getErrorCount(), is(3));
+        assertThat(analizer.getWarningCount(), is(1));
+
+        assertThat(analizer.recheck("formatted/msg/FormattedMsg_ru.properties"), is(false));
+        assertThat(analizer.getErrorCount(), is(3));
+    }
+
+    @Test
+    public void recheckAfterMaxErrors() {
+        ClassMessageAnalyzer analizer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH + FORMAT_STR_PATH, "ru,ua", getClass().getClassLoader(), null,
+                new CheckOptions().setMaxErrors(2));
+        assertThat(analizer.isCancelled(), is(true));
+
+        assertThat(analizer.recheck("formatted/str/FormattedStr_ru.properties"), is(true));
+        assertThat(analizer.isCancelled(), is(true));
+        assertThat(analizer.getErrorCount(), is(2));
+        assertThat(analizer.getSkipped().isEmpty(), is(true));
+
+        assertThat(analizer.recheck("formatted/str/FormattedStr_ua.properties"), is(true));
+        assertThat(analizer.isCancelled(), is(true));
+        assertThat(analizer.getErrorCount(), is(2));
+    }
+
     private static void copyClassFile(String path) {
         String packPath = "";
         String sourseRoot = "target/test-classes/" + packPath;
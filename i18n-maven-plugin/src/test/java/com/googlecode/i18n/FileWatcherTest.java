@@ -0,0 +1,65 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class FileWatcherTest {
+
+    private final File dir = new File("target/watched");
+
+    @Before
+    public void createDir() {
+        new File(dir, "sub").mkdirs();
+    }
+
+    @After
+    public void deleteDir() {
+        new File(dir, "sub/a.properties").delete();
+        new File(dir, "b.properties").delete();
+        new File(dir, "c.txt").delete();
+        new File(dir, "sub").delete();
+        dir.delete();
+    }
+
+    @Test
+    public void shouldReturnChangedFiles() throws IOException {
+        //given
+        final File a = new File(dir, "sub/a.properties");
+        final File b = new File(dir, "b.properties");
+        write(a, "a=1");
+        write(b, "b=1");
+        write(new File(dir, "c.txt"), "c");
+        final FileWatcher watcher = new FileWatcher(Arrays.asList(dir), ".properties");
+
+        //when
+        final List<File> first = watcher.poll();
+        final List<File> unchanged = watcher.poll();
+        write(a, "a=12");
+        b.delete();
+        final List<File> changed = watcher.poll();
+
+        //then
+        assertThat(first.size(), is(2));
+        assertThat(unchanged.size(), is(0));
+        assertThat(changed.size(), is(2));
+        assertThat(changed.contains(a), is(true));
+        assertThat(changed.contains(b), is(true));
+    }
+
+    private static void write(final File file, final String text) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(text.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import com.googlecode.i18n.util.MessageTemplate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class FormatAccessorGeneratorTest {
+
+    private static final String ROOT_PATH = "src/test/java/";
+
+    private final File sourcesDir = new File("target/generatedAccessors/sources");
+    private final File classesDir = new File("target/generatedAccessors/classes");
+
+    @Test
+    public void shouldGenerateTypedAccessors() throws Exception {
+        //given
+        final FormatAccessorGenerator generator = new FormatAccessorGenerator(sourcesDir);
+
+        //when
+        final List<File> sources = generate(generator, "formatted/str");
+        sources.addAll(generate(generator, "formatted/msg"));
+
+        //then
+        assertThat(sources.size(), is(2));
+        assertThat(sources.get(0), is(new File(sourcesDir,
+                "formatted/str/FormattedStrFormats.java")));
+        assertThat(generator.getAccessorCount(), is(12));
+
+        classesDir.mkdirs();
+        BundleClassGenerator.compile(sources, classesDir, Arrays.asList(
+                new File(MessageTemplate.class.getProtectionDomain().getCodeSource()
+                        .getLocation().getPath()),
+                new File("target/test-classes")), null);
+
+        final ClassLoader loader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()},
+                getClass().getClassLoader());
+        final Class<?> str = loader.loadClass("formatted.str.FormattedStrFormats");
+        final Method msg1 = str.getMethod("msg1", Object.class, long.class);
+        str.getMethod("msg1", Object.class, Object.class);
+        str.getMethod("msg2", long.class, double.class);
+        str.getMethod("msg2", Object.class, Object.class);
+        str.getMethod("msg4", Object.class, double.class);
+
+        final Class<?> msg = loader.loadClass("formatted.msg.FormattedMsgFormats");
+        msg.getMethod("msg1", Object.class, Object.class);
+        msg.getMethod("msg2", long.class);
+        msg.getMethod("msg3", Object.class, Object.class, Object.class, double.class);
+        msg.getMethod("msg3", Object.class, Object.class, Object.class, Object.class);
+        msg.getMethod("msg4", Object.class, Object.class);
+
+        // constants of test enums are not localized
+        assertThat((String) msg1.invoke(null, "a", 1L), is("MSG_1"));
+
+        // templates are compiled once per locale
+        final Field templates = str.getDeclaredField("MSG_1");
+        templates.setAccessible(true);
+        final Map<?, ?> cache = (Map<?, ?>) templates.get(null);
+        final Object compiled = cache.get(Locale.getDefault());
+        final Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY.equals(defaultLocale) ? Locale.US : Locale.GERMANY);
+            msg1.invoke(null, "a", 1L);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        msg1.invoke(null, "a", 1L);
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(defaultLocale), sameInstance(compiled));
+    }
+
+    @Test
+    public void shouldRenderConcurrently() throws Exception {
+        //given
+        final Locale locale = Locale.US;
+        final String plainPattern = "{0,number,#,##0.00} {1,date,yyyy-MM-dd} {2}";
+        final String nestedPattern = plainPattern + " {3,choice,0#no|1#{0}}";
+        final MessageTemplate plain = MessageTemplate.compileMessage(plainPattern, locale);
+        final MessageTemplate nested = MessageTemplate.compileMessage(nestedPattern, locale);
+
+        //when
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            results.add(executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    for (int i = 0; i < 1000; i++) {
+                        final Object[] args = {seed * 1000.5 + i, new Date(i * 86400000L * 31),
+                                (long) i, 1};
+                        if (!render(plain, args).equals(new MessageFormat(plainPattern, locale)
+                                .format(args)) || !nested.format(args).equals(
+                                new MessageFormat(nestedPattern, locale).format(args))) {
+                            return false;
+                        }
+                    }
+
+                    return true;
+                }
+            }));
+        }
+        executor.shutdown();
+
+        //then
+        for (final Future<Boolean> result : results) {
+            assertThat(result.get(), is(true));
+        }
+    }
+
+    @Test
+    public void shouldRenderSameAsJdk() {
+        //given
+        final Locale locale = new Locale("ru");
+        final Object[] args = {"text", 12345L, -7L, 3.5, 'c', null, new Date(0), -7,
+            new BigInteger("123456789012345678901234567890"), new BigDecimal("0.1"),
+            (1L << 53) + 1};
+
+        //when, then
+
+        for (final String pattern : Arrays.asList("%s and %d, %d%%%n", "%2$d %1$S %<S",
+                "%7$tY %4$.2f %4$10.1e %5$c %6$b %2$,d %2$x", "%-6s|%6s|", "no args",
+                "%8$x %8$o %8$d %3$x %3$o %9$d %9$x %10$.20f")) {
+
+            assertThat(pattern, render(MessageTemplate.compileString(pattern, locale), args),
+                    is(String.format(locale, pattern, args)));
+        }
+
+        for (final String pattern : Arrays.asList("{0} and {1}, '{'{2}'}' it''s",
+                "{3,number,#.##} {1,number,integer} {6,date,yyyy} {5} {9}",
+                "{3,choice,0#none|1#one|2#many}", "{2,choice,-1#{0}|0#none}",
+                "{10,number} {9,number,#.#########################} {8,number}")) {
+
+            final MessageTemplate template = MessageTemplate.compileMessage(pattern, locale);
+            assertThat(pattern, template.isNested() ? template.format(args)
+                    : render(template, args),
+                    is(new MessageFormat(pattern, locale).format(args)));
+        }
+    }
+
+    private static String render(final MessageTemplate template, final Object[] args) {
+        final StringBuilder sb = template.newBuilder();
+        for (int i = 0; i < template.size(); i++) {
+            template.appendText(sb, i);
+            final int argument = template.getArgument(i);
+            if (argument >= args.length) {
+                template.appendMissing(sb, i);
+            } else if (args[argument] instanceof Long) {
+                template.append(sb, i, ((Long) args[argument]).longValue());
+            } else if (args[argument] instanceof Double) {
+                template.append(sb, i, ((Double) args[argument]).doubleValue());
+            } else if (args[argument] instanceof Character) {
+                template.append(sb, i, ((Character) args[argument]).charValue());
+            } else {
+                template.append(sb, i, args[argument]);
+            }
+        }
+
+        return template.appendText(sb, template.size()).toString();
+    }
+
+    private static List<File> generate(final FormatAccessorGenerator generator,
+            final String path) throws IOException {
+
+        final SourceMessageAnalyzer analyzer = SourceMessageAnalyzer.check(
+                new SystemStreamLog(), Arrays.asList(new File(ROOT_PATH + path)), "UTF-8", "",
+                FormatAccessorGeneratorTest.class.getClassLoader(), null, null);
+        analyzer.close();
+
+        return generator.generate(analyzer);
+    }
+}
@@ -0,0 +1,73 @@
+package com.googlecode.i18n;
+
+import java.util.List;
+import org.junit.Test;
+import com.googlecode.i18n.JavaSourceParser.MessageEnum;
+import com.googlecode.i18n.format.FormatType;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class JavaSourceParserTest {
+
+    @Test
+    public void shouldFindAnnotatedEnums() {
+        //given
+        final String source = "package a.b;\n"
+                + "import com.googlecode.i18n.annotations.*;\n"
+                + "/** enum Commented {} */\n"
+                + "@MessageProvider\n"
+                + "@com.googlecode.i18n.annotations.StringFormatted\n"
+                + "public enum Messages {\n"
+                + "    // MSG_COMMENTED,\n"
+                + "    MSG_1,\n"
+                + "    @MessageFormatted MSG_2(\"{\"),\n"
+                + "    @Deprecated MSG_3 { public String toString() { return \"}\"; } };\n"
+                + "    private final String x = Messages.class.getName();\n"
+                + "}\n"
+                + "enum NotProvider { MSG }\n";
+
+        //when
+        final List<MessageEnum> result = JavaSourceParser.parse(source);
+
+        //then
+        assertThat(result.size(), is(1));
+        final MessageEnum messageEnum = result.get(0);
+        assertThat(messageEnum.getName(), is("a.b.Messages"));
+        assertThat(messageEnum.isDynamic(), is(false));
+        assertThat(messageEnum.getKeys().size(), is(3));
+        assertThat(messageEnum.getKeys().get("MSG_1"), is(FormatType.STRING));
+        assertThat(messageEnum.getKeys().get("MSG_2"), is(FormatType.MESSAGE));
+        assertThat(messageEnum.getKeys().get("MSG_3"), is(FormatType.STRING));
+    }
+
+    @Test
+    public void shouldFindNestedAndDynamicEnums() {
+        //given
+        final String source = "package a;\n"
+                + "public class Outer<T> implements Runnable {\n"
+                + "    public void run() { enum Local {} }\n"
+                + "    @MessageProvider\n"
+                + "    public static enum Inner {\n"
+                + "        MSG;\n"
+                + "        public static List<String> i18nMessages() { return null; }\n"
+                + "    }\n"
+                + "}\n";
+
+        //when
+        final List<MessageEnum> result = JavaSourceParser.parse(source);
+
+        //then
+        assertThat(result.size(), is(1));
+        final MessageEnum messageEnum = result.get(0);
+        assertThat(messageEnum.getName(), is("a.Outer$Inner"));
+        assertThat(messageEnum.isDynamic(), is(true));
+        assertThat(messageEnum.getKeys().size(), is(1));
+        assertThat(messageEnum.getKeys().get("MSG"), is(nullValue()));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailIfMoreThanOneFormatSpecified() {
+        JavaSourceParser.parse("@MessageProvider enum E { @MessageFormatted @StringFormatted A }");
+    }
+}
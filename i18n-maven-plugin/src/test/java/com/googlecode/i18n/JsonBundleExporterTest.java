@@ -0,0 +1,99 @@
+package com.googlecode.i18n;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class JsonBundleExporterTest {
+
+    private static final String ROOT_PATH = "target/test-classes";
+
+    private final File jsonDir = new File("target/exportedJson");
+
+    @Test
+    public void shouldExportBundlesToJson() throws IOException {
+        //given
+        final File dir = new File(jsonDir, "plain");
+
+        //when
+        final JsonBundleExporter exporter = export(dir, false);
+
+        //then
+        assertThat(exporter.getExportedFiles(), is(2));
+        assertThat(exporter.getCompressedBytes(), is(0L));
+        assertThat(read(new File(dir, "plain/warn_ru.json")), is("{\n"
+                + "\"value.1\":\"\u0437\u043d\u0430\u0447\u0435\u043d\u0438\u0435 1\",\n"
+                + "\"value.2\":\"\u0437\u043d\u0430\u0447\u0435\u043d\u0438\u0435 2\",\n"
+                + "\"value.3\":\"not used\"\n"
+                + "}\n"));
+        assertThat(read(new File(dir, JsonBundleExporter.MANIFEST)), is("{\n"
+                + "\"plain/warn\":{\"en\":\"plain/warn_en.json\",\"ru\":\"plain/warn_ru.json\"}\n"
+                + "}\n"));
+        assertThat(new File(dir, "plain/warn_ru.json.gz").exists(), is(false));
+    }
+
+    @Test
+    public void shouldCompressAndHashNames() throws IOException {
+        //given
+        final File dir = new File(jsonDir, "hashed");
+
+        //when
+        final JsonBundleExporter exporter = export(dir, true);
+
+        //then
+        final String[] names = new File(dir, "plain").list();
+        assertThat(names.length, is(4));
+
+        final String manifest = read(new File(dir, JsonBundleExporter.MANIFEST));
+        final String name = manifest.substring(manifest.indexOf("\"ru\":\"") + 6,
+                manifest.lastIndexOf('"'));
+        assertThat(name.matches("plain/warn_ru\\.[0-9a-f]{10}\\.json"), is(true));
+        assertThat(exporter.getCompressedBytes() > 0, is(true));
+
+        final InputStream gzip = new GZIPInputStream(
+                new FileInputStream(new File(dir, name + ".gz")));
+        assertThat(read(gzip), is(read(new File(dir, name))));
+    }
+
+    private static JsonBundleExporter export(final File dir, final boolean compress)
+            throws IOException {
+
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "ru", "en", "plain/warn", null);
+        final JsonBundleExporter exporter = new JsonBundleExporter(new File(ROOT_PATH), dir,
+                compress, compress);
+
+        try {
+            exporter.export(analyzer);
+        } finally {
+            analyzer.close();
+        }
+
+        return exporter;
+    }
+
+    private static String read(final File file) throws IOException {
+        return read(new FileInputStream(file));
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            final byte[] buf = new byte[4096];
+            for (int n; (n = in.read(buf)) != -1; ) {
+                out.write(buf, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+
+        return out.toString("UTF-8");
+    }
+}
@@ -0,0 +1,54 @@
+package com.googlecode.i18n;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class KeyIndexTest {
+
+    @Test
+    public void shouldFindAllKeysInSortedOrder() {
+        //given
+        final List<String> keys = new ArrayList<String>();
+        for (int i = 999; i >= 0; i--) {
+            keys.add("message." + i);
+        }
+
+        //when
+        final KeyIndex index = new KeyIndex(keys);
+
+        //then
+        assertThat(index.size(), is(1000));
+        assertThat(index.getKey(0), is("message.0"));
+        assertThat(index.getKey(1), is("message.1"));
+        for (int i = 0; i < index.size(); i++) {
+            assertThat(index.indexOf(index.getKey(i)), is(i));
+        }
+
+        assertThat(index.indexOf("message.1000"), is(-1));
+        assertThat(index.indexOf(""), is(-1));
+    }
+
+    @Test
+    public void shouldTrackCoverageOfKeys() {
+        //given
+        final KeyIndex index = new KeyIndex(Arrays.asList("a", "b", "c"));
+        final KeyIndex.Coverage coverage = new KeyIndex.Coverage(index);
+        final KeyIndex.Coverage other = new KeyIndex.Coverage(index);
+
+        //when
+        coverage.cover(index.indexOf("c"), "3");
+
+        //then
+        assertThat(coverage.getValue(index.indexOf("a")), nullValue());
+        assertThat(coverage.getValue(index.indexOf("c")), is("3"));
+        assertThat(other.getValue(index.indexOf("c")), nullValue());
+
+        coverage.clear();
+        assertThat(coverage.getValue(index.indexOf("c")), nullValue());
+    }
+}
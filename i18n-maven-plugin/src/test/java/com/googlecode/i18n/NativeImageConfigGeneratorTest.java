@@ -0,0 +1,83 @@
+package com.googlecode.i18n;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class NativeImageConfigGeneratorTest {
+
+    private static final String ROOT_PATH = "target/test-classes";
+
+    private final File outputDir = new File("target/nativeImage");
+
+    @Test
+    public void shouldConfigureMessageEnums() throws IOException {
+        //given
+        final ClassMessageAnalyzer analyzer = ClassMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "ru", getClass().getClassLoader(),
+                new PackageFilter("formatted.str", null));
+        final NativeImageConfigGenerator generator = new NativeImageConfigGenerator(
+                new File(ROOT_PATH));
+
+        //when
+        generator.generate(analyzer, new File(outputDir, "enums"));
+        analyzer.close();
+
+        //then
+        assertThat(generator.getResourceCount(), is(2));
+        assertThat(generator.getClassCount(), is(1));
+        assertThat(read("enums/" + NativeImageConfigGenerator.RESOURCE_CONFIG), is("{\n"
+                + "  \"resources\":{\"includes\":[\n"
+                + "    {\"pattern\":\"\\\\Qformatted/str/FormattedStr.properties\\\\E\"},\n"
+                + "    {\"pattern\":\"\\\\Qformatted/str/FormattedStr_ru.properties\\\\E\"}\n"
+                + "  ]},\n"
+                + "  \"bundles\":[\n"
+                + "    {\"name\":\"formatted.str.FormattedStr\",\"locales\":[\"ru\"]}\n"
+                + "  ]\n"
+                + "}\n"));
+        assertThat(read("enums/" + NativeImageConfigGenerator.REFLECT_CONFIG), is("[\n"
+                + "  {\"name\":\"formatted.str.FormattedStr\",\"allPublicFields\":true,"
+                + "\"methods\":[{\"name\":\"values\",\"parameterTypes\":[]},"
+                + "{\"name\":\"valueOf\",\"parameterTypes\":[\"java.lang.String\"]}]}\n"
+                + "]\n"));
+    }
+
+    @Test
+    public void shouldConfigurePlainBundle() throws IOException {
+        //given
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "ru", "en", "plain/warn", null);
+        final NativeImageConfigGenerator generator = new NativeImageConfigGenerator(
+                new File(ROOT_PATH));
+
+        //when
+        generator.generate(analyzer, new File(outputDir, "plain"));
+        analyzer.close();
+
+        //then
+        assertThat(generator.getResourceCount(), is(2));
+        assertThat(generator.getClassCount(), is(0));
+        assertThat(read("plain/" + NativeImageConfigGenerator.REFLECT_CONFIG), is("[\n]\n"));
+    }
+
+    private String read(final String name) throws IOException {
+        final InputStream in = new FileInputStream(new File(outputDir, name));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            final byte[] buf = new byte[4096];
+            for (int n; (n = in.read(buf)) != -1; ) {
+                out.write(buf, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+
+        return out.toString("UTF-8");
+    }
+}
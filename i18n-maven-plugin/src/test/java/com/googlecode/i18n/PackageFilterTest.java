@@ -0,0 +1,70 @@
+package com.googlecode.i18n;
+
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PackageFilterTest {
+
+    @Test
+    public void shouldAcceptIncludedPackagesAndTheirParents() {
+        //given
+        final PackageFilter filter = new PackageFilter(" com.acme.ui , org.*.api", null);
+
+        //then
+        assertThat(filter.acceptPackage(""), is(true));
+        assertThat(filter.acceptPackage("com"), is(true));
+        assertThat(filter.acceptPackage("com.acme"), is(true));
+        assertThat(filter.acceptPackage("com.acme.ui.dialogs"), is(true));
+        assertThat(filter.acceptPackage("com.acme.core"), is(false));
+        assertThat(filter.acceptPackage("org.foo"), is(true));
+        assertThat(filter.acceptPackage("net"), is(false));
+
+        assertThat(filter.acceptClass("com.acme.ui.Messages"), is(true));
+        assertThat(filter.acceptClass("com.acme.Messages"), is(false));
+        assertThat(filter.acceptClass("org.foo.api.Messages"), is(true));
+        assertThat(filter.acceptClass("org.foo.impl.Messages"), is(false));
+        assertThat(filter.acceptClass("Messages"), is(false));
+    }
+
+    @Test
+    public void shouldPruneExcludedPackages() {
+        //given
+        final PackageFilter filter = new PackageFilter("", "**.generated, com.acme.test*");
+
+        //then
+        assertThat(filter.acceptPackage("com.acme"), is(true));
+        assertThat(filter.acceptPackage("com.acme.generated"), is(false));
+        assertThat(filter.acceptPackage("com.acme.generated.ui"), is(false));
+        assertThat(filter.acceptPackage("com.acme.testing"), is(false));
+        assertThat(filter.acceptPackage("com.acme.generator"), is(true));
+
+        assertThat(filter.acceptClass("Messages"), is(true));
+        assertThat(filter.acceptClass("com.acme.Messages"), is(true));
+        assertThat(filter.acceptClass("com.acme.generated.Messages"), is(false));
+    }
+
+    @Test
+    public void shouldCombineWithAnotherFilter() {
+        //given
+        final ClassFilter filter = new PackageFilter("com.acme", null).and(new ClassFilter() {
+
+            @Override
+            public boolean acceptPackage(final String packageName) {
+                return !packageName.endsWith(".core");
+            }
+
+            @Override
+            public boolean acceptClass(final String className) {
+                return className.endsWith("Messages");
+            }
+        });
+
+        //then
+        assertThat(filter.acceptPackage("com.acme.ui"), is(true));
+        assertThat(filter.acceptPackage("com.acme.core"), is(false));
+        assertThat(filter.acceptClass("com.acme.ui.Messages"), is(true));
+        assertThat(filter.acceptClass("com.acme.ui.Errors"), is(false));
+        assertThat(filter.acceptClass("org.Messages"), is(false));
+    }
+}
@@ -4,6 +4,8 @@ import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.junit.Test;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
 
 public class PlainMessageAnalyzerTest {
 
@@ -106,4 +108,118 @@ public class PlainMessageAnalyzerTest {
         assertThat(analyzer.getErrorCount(), is(1));
         assertThat(analyzer.getWarningCount(), is(0));
     }
+
+    @Test
+    public void shouldPassForNotFormattedWithMemoryLimit() {
+        //given
+        final String baseFilePath = "plain/";
+        final CheckOptions options = new CheckOptions().setMemoryLimit(1);
+
+        //when
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", baseFilePath, null, options);
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(0));
+        assertThat(analyzer.getWarningCount(), is(0));
+    }
+
+    @Test
+    public void shouldRunWithWarningsWithMemoryLimit() {
+        //given
+        final String baseFilePath = "plain/warn";
+        final CheckOptions options = new CheckOptions().setMemoryLimit(1);
+
+        //when
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", baseFilePath, null, options);
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(0));
+        assertThat(analyzer.getWarningCount(), is(1));
+    }
+
+    @Test
+    public void shouldRunWithErrorsWithMemoryLimit() {
+        //given
+        final String baseFilePath = "plain/error";
+        final CheckOptions options = new CheckOptions().setMemoryLimit(1);
+
+        //when
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", baseFilePath, null, options);
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(1));
+        assertThat(analyzer.getWarningCount(), is(0));
+    }
+
+    @Test
+    public void shouldRunWithErrorsForMessageFormattedWithMemoryLimit() {
+        //given
+        final String baseFilePath = "plain/msg_fmt_error";
+        final CheckOptions options = new CheckOptions().setMemoryLimit(1);
+
+        //when
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", baseFilePath, "MESSAGE", options);
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(1));
+        assertThat(analyzer.getWarningCount(), is(0));
+    }
+
+    @Test
+    public void shouldRunWithErrorsForStringFormattedWithMemoryLimit() {
+        //given
+        final String baseFilePath = "plain/str_fmt_error";
+        final CheckOptions options = new CheckOptions().setMemoryLimit(1);
+
+        //when
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", baseFilePath, "STRING", options);
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(1));
+        assertThat(analyzer.getWarningCount(), is(0));
+    }
+
+    @Test
+    public void shouldRecheckBaseFileTwice() {
+        //given
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", "plain/error", null,
+                new CheckOptions().setCollectFindings(true));
+
+        for (int i = 0; i < 2; i++) {
+            //when
+            final boolean rechecked = analyzer.recheck("plain/error_en.properties");
+
+            //then
+            assertThat(rechecked, is(true));
+            assertThat(analyzer.getErrorCount(), is(1));
+            assertThat(analyzer.getWarningCount(), is(0));
+            assertThat(analyzer.getFindings().size(), is(1));
+        }
+    }
+
+    @Test
+    public void shouldRecheckAfterMaxErrors() {
+        //given
+        final CheckOptions options = new CheckOptions().setMaxErrors(1).setMemoryLimit(1)
+                .setCollectFindings(true);
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "en,ru", "en", "plain/str_fmt_error", "STRING", options);
+        assertThat(analyzer.isCancelled(), is(true));
+        final Finding reported = analyzer.getFindings().get(0);
+
+        //when
+        final boolean rechecked = analyzer.recheck("plain/str_fmt_error_ru.properties");
+
+        //then
+        assertThat(rechecked, is(true));
+        assertThat(analyzer.getErrorCount(), is(1));
+        assertThat(analyzer.getFindings().size(), is(1));
+        assertThat(analyzer.getFindings().get(0), not(sameInstance(reported)));
+    }
 }
@@ -0,0 +1,63 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PlatformTest {
+
+    @Test
+    public void shouldBoundIoExecutor() throws Exception {
+        //given
+        final int threads = 2;
+        final int tasks = 8;
+        final ExecutorService executor = Platform.newIoExecutor(threads, "test");
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(tasks);
+
+        //when
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    final int count = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        maxRunning.set(Math.max(maxRunning.get(), count));
+                    }
+
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException x) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        //then
+        assertThat(done.await(10, TimeUnit.SECONDS), is(true));
+        executor.shutdown();
+        assertThat(maxRunning.get(), is(threads));
+    }
+
+    @Test
+    public void shouldStampFiles() {
+        //given
+        final File file = new File("pom.xml");
+
+        //then
+        assertThat(Platform.getFileStamp(file), is(file.length() + ":" + file.lastModified()));
+        assertThat(Platform.getFileStamp(new File("not/existing")), is("0:0"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class PropertiesCacheTest {
+
+    private final File dir = new File("target/cachedProperties");
+    private final File file = new File(dir, "Messages.properties");
+
+    private ClassLoader loader;
+
+    @Before
+    public void createFile() throws IOException {
+        dir.mkdirs();
+        write("a=1\nb=%s\n");
+
+        loader = ClassHelpers.createClassLoader(getClass().getClassLoader(), dir);
+        PropertiesCache.clear();
+    }
+
+    @After
+    public void deleteFile() {
+        ClassHelpers.closeClassLoader(loader);
+        PropertiesCache.setMaxSize(PropertiesCache.DEFAULT_MAX_SIZE);
+        PropertiesCache.clear();
+
+        file.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void shouldReturnCachedPropertiesWhileFileIsNotChanged() throws IOException {
+        //given
+        final PropertiesCache.Entry entry = PropertiesCache.load(loader, file.getName());
+        entry.getProperties().remove("a");
+
+        //when
+        final PropertiesCache.Entry cached = PropertiesCache.load(loader, file.getName());
+        write("a=2\n");
+        file.setLastModified(file.lastModified() - 10000);
+        final PropertiesCache.Entry changed = PropertiesCache.load(loader, file.getName());
+
+        //then
+        assertThat(cached, sameInstance(entry));
+        assertThat(cached.getProperties().getProperty("a"), is("1"));
+        assertThat(changed, not(sameInstance(entry)));
+        assertThat(changed.getProperties().getProperty("a"), is("2"));
+        assertThat(PropertiesCache.load(loader, "Missing.properties"), nullValue());
+    }
+
+    @Test
+    public void shouldNotCacheMoreThanMaxSize() throws IOException {
+        //given
+        PropertiesCache.setMaxSize(1);
+
+        //when
+        final PropertiesCache.Entry entry = PropertiesCache.load(loader, file.getName());
+        final PropertiesCache.Entry notCached = PropertiesCache.load(loader, file.getName());
+
+        //then
+        assertThat(notCached, not(sameInstance(entry)));
+        assertThat(notCached.getProperties().getProperty("b"), is("%s"));
+    }
+
+    private void write(final String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.googlecode.i18n;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Properties;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PropertiesReaderTest {
+
+    @Test
+    public void shouldReadPropertiesAsPropertiesLoad() throws IOException {
+        //given
+        final String content = "# comment \\\n"
+                + "! another comment\n"
+                + "\n"
+                + "  a = 1\r\n"
+                + "b:2\r"
+                + "c 3\n"
+                + "d\n"
+                + "e = multi \\\n"
+                + "      line \\\r\n"
+                + "  value\n"
+                + "f\\ key\\=\\:x = \\u0041\\t\\n\\\\\n"
+                + "a = last\n"
+                + "g = ends with backslash \\";
+
+        final Properties expected = new Properties();
+        expected.load(new StringReader(content));
+
+        //when
+        final Properties props = new Properties();
+        final PropertiesReader reader = new PropertiesReader(new StringReader(content));
+        while (reader.next()) {
+            props.put(reader.getKey(), reader.getValue());
+        }
+
+        //then
+        assertThat(props, is(expected));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForMalformedEscape() throws IOException {
+        new PropertiesReader(new StringReader("a = \\u00zz")).next();
+    }
+}
@@ -0,0 +1,105 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.googlecode.i18n.util.MessageControl;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class RegionalDeltasTest {
+
+    private static final String LOCALES = "en,en_US,en_GB";
+
+    private final File dir = new File("target/regionalProperties");
+    private final File bundleDir = new File(dir, "regional");
+
+    @Before
+    public void createFiles() throws IOException {
+        bundleDir.mkdirs();
+        write("Messages.properties", "a=A\nb=B\nc=C\n");
+        write("Messages_en.properties", "a=1\nb=2\nc=3\n");
+        write("Messages_en_US.properties", "a=1\nb=2\nc=color\n");
+        write("Messages_en_GB.properties", "a=1\nb=2\nc=3\n");
+    }
+
+    @After
+    public void deleteFiles() {
+        for (final File file : bundleDir.listFiles()) {
+            file.delete();
+        }
+
+        bundleDir.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void shouldReportRedundantMessages() {
+        //given
+        final PlainMessageAnalyzer analyzer = check(false);
+        final RegionalDeltas deltas = new RegionalDeltas(new SystemStreamLog(), dir, false);
+        final long size = new File(bundleDir, "Messages_en_GB.properties").length();
+
+        //when
+        deltas.process(analyzer);
+
+        //then
+        assertThat(deltas.getRegionalFiles(), is(2));
+        assertThat(deltas.getRedundantFiles(), is(2));
+        assertThat(deltas.getRedundantKeys(), is(5));
+        assertThat(deltas.getSavedBytes() > 0, is(true));
+        assertThat(new File(bundleDir, "Messages_en_GB.properties").length(), is(size));
+    }
+
+    @Test
+    public void shouldRewriteRegionalFilesToDeltas() throws IOException {
+        //given
+        final RegionalDeltas deltas = new RegionalDeltas(new SystemStreamLog(), dir, true);
+
+        //when
+        deltas.process(check(false));
+
+        //then
+        assertThat(new File(bundleDir, "Messages_en_GB.properties").length(), is(0L));
+        assertThat(check(false).getErrorCount(), is(5));
+        assertThat(check(true).getErrorCount(), is(0));
+
+        final ClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()}, null);
+        final ResourceBundle us = ResourceBundle.getBundle("regional.Messages",
+                new Locale("en", "US"), loader, MessageControl.INSTANCE);
+        assertThat(us.getString("a"), is("1"));
+        assertThat(us.getString("c"), is("color"));
+
+        final ResourceBundle gb = ResourceBundle.getBundle("regional.Messages",
+                new Locale("en", "GB"), loader, MessageControl.INSTANCE);
+        assertThat(gb.getString("c"), is("3"));
+    }
+
+    private PlainMessageAnalyzer check(final boolean inheritLocales) {
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                dir.getPath(), LOCALES, "", "regional/Messages", null,
+                new CheckOptions().setInheritLocales(inheritLocales));
+        analyzer.close();
+        return analyzer;
+    }
+
+    private void write(final String name, final String content) throws IOException {
+        final Writer writer = new OutputStreamWriter(
+                new FileOutputStream(new File(bundleDir, name)), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
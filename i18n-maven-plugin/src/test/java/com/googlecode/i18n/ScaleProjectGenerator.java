@@ -0,0 +1,199 @@
+package com.googlecode.i18n;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Generates synthetic project of the given size: message enums with properties files of
+ * many locales, and one large plain bundle. All generated bundles are valid, so checks
+ * report neither errors nor warnings.
+ *
+ * <p/>The project is generated only once for the same sizes, so repeated test runs measure
+ * checks only.
+ */
+final class ScaleProjectGenerator {
+
+    private static final String PACKAGE = "scale";
+
+    private final File dir;
+    private final int enums;
+    private final int keys;
+    private final int plainKeys;
+    private final List<String> locales;
+
+    /**
+     * @param dir       directory to generate the project to
+     * @param enums     count of message enums
+     * @param keys      count of messages in each enum
+     * @param locales   count of locales of each bundle
+     * @param plainKeys count of messages in the plain bundle
+     */
+    ScaleProjectGenerator(final File dir, final int enums, final int keys,
+            final int locales, final int plainKeys) {
+
+        this.dir = dir;
+        this.enums = enums;
+        this.keys = keys;
+        this.plainKeys = plainKeys;
+        this.locales = selectLocales(locales);
+    }
+
+    /**
+     * @return directory with compiled classes and properties files
+     */
+    File getClassesDir() {
+        return new File(dir, "classes");
+    }
+
+    /**
+     * @return comma separated list of locales of generated bundles
+     */
+    String getLocales() {
+        final StringBuilder sb = new StringBuilder();
+        for (final String locale : locales) {
+            sb.append(sb.length() > 0 ? "," : "").append(locale);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * @return base path of the plain bundle
+     */
+    String getPlainFilePath() {
+        return PACKAGE + "/plain/Plain";
+    }
+
+    void generate() throws IOException {
+        final File marker = new File(dir, "generated-" + enums + "-" + keys + "-"
+                + locales.size() + "-" + plainKeys);
+        if (marker.exists()) {
+            return;
+        }
+
+        final File sourcesDir = new File(dir, "src");
+        final File classesDir = getClassesDir();
+        final List<String> sources = new ArrayList<String>();
+        for (int i = 0; i < enums; i++) {
+            final String name = "Messages" + i;
+            final String pkg = PACKAGE + "/p" + (i / 100);
+            final File source = new File(sourcesDir, pkg + "/" + name + ".java");
+            writeEnum(source, pkg.replace('/', '.'), name);
+            sources.add(source.getPath());
+
+            writeBundle(new File(classesDir, pkg + "/" + name), keys);
+        }
+
+        writeBundle(new File(classesDir, getPlainFilePath()), plainKeys);
+        compile(sources, classesDir);
+
+        if (!marker.createNewFile()) {
+            throw new IOException("Cannot create " + marker);
+        }
+    }
+
+    private void writeEnum(final File file, final String pkg, final String name)
+            throws IOException {
+
+        final Writer out = open(file);
+        try {
+            out.write("package " + pkg + ";\n\n");
+            out.write("import com.googlecode.i18n.annotations.MessageProvider;\n");
+            out.write("import com.googlecode.i18n.annotations.StringFormatted;\n\n");
+            out.write("@MessageProvider\npublic enum " + name + " {\n");
+            for (int k = 0; k < keys; k++) {
+                out.write(isFormatted(k) ? "    @StringFormatted\n" : "");
+                out.write("    MSG_" + k + ",\n");
+            }
+
+            out.write("}\n");
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeBundle(final File basePath, final int count) throws IOException {
+        writeProperties(new File(basePath.getPath() + ".properties"), "", count);
+        for (final String locale : locales) {
+            writeProperties(new File(basePath.getPath() + "_" + locale + ".properties"),
+                    locale, count);
+        }
+    }
+
+    private static void writeProperties(final File file, final String locale,
+            final int count) throws IOException {
+
+        final Writer out = open(file);
+        try {
+            for (int k = 0; k < count; k++) {
+                out.write("MSG_" + k + "=" + locale + " message " + k
+                        + (isFormatted(k) ? " %s of %d" : "") + "\n");
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static boolean isFormatted(final int key) {
+        return (key % 4 == 0);
+    }
+
+    private static Writer open(final File file) throws IOException {
+        final File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+    }
+
+    private static void compile(final List<String> sources, final File classesDir) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler is not available, JDK is required");
+        }
+
+        final List<String> args = new ArrayList<String>();
+        args.add("-nowarn");
+        args.add("-d");
+        args.add(classesDir.getPath());
+        args.add("-cp");
+        args.add(System.getProperty("java.class.path"));
+        args.addAll(sources);
+
+        if (compiler.run(null, null, null, args.toArray(new String[args.size()])) != 0) {
+            throw new IllegalStateException("Cannot compile generated sources");
+        }
+    }
+
+    /**
+     * Selects the given count of language codes, the same on all JVMs.
+     */
+    private static List<String> selectLocales(final int count) {
+        final TreeSet<String> languages = new TreeSet<String>();
+        for (final String language : Locale.getISOLanguages()) {
+            languages.add(language);
+        }
+
+        final List<String> result = new ArrayList<String>();
+        for (final String language : languages) {
+            if (result.size() == count) {
+                break;
+            }
+
+            result.add(language);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.number.OrderingComparison.lessThanOrEqualTo;
+
+/**
+ * Checks synthetic project of realistic size and fails if checks take more time or heap
+ * than configured budgets. Skipped unless <code>i18n.scale</code> property is set, since
+ * it takes most of the module test time.
+ *
+ * <p/>Default budgets are measured baselines on JDK 8 with the default sizes plus margin:
+ * class check takes 8-9 s, plain check 2.5 s, both peak at 120-130 MB of heap. Time
+ * budgets are about twice the baseline, to tolerate slower build machines, heap budget is
+ * baseline plus half. Peak heap is the sum of peaks of heap pools, that are reached at
+ * different times, so it is an upper bound, that depends on the young generation size.
+ *
+ * <p/>Sizes and budgets can be changed with system properties, for example:
+ * <pre>
+ * mvn test -Dtest=ScaleTest -Di18n.scale -Di18n.scale.enums=5000 -Di18n.scale.classMaxMillis=90000
+ * </pre>
+ */
+public class ScaleTest {
+
+    private static final int ENUMS = Integer.getInteger("i18n.scale.enums", 1000);
+    private static final int KEYS = Integer.getInteger("i18n.scale.keys", 10);
+    private static final int LOCALES = Integer.getInteger("i18n.scale.locales", 24);
+    private static final int PLAIN_KEYS = Integer.getInteger("i18n.scale.plainKeys", 20000);
+
+    private static final long CLASS_MAX_MILLIS = Long.getLong("i18n.scale.classMaxMillis",
+            18000);
+    private static final long PLAIN_MAX_MILLIS = Long.getLong("i18n.scale.plainMaxMillis",
+            5000);
+    private static final long MAX_HEAP_MB = Long.getLong("i18n.scale.maxHeapMb", 192);
+
+    private static ScaleProjectGenerator project;
+
+    /** Log without info messages, there are too many of them */
+    private final Log log = new SystemStreamLog() {
+        @Override
+        public boolean isInfoEnabled() {
+            return false;
+        }
+
+        @Override
+        public void info(final CharSequence content) {
+        }
+    };
+
+    @BeforeClass
+    public static void generateProject() throws IOException {
+        Assume.assumeTrue(System.getProperty("i18n.scale") != null);
+
+        project = new ScaleProjectGenerator(new File("target/scale"), ENUMS, KEYS, LOCALES,
+                PLAIN_KEYS);
+        project.generate();
+    }
+
+    @Test
+    public void shouldCheckClassesWithinBudget() {
+        //given
+        startMeasure();
+
+        //when
+        final ClassMessageAnalyzer analyzer = ClassMessageAnalyzer.check(log,
+                project.getClassesDir().getPath(), project.getLocales(),
+                getClass().getClassLoader());
+        analyzer.close();
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(0));
+        assertThat(analyzer.getWarningCount(), is(0));
+        assertWithinBudget("class check of " + ENUMS + " enums", CLASS_MAX_MILLIS);
+    }
+
+    @Test
+    public void shouldCheckPlainBundleWithinBudget() {
+        //given
+        startMeasure();
+
+        //when
+        final PlainMessageAnalyzer analyzer = PlainMessageAnalyzer.check(log,
+                project.getClassesDir().getPath(), project.getLocales(), "",
+                project.getPlainFilePath(), "STRING");
+        analyzer.close();
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(0));
+        assertThat(analyzer.getWarningCount(), is(0));
+        assertWithinBudget("plain check of " + PLAIN_KEYS + " keys", PLAIN_MAX_MILLIS);
+    }
+
+    private long startTime;
+
+    private void startMeasure() {
+        System.gc();
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+
+        startTime = System.nanoTime();
+    }
+
+    private void assertWithinBudget(final String name, final long maxMillis) {
+        final long millis = (System.nanoTime() - startTime) / 1000000;
+
+        // peaks of pools are reached at different times, so the sum is an upper bound
+        long heap = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heap += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        final long heapMb = heap / (1024 * 1024);
+        new SystemStreamLog().info(name + ": " + millis + " ms, peak heap " + heapMb + " MB");
+
+        assertThat(name + " time, ms", millis, lessThanOrEqualTo(maxMillis));
+        assertThat(name + " peak heap, MB", heapMb, lessThanOrEqualTo(MAX_HEAP_MB));
+    }
+}
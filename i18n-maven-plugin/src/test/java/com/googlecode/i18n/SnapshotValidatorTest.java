@@ -0,0 +1,132 @@
+package com.googlecode.i18n;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import com.googlecode.i18n.format.FormatSignature;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class SnapshotValidatorTest {
+
+    private static final String ROOT_PATH = "target/classes";
+
+    @Test
+    public void shouldFindSameProblemsAsFullCheck() throws IOException {
+        assertSameAsFullCheck("formatted/str/FormattedStr", "STRING", "", "ru", "ua");
+        assertSameAsFullCheck("formatted/msg/FormattedMsg", "MESSAGE", "", "ru", "ua");
+        assertSameAsFullCheck("plain/str_fmt_error", "STRING", "en", "ru");
+        assertSameAsFullCheck("plain/warn", null, "en", "ru");
+    }
+
+    @Test
+    public void shouldFindBundles() {
+        //given
+        final BundleSnapshot snapshot = new BundleSnapshot(Arrays.asList(
+                bundle("com/example/Messages"),
+                bundle("com/example/Messages_pt"),
+                bundle("plain/")));
+        final SnapshotValidator validator = new SnapshotValidator(snapshot, null);
+
+        //when
+        final ValidationResult result = validator.validate("com/example/Other_ru.properties",
+                new Properties());
+
+        //then
+        assertThat(validator.findBundle("com/example/Messages_ru.properties").getBaseFilePath(),
+                is("com/example/Messages"));
+        assertThat(validator.findBundle("com/example/Messages_pt_BR.properties")
+                .getBaseFilePath(), is("com/example/Messages_pt"));
+        assertThat(validator.findBundle("plain/ru.properties").getBaseFilePath(),
+                is("plain/"));
+        assertThat(validator.findBundle("com/example/Messages.txt"), is(nullValue()));
+        assertThat(result.getErrorCount(), is(1));
+        assertThat(result.getFindings().get(0).getType(), is(Finding.Type.INVALID_BUNDLE));
+    }
+
+    @Test
+    public void shouldShareIndexesBetweenConcurrentChecks() throws Exception {
+        //given
+        final String path = "formatted/str/FormattedStr";
+        final PlainMessageAnalyzer base = PlainMessageAnalyzer.check(new SystemStreamLog(),
+                ROOT_PATH, "", "", path, "STRING");
+        final SnapshotValidator validator = new SnapshotValidator(base.getSnapshot(), null);
+        final Properties props = AbstractMessageAnalyzer.loadProperties(getClass()
+                .getClassLoader().getResourceAsStream(path + "_ru.properties"));
+        final int size = props.size();
+        final ValidationResult expected = validator.validate(path + "_ru.properties", props);
+
+        //when
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<ValidationResult>> results = new ArrayList<Future<ValidationResult>>();
+        for (int i = 0; i < 100; i++) {
+            results.add(executor.submit(new Callable<ValidationResult>() {
+                @Override
+                public ValidationResult call() {
+                    return validator.validate(path + "_ru.properties", props);
+                }
+            }));
+        }
+        executor.shutdown();
+
+        //then
+        assertThat(expected.getErrorCount() + expected.getWarningCount() > 0, is(true));
+        for (final Future<ValidationResult> result : results) {
+            assertThat(result.get().getErrorCount(), is(expected.getErrorCount()));
+            assertThat(result.get().getWarningCount(), is(expected.getWarningCount()));
+        }
+        assertThat(props.size(), is(size));
+    }
+
+    private void assertSameAsFullCheck(final String path, final String formatType,
+            final String baseLocale, final String... locales) throws IOException {
+
+        //given
+        final SystemStreamLog log = new SystemStreamLog();
+        final PlainMessageAnalyzer full = PlainMessageAnalyzer.check(log, ROOT_PATH,
+                Arrays.toString(locales).replaceAll("[\\[\\] ]", ""), baseLocale, path,
+                formatType);
+        final PlainMessageAnalyzer base = PlainMessageAnalyzer.check(log, ROOT_PATH, "",
+                baseLocale, path, formatType);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        base.getSnapshot().write(out);
+        final BundleSnapshot snapshot = BundleSnapshot.read(
+                new ByteArrayInputStream(out.toByteArray()));
+        final SnapshotValidator validator = new SnapshotValidator(snapshot, null);
+
+        //when
+        int errors = base.getErrorCount();
+        int warnings = base.getWarningCount();
+        for (final String locale : locales) {
+            final String file = path + "_" + locale + ".properties";
+            final ValidationResult result = validator.validate(file,
+                    getClass().getClassLoader().getResourceAsStream(file));
+
+            errors += result.getErrorCount();
+            warnings += result.getWarningCount();
+        }
+
+        //then
+        assertThat(snapshot.getBundles().size(), is(1));
+        assertThat(errors, is(full.getErrorCount()));
+        assertThat(warnings, is(full.getWarningCount()));
+    }
+
+    private static BundleSnapshot.Bundle bundle(final String baseFilePath) {
+        return new BundleSnapshot.Bundle(baseFilePath, baseFilePath, false,
+                Collections.<String, FormatSignature>emptyMap(), Arrays.asList("a"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.googlecode.i18n;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class SortedPropertiesTest {
+
+    @Test
+    public void shouldSortAndMergeRunsKeepingLastDuplicates() throws IOException {
+        //given
+        final StringBuilder content = new StringBuilder();
+        for (int i = 199; i >= 0; i--) {
+            content.append("key").append(i % 100).append('=').append(i).append('\n');
+        }
+
+        //when
+        final SortedProperties props = SortedProperties.sort(
+                new ByteArrayInputStream(content.toString().getBytes("UTF-8")), 1);
+
+        //then
+        final List<String> entries = new ArrayList<String>();
+        final SortedProperties.Cursor cursor = props.open();
+        try {
+            while (cursor.next()) {
+                entries.add(cursor.getKey() + "=" + cursor.getValue());
+            }
+        } finally {
+            cursor.close();
+            props.delete();
+        }
+
+        assertThat(props.size(), is(100));
+        assertThat(entries.size(), is(100));
+        assertThat(entries.get(0), is("key0=0"));
+        assertThat(entries.get(1), is("key1=1"));
+        assertThat(entries.get(2), is("key10=10"));
+        assertThat(entries.get(99), is("key99=99"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.util.Arrays;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class SourceMessageAnalyzerTest {
+
+    private static final String ROOT_PATH = "src/test/java/";
+
+    @Test
+    public void formattedStrings() {
+        SourceMessageAnalyzer analizer = check("formatted/str", "ru,ua");
+
+        assertThat(analizer.getErrorCount(), is(7));
+        assertThat(analizer.getWarningCount(), is(2));
+    }
+
+    @Test
+    public void formattedMessage() {
+        SourceMessageAnalyzer analizer = check("formatted/msg", " ru,ua ");
+
+        assertThat(analizer.getErrorCount(), is(6));
+        assertThat(analizer.getWarningCount(), is(2));
+    }
+
+    @Test
+    public void dynamic() {
+        SourceMessageAnalyzer analizer = check("dynamic", " ");
+
+        assertThat(analizer.getErrorCount(), is(0));
+        assertThat(analizer.getWarningCount(), is(0));
+    }
+
+    private SourceMessageAnalyzer check(final String path, final String locales) {
+        return SourceMessageAnalyzer.check(new SystemStreamLog(),
+                Arrays.asList(new File(ROOT_PATH + path)), "UTF-8", locales,
+                getClass().getClassLoader(), null, null);
+    }
+}
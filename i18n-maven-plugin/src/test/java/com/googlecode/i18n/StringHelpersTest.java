@@ -0,0 +1,32 @@
+package com.googlecode.i18n;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class StringHelpersTest {
+
+    @Test
+    public void shouldSplitList() {
+        assertThat(StringHelpers.splitList(" a, ,b ,a"), is(Arrays.asList("a", "b", "a")));
+        assertThat(StringHelpers.splitList(null), is(Collections.<String>emptyList()));
+        assertThat(AbstractMessageAnalyzer.splitLocales("en, ru,en", "en"),
+                is(Arrays.asList("ru")));
+    }
+
+    @Test
+    public void shouldConvertWildcardsToRegex() {
+        //when
+        final String packages = StringHelpers.wildcardToRegex("com.*.ui.**", '.');
+        final String keys = StringHelpers.wildcardToRegex("error.*$", (char) 0);
+
+        //then
+        assertThat("com.acme.ui.dialogs.x".matches(packages), is(true));
+        assertThat("com.acme.core.ui.x".matches(packages), is(false));
+        assertThat("comXacme.ui.x".matches(packages), is(false));
+        assertThat("error.io.read$".matches(keys), is(true));
+        assertThat("error.io.read".matches(keys), is(false));
+    }
+}
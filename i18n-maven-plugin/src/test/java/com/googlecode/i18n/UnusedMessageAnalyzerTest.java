@@ -0,0 +1,52 @@
+package com.googlecode.i18n;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class UnusedMessageAnalyzerTest {
+
+    private static final String ROOT_PATH = "target/test-classes";
+
+    @Test
+    public void shouldFindNotReferencedConstants() {
+        //when
+        final UnusedMessageAnalyzer analyzer = UnusedMessageAnalyzer.check(
+                new SystemStreamLog(), Arrays.asList(new File(ROOT_PATH)),
+                new PackageFilter("unused", ""),
+                new CheckOptions().setCollectFindings(true));
+
+        //then
+        assertThat(analyzer.getErrorCount(), is(0));
+        assertThat(analyzer.getWarningCount(), is(1));
+        assertThat(analyzer.getUnreferenced(), is(Collections.singletonMap("unused.Unused",
+                Arrays.asList("NOT_USED"))));
+
+        final Finding finding = analyzer.getFindings().get(0);
+        assertThat(finding.getType(), is(Finding.Type.UNREFERENCED_MESSAGE));
+        assertThat(finding.getFile(), is("unused/Unused.properties"));
+        assertThat(finding.getKey(), is("NOT_USED"));
+    }
+
+    @Test
+    public void shouldReportAllConstantsOfNotReferencedEnums() {
+        //when
+        final UnusedMessageAnalyzer analyzer = UnusedMessageAnalyzer.check(
+                new SystemStreamLog(), Arrays.asList(new File(ROOT_PATH)),
+                new PackageFilter("warnings", ""), null);
+
+        //then
+        assertThat(analyzer.getUnreferenced(), is(Collections.singletonMap(
+                "warnings.Warnings", Arrays.asList("MSG_1", "MSG_2", "MSG_3"))));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailForNotExistingPath() {
+        UnusedMessageAnalyzer.check(new SystemStreamLog(),
+                Arrays.asList(new File("not/exist")), null, null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.googlecode.i18n.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringContains.containsString;
+
+public class I18nCheckMainTest {
+
+    private static final String ROOT_PATH = "target/test-classes";
+
+    @Test
+    public void shouldCheckAllTargets() {
+        //given
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        final int exitCode = I18nCheckMain.run(new String[]{
+                "--plain", ROOT_PATH, "plain/warn",
+                "--plain", ROOT_PATH, "plain/error",
+                "--classes", ROOT_PATH,
+                "--includes", "warnings",
+                "--locales", "en,ru",
+                "--base-locale", "en",
+                "--threads", "2",
+                "--output", "json"}, new PrintStream(out), System.err);
+
+        //then
+        final String json = out.toString();
+        assertThat(exitCode, is(I18nCheckMain.EXIT_ERRORS));
+        assertThat(json, containsString("{\"errors\":3,\"warnings\":3,\"targets\":["));
+        assertThat(json, containsString("\"baseFilePath\":\"plain/warn\",\"errors\":0,"
+                + "\"warnings\":1,\"cancelled\":false,\"failure\":null,\"findings\":[{"
+                + "\"severity\":\"WARNING\",\"type\":\"UNUSED_KEY\""));
+    }
+
+    @Test
+    public void shouldCheckJar() throws IOException {
+        //given
+        final File jar = File.createTempFile("i18n", ".jar");
+        jar.deleteOnExit();
+        writeJar(jar, "warnings/Warnings.class", "warnings/Warnings.properties");
+
+        final ByteArrayOutputStream jarOut = new ByteArrayOutputStream();
+        final ByteArrayOutputStream dirOut = new ByteArrayOutputStream();
+
+        //when
+        final int jarExitCode = I18nCheckMain.run(new String[]{"--classes", jar.getPath(),
+                "--locales", "ru"}, new PrintStream(jarOut), System.err);
+        final int dirExitCode = I18nCheckMain.run(new String[]{"--classes", ROOT_PATH,
+                "--includes", "warnings", "--locales", "ru"}, new PrintStream(dirOut),
+                System.err);
+
+        //then
+        assertThat(jarExitCode, is(dirExitCode));
+        assertThat(jarOut.toString(), is(dirOut.toString()));
+        assertThat(jarOut.toString(), containsString("Checking warnings.Warnings"));
+    }
+
+    @Test
+    public void shouldFailForInvalidArguments() {
+        //given
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+        //when
+        final int noTargets = I18nCheckMain.run(new String[]{"--locales", "ru"},
+                System.out, new PrintStream(err));
+        final int notExisting = I18nCheckMain.run(new String[]{"--classes", "not/exist"},
+                new PrintStream(new ByteArrayOutputStream()), System.err);
+
+        //then
+        assertThat(noTargets, is(I18nCheckMain.EXIT_FAILURE));
+        assertThat(err.toString(), containsString("No targets to check"));
+        assertThat(notExisting, is(I18nCheckMain.EXIT_FAILURE));
+    }
+
+    private static void writeJar(final File jar, final String... entries) throws IOException {
+        final JarOutputStream os = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            final byte[] buf = new byte[8192];
+            for (final String entry : entries) {
+                os.putNextEntry(new JarEntry(entry));
+
+                final InputStream is = new FileInputStream(new File(ROOT_PATH, entry));
+                try {
+                    int read;
+                    while ((read = is.read(buf)) != -1) {
+                        os.write(buf, 0, read);
+                    }
+                } finally {
+                    is.close();
+                }
+            }
+        } finally {
+            os.close();
+        }
+    }
+}
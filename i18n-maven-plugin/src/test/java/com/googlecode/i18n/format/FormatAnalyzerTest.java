@@ -28,11 +28,11 @@ public class FormatAnalyzerTest {
         final HashMap<String, FormatType> keys = new HashMap<String, FormatType>();
         keys.put(key, FormatType.MESSAGE);
         expect(formatParser.getFormatType()).andReturn(FormatType.MESSAGE);
-        expect(formatParser.parse(value)).andReturn(new String[]{""});
+        expect(formatParser.parseSignature(value)).andReturn(signature());
         replayAll();
 
         //when
-        analyzer.check(1, props, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(props.size(), is(0));
@@ -56,12 +56,12 @@ public class FormatAnalyzerTest {
         final HashMap<String, FormatType> keys = new HashMap<String, FormatType>();
         keys.put(key, FormatType.MESSAGE);
         expect(formatParser.getFormatType()).andReturn(FormatType.MESSAGE);
-        expect(formatParser.parse(value)).andReturn(new String[]{"1"}).times(2);
+        expect(formatParser.parseSignature(value)).andReturn(signature(1)).times(2);
         replayAll();
 
         //when
-        analyzer.check(1, baseProps, keys);
-        analyzer.check(1, props, keys);
+        analyzer.check(baseProps, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(baseProps.size(), is(0));
@@ -86,7 +86,7 @@ public class FormatAnalyzerTest {
         replayAll();
 
         //when
-        analyzer.check(1, props, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(props.size(), is(1));
@@ -110,7 +110,7 @@ public class FormatAnalyzerTest {
         replayAll();
 
         //when
-        analyzer.check(1, props, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(props.size(), is(0));
@@ -134,12 +134,12 @@ public class FormatAnalyzerTest {
         final HashMap<String, FormatType> keys = new HashMap<String, FormatType>();
         keys.put(key, FormatType.MESSAGE);
         expect(formatParser.getFormatType()).andReturn(FormatType.MESSAGE);
-        expect(formatParser.parse(value)).andReturn(new String[]{"1"});
+        expect(formatParser.parseSignature(value)).andReturn(signature(1));
         replayAll();
 
         //when
-        analyzer.check(1, baseProps, keys);
-        analyzer.check(1, props, keys);
+        analyzer.check(baseProps, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(baseProps.size(), is(0));
@@ -162,11 +162,11 @@ public class FormatAnalyzerTest {
         final HashMap<String, FormatType> keys = new HashMap<String, FormatType>();
         keys.put(key, FormatType.MESSAGE);
         expect(formatParser.getFormatType()).andReturn(FormatType.MESSAGE);
-        expect(formatParser.parse(value)).andThrow(new IllegalArgumentException());
+        expect(formatParser.parseSignature(value)).andThrow(new IllegalArgumentException());
         replayAll();
 
         //when
-        analyzer.check(1, props, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(props.size(), is(0));
@@ -191,13 +191,13 @@ public class FormatAnalyzerTest {
         final HashMap<String, FormatType> keys = new HashMap<String, FormatType>();
         keys.put(key, FormatType.MESSAGE);
         expect(formatParser.getFormatType()).andReturn(FormatType.MESSAGE);
-        expect(formatParser.parse(value1)).andReturn(new String[]{"1"});
-        expect(formatParser.parse(value2)).andThrow(new IllegalArgumentException());
+        expect(formatParser.parseSignature(value1)).andReturn(signature(1));
+        expect(formatParser.parseSignature(value2)).andThrow(new IllegalArgumentException());
         replayAll();
 
         //when
-        analyzer.check(1, baseProps, keys);
-        analyzer.check(1, props, keys);
+        analyzer.check(baseProps, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(baseProps.size(), is(0));
@@ -223,13 +223,13 @@ public class FormatAnalyzerTest {
         final HashMap<String, FormatType> keys = new HashMap<String, FormatType>();
         keys.put(key, FormatType.MESSAGE);
         expect(formatParser.getFormatType()).andReturn(FormatType.MESSAGE);
-        expect(formatParser.parse(value1)).andReturn(new String[]{"1"});
-        expect(formatParser.parse(value2)).andReturn(new String[]{"2"});
+        expect(formatParser.parseSignature(value1)).andReturn(signature(1));
+        expect(formatParser.parseSignature(value2)).andReturn(signature(2));
         replayAll();
 
         //when
-        analyzer.check(1, baseProps, keys);
-        analyzer.check(1, props, keys);
+        analyzer.check(baseProps, keys);
+        analyzer.check(props, keys);
 
         //then
         assertThat(baseProps.size(), is(0));
@@ -240,6 +240,10 @@ public class FormatAnalyzerTest {
         verifyAll();
     }
 
+    private static FormatSignature signature(final long... elements) {
+        return new FormatSignature(FormatType.MESSAGE, elements);
+    }
+
     private AbstractMessageAnalyzer getMessageAnalyzer() {
         return new AbstractMessageAnalyzer(new SystemStreamLog(), "", "") {
         };
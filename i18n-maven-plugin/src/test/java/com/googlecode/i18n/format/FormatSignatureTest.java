@@ -0,0 +1,84 @@
+package com.googlecode.i18n.format;
+
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.fail;
+
+public class FormatSignatureTest {
+
+    private final StringFormatParser stringFormatParser = new StringFormatParser();
+    private final MessageFormatParser messageFormatParser = new MessageFormatParser();
+
+    @Test
+    public void stringSignatures() {
+        //when
+        final FormatSignature signature = stringFormatParser.parseSignature(
+                "%2$-10s, %<S, %,.2f, %1$tY %%");
+
+        //then
+        assertThat(signature.getFormatType(), is(FormatType.STRING));
+        assertThat(signature.size(), is(4));
+        assertThat(signature.toStrings(), is(new String[]{"-2$10s", "<S", ",.2f", "1$tY"}));
+        assertThat(signature.toString(), is("[-2$10s, <S, ,.2f, 1$tY]"));
+        assertThat(signature, is(stringFormatParser.parseSignature(
+                "text %2$-10s %<S %,.2f %1$tY")));
+        assertThat(stringFormatParser.parseSignature("%5s"),
+                not(stringFormatParser.parseSignature("%6s")));
+        assertThat(stringFormatParser.parseSignature("%.2f"),
+                not(stringFormatParser.parseSignature("%.3f")));
+        assertThat(stringFormatParser.parseSignature("%s"),
+                not(stringFormatParser.parseSignature("%S")));
+        assertThat(stringFormatParser.parseSignature("%tH"),
+                not(stringFormatParser.parseSignature("%H")));
+    }
+
+    @Test
+    public void messageSignatures() {
+        //when
+        final FormatSignature signature = messageFormatParser.parseSignature(
+                "{0} of {1,number,#} at {2,time,full}");
+
+        //then
+        assertThat(signature.getFormatType(), is(FormatType.MESSAGE));
+        assertThat(signature.toStrings(), is(new String[]{"0,", "1,number", "2,time"}));
+        assertThat(signature, is(messageFormatParser.parseSignature(
+                "{0} - {1,number,integer} - {2,time}")));
+        assertThat(signature.hashCode(), is(messageFormatParser.parseSignature(
+                "{0} - {1,number,integer} - {2,time}").hashCode()));
+        assertThat(messageFormatParser.parseSignature("{0,date}"),
+                not(messageFormatParser.parseSignature("{0,time}")));
+        assertThat(messageFormatParser.parseSignature("{0}"),
+                not(stringFormatParser.parseSignature("")));
+    }
+
+    @Test
+    public void rememberInvalidFormatsWithoutMessage() {
+        //given
+        final FormatSignatures signatures = new FormatSignatures();
+        final AbstractFormatParser parser = new AbstractFormatParser() {
+
+            @Override
+            public FormatType getFormatType() {
+                return FormatType.STRING;
+            }
+
+            @Override
+            public FormatSignature parseSignature(final String format) {
+                throw new IllegalArgumentException();
+            }
+        };
+
+        //then
+        for (int i = 0; i < 2; i++) {
+            try {
+                signatures.parse(parser, "key", "value");
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException x) {
+                assertThat(x.getMessage(), is(nullValue()));
+            }
+        }
+    }
+}
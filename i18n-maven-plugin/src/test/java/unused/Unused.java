@@ -0,0 +1,18 @@
+package unused;
+
+import com.googlecode.i18n.annotations.MessageProvider;
+
+
+@MessageProvider
+public enum Unused {
+
+    USED,
+    USED_IN_SWITCH,
+    USED_BY_ITSELF,
+    NOT_USED,
+    ;
+
+    public static Unused getDefault() {
+        return USED_BY_ITSELF;
+    }
+}
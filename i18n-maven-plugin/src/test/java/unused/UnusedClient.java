@@ -0,0 +1,18 @@
+package unused;
+
+
+public class UnusedClient {
+
+    public static Unused get(final int i) {
+        return (i > 0 ? Unused.USED : Unused.getDefault());
+    }
+
+    public static boolean isSwitched(final Unused message) {
+        switch (message) {
+        case USED_IN_SWITCH:
+            return true;
+        default:
+            return false;
+        }
+    }
+}
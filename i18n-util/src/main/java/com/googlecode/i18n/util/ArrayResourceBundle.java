@@ -0,0 +1,122 @@
+package com.googlecode.i18n.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+
+/**
+ * Base class for resource bundles generated from validated properties files at build
+ * time, see {@link MessageControl}.
+ *
+ * <p/>Messages are kept in arrays sorted by keys, so no parsing is performed when
+ * the bundle is loaded and no hash table is created. Optionally arrays are ordered by
+ * {@link PerfectHash} computed at build time, then a message is looked up with one probe.
+ */
+public abstract class ArrayResourceBundle extends ResourceBundle {
+
+    private final String[] keys;
+    private final String[] values;
+    private final PerfectHash hash;
+
+    /** Keys of this bundle, created on the first request */
+    private volatile Set<String> keySet;
+
+
+    /**
+     * Creates bundle with the given messages.
+     *
+     * @param keys      messages keys, sorted in natural order
+     * @param values    messages values, in the same order as keys
+     */
+    protected ArrayResourceBundle(String[] keys, String[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values lengths differ: "
+                    + keys.length + " != " + values.length);
+        }
+
+        this.keys = keys;
+        this.values = values;
+        this.hash = null;
+    }
+
+    /**
+     * Creates bundle with the given messages, ordered by perfect hash function.
+     *
+     * @param keys          messages keys, ordered by indexes of the function
+     * @param values        messages values, in the same order as keys
+     * @param displacements displacements of the function, see
+     *                      {@link PerfectHash#getDisplacements()}
+     */
+    protected ArrayResourceBundle(String[] keys, String[] values, int[] displacements) {
+        if (keys.length != values.length || keys.length != displacements.length) {
+            throw new IllegalArgumentException("keys, values and displacements lengths differ: "
+                    + keys.length + ", " + values.length + ", " + displacements.length);
+        }
+
+        this.keys = keys;
+        this.values = values;
+        this.hash = new PerfectHash(displacements);
+    }
+
+    /**
+     * Concatenates parts of the message, that is too long for one string constant.
+     *
+     * @param parts     parts of the message
+     * @return          the whole message
+     */
+    protected static String concat(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            sb.append(part);
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    protected Object handleGetObject(String key) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (hash != null) {
+            int i = hash.indexOf(key);
+            return (i >= 0 && keys[i].equals(key) ? values[i] : null);
+        }
+
+        int i = Arrays.binarySearch(keys, key);
+        return (i >= 0 ? values[i] : null);
+    }
+
+    @Override
+    protected Set<String> handleKeySet() {
+        // benign race, the same set is created by concurrent callers
+        Set<String> result = keySet;
+        if (result == null) {
+            result = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(keys)));
+            keySet = result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public Enumeration<String> getKeys() {
+        if (parent == null) {
+            return Collections.enumeration(Arrays.asList(keys));
+        }
+
+        // keys of this bundle first, then not overridden keys of parents
+        Set<String> all = new LinkedHashSet<String>(Arrays.asList(keys));
+        for (Enumeration<String> e = parent.getKeys(); e.hasMoreElements(); ) {
+            all.add(e.nextElement());
+        }
+
+        return Collections.enumeration(all);
+    }
+}
@@ -7,6 +7,7 @@ import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.PropertyResourceBundle;
@@ -17,14 +18,32 @@ import java.util.ResourceBundle;
  * Custom <code>ResourceBundle.Control</code> implementation for loading 
  * messages from resource bundle properties files encoded in UTF-8.
  * 
+ * <p/>Bundle classes generated at build time by <code>generate-bundles</code> goal
+ * of i18n-maven-plugin are preferred over properties files, if present. They are named
+ * as the bundle with {@link #GENERATED_SUFFIX} suffix, for example
+ * <code>com.example.Messages_ru_i18n</code>.
+ * 
+ * <p/>Bundles are chained to bundles of their parent locales, like 
+ * <code>Messages_en_US</code> to <code>Messages_en</code> and then to the base 
+ * <code>Messages</code>, so regional properties files may contain only messages, that 
+ * differ from the language ones, see <code>regional-deltas</code> goal. Default locale is 
+ * never used as fallback, missing bundles are resolved by the base bundle.
+ * 
  * @see ResourceBundle.Control
  */
 public final class MessageControl extends ResourceBundle.Control {
 
     public static final MessageControl  INSTANCE = new MessageControl();
     
+    /** Suffix of generated bundle classes names */
+    public static final String          GENERATED_SUFFIX = "_i18n";
+    
+    private static final String         FORMAT_GENERATED = "i18n.class";
     private static final String         FORMAT_PROPERTIES = "properties";
     
+    private static final List<String>   FORMATS = Collections.unmodifiableList(
+            Arrays.asList(FORMAT_GENERATED, FORMAT_PROPERTIES));
+    
     
     private MessageControl() {
     }
@@ -35,7 +54,7 @@ public final class MessageControl extends ResourceBundle.Control {
             throw new NullPointerException("baseName");
         }
         
-        return Arrays.asList(FORMAT_PROPERTIES);
+        return FORMATS;
     }
     
     @Override
@@ -51,7 +70,12 @@ public final class MessageControl extends ResourceBundle.Control {
         }
         
         ResourceBundle bundle = null;
-        if (format.equals(FORMAT_PROPERTIES)) {
+        if (format.equals(FORMAT_GENERATED)) {
+            // generated classes cannot be reloaded, properties files are used instead
+            if (!reload) {
+                bundle = newGeneratedBundle(toBundleName(baseName, locale), loader);
+            }
+        } else if (format.equals(FORMAT_PROPERTIES)) {
             String bundleName = toBundleName(baseName, locale);
             String resourceName = toResourceName(bundleName, format);
             InputStream stream = null;
@@ -87,6 +111,24 @@ public final class MessageControl extends ResourceBundle.Control {
         return bundle;
     }
     
+    private static ResourceBundle newGeneratedBundle(String bundleName, 
+            ClassLoader loader) throws IllegalAccessException, InstantiationException {
+        
+        Class<?> clazz;
+        try {
+            clazz = loader.loadClass(bundleName + GENERATED_SUFFIX);
+        } catch (ClassNotFoundException x) {
+            return null;
+        }
+        
+        if (!ResourceBundle.class.isAssignableFrom(clazz)) {
+            throw new ClassCastException(clazz.getName() 
+                    + " cannot be cast to ResourceBundle");
+        }
+        
+        return (ResourceBundle) clazz.newInstance();
+    }
+    
     @Override
     public Locale getFallbackLocale(String baseName, Locale locale) {
         // always use base bundle if no appropriate one found
@@ -0,0 +1,413 @@
+package com.googlecode.i18n.util;
+
+import java.text.ChoiceFormat;
+import java.text.DateFormat;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+
+/**
+ * Compiled format of the localized message, that renders arguments of typed accessors
+ * generated by <code>generate-accessors</code> goal of i18n-maven-plugin.
+ *
+ * <p/>The message is parsed once into text parts and format elements, then arguments
+ * are appended one by one with methods of their exact types, so no varargs array is
+ * created and primitive arguments are not boxed. Output is the same as of
+ * <code>String.format()</code> or <code>MessageFormat.format()</code>: messages of
+ * <code>String.format()</code> are rendered by {@link StringFormatRenderer}, elements of
+ * <code>MessageFormat</code> are rendered by their subformats.
+ *
+ * <p/>Generated accessors render the message as follows:
+ * <pre>
+ * StringBuilder sb = template.newBuilder();
+ * for (int i = 0; i &lt; template.size(); i++) {
+ *     template.appendText(sb, i);
+ *     switch (template.getArgument(i)) {
+ *     case 0:
+ *         template.append(sb, i, arg0);
+ *         break;
+ *     default:
+ *         template.appendMissing(sb, i);
+ *     }
+ * }
+ * return template.appendText(sb, template.size()).toString();
+ * </pre>
+ *
+ * Thread-safe, so compiled templates can be shared. <code>MessageFormat</code> subformats
+ * are not thread-safe, so each thread renders with its own copies of them, instead of
+ * synchronizing on the shared ones.
+ */
+public final class MessageTemplate {
+
+    private final String pattern;
+    private final Locale locale;
+
+    /** Renderer of String.format() message, <code>null</code> for MessageFormat one */
+    private final StringFormatRenderer renderer;
+
+    /** Text parts of MessageFormat message, one before each element and the last one */
+    private final String[] texts;
+    private final int[] arguments;
+
+    /** MessageFormat subformats of elements, <code>null</code> for elements without type */
+    private final Format[] formats;
+    private final MessageFormat nested;
+
+    /** Copies of formats used by the current thread */
+    private final ThreadLocal<ThreadFormats> threadFormats = new ThreadLocal<ThreadFormats>() {
+        @Override
+        protected ThreadFormats initialValue() {
+            return new ThreadFormats();
+        }
+    };
+
+    private MessageTemplate(final String pattern, final Locale locale,
+            final StringFormatRenderer renderer, final List<String> texts,
+            final List<Integer> arguments, final Format[] formats,
+            final MessageFormat nested) {
+
+        this.pattern = pattern;
+        this.locale = locale;
+        this.renderer = renderer;
+        this.texts = texts.toArray(new String[texts.size()]);
+        this.arguments = new int[arguments.size()];
+        for (int i = 0; i < this.arguments.length; i++) {
+            this.arguments[i] = arguments.get(i);
+        }
+
+        this.formats = formats;
+        this.nested = nested;
+    }
+
+    /**
+     * Compiles message formatted with <code>String.format()</code>.
+     *
+     * @param pattern   localized message
+     * @param locale    locale to format arguments with
+     * @return          compiled message
+     *
+     * @throws java.util.IllegalFormatException if the format is invalid
+     */
+    public static MessageTemplate compileString(final String pattern, final Locale locale) {
+        return new MessageTemplate(pattern, locale, StringFormatRenderer.compile(pattern,
+                locale), new ArrayList<String>(), new ArrayList<Integer>(), null, null);
+    }
+
+    /**
+     * Compiles message formatted with <code>MessageFormat.format()</code>.
+     *
+     * @param pattern   localized message
+     * @param locale    locale to format arguments with
+     * @return          compiled message
+     *
+     * @throws IllegalArgumentException if the format is invalid
+     */
+    public static MessageTemplate compileMessage(final String pattern, final Locale locale) {
+        // subformats are created by MessageFormat itself, in the order of elements
+        final MessageFormat format = new MessageFormat(pattern, locale);
+        final Format[] formats = format.getFormats();
+
+        final List<String> texts = new ArrayList<String>();
+        final List<Integer> arguments = new ArrayList<Integer>();
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder argument = new StringBuilder();
+        boolean inQuote = false;
+        int part = 0;
+        int braceStack = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char ch = pattern.charAt(i);
+            if (part == 0) {
+                if (ch == '\'') {
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                        text.append(ch);
+                        i++;
+                    } else {
+                        inQuote = !inQuote;
+                    }
+                } else if (ch == '{' && !inQuote) {
+                    part = 1;
+                    argument.setLength(0);
+                } else {
+                    text.append(ch);
+                }
+            } else if (inQuote) {
+                inQuote = (ch != '\'');
+            } else if (ch == ',') {
+                part = 2;
+            } else if (ch == '{') {
+                braceStack++;
+            } else if (ch == '}') {
+                if (braceStack == 0) {
+                    part = 0;
+                    texts.add(text.toString());
+                    text.setLength(0);
+                    arguments.add(Integer.parseInt(argument.toString()));
+                } else {
+                    braceStack--;
+                }
+            } else if (ch == '\'') {
+                inQuote = true;
+            } else if (part == 1) {
+                argument.append(ch);
+            }
+        }
+
+        texts.add(text.toString());
+
+        // choices with arguments are formatted again with all arguments
+        boolean isNested = false;
+        for (final Format f : formats) {
+            if (f instanceof ChoiceFormat) {
+                for (final Object choice : ((ChoiceFormat) f).getFormats()) {
+                    isNested |= ((String) choice).indexOf('{') != -1;
+                }
+            }
+        }
+
+        return new MessageTemplate(pattern, locale, null, texts, arguments, formats,
+                (isNested ? format : null));
+    }
+
+    /**
+     * Checks whether this template is compiled from the given message, so it can be
+     * used instead of compiling the message again.
+     *
+     * @param pattern   localized message
+     * @param locale    locale to format arguments with
+     * @return          <code>true</code> if the message and locale are the same
+     */
+    public boolean isCompiled(final String pattern, final Locale locale) {
+        return (this.pattern == pattern || this.pattern.equals(pattern))
+                && this.locale.equals(locale);
+    }
+
+    /**
+     * Returns count of format elements, that refer arguments.
+     * @return count of format elements
+     */
+    public int size() {
+        return (renderer != null ? renderer.size() : arguments.length);
+    }
+
+    /**
+     * Returns index of the argument referred by the given element.
+     *
+     * @param element   element index
+     * @return          argument index
+     */
+    public int getArgument(final int element) {
+        return (renderer != null ? renderer.getArgument(element) : arguments[element]);
+    }
+
+    /**
+     * Checks whether the message contains choices with arguments, that cannot be
+     * rendered element by element, see {@link #format(Object[])}.
+     *
+     * @return <code>true</code> if the message should be rendered with arguments array
+     */
+    public boolean isNested() {
+        return nested != null;
+    }
+
+    /**
+     * Renders the message with arguments array, used for nested messages.
+     *
+     * @param arguments arguments of the message
+     * @return          rendered message
+     */
+    public String format(final Object[] arguments) {
+        if (renderer != null) {
+            return renderer.format(arguments);
+        }
+
+        final MessageFormat format = (nested != null ? threadFormats.get().nested
+                : new MessageFormat(pattern, locale));
+        return format.format(arguments);
+    }
+
+    /**
+     * Creates builder large enough for the message text.
+     * @return builder to render the message to
+     */
+    public StringBuilder newBuilder() {
+        return new StringBuilder(pattern.length() + 16 * size());
+    }
+
+    /**
+     * Appends the text part, that precedes the given element.
+     *
+     * @param sb        builder to append to
+     * @param element   element index, or {@link #size()} for the last text part
+     * @return          the builder
+     */
+    public StringBuilder appendText(final StringBuilder sb, final int element) {
+        return (renderer != null ? renderer.appendText(sb, element)
+                : sb.append(texts[element]));
+    }
+
+    /**
+     * Appends the given element, that refers argument not passed to the accessor.
+     *
+     * @param sb        builder to append to
+     * @param element   element index
+     *
+     * @throws java.util.MissingFormatArgumentException for <code>String.format()</code>
+     *                  messages
+     */
+    public void appendMissing(final StringBuilder sb, final int element) {
+        if (renderer != null) {
+            renderer.appendMissing(sb, element);
+        } else {
+            sb.append('{').append(arguments[element]).append('}');
+        }
+    }
+
+    /**
+     * Appends the given element formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   element index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final Object value) {
+        if (renderer != null) {
+            renderer.append(sb, element, value);
+        } else {
+            appendMessage(sb, element, value);
+        }
+    }
+
+    /**
+     * Appends the given element formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   element index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final long value) {
+        if (renderer != null) {
+            renderer.append(sb, element, value);
+        } else if (formats[element] instanceof NumberFormat) {
+            sb.append(((NumberFormat) threadFormats.get().formats[element]).format(value));
+        } else {
+            appendMessage(sb, element, value);
+        }
+    }
+
+    /**
+     * Appends the given element formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   element index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final double value) {
+        if (renderer != null) {
+            renderer.append(sb, element, value);
+        } else if (formats[element] instanceof NumberFormat) {
+            sb.append(((NumberFormat) threadFormats.get().formats[element]).format(value));
+        } else {
+            appendMessage(sb, element, value);
+        }
+    }
+
+    /**
+     * Appends the given element formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   element index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final boolean value) {
+        if (renderer != null) {
+            renderer.append(sb, element, value);
+        } else {
+            appendMessage(sb, element, value);
+        }
+    }
+
+    /**
+     * Appends the given element formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   element index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final char value) {
+        if (renderer != null) {
+            renderer.append(sb, element, value);
+        } else {
+            appendMessage(sb, element, value);
+        }
+    }
+
+    /**
+     * Appends element the same way as <code>MessageFormat.subformat()</code> does.
+     */
+    private void appendMessage(final StringBuilder sb, final int element, final Object value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+
+        final ThreadFormats thread = threadFormats.get();
+        Format format = thread.formats[element];
+        if (format == null) {
+            if (value instanceof Number) {
+                format = thread.getNumberFormat();
+            } else if (value instanceof Date) {
+                format = thread.getDateFormat();
+            } else {
+                sb.append(value.toString());
+                return;
+            }
+        }
+
+        sb.append(format.format(value));
+    }
+
+    /**
+     * Copies of formats of the template, that are used by one thread.
+     */
+    private final class ThreadFormats {
+
+        final Format[] formats;
+        final MessageFormat nested;
+
+        private NumberFormat numberFormat;
+        private DateFormat dateFormat;
+
+        ThreadFormats() {
+            final Format[] shared = MessageTemplate.this.formats;
+            formats = new Format[shared.length];
+            for (int i = 0; i < shared.length; i++) {
+                formats[i] = (shared[i] != null ? (Format) shared[i].clone() : null);
+            }
+
+            final MessageFormat sharedNested = MessageTemplate.this.nested;
+            nested = (sharedNested != null ? (MessageFormat) sharedNested.clone() : null);
+        }
+
+        NumberFormat getNumberFormat() {
+            if (numberFormat == null) {
+                numberFormat = NumberFormat.getInstance(locale);
+            }
+
+            return numberFormat;
+        }
+
+        DateFormat getDateFormat() {
+            if (dateFormat == null) {
+                dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT,
+                        locale);
+            }
+
+            return dateFormat;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.googlecode.i18n.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Minimal perfect hash function for a fixed set of string keys, that maps each of
+ * <code>n</code> keys to its own index in range <code>[0, n)</code>.
+ *
+ * <p/>Uses hash and displace method: keys are split into buckets by their mixed
+ * <code>hashCode()</code>, which strings cache, and each bucket has a displacement, that
+ * places all its keys into free indexes. So the function is stored as one <code>int</code>
+ * per key and a lookup doesn't read characters of the key. Any other key is mapped to some
+ * index too, so the key at the returned index should be compared with the looked up one.
+ *
+ * <p/>The function is computed at build time by <code>generate-bundles</code> goal of
+ * i18n-maven-plugin, the same hash is used at runtime.
+ */
+public final class PerfectHash {
+
+    /** Maximum count of displacements tried for one bucket */
+    private static final int MAX_SEED = 1 << 24;
+
+    private final int[] displacements;
+
+
+    /**
+     * Creates function with the given displacements.
+     *
+     * @param displacements displacements of buckets, as returned by
+     *                      {@link #getDisplacements()}, one per key
+     */
+    public PerfectHash(int[] displacements) {
+        this.displacements = displacements;
+    }
+
+    /**
+     * Computes minimal perfect hash function for the given distinct keys.
+     *
+     * @param keys  distinct keys
+     * @return      function, that maps each of the keys to its own index
+     *
+     * @throws IllegalArgumentException if keys are not distinct or some keys have the same
+     *                                  <code>hashCode()</code>
+     */
+    public static PerfectHash build(String[] keys) {
+        final int n = keys.length;
+        final int[] hashes = new int[n];
+        final Set<Integer> unique = new HashSet<Integer>();
+        for (int i = 0; i < n; i++) {
+            hashes[i] = keys[i].hashCode();
+            if (!unique.add(hashes[i])) {
+                throw new IllegalArgumentException("Duplicate key or hash: " + keys[i]);
+            }
+        }
+
+        // buckets of keys' mixed hashes, the largest are placed first
+        final List<List<Integer>> buckets = new ArrayList<List<Integer>>(n);
+        for (int b = 0; b < n; b++) {
+            buckets.add(new ArrayList<Integer>(2));
+        }
+        for (int h : hashes) {
+            final int m = mix(h);
+            buckets.get(reduce(m, n)).add(m);
+        }
+
+        final Integer[] order = new Integer[n];
+        for (int b = 0; b < n; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer b1, Integer b2) {
+                return buckets.get(b2).size() - buckets.get(b1).size();
+            }
+        });
+
+        final int[] displacements = new int[n];
+        final boolean[] used = new boolean[n];
+        final int[] slots = new int[n];
+        int free = 0;
+        for (int b : order) {
+            final List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+
+            if (bucket.size() == 1) {
+                // single keys are placed directly into free indexes
+                while (used[free]) {
+                    free++;
+                }
+
+                used[free] = true;
+                displacements[b] = -free - 1;
+                continue;
+            }
+
+            displacements[b] = place(bucket, used, slots, n);
+        }
+
+        return new PerfectHash(displacements);
+    }
+
+    /**
+     * Finds displacement, that places all keys of the bucket into free indexes.
+     */
+    private static int place(List<Integer> bucket, boolean[] used, int[] slots, int n) {
+        for (int seed = 1; seed < MAX_SEED; seed++) {
+            int placed = 0;
+            for (; placed < bucket.size(); placed++) {
+                final int slot = slot(bucket.get(placed), seed, n);
+                if (used[slot]) {
+                    break;
+                }
+
+                used[slot] = true;
+                slots[placed] = slot;
+            }
+
+            if (placed == bucket.size()) {
+                return seed;
+            }
+
+            for (int i = 0; i < placed; i++) {
+                used[slots[i]] = false;
+            }
+        }
+
+        throw new IllegalStateException("Cannot place bucket of " + bucket.size()
+                + " keys in " + n + " indexes");
+    }
+
+    /**
+     * Returns displacements of buckets, to store the function.
+     * @return displacements of buckets, mostly small numbers
+     */
+    public int[] getDisplacements() {
+        return displacements.clone();
+    }
+
+    /**
+     * Returns count of keys of the function.
+     * @return count of keys
+     */
+    public int size() {
+        return displacements.length;
+    }
+
+    /**
+     * Returns index of the given key.
+     *
+     * @param key   key to look up
+     * @return      index of the key if it is one of keys of the function, some index in
+     *              range <code>[0, n)</code> otherwise, <code>-1</code> if there are no keys
+     */
+    public int indexOf(String key) {
+        final int n = displacements.length;
+        if (n == 0) {
+            return -1;
+        }
+
+        final int m = mix(key.hashCode());
+        final int d = displacements[reduce(m, n)];
+        return (d < 0 ? -d - 1 : slot(m, d, n));
+    }
+
+    /**
+     * Returns index of the mixed hash for the given displacement. Keys of one bucket differ
+     * in low bits of their mixed hashes, so multiplication spreads them to high bits.
+     */
+    private static int slot(int m, int seed, int n) {
+        return reduce((m ^ seed) * 0x9e3779b9, n);
+    }
+
+    /**
+     * Maps the hash to range <code>[0, n)</code> with multiplication instead of division.
+     */
+    private static int reduce(int h, int n) {
+        return (int) (((h & 0xffffffffL) * n) >>> 32);
+    }
+
+    /**
+     * Mixes bits of the hash, finalizer of 32-bit MurmurHash3.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
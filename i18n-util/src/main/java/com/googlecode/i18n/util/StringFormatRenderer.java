@@ -0,0 +1,772 @@
+package com.googlecode.i18n.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.FormatFlagsConversionMismatchException;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingFormatArgumentException;
+import java.util.UnknownFormatConversionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Renders messages formatted with <code>String.format()</code>, the pattern is parsed
+ * only once.
+ *
+ * <p/>The pattern is compiled into text parts and format specifiers, then arguments are
+ * rendered into the given <code>StringBuilder</code>, so it can be reused for several
+ * messages. Output is the same as of <code>String.format()</code>. General, character,
+ * boolean, integer and decimal float conversions, like <code>%-10s</code>,
+ * <code>%,d</code>, <code>%08X</code> or <code>%.2f</code>, are rendered directly,
+ * the others, like date/time or scientific ones, are rendered by
+ * <code>java.util.Formatter</code>.
+ *
+ * <p/>Compiled renderers are immutable and thread-safe, so they can be cached.
+ */
+public final class StringFormatRenderer {
+
+    // %[argument_index$][flags][width][.precision][t]conversion
+    private static final Pattern SPECIFIER = Pattern.compile(
+            "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+    private static final int LEFT_JUSTIFY = 1;
+    private static final int ALTERNATE = 1 << 1;
+    private static final int PLUS = 1 << 2;
+    private static final int LEADING_SPACE = 1 << 3;
+    private static final int ZERO_PAD = 1 << 4;
+    private static final int GROUP = 1 << 5;
+    private static final int PARENTHESES = 1 << 6;
+
+    private static final String FLAGS = "-#+ 0,(";
+
+    /** Flags of numeric conversions, that are rendered directly */
+    private static final String NUMERIC_FLAGS = "-+ 0,(";
+
+    /** Powers of ten, that fit <code>long</code> */
+    private static final long[] POWERS = new long[19];
+
+    /**
+     * Upper bound of scaled <code>%f</code> values rendered without <code>BigDecimal</code>,
+     * their fractions are precise to <code>2^-9</code>
+     */
+    private static final double MAX_SCALED = 1L << 43;
+
+    /** Distance from half, within which scaled value is rounded by <code>BigDecimal</code> */
+    private static final double HALF_MARGIN = 0.01;
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    private static final Map<Locale, Symbols> SYMBOLS =
+            new ConcurrentHashMap<Locale, Symbols>();
+
+    private final String pattern;
+    private final Locale locale;
+    private final Symbols symbols;
+
+    /** Text parts, one before each specifier and the last one */
+    private final String[] texts;
+    private final int[] arguments;
+
+    /** Specifiers without argument index, rendered by Formatter if not supported */
+    private final String[] specifiers;
+    private final char[] conversions;
+    private final int[] flags;
+    private final int[] widths;
+    private final int[] precisions;
+    private final boolean[] supported;
+
+    private StringFormatRenderer(final String pattern, final Locale locale, final int size) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.symbols = getSymbols(locale);
+        this.texts = new String[size + 1];
+        this.arguments = new int[size];
+        this.specifiers = new String[size];
+        this.conversions = new char[size];
+        this.flags = new int[size];
+        this.widths = new int[size];
+        this.precisions = new int[size];
+        this.supported = new boolean[size];
+    }
+
+    /**
+     * Compiles the given message.
+     *
+     * @param pattern   message formatted with <code>String.format()</code>
+     * @param locale    locale to format arguments with
+     * @return          compiled message
+     *
+     * @throws java.util.IllegalFormatException if the format is invalid
+     */
+    public static StringFormatRenderer compile(final String pattern, final Locale locale) {
+        final List<String> texts = new ArrayList<String>();
+        final List<String[]> specs = new ArrayList<String[]>();
+
+        final StringBuilder text = new StringBuilder();
+        final Matcher m = SPECIFIER.matcher(pattern);
+        int i = 0;
+        while (i < pattern.length()) {
+            final int start = (m.find(i) ? m.start() : pattern.length());
+            checkText(pattern, i, start);
+            text.append(pattern, i, start);
+            if (start == pattern.length()) {
+                break;
+            }
+
+            i = m.end();
+            final char c = m.group(6).charAt(0);
+            if (m.group(5) == null && (c == '%' || c == 'n')) {
+                // text conversions don't refer arguments
+                text.append(m.group().length() == 2 ? (c == '%' ? "%" : System.getProperty(
+                        "line.separator")) : String.format(locale, m.group()));
+                continue;
+            }
+
+            texts.add(text.toString());
+            text.setLength(0);
+
+            final String[] groups = new String[m.groupCount() + 1];
+            for (int g = 0; g < groups.length; g++) {
+                groups[g] = m.group(g);
+            }
+            specs.add(groups);
+        }
+
+        texts.add(text.toString());
+
+        final StringFormatRenderer result = new StringFormatRenderer(pattern, locale,
+                specs.size());
+        texts.toArray(result.texts);
+
+        int ordinary = -1;
+        int last = -1;
+        for (int e = 0; e < specs.size(); e++) {
+            final String[] spec = specs.get(e);
+            final String index = spec[1];
+            final String flags = (spec[2] != null ? spec[2] : "");
+
+            final int argument;
+            if (flags.indexOf('<') != -1) {
+                argument = last;
+            } else if (index != null && Integer.parseInt(index.substring(0,
+                    index.length() - 1)) > 0) {
+
+                argument = Integer.parseInt(index.substring(0, index.length() - 1)) - 1;
+            } else {
+                argument = ++ordinary;
+            }
+
+            if (argument < 0) {
+                throw new MissingFormatArgumentException(spec[0]);
+            }
+
+            last = argument;
+            result.compileSpecifier(e, argument, flags.replace("<", ""), spec[3], spec[4],
+                    spec[5], spec[6].charAt(0));
+            if (!result.supported[e]) {
+                result.checkSpecifier(e);
+            }
+        }
+
+        return result;
+    }
+
+    private static void checkText(final String pattern, final int start, final int end) {
+        final int i = pattern.indexOf('%', start);
+        if (i != -1 && i < end) {
+            throw new UnknownFormatConversionException(String.valueOf(
+                    i + 1 < pattern.length() ? pattern.charAt(i + 1) : '%'));
+        }
+    }
+
+    private void compileSpecifier(final int e, final int argument, final String flagChars,
+            final String width, final String precision, final String dateTime,
+            final char conversion) {
+
+        arguments[e] = argument;
+        specifiers[e] = "%" + flagChars + (width != null ? width : "")
+                + (precision != null ? precision : "") + (dateTime != null ? dateTime : "")
+                + conversion;
+        conversions[e] = conversion;
+        widths[e] = (width != null ? Integer.parseInt(width) : -1);
+        precisions[e] = (precision != null ? Integer.parseInt(precision.substring(1)) : -1);
+
+        int f = 0;
+        for (int i = 0; i < flagChars.length(); i++) {
+            final int flag = 1 << FLAGS.indexOf(flagChars.charAt(i));
+            if ((f & flag) != 0) {
+                // duplicate flags are reported by Formatter
+                return;
+            }
+
+            f |= flag;
+        }
+
+        flags[e] = f;
+        supported[e] = dateTime == null && isSupported(conversion, flagChars, f, widths[e],
+                precisions[e]);
+    }
+
+    /**
+     * Checks the specifier rendered by Formatter, so invalid conversions and flags are
+     * reported at compile time. Formatter parses the specifier before it reads the argument,
+     * the alternate form of strings is valid for <code>Formattable</code> arguments only.
+     */
+    private void checkSpecifier(final int e) {
+        try {
+            new Formatter(locale).format(specifiers[e], (Object) null);
+        } catch (FormatFlagsConversionMismatchException x) {
+            if (Character.toLowerCase(conversions[e]) != 's') {
+                throw x;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the specifier is valid and rendered directly, invalid ones are
+     * reported by Formatter.
+     */
+    private static boolean isSupported(final char conversion, final String flagChars,
+            final int f, final int width, final int precision) {
+
+        final boolean requiresWidth = (f & (LEFT_JUSTIFY | ZERO_PAD)) != 0;
+        if (requiresWidth && width == -1) {
+            return false;
+        }
+
+        switch (conversion) {
+        case 's':
+        case 'b':
+            return (f & ~LEFT_JUSTIFY) == 0;
+        case 'c':
+            return (f & ~LEFT_JUSTIFY) == 0 && precision == -1;
+        case 'd':
+        case 'f':
+            if (conversion == 'd' && precision != -1) {
+                return false;
+            }
+
+            return (flagChars.replaceAll("[" + NUMERIC_FLAGS + (conversion == 'f' ? "#" : "")
+                    + "]", "").isEmpty())
+                    && (f & (PLUS | LEADING_SPACE)) != (PLUS | LEADING_SPACE)
+                    && (f & (LEFT_JUSTIFY | ZERO_PAD)) != (LEFT_JUSTIFY | ZERO_PAD);
+        case 'o':
+        case 'x':
+        case 'X':
+            return (f & ~(LEFT_JUSTIFY | ALTERNATE | ZERO_PAD)) == 0 && precision == -1
+                    && (f & (LEFT_JUSTIFY | ZERO_PAD)) != (LEFT_JUSTIFY | ZERO_PAD);
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether this renderer is compiled from the given message, so it can be used
+     * instead of compiling the message again.
+     *
+     * @param pattern   message formatted with <code>String.format()</code>
+     * @param locale    locale to format arguments with
+     * @return          <code>true</code> if the message and locale are the same
+     */
+    public boolean isCompiled(final String pattern, final Locale locale) {
+        return (this.pattern == pattern || this.pattern.equals(pattern))
+                && this.locale.equals(locale);
+    }
+
+    /**
+     * Renders the message with the given arguments.
+     *
+     * @param sb        builder to append the message to
+     * @param args      arguments referred by format specifiers
+     * @return          the builder
+     *
+     * @throws java.util.IllegalFormatException if arguments don't match the format
+     */
+    public StringBuilder render(final StringBuilder sb, final Object... args) {
+        for (int i = 0; i < arguments.length; i++) {
+            sb.append(texts[i]);
+            if (args == null) {
+                append(sb, i, (Object) null);
+            } else if (arguments[i] < args.length) {
+                append(sb, i, args[arguments[i]]);
+            } else {
+                appendMissing(sb, i);
+            }
+        }
+
+        return sb.append(texts[arguments.length]);
+    }
+
+    /**
+     * Renders the message with the given arguments, the same as
+     * <code>String.format(locale, pattern, args)</code>.
+     *
+     * @param args      arguments referred by format specifiers
+     * @return          rendered message
+     */
+    public String format(final Object... args) {
+        return render(new StringBuilder(pattern.length() + 16 * arguments.length), args)
+                .toString();
+    }
+
+    /**
+     * Returns count of format specifiers, that refer arguments.
+     * @return count of format specifiers
+     */
+    public int size() {
+        return arguments.length;
+    }
+
+    /**
+     * Returns index of the argument referred by the given specifier.
+     *
+     * @param element   specifier index
+     * @return          argument index
+     */
+    public int getArgument(final int element) {
+        return arguments[element];
+    }
+
+    /**
+     * Appends the text part, that precedes the given specifier.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index, or {@link #size()} for the last text part
+     * @return          the builder
+     */
+    public StringBuilder appendText(final StringBuilder sb, final int element) {
+        return sb.append(texts[element]);
+    }
+
+    /**
+     * Fails for the given specifier, that refers argument not passed.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index
+     *
+     * @throws MissingFormatArgumentException always
+     */
+    public void appendMissing(final StringBuilder sb, final int element) {
+        throw new MissingFormatArgumentException(specifiers[element]);
+    }
+
+    /**
+     * Appends the given specifier formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final Object value) {
+        if (supported[element]) {
+            switch (conversions[element]) {
+            case 's':
+                if (!(value instanceof Formattable)) {
+                    appendString(sb, element, String.valueOf(value));
+                    return;
+                }
+                break;
+            case 'b':
+                appendString(sb, element, String.valueOf(value != null
+                        && (!(value instanceof Boolean) || (Boolean) value)));
+                return;
+            case 'c':
+                if (value instanceof Character) {
+                    append(sb, element, ((Character) value).charValue());
+                    return;
+                }
+                break;
+            case 'd':
+                if (value instanceof Long || value instanceof Integer
+                        || value instanceof Short || value instanceof Byte) {
+
+                    appendDecimal(sb, element, ((Number) value).longValue());
+                    return;
+                }
+                break;
+            case 'f':
+                if (value instanceof Double || value instanceof Float) {
+                    appendFloat(sb, element, ((Number) value).doubleValue());
+                    return;
+                }
+                break;
+            default:
+                // octal and hexadecimal forms depend on the size of the type
+                if (value instanceof Long) {
+                    appendUnsigned(sb, element, (Long) value);
+                    return;
+                } else if (value instanceof Integer) {
+                    appendUnsigned(sb, element, (Integer) value & 0xffffffffL);
+                    return;
+                }
+                break;
+            }
+        }
+
+        appendFormatted(sb, element, value);
+    }
+
+    /**
+     * Appends the given specifier formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final long value) {
+        if (!supported[element]) {
+            appendFormatted(sb, element, value);
+            return;
+        }
+
+        switch (conversions[element]) {
+        case 'd':
+            appendDecimal(sb, element, value);
+            break;
+        case 'o':
+        case 'x':
+        case 'X':
+            appendUnsigned(sb, element, value);
+            break;
+        case 's':
+            appendString(sb, element, String.valueOf(value));
+            break;
+        default:
+            append(sb, element, (Object) value);
+            break;
+        }
+    }
+
+    /**
+     * Appends the given specifier formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final double value) {
+        if (supported[element] && conversions[element] == 'f') {
+            appendFloat(sb, element, value);
+        } else if (supported[element] && conversions[element] == 's') {
+            appendString(sb, element, String.valueOf(value));
+        } else {
+            append(sb, element, (Object) value);
+        }
+    }
+
+    /**
+     * Appends the given specifier formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final boolean value) {
+        if (supported[element] && (conversions[element] == 'b'
+                || conversions[element] == 's')) {
+
+            appendString(sb, element, String.valueOf(value));
+        } else {
+            append(sb, element, (Object) value);
+        }
+    }
+
+    /**
+     * Appends the given specifier formatted with the given argument.
+     *
+     * @param sb        builder to append to
+     * @param element   specifier index
+     * @param value     argument value
+     */
+    public void append(final StringBuilder sb, final int element, final char value) {
+        if (supported[element] && conversions[element] == 's') {
+            appendString(sb, element, String.valueOf(value));
+        } else if (supported[element] && conversions[element] == 'c') {
+            final int start = sb.length();
+            sb.append(value);
+            justify(sb, element, start);
+        } else {
+            append(sb, element, (Object) value);
+        }
+    }
+
+    private void appendFormatted(final StringBuilder sb, final int element,
+            final Object value) {
+
+        new Formatter(sb, locale).format(specifiers[element], value);
+    }
+
+    private void appendString(final StringBuilder sb, final int element, final String s) {
+        final int start = sb.length();
+        final int precision = precisions[element];
+        sb.append(s, 0, (precision != -1 && precision < s.length() ? precision : s.length()));
+        justify(sb, element, start);
+    }
+
+    /**
+     * Appends integer the same way as <code>Formatter</code> does for <code>%d</code>.
+     */
+    private void appendDecimal(final StringBuilder sb, final int element, final long value) {
+        final int start = sb.length();
+        final int f = flags[element];
+        final boolean neg = value < 0;
+
+        final String digits = Long.toString(value);
+        leadingSign(sb, f, neg);
+        localizedMagnitude(sb, digits, (neg ? 1 : 0), f, adjustWidth(element, neg), start);
+        trailingSign(sb, f, neg);
+        justify(sb, element, start);
+    }
+
+    /**
+     * Appends decimal float the same way as <code>Formatter</code> does for
+     * <code>%f</code>: digits of <code>Double.toString()</code> are rounded half up.
+     *
+     * <p/>Values, that are below <code>2^43</code> after scaling by precision and are not
+     * close to half, are rounded in <code>double</code> and rendered without allocation:
+     * the scaled value differs from scaled <code>Double.toString()</code> digits by a few
+     * ulps, so both round the same way. Other values allocate a string and
+     * <code>BigDecimal</code>.
+     */
+    private void appendFloat(final StringBuilder sb, final int element, final double value) {
+        final int start = sb.length();
+        final int f = flags[element];
+        if (Double.isNaN(value)) {
+            sb.append("NaN");
+            justify(sb, element, start);
+            return;
+        }
+
+        final boolean neg = Double.compare(value, 0.0) == -1;
+        final double v = Math.abs(value);
+        leadingSign(sb, f, neg);
+        if (Double.isInfinite(v)) {
+            sb.append("Infinity");
+        } else {
+            final int precision = (precisions[element] == -1 ? 6 : precisions[element]);
+            final double scaled = (precision < POWERS.length ? v * POWERS[precision] : -1);
+            final double fraction = scaled - Math.floor(scaled);
+            if (scaled >= 0 && scaled < MAX_SCALED
+                    && Math.abs(fraction - 0.5) > HALF_MARGIN) {
+
+                final long unscaled = (long) scaled + (fraction > 0.5 ? 1 : 0);
+                localizedMagnitude(sb, unscaled, precision, f, adjustWidth(element, neg),
+                        start);
+            } else {
+                String digits = new BigDecimal(Double.toString(v))
+                        .setScale(precision, RoundingMode.HALF_UP).toPlainString();
+                if (precision == 0 && (f & ALTERNATE) != 0) {
+                    digits += ".";
+                }
+
+                localizedMagnitude(sb, digits, 0, f, adjustWidth(element, neg), start);
+            }
+        }
+
+        trailingSign(sb, f, neg);
+        justify(sb, element, start);
+    }
+
+    /**
+     * Appends octal or hexadecimal integer, negative ints are passed as unsigned.
+     */
+    private void appendUnsigned(final StringBuilder sb, final int element, final long value) {
+        final int start = sb.length();
+        final int f = flags[element];
+        final char c = conversions[element];
+
+        String s = (c == 'o' ? Long.toOctalString(value) : Long.toHexString(value));
+        if ((f & ALTERNATE) != 0) {
+            sb.append(c == 'o' ? "0" : (c == 'X' ? "0X" : "0x"));
+        }
+
+        if ((f & ZERO_PAD) != 0) {
+            for (int i = sb.length() - start + s.length(); i < widths[element]; i++) {
+                sb.append('0');
+            }
+        }
+
+        sb.append(c == 'X' ? s.toUpperCase(Locale.ROOT) : s);
+        justify(sb, element, start);
+    }
+
+    private void leadingSign(final StringBuilder sb, final int f, final boolean neg) {
+        if (!neg) {
+            if ((f & PLUS) != 0) {
+                sb.append('+');
+            } else if ((f & LEADING_SPACE) != 0) {
+                sb.append(' ');
+            }
+        } else if ((f & PARENTHESES) != 0) {
+            sb.append('(');
+        } else {
+            sb.append(symbols.minus);
+        }
+    }
+
+    private static void trailingSign(final StringBuilder sb, final int f, final boolean neg) {
+        if (neg && (f & PARENTHESES) != 0) {
+            sb.append(')');
+        }
+    }
+
+    private int adjustWidth(final int element, final boolean neg) {
+        final int width = widths[element];
+        return (width != -1 && neg && (flags[element] & PARENTHESES) != 0 ? width - 1 : width);
+    }
+
+    /**
+     * Appends localized digits of the given number starting from the given offset, with
+     * grouping and zero padding, the same way as <code>Formatter</code> does.
+     */
+    private void localizedMagnitude(final StringBuilder sb, final String value,
+            final int offset, final int f, final int width, final int start) {
+
+        final int begin = sb.length();
+        final char zero = symbols.zero;
+        final int len = value.length();
+        int dot = value.indexOf('.', offset);
+        if (dot == -1) {
+            dot = len;
+        }
+
+        char grpSep = ((f & GROUP) != 0 ? symbols.groupingSeparator : '\0');
+        for (int j = offset; j < len; j++) {
+            if (j == dot) {
+                sb.append(symbols.decimalSeparator);
+                grpSep = '\0';
+                continue;
+            }
+
+            sb.append((char) (value.charAt(j) - '0' + zero));
+            if (grpSep != '\0' && j != dot - 1 && (dot - j) % symbols.groupingSize == 1) {
+                sb.append(grpSep);
+            }
+        }
+
+        zeroPad(sb, f, width, start, begin);
+    }
+
+    /**
+     * Appends localized digits of the given unscaled decimal, with <code>scale</code>
+     * digits after decimal separator, the same way as the string one.
+     */
+    private void localizedMagnitude(final StringBuilder sb, final long value,
+            final int scale, final int f, final int width, final int start) {
+
+        final int begin = sb.length();
+        final char zero = symbols.zero;
+        int len = scale + 1;
+        while (len < POWERS.length && value >= POWERS[len]) {
+            len++;
+        }
+
+        final int dot = len - scale;
+        char grpSep = ((f & GROUP) != 0 ? symbols.groupingSeparator : '\0');
+        for (int j = 0; j < len; j++) {
+            if (j == dot) {
+                sb.append(symbols.decimalSeparator);
+                grpSep = '\0';
+            }
+
+            sb.append((char) (value / POWERS[len - 1 - j] % 10 + zero));
+            if (grpSep != '\0' && j != dot - 1 && (dot - j) % symbols.groupingSize == 1) {
+                sb.append(grpSep);
+            }
+        }
+
+        if (scale == 0 && (f & ALTERNATE) != 0) {
+            sb.append(symbols.decimalSeparator);
+        }
+
+        zeroPad(sb, f, width, start, begin);
+    }
+
+    private void zeroPad(final StringBuilder sb, final int f, final int width,
+            final int start, final int begin) {
+
+        if (width != -1 && (f & ZERO_PAD) != 0) {
+            final int pad = width - (sb.length() - start);
+            for (int k = 0; k < pad; k++) {
+                sb.insert(begin, symbols.zero);
+            }
+        }
+    }
+
+    /**
+     * Pads the element appended from the given start with spaces up to its width.
+     */
+    private void justify(final StringBuilder sb, final int element, final int start) {
+        final int pad = widths[element] - (sb.length() - start);
+        if (pad <= 0) {
+            return;
+        }
+
+        if ((flags[element] & LEFT_JUSTIFY) != 0) {
+            for (int i = 0; i < pad; i++) {
+                sb.append(' ');
+            }
+        } else {
+            final char[] spaces = new char[pad];
+            Arrays.fill(spaces, ' ');
+            sb.insert(start, spaces);
+        }
+    }
+
+    private static Symbols getSymbols(final Locale locale) {
+        Symbols symbols = SYMBOLS.get(locale);
+        if (symbols == null) {
+            symbols = new Symbols(locale);
+            SYMBOLS.put(locale, symbols);
+        }
+
+        return symbols;
+    }
+
+    /**
+     * Localized symbols of numbers, taken from output of <code>Formatter</code> itself,
+     * since they differ between Java versions.
+     */
+    private static final class Symbols {
+
+        final char zero;
+        final String minus;
+        final char decimalSeparator;
+        final char groupingSeparator;
+        final int groupingSize;
+
+        Symbols(final Locale locale) {
+            zero = String.format(locale, "%d", 0L).charAt(0);
+
+            final String negative = String.format(locale, "%d", -1L);
+            minus = negative.substring(0, negative.length() - 1);
+
+            decimalSeparator = String.format(locale, "%.1f", 0.5).charAt(1);
+
+            final String grouped = String.format(locale, "%,d", 1234567890123L);
+            int separator = -1;
+            for (int i = 0; i < grouped.length(); i++) {
+                final int digit = grouped.charAt(i) - zero;
+                if (digit < 0 || digit > 9) {
+                    separator = i;
+                }
+            }
+
+            groupingSeparator = (separator != -1 ? grouped.charAt(separator) : '\0');
+            groupingSize = (separator != -1 ? grouped.length() - separator - 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.googlecode.i18n.util;
+
+import java.util.MissingResourceException;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+public class ArrayResourceBundleTest {
+
+    private static final String[] KEYS = {"a", "b.key", "c", "long.message.key"};
+    private static final String[] VALUES = {"1", "2", "3", "4"};
+
+    @Test
+    public void shouldLookupSortedMessages() {
+        //given
+        final ArrayResourceBundle bundle = new TestBundle(KEYS, VALUES);
+
+        //then
+        assertMessages(bundle, KEYS, VALUES);
+    }
+
+    @Test
+    public void shouldLookupMessagesByPerfectHash() {
+        //given
+        final PerfectHash hash = PerfectHash.build(KEYS);
+        final String[] keys = new String[KEYS.length];
+        final String[] values = new String[KEYS.length];
+        for (int i = 0; i < KEYS.length; i++) {
+            keys[hash.indexOf(KEYS[i])] = KEYS[i];
+            values[hash.indexOf(KEYS[i])] = VALUES[i];
+        }
+
+        //when
+        final ArrayResourceBundle bundle = new TestBundle(keys, values,
+                hash.getDisplacements());
+
+        //then
+        assertMessages(bundle, keys, values);
+    }
+
+    @Test(expected = MissingResourceException.class)
+    public void shouldFailForMissingMessage() {
+        new TestBundle(KEYS, VALUES).getObject("unknown");
+    }
+
+    @Test
+    public void shouldCacheKeySet() {
+        //given
+        final ArrayResourceBundle bundle = new TestBundle(KEYS, VALUES);
+
+        //then
+        assertThat(bundle.handleKeySet().size(), is(KEYS.length));
+        assertThat(bundle.handleKeySet(), sameInstance(bundle.handleKeySet()));
+    }
+
+    private static void assertMessages(final ArrayResourceBundle bundle, final String[] keys,
+            final String[] values) {
+
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(bundle.getObject(keys[i]), is((Object) values[i]));
+        }
+
+        // misses are checked by the function, not by key set
+        for (final String key : new String[] {"", "a.", "b", "unknown", "long.message.kez"}) {
+            assertThat(bundle.handleGetObject(key), nullValue());
+        }
+    }
+
+    private static final class TestBundle extends ArrayResourceBundle {
+
+        TestBundle(final String[] keys, final String[] values) {
+            super(keys, values);
+        }
+
+        TestBundle(final String[] keys, final String[] values, final int[] displacements) {
+            super(keys, values, displacements);
+        }
+    }
+}
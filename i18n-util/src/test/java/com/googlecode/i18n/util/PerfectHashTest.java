@@ -0,0 +1,43 @@
+package com.googlecode.i18n.util;
+
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PerfectHashTest {
+
+    @Test
+    public void shouldMapKeysToDistinctIndexes() {
+        //given
+        final String[] keys = new String[10000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "key." + i;
+        }
+
+        //when
+        final PerfectHash hash = PerfectHash.build(keys);
+
+        //then
+        final PerfectHash loaded = new PerfectHash(hash.getDisplacements());
+        final boolean[] used = new boolean[keys.length];
+        for (final String key : keys) {
+            final int i = loaded.indexOf(key);
+            assertThat(used[i], is(false));
+            used[i] = true;
+        }
+
+        final int i = loaded.indexOf("unknown");
+        assertThat(i >= 0 && i < keys.length, is(true));
+    }
+
+    @Test
+    public void shouldMapNoKeys() {
+        assertThat(PerfectHash.build(new String[0]).indexOf("key"), is(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForSameHashCodes() {
+        // "Aa" and "BB" have the same hash code
+        PerfectHash.build(new String[] {"Aa", "BB"});
+    }
+}
@@ -0,0 +1,186 @@
+package com.googlecode.i18n.util;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.DuplicateFormatFlagsException;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.Random;
+import java.util.UnknownFormatConversionException;
+import org.junit.Test;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class StringFormatRendererTest {
+
+    private static final Locale[] LOCALES = {Locale.US, Locale.GERMANY, Locale.FRANCE,
+            new Locale("ru"), new Locale("de", "CH"), new Locale("ar", "EG"),
+            new Locale("th", "TH", "TH")};
+
+    private static final String[] PATTERNS = {
+            "%s|%10s|%-10s|%.2s|%b|%5b|%c|%-3c|%%|%n",
+            "%d|%,d|%+d|% d|%(d|%010d|%-10d|%+,015d|%(,12d",
+            "%x|%X|%#x|%08x|%-#10X|%o|%#o|%012o",
+            "%f|%.2f|%.0f|%#.0f|%,.3f|%+.1f|%(.2f|%012.3f|%-12.1f|% .4f",
+            "%e|%.3g|%a|%S|%B|%h|%tY",
+            "%2$s %1$s %<s %s"};
+
+    private static final Object[][] ARGUMENTS = {
+            {"text", null, 'c', 1234567L, 12.5},
+            {0L, -1L, 42, Long.MIN_VALUE, Integer.MIN_VALUE, (short) -5, (byte) 7},
+            {0.0, -0.0, 0.125, 0.15, 2.5, -1234567.891, 1e20, 1e-10, 123456789.987654321,
+                    Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.1f},
+            {true, false, new Date(0)}};
+
+    @Test
+    public void shouldRenderSameAsStringFormat() {
+        for (final Locale locale : LOCALES) {
+            for (final String pattern : PATTERNS) {
+                //given
+                final StringFormatRenderer renderer = StringFormatRenderer.compile(pattern,
+                        locale);
+
+                for (final Object[] values : ARGUMENTS) {
+                    for (final Object value : values) {
+                        final Object[] args = new Object[20];
+                        Arrays.fill(args, value);
+                        if (!isValid(locale, pattern, args)) {
+                            continue;
+                        }
+
+                        //when
+                        final String result = renderer.format(args);
+
+                        //then
+                        assertThat(locale + " " + pattern + " " + value, result,
+                                is(String.format(locale, pattern, args)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldRenderPrimitivesSameAsStringFormat() {
+        //given
+        final Locale locale = Locale.GERMANY;
+        final StringFormatRenderer renderer = StringFormatRenderer.compile(
+                "%,d %08X %.3f %s %b %c", locale);
+
+        //when
+        final StringBuilder sb = new StringBuilder();
+        renderer.appendText(sb, 0);
+        renderer.append(sb, 0, -9876543210L);
+        renderer.appendText(sb, 1);
+        renderer.append(sb, 1, 48879L);
+        renderer.appendText(sb, 2);
+        renderer.append(sb, 2, 2.0005);
+        renderer.appendText(sb, 3);
+        renderer.append(sb, 3, 1.5);
+        renderer.appendText(sb, 4);
+        renderer.append(sb, 4, true);
+        renderer.appendText(sb, 5);
+        renderer.append(sb, 5, 'z');
+        renderer.appendText(sb, 6);
+
+        //then
+        assertThat(sb.toString(), is(String.format(locale, "%,d %08X %.3f %s %b %c",
+                -9876543210L, 48879L, 2.0005, 1.5, true, 'z')));
+    }
+
+    @Test
+    public void shouldRoundFloatsSameAsStringFormat() {
+        //given
+        final Random random = new Random(1);
+        final double[] values = {1.005, 2.675, 0.125, 0.5, 1.5, 9.9999995, 1e-7, 4.35,
+                8796093022207.5, 8796093022208.5, 123456.7895, 0.1 + 0.2};
+
+        for (int i = 0; i < 20000; i++) {
+            final int precision = random.nextInt(18);
+            final double value = (i < values.length * 18 ? values[i / 18] * (i % 2 == 0 ? 1 : -1)
+                    : (random.nextInt(1000) + random.nextDouble())
+                            * Math.pow(10, random.nextInt(20) - 10));
+
+            final String pattern = "%" + (i % 3 == 0 ? "," : "") + "." + precision + "f";
+            final StringFormatRenderer renderer = StringFormatRenderer.compile(pattern,
+                    Locale.GERMANY);
+
+            //when
+            final StringBuilder sb = new StringBuilder();
+            renderer.append(sb, 0, value);
+
+            //then
+            assertThat(pattern + " " + value, sb.toString(),
+                    is(String.format(Locale.GERMANY, pattern, value)));
+        }
+    }
+
+    @Test
+    public void shouldReuseBuilder() {
+        //given
+        final StringFormatRenderer renderer = StringFormatRenderer.compile("[%s=%d]",
+                Locale.US);
+        final StringBuilder sb = new StringBuilder();
+
+        //when
+        renderer.render(sb, "a", 1);
+        renderer.render(sb, "b", 2);
+
+        //then
+        assertThat(sb.toString(), is("[a=1][b=2]"));
+        assertThat(renderer.isCompiled("[%s=%d]", Locale.US), is(true));
+    }
+
+    @Test(expected = MissingFormatArgumentException.class)
+    public void shouldFailForMissingArgument() {
+        StringFormatRenderer.compile("%s %s", Locale.US).format("a");
+    }
+
+    @Test
+    public void shouldApplyPrecisionToChars() {
+        //given
+        final StringFormatRenderer renderer = StringFormatRenderer.compile("[%.0s|%-3.1s]",
+                Locale.US);
+
+        //when
+        final StringBuilder sb = new StringBuilder();
+        renderer.appendText(sb, 0);
+        renderer.append(sb, 0, 'a');
+        renderer.appendText(sb, 1);
+        renderer.append(sb, 1, 'b');
+        renderer.appendText(sb, 2);
+
+        //then
+        assertThat(sb.toString(), is(String.format("[%.0s|%-3.1s]", 'a', 'b')));
+    }
+
+    @Test(expected = UnknownFormatConversionException.class)
+    public void shouldFailForUnknownConversion() {
+        StringFormatRenderer.compile("%s %q", Locale.US);
+    }
+
+    @Test(expected = DuplicateFormatFlagsException.class)
+    public void shouldFailForDuplicateFlags() {
+        StringFormatRenderer.compile("%--5d", Locale.US);
+    }
+
+    @Test
+    public void shouldAcceptAlternateStrings() {
+        //when
+        final StringFormatRenderer renderer = StringFormatRenderer.compile("%#s", Locale.US);
+
+        //then
+        assertThat(renderer.isCompiled("%#s", Locale.US), is(true));
+    }
+
+    private static boolean isValid(final Locale locale, final String pattern,
+            final Object[] args) {
+
+        try {
+            String.format(locale, pattern, args);
+            return true;
+        } catch (IllegalArgumentException x) {
+            return false;
+        }
+    }
+}